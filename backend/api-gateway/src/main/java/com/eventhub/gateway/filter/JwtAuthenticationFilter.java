@@ -33,38 +33,60 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
             "/actuator"
     );
 
+    // Under an open prefix but never anonymous
+    private static final List<String> PROTECTED_ENDPOINTS = List.of(
+            "/api/v1/events/search/reindex"
+    );
+
+    private static final List<String> IDENTITY_HEADERS = List.of("X-User-Id", "X-User-Email", "X-User-Role");
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
         String path = request.getURI().getPath();
 
-        // Skip authentication for open endpoints
+        // Identity headers only ever come from a verified token, never from the client
+        ServerHttpRequest.Builder stripped = request.mutate()
+                .headers(headers -> IDENTITY_HEADERS.forEach(headers::remove));
+
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        boolean hasToken = authHeader != null && authHeader.startsWith("Bearer ");
+
+        // Open endpoints are served anonymously, but identify the caller when a valid token is sent
         if (isOpenEndpoint(path)) {
-            return chain.filter(exchange);
+            Claims claims = hasToken ? tryValidate(authHeader.substring(7)) : null;
+            ServerHttpRequest forwarded = claims != null ? withIdentity(stripped, claims) : stripped.build();
+            return chain.filter(exchange.mutate().request(forwarded).build());
         }
 
-        // Check for Authorization header
-        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (!hasToken) {
             exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
             return exchange.getResponse().setComplete();
         }
 
-        String token = authHeader.substring(7);
-        try {
-            Claims claims = validateToken(token);
+        Claims claims = tryValidate(authHeader.substring(7));
+        if (claims == null) {
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            return exchange.getResponse().setComplete();
+        }
+
+        // Forward user information to downstream services
+        return chain.filter(exchange.mutate().request(withIdentity(stripped, claims)).build());
+    }
 
-            // Forward user information to downstream services
-            ServerHttpRequest mutatedRequest = request.mutate()
-                    .header("X-User-Id", claims.getSubject())
-                    .header("X-User-Email", claims.get("email", String.class))
-                    .header("X-User-Role", claims.get("role", String.class))
-                    .build();
+    private ServerHttpRequest withIdentity(ServerHttpRequest.Builder request, Claims claims) {
+        return request
+                .header("X-User-Id", claims.getSubject())
+                .header("X-User-Email", claims.get("email", String.class))
+                .header("X-User-Role", claims.get("role", String.class))
+                .build();
+    }
 
-            return chain.filter(exchange.mutate().request(mutatedRequest).build());
+    private Claims tryValidate(String token) {
+        try {
+            return validateToken(token);
         } catch (Exception e) {
-            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
-            return exchange.getResponse().setComplete();
+            return null;
         }
     }
 
@@ -78,7 +100,8 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
     }
 
     private boolean isOpenEndpoint(String path) {
-        return OPEN_ENDPOINTS.stream().anyMatch(path::startsWith);
+        return PROTECTED_ENDPOINTS.stream().noneMatch(path::startsWith)
+                && OPEN_ENDPOINTS.stream().anyMatch(path::startsWith);
     }
 
     @Override
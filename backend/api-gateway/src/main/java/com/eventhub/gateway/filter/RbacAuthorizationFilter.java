@@ -25,9 +25,13 @@ public class RbacAuthorizationFilter implements GlobalFilter, Ordered {
     // Maps path prefixes to minimum required roles
     private static final List<RoleRule> ROLE_RULES = List.of(
             // Admin-only endpoints
+            new RoleRule("GET", "/api/v1/admin/", List.of("ADMIN")),
             new RoleRule("POST", "/api/v1/admin/", List.of("ADMIN")),
             new RoleRule("DELETE", "/api/v1/admin/", List.of("ADMIN")),
 
+            // Search reindex rebuilds the whole index — admin only
+            new RoleRule("POST", "/api/v1/events/search/reindex", List.of("ADMIN")),
+
             // Organizer endpoints — create/update/delete events, venues, layouts, sessions
             new RoleRule("POST", "/api/v1/events", List.of("ORGANIZER", "ADMIN")),
             new RoleRule("PUT", "/api/v1/events/", List.of("ORGANIZER", "ADMIN")),
@@ -36,6 +40,13 @@ public class RbacAuthorizationFilter implements GlobalFilter, Ordered {
             new RoleRule("PUT", "/api/v1/venues/", List.of("ORGANIZER", "ADMIN")),
             new RoleRule("DELETE", "/api/v1/venues/", List.of("ORGANIZER", "ADMIN")),
 
+            // Group bookings bypass the per-user seat cap — organizer and admin only
+            new RoleRule("POST", "/api/v1/bookings/bulk", List.of("ORGANIZER", "ADMIN")),
+
+            // Settlement runs and rollup rebuilds cover every organizer — admin only
+            new RoleRule("POST", "/api/v1/finance/settlements/run", List.of("ADMIN")),
+            new RoleRule("POST", "/api/v1/finance/rollups/", List.of("ADMIN")),
+
             // Finance endpoints — organizer and admin only
             new RoleRule("GET", "/api/v1/finance/", List.of("ORGANIZER", "ADMIN")),
             new RoleRule("POST", "/api/v1/finance/", List.of("ORGANIZER", "ADMIN")),
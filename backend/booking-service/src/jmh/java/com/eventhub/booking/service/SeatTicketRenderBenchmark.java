@@ -0,0 +1,62 @@
+package com.eventhub.booking.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Per-seat ticket rendering for group bookings on the bounded render pool, at the pool sizes
+ * worth comparing. One invocation renders a whole block, as SeatTicketTimerHandler does.
+ *
+ * Run with:
+ *   mvn -Pbenchmarks test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.eventhub.booking.service.SeatTicketRenderBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeatTicketRenderBenchmark {
+
+    @Param({"200", "2000"})
+    private int seats;
+
+    @Param({"1", "2", "4"})
+    private int renderThreads;
+
+    private QrCodeService qrCodeService;
+    private List<UUID> seatIds;
+    private final UUID bookingId = UUID.randomUUID();
+    private final UUID eventId = UUID.randomUUID();
+
+    @Setup
+    public void setUp() {
+        qrCodeService = new QrCodeService(renderThreads);
+        seatIds = IntStream.range(0, seats).mapToObj(i -> UUID.randomUUID()).toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        qrCodeService.shutdown();
+    }
+
+    @Benchmark
+    public Map<UUID, String> renderBlock() {
+        return qrCodeService.generateSeatQrCodes(bookingId, eventId, seatIds);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SeatTicketRenderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
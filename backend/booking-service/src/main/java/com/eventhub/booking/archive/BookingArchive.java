@@ -0,0 +1,38 @@
+package com.eventhub.booking.archive;
+
+import com.eventhub.booking.entity.ArchivedBooking;
+import com.eventhub.booking.entity.Booking;
+import com.eventhub.booking.repository.ArchivedBookingRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Fallback reads against the cold tier, for lookups that miss the hot {@code bookings} table.
+ * Returned bookings are detached copies; the saga never operates on archived bookings.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingArchive {
+
+    private final ArchivedBookingRepository archivedBookingRepository;
+
+    @Transactional(readOnly = true)
+    public Optional<Booking> findById(UUID bookingId) {
+        return archivedBookingRepository.findById(bookingId).map(ArchivedBooking::toBooking);
+    }
+
+    /** Keeps idempotency keys of archived bookings from being reused for a new booking. */
+    @Transactional(readOnly = true)
+    public Optional<Booking> findByIdempotencyKey(String idempotencyKey) {
+        return archivedBookingRepository.findByIdempotencyKey(idempotencyKey).map(ArchivedBooking::toBooking);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<String> findQrCode(UUID bookingId, UUID userId) {
+        return archivedBookingRepository.findQrCodeByIdAndUserId(bookingId, userId);
+    }
+}
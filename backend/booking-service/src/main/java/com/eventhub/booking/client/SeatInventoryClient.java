@@ -0,0 +1,169 @@
+package com.eventhub.booking.client;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Direct service-to-service client for seat-inventory's internal API.
+ *
+ * Calls bypass the API gateway (no JWT validation or rate limiting hop) and reuse pooled
+ * keep-alive HTTP/1.1 connections. Guarded by the {@code seatService} circuit breaker;
+ * business rejections (409/400) are surfaced as IllegalStateException / IllegalArgumentException
+ * and are not counted as failures.
+ */
+@Component
+@Slf4j
+public class SeatInventoryClient {
+
+    private final RestClient restClient;
+    private final RestClient bulkRestClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Timer lockTimer;
+    private final Timer bulkLockTimer;
+
+    public SeatInventoryClient(
+            RestClient.Builder restClientBuilder,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${booking.seat-inventory.base-url:http://localhost:8084}") String baseUrl,
+            @Value("${booking.seat-inventory.connect-timeout-ms:500}") long connectTimeoutMs,
+            @Value("${booking.seat-inventory.read-timeout-ms:2000}") long readTimeoutMs,
+            @Value("${booking.seat-inventory.bulk-read-timeout-ms:10000}") long bulkReadTimeoutMs) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+
+        this.restClient = restClientBuilder.clone()
+                .baseUrl(baseUrl)
+                .requestFactory(requestFactory(httpClient, readTimeoutMs))
+                .build();
+        // Block locks touch thousands of keys and rows; same connection pool, longer deadline
+        this.bulkRestClient = restClientBuilder.clone()
+                .baseUrl(baseUrl)
+                .requestFactory(requestFactory(httpClient, bulkReadTimeoutMs))
+                .build();
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("seatService");
+        this.lockTimer = Timer.builder("booking.checkout.seat.lock")
+                .description("Latency of the internal seat-inventory lock call")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.bulkLockTimer = Timer.builder("booking.bulk.seat.lock")
+                .description("Latency of the internal seat-inventory block lock call")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Lock the seats for the user and return their authoritative details.
+     *
+     * @throws IllegalStateException    if a seat is taken or seat-inventory is unavailable
+     * @throws IllegalArgumentException if a seat does not exist for the event
+     */
+    public SeatLock lockForCheckout(UUID eventId, List<UUID> seatIds, UUID userId) {
+        try {
+            return lockTimer.record(() -> circuitBreaker.executeSupplier(() -> call(() ->
+                    restClient.post()
+                            .uri("/internal/v1/seats/checkout-lock")
+                            .header("X-User-Id", userId.toString())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(Map.of("eventId", eventId, "seatIds", seatIds))
+                            .retrieve()
+                            .body(SeatLock.class))));
+        } catch (CallNotPermittedException e) {
+            throw new IllegalStateException("Seat inventory temporarily unavailable");
+        }
+    }
+
+    /**
+     * Lock as many of the seats as are still available for a group booking.
+     * Unavailable seats are reported in the response rather than failing the call.
+     *
+     * @throws IllegalStateException    if seat-inventory is unavailable
+     * @throws IllegalArgumentException if the block exceeds the allowed size
+     */
+    public BulkSeatLock lockBulk(UUID eventId, List<UUID> seatIds, UUID userId) {
+        try {
+            return bulkLockTimer.record(() -> circuitBreaker.executeSupplier(() -> call(() ->
+                    bulkRestClient.post()
+                            .uri("/internal/v1/seats/bulk-lock")
+                            .header("X-User-Id", userId.toString())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(Map.of("eventId", eventId, "seatIds", seatIds))
+                            .retrieve()
+                            .body(BulkSeatLock.class))));
+        } catch (CallNotPermittedException e) {
+            throw new IllegalStateException("Seat inventory temporarily unavailable");
+        }
+    }
+
+    private static JdkClientHttpRequestFactory requestFactory(HttpClient httpClient, long readTimeoutMs) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        return requestFactory;
+    }
+
+    private <T> T call(Supplier<T> request) {
+        try {
+            return request.get();
+        } catch (RestClientResponseException e) {
+            String message = errorMessage(e);
+            if (e.getStatusCode().isSameCodeAs(HttpStatus.CONFLICT)) {
+                throw new IllegalStateException(message);
+            }
+            if (e.getStatusCode().isSameCodeAs(HttpStatus.BAD_REQUEST)) {
+                throw new IllegalArgumentException(message);
+            }
+            throw e;
+        } catch (RestClientException e) {
+            log.warn("Seat inventory call failed: {}", e.getMessage());
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String errorMessage(RestClientResponseException e) {
+        try {
+            Map<String, Object> body = e.getResponseBodyAs(Map.class);
+            if (body != null && body.get("message") != null) {
+                return body.get("message").toString();
+            }
+        } catch (RuntimeException ignored) {
+            // fall through to the status text
+        }
+        return e.getStatusText();
+    }
+
+    // ─────────────────────────────────────────────
+    // Response types
+    // ─────────────────────────────────────────────
+
+    public record SeatLock(String lockId, Instant expiresAt, List<LockedSeat> seats) {}
+
+    public record BulkSeatLock(String lockId, Instant expiresAt, List<LockedSeat> seats,
+                               List<UUID> unavailableSeatIds) {}
+
+    public record LockedSeat(UUID seatId, String sectionName, String rowLabel, int seatNumber,
+                             BigDecimal price, String currency) {}
+}
@@ -0,0 +1,36 @@
+package com.eventhub.booking.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+/**
+ * Listener container factories for consumers that need more than the Boot default.
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    /**
+     * Batch listener for {@code payment-events}: records are fanned out per booking inside
+     * the listener and offsets are acknowledged manually once the whole batch has settled.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> paymentEventsContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            @Value("${booking.payment-events.concurrency:3}") int concurrency,
+            @Value("${booking.payment-events.max-poll-records:200}") int maxPollRecords) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        factory.getContainerProperties().getKafkaConsumerProperties()
+                .setProperty("max.poll.records", String.valueOf(maxPollRecords));
+        return factory;
+    }
+}
@@ -1,21 +1,30 @@
 package com.eventhub.booking.controller;
 
-import com.eventhub.booking.entity.BookedSeat;
+import com.eventhub.booking.archive.BookingArchive;
 import com.eventhub.booking.entity.Booking;
+import com.eventhub.booking.entity.UserBookingView;
+import com.eventhub.booking.query.BookingQueryService;
+import com.eventhub.booking.query.CursorPage;
 import com.eventhub.booking.repository.BookingRepository;
 import com.eventhub.booking.saga.BookingSagaOrchestrator;
+import com.eventhub.booking.service.CheckoutService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
@@ -28,44 +37,78 @@ public class BookingController {
 
     private final BookingSagaOrchestrator sagaOrchestrator;
     private final BookingRepository bookingRepository;
+    private final BookingArchive bookingArchive;
+    private final BookingQueryService bookingQueryService;
+    private final CheckoutService checkoutService;
 
     @PostMapping
     public ResponseEntity<Booking> createBooking(
             @Valid @RequestBody CreateBookingRequest request,
             @RequestHeader("X-User-Id") String userId) {
 
-        Booking booking = Booking.builder()
-                .eventId(request.getEventId())
-                .userId(UUID.fromString(userId))
-                .idempotencyKey(request.getIdempotencyKey())
-                .currency("USD")
-                .build();
-
-        // Add seats with pricing info
-        BigDecimal total = BigDecimal.ZERO;
-        if (request.getSeats() != null) {
-            for (SeatInfo seatInfo : request.getSeats()) {
-                BookedSeat bs = BookedSeat.builder()
-                        .seatId(seatInfo.getSeatId())
-                        .sectionName(seatInfo.getSectionName() != null ? seatInfo.getSectionName() : "")
-                        .rowLabel(seatInfo.getRowLabel() != null ? seatInfo.getRowLabel() : "")
-                        .seatNumber(seatInfo.getSeatNumber())
-                        .price(seatInfo.getPrice() != null ? seatInfo.getPrice() : BigDecimal.ZERO)
-                        .currency("USD")
-                        .build();
-                booking.addSeat(bs);
-                total = total.add(bs.getPrice());
-            }
-        }
-        booking.setTotalAmount(total);
-
-        Booking created = sagaOrchestrator.initiateBooking(booking);
+        // Seats are priced from seat-inventory; the client only names them
+        Booking created = checkoutService.createBooking(
+                UUID.fromString(userId),
+                request.getEventId(),
+                request.getIdempotencyKey(),
+                request.getSeats().stream().map(SeatInfo::getSeatId).toList()
+        );
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    /**
+     * One-call checkout: locks the seats, prices them from seat-inventory, creates the
+     * booking and initiates payment. Replaces the lock → create → pay round trips.
+     */
+    @PostMapping("/checkout")
+    public ResponseEntity<Booking> checkout(
+            @Valid @RequestBody CheckoutRequest request,
+            @RequestHeader("X-User-Id") String userId) {
+        Booking booking = checkoutService.checkout(
+                UUID.fromString(userId),
+                request.getEventId(),
+                request.getIdempotencyKey(),
+                request.getSeatIds(),
+                request.getGateway() != null ? request.getGateway() : "STRIPE",
+                request.getReturnUrl() != null ? request.getReturnUrl() : ""
+        );
+        return ResponseEntity.status(HttpStatus.CREATED).body(booking);
+    }
+
+    /**
+     * Group booking of up to 2,000 seats under one saga and one payment. Seats that are
+     * already taken are skipped as long as at least {@code minSeats} can be booked.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkBookingResponse> createBulkBooking(
+            @Valid @RequestBody BulkBookingRequest request,
+            @RequestHeader("X-User-Id") String userId) {
+        CheckoutService.BulkCheckout result = checkoutService.checkoutBulk(
+                UUID.fromString(userId),
+                request.getEventId(),
+                request.getIdempotencyKey(),
+                request.getSeatIds(),
+                request.getMinSeats() != null ? request.getMinSeats() : request.getSeatIds().size(),
+                request.getGateway() != null ? request.getGateway() : "STRIPE",
+                request.getReturnUrl() != null ? request.getReturnUrl() : ""
+        );
+        Booking booking = result.booking();
+        return ResponseEntity.status(HttpStatus.CREATED).body(new BulkBookingResponse(
+                booking.getId(),
+                booking.getStatus().name(),
+                booking.getSagaState().name(),
+                result.requestedSeats(),
+                booking.getSeats().size(),
+                result.unavailableSeatIds(),
+                booking.getTotalAmount(),
+                booking.getCurrency()
+        ));
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Booking> getBooking(@PathVariable UUID bookingId) {
         return bookingRepository.findById(bookingId)
+                .or(() -> bookingArchive.findById(bookingId))
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -80,6 +123,52 @@ public class BookingController {
         return ResponseEntity.ok(bookings);
     }
 
+    /**
+     * Slim, keyset-paginated listing of the caller's bookings served from the read model.
+     * Pass the returned {@code nextCursor} back as {@code cursor} to fetch the next page.
+     */
+    @GetMapping("/me/summaries")
+    public ResponseEntity<CursorPage<UserBookingView>> getMyBookingSummaries(
+            @RequestHeader("X-User-Id") String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(bookingQueryService.getUserBookings(UUID.fromString(userId), cursor, size));
+    }
+
+    /**
+     * Ticket QR code as a PNG. The image never changes once issued, so clients and
+     * intermediaries may cache it privately.
+     */
+    @GetMapping(value = "/{bookingId}/ticket", produces = MediaType.IMAGE_PNG_VALUE)
+    public ResponseEntity<byte[]> getTicketImage(
+            @PathVariable UUID bookingId,
+            @RequestHeader("X-User-Id") String userId) {
+        return bookingQueryService.getTicketImage(bookingId, UUID.fromString(userId))
+                .map(png -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.maxAge(Duration.ofDays(1)).cachePrivate().immutable())
+                        .eTag("\"" + bookingId + "\"")
+                        .contentType(MediaType.IMAGE_PNG)
+                        .body(png))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Individual seat ticket of a group booking, as a PNG.
+     */
+    @GetMapping(value = "/{bookingId}/seats/{seatId}/ticket", produces = MediaType.IMAGE_PNG_VALUE)
+    public ResponseEntity<byte[]> getSeatTicketImage(
+            @PathVariable UUID bookingId,
+            @PathVariable UUID seatId,
+            @RequestHeader("X-User-Id") String userId) {
+        return bookingQueryService.getSeatTicketImage(bookingId, seatId, UUID.fromString(userId))
+                .map(png -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.maxAge(Duration.ofDays(1)).cachePrivate().immutable())
+                        .eTag("\"" + bookingId + ":" + seatId + "\"")
+                        .contentType(MediaType.IMAGE_PNG)
+                        .body(png))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping("/{bookingId}/pay")
     public ResponseEntity<Map<String, String>> initiatePayment(
             @PathVariable UUID bookingId,
@@ -113,16 +202,31 @@ public class BookingController {
     public static class CreateBookingRequest {
         @NotNull private UUID eventId;
         @NotNull private String idempotencyKey;
-        @NotEmpty private List<SeatInfo> seats;
+        @NotEmpty @Valid private List<SeatInfo> seats;
     }
 
     @Data
     public static class SeatInfo {
         @NotNull private UUID seatId;
-        private String sectionName;
-        private String rowLabel;
-        private int seatNumber;
-        private BigDecimal price;
+    }
+
+    @Data
+    public static class CheckoutRequest {
+        @NotNull private UUID eventId;
+        @NotNull private String idempotencyKey;
+        @NotEmpty private List<UUID> seatIds;
+        private String gateway;
+        private String returnUrl;
+    }
+
+    @Data
+    public static class BulkBookingRequest {
+        @NotNull private UUID eventId;
+        @NotNull private String idempotencyKey;
+        @NotEmpty @Size(max = 2000) private List<UUID> seatIds;
+        @Positive private Integer minSeats;
+        private String gateway;
+        private String returnUrl;
     }
 
     @Data
@@ -131,6 +235,14 @@ public class BookingController {
         private String returnUrl;
     }
 
+    // ─────────────────────────────────────────────
+    // Response DTOs
+    // ─────────────────────────────────────────────
+
+    public record BulkBookingResponse(UUID bookingId, String status, String sagaState, int requestedSeats,
+                                      int bookedSeats, List<UUID> unavailableSeatIds,
+                                      BigDecimal totalAmount, String currency) {}
+
     // ─────────────────────────────────────────────
     // Exception handlers
     // ─────────────────────────────────────────────
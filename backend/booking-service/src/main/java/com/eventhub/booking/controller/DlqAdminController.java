@@ -0,0 +1,125 @@
+package com.eventhub.booking.controller;
+
+import com.eventhub.booking.entity.DlqMessage;
+import com.eventhub.booking.entity.DlqMessageStatus;
+import com.eventhub.booking.service.DlqMessageService;
+import com.eventhub.booking.service.DlqReplayService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Admin API for inspecting and bulk-replaying dead-lettered messages.
+ * Routed by the gateway under {@code /api/v1/admin/dlq/**} and restricted to ADMIN.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/dlq")
+@RequiredArgsConstructor
+public class DlqAdminController {
+
+    private final DlqMessageService dlqMessageService;
+    private final DlqReplayService dlqReplayService;
+
+    @GetMapping("/messages")
+    public ResponseEntity<Page<DlqMessage>> searchMessages(
+            @RequestParam(required = false) DlqMessageStatus status,
+            @RequestParam(required = false) String originalTopic,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(dlqMessageService.search(status, originalTopic, from, to, page, size));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Map<String, Long>>> getStats() {
+        return ResponseEntity.ok(dlqMessageService.stats());
+    }
+
+    @PostMapping("/messages/discard")
+    public ResponseEntity<Map<String, Integer>> discardMessages(@Valid @RequestBody DiscardRequest request) {
+        return ResponseEntity.ok(Map.of("discarded", dlqMessageService.discard(request.getIds())));
+    }
+
+    @PostMapping("/replay")
+    public ResponseEntity<Map<String, Object>> startReplay(@RequestBody ReplayJobRequest request) {
+        DlqReplayService.ReplayJob job = dlqReplayService.startReplay(new DlqReplayService.ReplayRequest(
+                request.getOriginalTopic(),
+                request.getFrom() != null ? request.getFrom() : Instant.EPOCH,
+                request.getTo() != null ? request.getTo() : Instant.now(),
+                request.getLimit() > 0 ? request.getLimit() : Long.MAX_VALUE,
+                request.getRatePerSecond(),
+                request.getConcurrency()
+        ));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.toProgress());
+    }
+
+    @GetMapping("/replay")
+    public ResponseEntity<List<Map<String, Object>>> getReplayJobs() {
+        return ResponseEntity.ok(dlqReplayService.getJobs().stream()
+                .map(DlqReplayService.ReplayJob::toProgress)
+                .toList());
+    }
+
+    @GetMapping("/replay/{jobId}")
+    public ResponseEntity<Map<String, Object>> getReplayJob(@PathVariable UUID jobId) {
+        return dlqReplayService.getJob(jobId)
+                .map(job -> ResponseEntity.ok(job.toProgress()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/replay/{jobId}/cancel")
+    public ResponseEntity<Void> cancelReplayJob(@PathVariable UUID jobId) {
+        return dlqReplayService.cancel(jobId)
+                ? ResponseEntity.accepted().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    // ─────────────────────────────────────────────
+    // Request DTOs
+    // ─────────────────────────────────────────────
+
+    @Data
+    public static class ReplayJobRequest {
+        private String originalTopic;
+        private Instant from;
+        private Instant to;
+        private long limit;
+        private int ratePerSecond = 200;
+        private int concurrency = 16;
+    }
+
+    @Data
+    public static class DiscardRequest {
+        @NotEmpty private List<UUID> ids;
+    }
+
+    // ─────────────────────────────────────────────
+    // Exception handlers
+    // ─────────────────────────────────────────────
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, Object>> handleConflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "status", 409, "message", e.getMessage(), "timestamp", Instant.now().toString()
+        ));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, Object>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of(
+                "status", 400, "message", e.getMessage(), "timestamp", Instant.now().toString()
+        ));
+    }
+}
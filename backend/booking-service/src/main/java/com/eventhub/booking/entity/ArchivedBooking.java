@@ -0,0 +1,130 @@
+package com.eventhub.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cold-tier copy of a finished booking. Rows are written only by
+ * {@link com.eventhub.booking.archive.BookingArchiver} and are read-only afterwards.
+ */
+@Entity
+@Immutable
+@Table(name = "bookings_archive")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class ArchivedBooking {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "event_id", nullable = false)
+    private UUID eventId;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "booking_type", nullable = false)
+    private BookingType bookingType;
+
+    @Column(name = "total_amount", nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(nullable = false)
+    private String currency;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    @Column(name = "payment_id")
+    private UUID paymentId;
+
+    @Column(name = "qr_code", columnDefinition = "TEXT")
+    private String qrCode;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "saga_state", nullable = false)
+    private SagaState sagaState;
+
+    @Column(name = "failure_reason", columnDefinition = "TEXT")
+    private String failureReason;
+
+    @Column(name = "confirmed_at")
+    private Instant confirmedAt;
+
+    @Column(name = "cancelled_at")
+    private Instant cancelledAt;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    @Builder.Default
+    private List<Seat> seats = new ArrayList<>();
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+    /**
+     * Rebuild a detached {@link Booking} so archived bookings can be served through the same
+     * API responses as live ones.
+     */
+    public Booking toBooking() {
+        Booking booking = Booking.builder()
+                .id(id)
+                .eventId(eventId)
+                .userId(userId)
+                .status(status)
+                .bookingType(bookingType)
+                .totalAmount(totalAmount)
+                .currency(currency)
+                .idempotencyKey(idempotencyKey)
+                .paymentId(paymentId)
+                .qrCode(qrCode)
+                .sagaState(sagaState)
+                .failureReason(failureReason)
+                .confirmedAt(confirmedAt)
+                .cancelledAt(cancelledAt)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+        for (Seat seat : seats) {
+            booking.addSeat(BookedSeat.builder()
+                    .seatId(seat.getSeatId())
+                    .sectionName(seat.getSectionName())
+                    .rowLabel(seat.getRowLabel())
+                    .seatNumber(seat.getSeatNumber())
+                    .price(seat.getPrice())
+                    .currency(seat.getCurrency())
+                    .build());
+        }
+        return booking;
+    }
+
+    /** Element of the {@code seats} JSONB array; keys match the archiver's jsonb_build_object. */
+    @Getter @Setter @NoArgsConstructor @AllArgsConstructor
+    public static class Seat {
+        private UUID seatId;
+        private String sectionName;
+        private String rowLabel;
+        private int seatNumber;
+        private BigDecimal price;
+        private String currency;
+    }
+}
@@ -1,5 +1,6 @@
 package com.eventhub.booking.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -15,6 +16,7 @@ public class BookedSeat {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booking_id", nullable = false)
     private Booking booking;
@@ -37,4 +39,9 @@ public class BookedSeat {
     @Column(nullable = false)
     @Builder.Default
     private String currency = "USD";
+
+    /** Per-seat ticket for group bookings; served as an image, never inlined in booking JSON. */
+    @JsonIgnore
+    @Column(name = "ticket_qr", columnDefinition = "TEXT")
+    private String ticketQr;
 }
@@ -39,6 +39,11 @@ public class Booking {
     @Builder.Default
     private String currency = "USD";
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "booking_type", nullable = false)
+    @Builder.Default
+    private BookingType bookingType = BookingType.STANDARD;
+
     @Column(name = "idempotency_key", nullable = false, unique = true)
     private String idempotencyKey;
 
@@ -56,6 +61,9 @@ public class Booking {
     @Builder.Default
     private SagaState sagaState = SagaState.INITIATED;
 
+    @Column(name = "saga_state_changed_at")
+    private Instant sagaStateChangedAt;
+
     @Column(name = "failure_reason", columnDefinition = "TEXT")
     private String failureReason;
 
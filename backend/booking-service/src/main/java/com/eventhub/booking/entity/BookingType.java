@@ -0,0 +1,6 @@
+package com.eventhub.booking.entity;
+
+public enum BookingType {
+    STANDARD,
+    BULK
+}
@@ -0,0 +1,72 @@
+package com.eventhub.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+@Entity
+@Table(name = "dlq_messages", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"dlq_topic", "dlq_partition", "dlq_offset"})
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class DlqMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "dlq_topic", nullable = false)
+    private String dlqTopic;
+
+    @Column(name = "dlq_partition", nullable = false)
+    private int dlqPartition;
+
+    @Column(name = "dlq_offset", nullable = false)
+    private long dlqOffset;
+
+    @Column(name = "original_topic", nullable = false)
+    private String originalTopic;
+
+    @Column(name = "original_partition")
+    private Integer originalPartition;
+
+    @Column(name = "original_offset")
+    private Long originalOffset;
+
+    @Column(name = "message_key")
+    private String messageKey;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private Map<String, Object> payload;
+
+    @Column(name = "error_class")
+    private String errorClass;
+
+    @Column(name = "error_message", length = 2000)
+    private String errorMessage;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private DlqMessageStatus status = DlqMessageStatus.PENDING;
+
+    @Column(name = "replay_count", nullable = false)
+    private int replayCount;
+
+    @Column(name = "last_replayed_at")
+    private Instant lastReplayedAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,7 @@
+package com.eventhub.booking.entity;
+
+public enum DlqMessageStatus {
+    PENDING,
+    REPLAYED,
+    DISCARDED
+}
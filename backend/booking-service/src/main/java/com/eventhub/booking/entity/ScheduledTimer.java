@@ -0,0 +1,48 @@
+package com.eventhub.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "scheduled_timers", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"timer_type", "target_id"})
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class ScheduledTimer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "timer_type", nullable = false, length = 100)
+    private String timerType;
+
+    @Column(name = "target_id", nullable = false)
+    private UUID targetId;
+
+    @Column(name = "fire_at", nullable = false)
+    private Instant fireAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private TimerStatus status = TimerStatus.PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "fired_at")
+    private Instant firedAt;
+}
@@ -0,0 +1,8 @@
+package com.eventhub.booking.entity;
+
+public enum TimerStatus {
+    PENDING,
+    FIRED,
+    CANCELLED,
+    DEAD
+}
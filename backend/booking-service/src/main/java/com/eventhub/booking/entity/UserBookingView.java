@@ -0,0 +1,61 @@
+package com.eventhub.booking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Denormalised read-model row for a single booking, used by listing endpoints.
+ * Written by {@link com.eventhub.booking.query.BookingViewProjector} on every saga transition;
+ * never carries seat rows or the QR image.
+ */
+@Entity
+@Table(name = "user_booking_view")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class UserBookingView {
+
+    @Id
+    @Column(name = "booking_id")
+    private UUID bookingId;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "event_id", nullable = false)
+    private UUID eventId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "saga_state", nullable = false)
+    private SagaState sagaState;
+
+    @Column(name = "total_amount", nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(nullable = false)
+    private String currency;
+
+    @Column(name = "seat_count", nullable = false)
+    private int seatCount;
+
+    @Column(name = "has_ticket", nullable = false)
+    private boolean hasTicket;
+
+    @Column(name = "confirmed_at")
+    private Instant confirmedAt;
+
+    @Column(name = "cancelled_at")
+    private Instant cancelledAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,62 @@
+package com.eventhub.booking.kafka;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Hands a record that could not be processed over to a DLQ topic.
+ *
+ * The original payload and key are kept as-is; provenance travels in the standard Spring
+ * Kafka {@code kafka_dlt-*} headers (same encoding as {@code DeadLetterPublishingRecoverer})
+ * plus a 4-byte attempt count, so the DLQ side can replay the
+ * record to where it came from. The send is awaited so callers only commit offsets once
+ * the record is durable in the DLQ.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeadLetterPublisher {
+
+    public static final String ATTEMPTS_HEADER = "eventhub_dlq-attempts";
+
+    private static final long SEND_TIMEOUT_SECONDS = 10;
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    public void publish(String dlqTopic, ConsumerRecord<String, ?> record, Throwable error, int attempts) {
+        ProducerRecord<String, Object> dlqRecord = new ProducerRecord<>(dlqTopic, record.key(), record.value());
+        dlqRecord.headers()
+                .add(KafkaHeaders.DLT_ORIGINAL_TOPIC, bytes(record.topic()))
+                .add(KafkaHeaders.DLT_ORIGINAL_PARTITION, ByteBuffer.allocate(Integer.BYTES).putInt(record.partition()).array())
+                .add(KafkaHeaders.DLT_ORIGINAL_OFFSET, ByteBuffer.allocate(Long.BYTES).putLong(record.offset()).array())
+                .add(KafkaHeaders.DLT_EXCEPTION_FQCN, bytes(error.getClass().getName()))
+                .add(KafkaHeaders.DLT_EXCEPTION_MESSAGE, bytes(String.valueOf(error.getMessage())))
+                .add(ATTEMPTS_HEADER, ByteBuffer.allocate(Integer.BYTES).putInt(attempts).array());
+
+        try {
+            kafkaTemplate.send(dlqRecord).get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            log.warn("[DLQ] Sent {}-{}@{} to {} after {} attempts: {}",
+                    record.topic(), record.partition(), record.offset(), dlqTopic, attempts, error.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing to " + dlqTopic, e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Failed to publish to " + dlqTopic, e);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
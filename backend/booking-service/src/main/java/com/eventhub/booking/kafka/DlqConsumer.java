@@ -1,73 +1,68 @@
 package com.eventhub.booking.kafka;
 
+import com.eventhub.booking.service.DlqMessageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
-import java.time.Instant;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Consumes messages from Dead Letter Queue (DLQ) topics for monitoring,
- * alerting, and manual retry. Failed messages that land in DLQs are logged
- * with full context and can be replayed to their original topics.
+ * alerting, and replay. Every DLQ record is persisted with its provenance
+ * (original topic, key, error, attempt count) by {@link DlqMessageService};
+ * bulk redelivery to the original topics is driven through
+ * {@link com.eventhub.booking.service.DlqReplayService}.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class DlqConsumer {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final DlqMessageService dlqMessageService;
 
     private final AtomicLong bookingDlqCount = new AtomicLong(0);
     private final AtomicLong paymentDlqCount = new AtomicLong(0);
     private final AtomicLong seatDlqCount = new AtomicLong(0);
 
     @KafkaListener(topics = "booking-events-dlq", groupId = "dlq-consumer-group")
-    public void handleBookingDlq(Map<String, Object> message) {
+    public void handleBookingDlq(ConsumerRecord<String, Map<String, Object>> record) {
         long count = bookingDlqCount.incrementAndGet();
+        Map<String, Object> message = record.value();
         log.error("[DLQ] booking-events-dlq message #{}: eventType={}, bookingId={}, payload={}",
                 count,
-                message.get("eventType"),
-                message.get("bookingId"),
+                message != null ? message.get("eventType") : null,
+                message != null ? message.get("bookingId") : null,
                 message);
+        dlqMessageService.capture(record);
     }
 
     @KafkaListener(topics = "payment-events-dlq", groupId = "dlq-consumer-group")
-    public void handlePaymentDlq(Map<String, Object> message) {
+    public void handlePaymentDlq(ConsumerRecord<String, Map<String, Object>> record) {
         long count = paymentDlqCount.incrementAndGet();
+        Map<String, Object> message = record.value();
         log.error("[DLQ] payment-events-dlq message #{}: eventType={}, bookingId={}, paymentId={}, payload={}",
                 count,
-                message.get("eventType"),
-                message.get("bookingId"),
-                message.get("paymentId"),
+                message != null ? message.get("eventType") : null,
+                message != null ? message.get("bookingId") : null,
+                message != null ? message.get("paymentId") : null,
                 message);
+        dlqMessageService.capture(record);
     }
 
     @KafkaListener(topics = "seat-events-dlq", groupId = "dlq-consumer-group")
-    public void handleSeatDlq(Map<String, Object> message) {
+    public void handleSeatDlq(ConsumerRecord<String, Map<String, Object>> record) {
         long count = seatDlqCount.incrementAndGet();
+        Map<String, Object> message = record.value();
         log.error("[DLQ] seat-events-dlq message #{}: eventType={}, eventId={}, payload={}",
                 count,
-                message.get("eventType"),
-                message.get("eventId"),
+                message != null ? message.get("eventType") : null,
+                message != null ? message.get("eventId") : null,
                 message);
-    }
-
-    /**
-     * Replay a DLQ message back to its original topic for retry.
-     *
-     * @param originalTopic the original topic name (e.g., "booking-events")
-     * @param key           the message key
-     * @param message       the original message payload
-     */
-    public void replay(String originalTopic, String key, Map<String, Object> message) {
-        log.info("[DLQ] Replaying message to topic={} key={}", originalTopic, key);
-        message.put("_dlq_replayed_at", Instant.now().toString());
-        kafkaTemplate.send(originalTopic, key, message);
+        dlqMessageService.capture(record);
     }
 
     public long getBookingDlqCount() { return bookingDlqCount.get(); }
@@ -0,0 +1,75 @@
+package com.eventhub.booking.kafka;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs tasks concurrently across keys while keeping tasks that share a key strictly in
+ * submission order — the same guarantee a Kafka partition gives, but at key granularity.
+ *
+ * Each key has a tail future; a new task for that key is chained behind it. Tasks run on
+ * virtual threads, so blocking I/O (DB, Kafka sends, retry back-off) is cheap. Tails are
+ * dropped once they complete, keeping the map bounded by the number of in-flight keys.
+ */
+public class KeyOrderedExecutor implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final Map<String, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public KeyOrderedExecutor() {
+        this(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    KeyOrderedExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Schedule {@code task} after every previously submitted task with the same key.
+     * The returned future completes exceptionally if the task throws; a failed task does
+     * not block later tasks for the key.
+     */
+    public CompletableFuture<Void> submit(String key, Runnable task) {
+        inFlight.incrementAndGet();
+        CompletableFuture<Void> next = new CompletableFuture<>();
+
+        tails.compute(key, (k, tail) -> {
+            CompletableFuture<Void> previous = tail != null ? tail : CompletableFuture.completedFuture(null);
+            // Run once the predecessor settles, regardless of its outcome
+            previous.handle((v, e) -> null).thenRunAsync(() -> {
+                try {
+                    task.run();
+                    next.complete(null);
+                } catch (Throwable t) {
+                    next.completeExceptionally(t);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            }, executor);
+            return next;
+        });
+
+        next.whenComplete((v, e) -> tails.remove(key, next));
+        return next;
+    }
+
+    /** Number of submitted tasks that have not finished yet. */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /** Number of keys that currently have queued or running tasks. */
+    public int activeKeys() {
+        return tails.size();
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
@@ -1,59 +1,231 @@
 package com.eventhub.booking.kafka;
 
 import com.eventhub.booking.saga.BookingSagaOrchestrator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.micrometer.KafkaListenerObservation;
+import org.springframework.kafka.support.micrometer.KafkaRecordReceiverContext;
+import org.springframework.kafka.support.serializer.DeserializationException;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Consumes payment result events from the payment service
  * and drives the booking saga forward or triggers compensation.
+ *
+ * Each polled batch is fanned out by record key (the booking id) onto a
+ * {@link KeyOrderedExecutor}: events for one booking are applied strictly in order,
+ * different bookings are applied concurrently on virtual threads, so throughput is no
+ * longer capped by the partition count. Failures are retried with exponential back-off
+ * and then handed to {@code payment-events-dlq}; records that can never succeed (bad shape,
+ * unparsable ids, unknown booking) go to the DLQ on the first attempt. Offsets are committed only after every
+ * record in the batch has either succeeded or been dead-lettered.
+ *
+ * Partition lag is exported by the Kafka client metrics ({@code kafka_consumer_records_lag_max});
+ * this class adds in-flight, record age and per-outcome processing metrics.
+ *
+ * Spring Kafka only observes record listeners, so each record is wrapped in a listener
+ * observation here: the trace context from the producer's headers is continued on the worker
+ * thread and propagated to the seat/notification commands the saga sends.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class PaymentEventConsumer {
 
+    static final String DLQ_TOPIC = "payment-events-dlq";
+    private static final String LISTENER_ID = "payment-events-batch";
+
+    /** Failures caused by the record itself; retrying cannot change the outcome. */
+    private static final List<Class<? extends Throwable>> NON_RETRYABLE = List.of(
+            IllegalArgumentException.class,   // missing fields, unparsable ids, unknown booking
+            ClassCastException.class,         // payload or field of an unexpected type
+            DeserializationException.class);
+
     private final BookingSagaOrchestrator sagaOrchestrator;
+    private final DeadLetterPublisher deadLetterPublisher;
+    private final MeterRegistry meterRegistry;
+    private final ObservationRegistry observationRegistry;
 
-    @KafkaListener(topics = "payment-events", groupId = "booking-service-group")
-    public void handlePaymentEvent(Map<String, Object> event) {
-        String eventType = (String) event.get("eventType");
-        String bookingIdStr = (String) event.get("bookingId");
+    private final KeyOrderedExecutor executor = new KeyOrderedExecutor();
 
-        if (eventType == null || bookingIdStr == null) {
-            log.warn("Received invalid payment event: {}", event);
-            return;
+    @Value("${booking.payment-events.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${booking.payment-events.backoff-ms:200}")
+    private long backoffMs;
+
+    private Timer recordAge;
+    private Counter retries;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("booking.payment.events.inflight", executor, KeyOrderedExecutor::inFlight)
+                .description("Payment events submitted but not yet applied")
+                .register(meterRegistry);
+        Gauge.builder("booking.payment.events.active.keys", executor, KeyOrderedExecutor::activeKeys)
+                .description("Bookings with payment events queued or running")
+                .register(meterRegistry);
+        recordAge = Timer.builder("booking.payment.events.record.age")
+                .description("Time between a payment event being produced and picked up")
+                .register(meterRegistry);
+        retries = Counter.builder("booking.payment.events.retries")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.close();
+    }
+
+    @KafkaListener(topics = "payment-events", groupId = "booking-service-group",
+            containerFactory = "paymentEventsContainerFactory")
+    public void handlePaymentEvents(List<ConsumerRecord<String, Map<String, Object>>> records, Acknowledgment ack) {
+        List<CompletableFuture<Void>> pending = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, Map<String, Object>> record : records) {
+            pending.add(executor.submit(orderingKey(record), () -> observe(record)));
         }
 
-        UUID bookingId = UUID.fromString(bookingIdStr);
+        // Throws if a record could not even be dead-lettered; the batch is then redelivered
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+        ack.acknowledge();
+    }
 
-        try {
-            switch (eventType) {
-                case "payment.success" -> {
-                    String paymentIdStr = (String) event.get("paymentId");
-                    UUID paymentId = UUID.fromString(paymentIdStr);
-                    log.info("Payment success for booking {}: payment={}", bookingId, paymentId);
-                    sagaOrchestrator.handlePaymentSuccess(bookingId, paymentId);
+    private void observe(ConsumerRecord<String, Map<String, Object>> record) {
+        KafkaListenerObservation.LISTENER_OBSERVATION.observation(
+                        null,
+                        KafkaListenerObservation.DefaultKafkaListenerObservationConvention.INSTANCE,
+                        () -> new KafkaRecordReceiverContext(record, LISTENER_ID, () -> null),
+                        observationRegistry)
+                .observe(() -> process(record));
+    }
+
+    private void process(ConsumerRecord<String, Map<String, Object>> record) {
+        recordAge.record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - record.timestamp())));
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                handlePaymentEvent(record.value());
+                break;
+            } catch (RuntimeException e) {
+                if (!isRetryable(e)) {
+                    log.warn("Dead-lettering non-retryable payment event for booking {}: {}", record.key(), e.toString());
+                    deadLetterPublisher.publish(DLQ_TOPIC, record, e, attempt);
+                    outcome = "dlq";
+                    break;
                 }
-                case "payment.failed" -> {
-                    String reason = (String) event.getOrDefault("reason", "Unknown payment failure");
-                    log.warn("Payment failed for booking {}: {}", bookingId, reason);
-                    sagaOrchestrator.handlePaymentFailure(bookingId, reason);
+                if (attempt >= maxAttempts) {
+                    log.error("Giving up on payment event for booking {} after {} attempts: {}",
+                            record.key(), attempt, e.getMessage(), e);
+                    deadLetterPublisher.publish(DLQ_TOPIC, record, e, attempt);
+                    outcome = "dlq";
+                    break;
                 }
-                case "payment.refunded" -> {
-                    log.info("Payment refunded for booking {}", bookingId);
-                    // Refund handling already done in compensation
+                retries.increment();
+                log.warn("Retrying payment event for booking {} (attempt {}/{}): {}",
+                        record.key(), attempt, maxAttempts, e.getMessage());
+                backoff(attempt);
+            }
+        }
+
+        sample.stop(meterRegistry.timer("booking.payment.events.processing", "outcome", outcome));
+    }
+
+    /**
+     * Apply a single payment event to the saga. Throws on failure so the caller can retry
+     * or dead-letter it.
+     */
+    void handlePaymentEvent(Map<String, Object> event) {
+        String eventType = event != null ? stringField(event, "eventType") : null;
+        String bookingIdStr = event != null ? stringField(event, "bookingId") : null;
+
+        if (eventType == null || bookingIdStr == null) {
+            throw new IllegalArgumentException("Invalid payment event: " + event);
+        }
+
+        UUID bookingId = UUID.fromString(bookingIdStr);
+
+        switch (eventType) {
+            case "payment.success" -> {
+                String paymentIdStr = stringField(event, "paymentId");
+                if (paymentIdStr == null || paymentIdStr.isEmpty()) {
+                    throw new IllegalArgumentException("payment.success without paymentId: " + event);
                 }
-                default -> log.debug("Ignoring payment event type: {}", eventType);
+                UUID paymentId = UUID.fromString(paymentIdStr);
+                log.info("Payment success for booking {}: payment={}", bookingId, paymentId);
+                sagaOrchestrator.handlePaymentSuccess(bookingId, paymentId);
+            }
+            case "payment.failed" -> {
+                String reason = stringField(event, "reason");
+                if (reason == null) reason = "Unknown payment failure";
+                log.warn("Payment failed for booking {}: {}", bookingId, reason);
+                sagaOrchestrator.handlePaymentFailure(bookingId, reason);
+            }
+            case "payment.refunded" -> {
+                log.info("Payment refunded for booking {}", bookingId);
+                sagaOrchestrator.handleRefundCompleted(bookingId);
+            }
+            default -> log.debug("Ignoring payment event type: {}", eventType);
+        }
+    }
+
+    /**
+     * Whether a failure may be transient. Anything caused by the record's own content is
+     * dead-lettered immediately instead of burning the retry budget.
+     */
+    static boolean isRetryable(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            Throwable cause = t;
+            if (NON_RETRYABLE.stream().anyMatch(type -> type.isInstance(cause))) {
+                return false;
             }
-        } catch (Exception e) {
-            log.error("Error processing payment event for booking {}: {}", bookingId, e.getMessage(), e);
-            // DLQ handling: in production, send to a dead letter topic
+        }
+        return true;
+    }
+
+    private static String stringField(Map<String, Object> event, String name) {
+        Object value = event.get(name);
+        if (value != null && !(value instanceof String)) {
+            throw new IllegalArgumentException("Payment event field " + name + " is not a string: " + value);
+        }
+        return (String) value;
+    }
+
+    private String orderingKey(ConsumerRecord<String, ?> record) {
+        if (record.key() != null) {
+            return record.key();
+        }
+        // The value is not trusted here: a record of the wrong shape must still reach process()
+        // so it can be dead-lettered rather than failing the whole batch
+        Object bookingId = record.value() instanceof Map<?, ?> value ? value.get("bookingId") : null;
+        return bookingId != null ? bookingId.toString() : record.topic() + "-" + record.partition();
+    }
+
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(backoffMs << Math.min(attempt - 1, 10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during payment event retry back-off", e);
         }
     }
 }
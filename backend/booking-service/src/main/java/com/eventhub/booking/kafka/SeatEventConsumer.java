@@ -0,0 +1,84 @@
+package com.eventhub.booking.kafka;
+
+import com.eventhub.booking.service.WaitlistService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Consumes seat inventory events for the waitlist: released seats are offered to the event's
+ * waitlist, and the outcome of each offer's hold either notifies the user or puts them back
+ * in the queue. Records are keyed by eventId, so events for one event are handled in order.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatEventConsumer {
+
+    private final WaitlistService waitlistService;
+
+    @KafkaListener(topics = "seat-events", groupId = "booking-waitlist-group")
+    public void handleSeatEvent(Map<String, Object> event) {
+        Object eventType = event.get("eventType");
+        if ("seat.released".equals(eventType)) {
+            handleReleased(event);
+        } else if ("seat.held".equals(eventType) || "seat.hold_failed".equals(eventType)) {
+            handleHoldOutcome(eventType.toString(), event);
+        }
+    }
+
+    private void handleReleased(Map<String, Object> event) {
+        Object eventIdObj = event.get("eventId");
+        if (eventIdObj == null || !(event.get("seatIds") instanceof List<?> seatIdList) || seatIdList.isEmpty()) {
+            log.warn("Received seat.released event with missing fields: {}", event);
+            return;
+        }
+
+        UUID eventId = UUID.fromString(eventIdObj.toString());
+        List<UUID> seatIds = seatIdList.stream()
+                .map(Object::toString)
+                .map(UUID::fromString)
+                .toList();
+
+        // Older producers sent no sections; those seats are offered regardless of section
+        Map<UUID, String> sections = new HashMap<>();
+        if (event.get("sections") instanceof Map<?, ?> sectionMap) {
+            sectionMap.forEach((seatId, sectionId) -> {
+                if (sectionId != null) {
+                    sections.put(UUID.fromString(seatId.toString()), sectionId.toString());
+                }
+            });
+        }
+
+        waitlistService.offerReleasedSeats(eventId, seatIds, sections);
+    }
+
+    private void handleHoldOutcome(String eventType, Map<String, Object> event) {
+        Object entryIdObj = event.get("waitlistEntryId");
+        if (entryIdObj == null) {
+            log.warn("Received {} event without a waitlist entry: {}", eventType, event);
+            return;
+        }
+        UUID entryId = UUID.fromString(entryIdObj.toString());
+
+        if ("seat.hold_failed".equals(eventType)) {
+            waitlistService.withdrawOffer(entryId, String.valueOf(event.get("reason")));
+            return;
+        }
+
+        if (!(event.get("seatIds") instanceof List<?> seatIdList) || event.get("expiresAt") == null) {
+            log.warn("Received seat.held event with missing fields: {}", event);
+            return;
+        }
+        waitlistService.confirmOffer(entryId,
+                seatIdList.stream().map(Object::toString).toList(),
+                Instant.parse(event.get("expiresAt").toString()));
+    }
+}
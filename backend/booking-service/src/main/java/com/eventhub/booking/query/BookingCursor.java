@@ -0,0 +1,31 @@
+package com.eventhub.booking.query;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset cursor over (created_at, booking_id), encoded as URL-safe Base64
+ * so clients treat it as a token rather than building it themselves.
+ */
+public record BookingCursor(Instant createdAt, UUID bookingId) {
+
+    public String encode() {
+        String raw = createdAt.toString() + "|" + bookingId;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookingCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new BookingCursor(
+                    Instant.parse(raw.substring(0, sep)),
+                    UUID.fromString(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
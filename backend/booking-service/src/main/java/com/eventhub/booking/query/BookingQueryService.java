@@ -0,0 +1,81 @@
+package com.eventhub.booking.query;
+
+import com.eventhub.booking.archive.BookingArchive;
+import com.eventhub.booking.entity.UserBookingView;
+import com.eventhub.booking.repository.BookingRepository;
+import com.eventhub.booking.repository.UserBookingViewRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read side of the booking service: slim listings from {@code user_booking_view}
+ * and on-demand ticket images, kept apart from the saga's write path.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingQueryService {
+
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final String PNG_DATA_URI_PREFIX = "data:image/png;base64,";
+
+    private final UserBookingViewRepository viewRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingArchive bookingArchive;
+
+    @Transactional(readOnly = true)
+    public CursorPage<UserBookingView> getUserBookings(UUID userId, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists without a COUNT query
+        PageRequest window = PageRequest.of(0, limit + 1);
+
+        List<UserBookingView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = viewRepository.findFirstPage(userId, window);
+        } else {
+            BookingCursor after = BookingCursor.decode(cursor);
+            rows = viewRepository.findPageAfter(userId, after.createdAt(), after.bookingId(), window);
+        }
+
+        boolean hasMore = rows.size() > limit;
+        List<UserBookingView> items = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            UserBookingView last = items.get(items.size() - 1);
+            nextCursor = new BookingCursor(last.getCreatedAt(), last.getBookingId()).encode();
+        }
+        return new CursorPage<>(List.copyOf(items), nextCursor, hasMore);
+    }
+
+    /**
+     * Decoded PNG bytes of the booking's ticket QR code, if the booking belongs to the user
+     * and a ticket has been issued.
+     */
+    @Transactional(readOnly = true)
+    public Optional<byte[]> getTicketImage(UUID bookingId, UUID userId) {
+        return bookingRepository.findQrCodeByIdAndUserId(bookingId, userId)
+                .or(() -> bookingArchive.findQrCode(bookingId, userId))
+                .flatMap(BookingQueryService::decodePng);
+    }
+
+    /**
+     * Decoded PNG bytes of a single seat's ticket in a group booking.
+     */
+    @Transactional(readOnly = true)
+    public Optional<byte[]> getSeatTicketImage(UUID bookingId, UUID seatId, UUID userId) {
+        return bookingRepository.findSeatTicketQr(bookingId, seatId, userId)
+                .flatMap(BookingQueryService::decodePng);
+    }
+
+    private static Optional<byte[]> decodePng(String dataUri) {
+        return Optional.of(dataUri)
+                .filter(qr -> qr.startsWith(PNG_DATA_URI_PREFIX))
+                .map(qr -> Base64.getDecoder().decode(qr.substring(PNG_DATA_URI_PREFIX.length())));
+    }
+}
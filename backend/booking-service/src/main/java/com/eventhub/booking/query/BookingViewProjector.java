@@ -0,0 +1,45 @@
+package com.eventhub.booking.query;
+
+import com.eventhub.booking.entity.Booking;
+import com.eventhub.booking.repository.UserBookingViewRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Keeps {@code user_booking_view} in step with the write model.
+ *
+ * Called by the saga orchestrator after each state transition with the saved booking, and joins
+ * the caller's transaction, so the read row commits or rolls back together with the booking.
+ * Each call is a single INSERT … ON CONFLICT DO UPDATE rather than a load followed by an update.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingViewProjector {
+
+    private final UserBookingViewRepository viewRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void project(Booking booking) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+        viewRepository.upsert(
+                booking.getId(),
+                booking.getUserId(),
+                booking.getEventId(),
+                booking.getStatus().name(),
+                booking.getSagaState().name(),
+                booking.getTotalAmount(),
+                booking.getCurrency(),
+                booking.getSeats().size(),
+                booking.getQrCode() != null,
+                booking.getConfirmedAt(),
+                booking.getCancelledAt(),
+                booking.getCreatedAt() != null ? booking.getCreatedAt() : now,
+                now);
+    }
+}
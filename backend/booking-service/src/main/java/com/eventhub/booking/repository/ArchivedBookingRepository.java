@@ -0,0 +1,75 @@
+package com.eventhub.booking.repository;
+
+import com.eventhub.booking.entity.ArchivedBooking;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, UUID> {
+
+    Optional<ArchivedBooking> findByIdempotencyKey(String idempotencyKey);
+
+    @Query("SELECT a.qrCode FROM ArchivedBooking a WHERE a.id = :id AND a.userId = :userId AND a.qrCode IS NOT NULL")
+    Optional<String> findQrCodeByIdAndUserId(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    /**
+     * Move one batch of finished bookings last touched before {@code cutoff} into the archive.
+     * Delete and insert run in a single statement; every part of a data-modifying CTE reads the
+     * same snapshot, so the seat and saga log rows are still visible while the cascade removes
+     * them. The saga log is copied to {@code booking_saga_log_archive} so the audit trail survives.
+     * SKIP LOCKED lets concurrent replicas archive disjoint batches.
+     *
+     * @return number of bookings moved
+     */
+    @Modifying
+    @Query(value = """
+            WITH moved AS (
+                DELETE FROM bookings b
+                WHERE b.id IN (
+                    SELECT id FROM bookings
+                    WHERE status IN ('CONFIRMED', 'CANCELLED', 'EXPIRED', 'REFUNDED')
+                      AND saga_state IN ('COMPLETED', 'COMPENSATION_COMPLETED', 'FAILED')
+                      AND updated_at < :cutoff
+                    ORDER BY updated_at
+                    LIMIT :limit
+                    FOR UPDATE SKIP LOCKED)
+                RETURNING b.*
+            ),
+            saga_log AS (
+                INSERT INTO booking_saga_log_archive (id, booking_id, step, status, payload, error_message,
+                                                      created_at, archived_at)
+                SELECT l.id, l.booking_id, l.step, l.status, l.payload, l.error_message, l.created_at, NOW()
+                FROM booking_saga_log l
+                WHERE l.booking_id IN (SELECT id FROM moved)
+            )
+            INSERT INTO bookings_archive (id, event_id, user_id, status, booking_type, total_amount, currency,
+                                          idempotency_key, payment_id, qr_code, saga_state, failure_reason,
+                                          confirmed_at, cancelled_at, seats, created_at, updated_at, archived_at)
+            SELECT m.id, m.event_id, m.user_id, m.status, m.booking_type, m.total_amount, m.currency,
+                   m.idempotency_key, m.payment_id, m.qr_code, m.saga_state, m.failure_reason,
+                   m.confirmed_at, m.cancelled_at,
+                   COALESCE((SELECT jsonb_agg(jsonb_build_object(
+                                    'seatId', s.seat_id, 'sectionName', s.section_name,
+                                    'rowLabel', s.row_label, 'seatNumber', s.seat_number,
+                                    'price', s.price, 'currency', s.currency))
+                             FROM booked_seats s WHERE s.booking_id = m.id), '[]'::jsonb),
+                   m.created_at, m.updated_at, NOW()
+            FROM moved m
+            """, nativeQuery = true)
+    int archiveBatch(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT MIN(created_at) FROM bookings
+            WHERE status IN ('CONFIRMED', 'CANCELLED', 'EXPIRED', 'REFUNDED')
+              AND saga_state IN ('COMPLETED', 'COMPENSATION_COMPLETED', 'FAILED')
+              AND updated_at < :cutoff
+            """, nativeQuery = true)
+    Optional<Instant> findOldestArchivableCreatedAt(@Param("cutoff") Instant cutoff);
+}
@@ -2,7 +2,6 @@ package com.eventhub.booking.repository;
 
 import com.eventhub.booking.entity.Booking;
 import com.eventhub.booking.entity.BookingStatus;
-import com.eventhub.booking.entity.SagaState;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -26,8 +25,18 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
 
     List<Booking> findByEventIdAndStatus(UUID eventId, BookingStatus status);
 
-    @Query("SELECT b FROM Booking b WHERE b.sagaState = :state AND b.expiresAt < :now")
-    List<Booking> findExpiredBookings(@Param("state") SagaState state, @Param("now") Instant now);
+    @Query("SELECT b.qrCode FROM Booking b WHERE b.id = :id AND b.userId = :userId AND b.qrCode IS NOT NULL")
+    Optional<String> findQrCodeByIdAndUserId(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    @Query("SELECT s.ticketQr FROM BookedSeat s WHERE s.booking.id = :bookingId AND s.seatId = :seatId " +
+           "AND s.booking.userId = :userId AND s.ticketQr IS NOT NULL")
+    Optional<String> findSeatTicketQr(@Param("bookingId") UUID bookingId, @Param("seatId") UUID seatId,
+                                      @Param("userId") UUID userId);
+
+    @Query("SELECT DISTINCT s.booking.id FROM BookedSeat s WHERE s.ticketQr IS NULL " +
+           "AND s.booking.bookingType = 'BULK' AND s.booking.status = 'CONFIRMED' " +
+           "AND s.booking.confirmedAt < :confirmedBefore")
+    List<UUID> findBulkBookingsMissingTickets(@Param("confirmedBefore") Instant confirmedBefore, Pageable pageable);
 
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.eventId = :eventId AND b.status = 'CONFIRMED'")
     long countConfirmedByEvent(@Param("eventId") UUID eventId);
@@ -0,0 +1,71 @@
+package com.eventhub.booking.repository;
+
+import com.eventhub.booking.entity.DlqMessage;
+import com.eventhub.booking.entity.DlqMessageStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DlqMessageRepository extends JpaRepository<DlqMessage, UUID> {
+
+    boolean existsByDlqTopicAndDlqPartitionAndDlqOffset(String dlqTopic, int dlqPartition, long dlqOffset);
+
+    @Query("SELECT m FROM DlqMessage m WHERE m.status = :status " +
+           "AND (:originalTopic IS NULL OR m.originalTopic = :originalTopic) " +
+           "AND m.createdAt >= :from AND m.createdAt < :to " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    Page<DlqMessage> search(@Param("status") DlqMessageStatus status,
+                            @Param("originalTopic") String originalTopic,
+                            @Param("from") Instant from,
+                            @Param("to") Instant to,
+                            Pageable pageable);
+
+    /**
+     * Next slice of replay candidates after the (createdAt, id) cursor, oldest first.
+     */
+    @Query("SELECT m FROM DlqMessage m WHERE m.status = :status " +
+           "AND (:originalTopic IS NULL OR m.originalTopic = :originalTopic) " +
+           "AND m.createdAt >= :from AND m.createdAt < :to " +
+           "AND (m.createdAt > :afterCreatedAt OR (m.createdAt = :afterCreatedAt AND m.id > :afterId)) " +
+           "ORDER BY m.createdAt ASC, m.id ASC")
+    List<DlqMessage> findReplayBatch(@Param("status") DlqMessageStatus status,
+                                     @Param("originalTopic") String originalTopic,
+                                     @Param("from") Instant from,
+                                     @Param("to") Instant to,
+                                     @Param("afterCreatedAt") Instant afterCreatedAt,
+                                     @Param("afterId") UUID afterId,
+                                     Pageable pageable);
+
+    @Query("SELECT COUNT(m) FROM DlqMessage m WHERE m.status = :status " +
+           "AND (:originalTopic IS NULL OR m.originalTopic = :originalTopic) " +
+           "AND m.createdAt >= :from AND m.createdAt < :to")
+    long countReplayCandidates(@Param("status") DlqMessageStatus status,
+                               @Param("originalTopic") String originalTopic,
+                               @Param("from") Instant from,
+                               @Param("to") Instant to);
+
+    @Query("SELECT m.originalTopic, m.status, COUNT(m) FROM DlqMessage m GROUP BY m.originalTopic, m.status")
+    List<Object[]> countByTopicAndStatus();
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE DlqMessage m SET m.status = 'REPLAYED', m.replayCount = m.replayCount + 1, " +
+           "m.lastReplayedAt = :now WHERE m.id IN :ids")
+    int markReplayed(@Param("ids") Collection<UUID> ids, @Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE DlqMessage m SET m.status = 'DISCARDED' WHERE m.id IN :ids AND m.status = 'PENDING'")
+    int markDiscarded(@Param("ids") Collection<UUID> ids);
+}
@@ -0,0 +1,79 @@
+package com.eventhub.booking.repository;
+
+import com.eventhub.booking.entity.ScheduledTimer;
+import com.eventhub.booking.entity.TimerStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ScheduledTimerRepository extends JpaRepository<ScheduledTimer, UUID> {
+
+    /**
+     * Register a timer, or move an existing one (including a fired/cancelled one) to a new deadline.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO scheduled_timers (timer_type, target_id, fire_at, status, attempts)
+            VALUES (:type, :targetId, :fireAt, 'PENDING', 0)
+            ON CONFLICT (timer_type, target_id) DO UPDATE
+               SET fire_at = EXCLUDED.fire_at, status = 'PENDING', attempts = 0,
+                   last_error = NULL, fired_at = NULL
+            """, nativeQuery = true)
+    void upsert(@Param("type") String type, @Param("targetId") UUID targetId, @Param("fireAt") Instant fireAt);
+
+    @Modifying
+    @Query("""
+            UPDATE ScheduledTimer t SET t.status = com.eventhub.booking.entity.TimerStatus.CANCELLED
+            WHERE t.timerType = :type AND t.targetId = :targetId
+              AND t.status = com.eventhub.booking.entity.TimerStatus.PENDING
+            """)
+    int cancel(@Param("type") String type, @Param("targetId") UUID targetId);
+
+    /**
+     * Atomically take ownership of a due timer. Returns 0 if it was cancelled, moved to a later
+     * deadline or already fired by another replica.
+     */
+    @Modifying
+    @Query("""
+            UPDATE ScheduledTimer t SET t.status = com.eventhub.booking.entity.TimerStatus.FIRED, t.firedAt = :now
+            WHERE t.timerType = :type AND t.targetId = :targetId
+              AND t.status = com.eventhub.booking.entity.TimerStatus.PENDING AND t.fireAt <= :now
+            """)
+    int claim(@Param("type") String type, @Param("targetId") UUID targetId, @Param("now") Instant now);
+
+    /**
+     * Count a failed firing and re-arm the timer at {@code retryAt}, or park it as DEAD after
+     * {@code maxAttempts}. Moving the deadline keeps the overdue sweep from re-firing it early.
+     * Matches FIRED too, for handlers that run after their claim committed.
+     */
+    @Modifying
+    @Query("""
+            UPDATE ScheduledTimer t
+            SET t.attempts = t.attempts + 1, t.lastError = :error, t.fireAt = :retryAt,
+                t.status = CASE WHEN t.attempts + 1 >= :maxAttempts
+                                THEN com.eventhub.booking.entity.TimerStatus.DEAD
+                                ELSE com.eventhub.booking.entity.TimerStatus.PENDING END
+            WHERE t.timerType = :type AND t.targetId = :targetId
+              AND t.status IN (com.eventhub.booking.entity.TimerStatus.PENDING,
+                               com.eventhub.booking.entity.TimerStatus.FIRED)
+            """)
+    int recordFailure(@Param("type") String type, @Param("targetId") UUID targetId, @Param("error") String error,
+                      @Param("retryAt") Instant retryAt, @Param("maxAttempts") int maxAttempts);
+
+    Optional<ScheduledTimer> findByTimerTypeAndTargetId(String timerType, UUID targetId);
+
+    List<ScheduledTimer> findByStatusAndFireAtLessThanEqualOrderByFireAtAsc(
+            TimerStatus status, Instant cutoff, Pageable pageable);
+
+    Slice<ScheduledTimer> findByStatusOrderByFireAtAsc(TimerStatus status, Pageable pageable);
+}
@@ -0,0 +1,56 @@
+package com.eventhub.booking.repository;
+
+import com.eventhub.booking.entity.UserBookingView;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface UserBookingViewRepository extends JpaRepository<UserBookingView, UUID> {
+
+    @Query("SELECT v FROM UserBookingView v WHERE v.userId = :userId " +
+           "ORDER BY v.createdAt DESC, v.bookingId DESC")
+    List<UserBookingView> findFirstPage(@Param("userId") UUID userId, Pageable pageable);
+
+    @Query("SELECT v FROM UserBookingView v WHERE v.userId = :userId " +
+           "AND (v.createdAt < :createdAt OR (v.createdAt = :createdAt AND v.bookingId < :bookingId)) " +
+           "ORDER BY v.createdAt DESC, v.bookingId DESC")
+    List<UserBookingView> findPageAfter(@Param("userId") UUID userId,
+                                        @Param("createdAt") Instant createdAt,
+                                        @Param("bookingId") UUID bookingId,
+                                        Pageable pageable);
+
+    /**
+     * Insert or refresh a booking's row in one statement. created_at is insert-only, so later
+     * transitions keep the original sort key.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_booking_view (booking_id, user_id, event_id, status, saga_state, total_amount,
+                                           currency, seat_count, has_ticket, confirmed_at, cancelled_at,
+                                           created_at, updated_at)
+            VALUES (:bookingId, :userId, :eventId, :status, :sagaState, :totalAmount,
+                    :currency, :seatCount, :hasTicket, :confirmedAt, :cancelledAt,
+                    :createdAt, :updatedAt)
+            ON CONFLICT (booking_id) DO UPDATE
+               SET status = EXCLUDED.status, saga_state = EXCLUDED.saga_state,
+                   total_amount = EXCLUDED.total_amount, currency = EXCLUDED.currency,
+                   seat_count = EXCLUDED.seat_count, has_ticket = EXCLUDED.has_ticket,
+                   confirmed_at = EXCLUDED.confirmed_at, cancelled_at = EXCLUDED.cancelled_at,
+                   updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    void upsert(@Param("bookingId") UUID bookingId, @Param("userId") UUID userId, @Param("eventId") UUID eventId,
+                @Param("status") String status, @Param("sagaState") String sagaState,
+                @Param("totalAmount") BigDecimal totalAmount, @Param("currency") String currency,
+                @Param("seatCount") int seatCount, @Param("hasTicket") boolean hasTicket,
+                @Param("confirmedAt") Instant confirmedAt, @Param("cancelledAt") Instant cancelledAt,
+                @Param("createdAt") Instant createdAt, @Param("updatedAt") Instant updatedAt);
+}
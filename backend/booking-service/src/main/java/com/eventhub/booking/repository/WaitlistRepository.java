@@ -9,6 +9,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,10 +24,14 @@ public interface WaitlistRepository extends JpaRepository<WaitlistEntry, UUID> {
 
     Page<WaitlistEntry> findByUserIdOrderByCreatedAtDesc(UUID userId, Pageable pageable);
 
-    List<WaitlistEntry> findTop10ByEventIdAndStatusOrderByCreatedAtAsc(UUID eventId, String status);
+    List<WaitlistEntry> findByEventIdAndStatusOrderByCreatedAtAsc(UUID eventId, String status);
+
+    List<WaitlistEntry> findByEventIdAndUserIdIn(UUID eventId, Collection<UUID> userIds);
 
     long countByEventIdAndStatus(UUID eventId, String status);
 
+    long countByEventIdAndStatusAndCreatedAtLessThan(UUID eventId, String status, Instant createdAt);
+
     @Modifying
     @Query("UPDATE WaitlistEntry w SET w.status = :status WHERE w.id = :id")
     int updateStatus(@Param("id") UUID id, @Param("status") String status);
@@ -0,0 +1,27 @@
+package com.eventhub.booking.saga;
+
+import com.eventhub.booking.timer.TimerHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Compensates bookings whose payment deadline ({@code expiresAt}) passed.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingExpiryTimerHandler implements TimerHandler {
+
+    private final BookingSagaOrchestrator sagaOrchestrator;
+
+    @Override
+    public String timerType() {
+        return BookingSagaOrchestrator.EXPIRY_TIMER;
+    }
+
+    @Override
+    public void onTimeout(UUID bookingId) {
+        sagaOrchestrator.expireBooking(bookingId);
+    }
+}
@@ -1,17 +1,21 @@
 package com.eventhub.booking.saga;
 
+import com.eventhub.booking.archive.BookingArchive;
 import com.eventhub.booking.entity.Booking;
 import com.eventhub.booking.entity.BookingStatus;
+import com.eventhub.booking.entity.BookingType;
 import com.eventhub.booking.entity.SagaState;
+import com.eventhub.booking.query.BookingViewProjector;
 import com.eventhub.booking.repository.BookingRepository;
 import com.eventhub.booking.service.QrCodeService;
+import com.eventhub.booking.timer.DurableTimerQueue;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +38,9 @@ import java.util.UUID;
  * - Update booking status to CANCELLED/FAILED
  * - Notify user
  *
+ * Timeouts: each booking registers a durable expiry timer at its expiresAt deadline;
+ * unpaid bookings are compensated when it fires (see BookingExpiryTimerHandler).
+ *
  * Idempotency: Uses idempotency_key to prevent duplicate bookings.
  * Exactly-once: Kafka producer idempotence + DB unique constraint on idempotency_key.
  */
@@ -45,6 +52,17 @@ public class BookingSagaOrchestrator {
     private final BookingRepository bookingRepository;
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final QrCodeService qrCodeService;
+    private final BookingArchive bookingArchive;
+    private final BookingViewProjector bookingViewProjector;
+    private final DurableTimerQueue timerQueue;
+    private final SagaMetrics sagaMetrics;
+
+    static final String EXPIRY_TIMER = "booking.expiry";
+    static final String SEAT_TICKETS_TIMER = "booking.seat-tickets";
+
+    static final String REASON_PAYMENT_FAILED = "Payment failed: ";
+    static final String REASON_TIMEOUT = "Payment timeout — booking expired";
+    static final String REASON_USER_CANCELLED = "Cancelled by user";
 
     // ─────────────────────────────────────────────
     // Step 1: Initiate booking (idempotent)
@@ -52,12 +70,14 @@ public class BookingSagaOrchestrator {
 
     @Transactional
     public Booking initiateBooking(Booking booking) {
-        // Idempotency check — return existing if same key
+        // Idempotency check — return existing if same key (including archived bookings)
         return bookingRepository.findByIdempotencyKey(booking.getIdempotencyKey())
+                .or(() -> bookingArchive.findByIdempotencyKey(booking.getIdempotencyKey()))
                 .orElseGet(() -> {
-                    booking.setSagaState(SagaState.SEATS_LOCKED);
+                    transition(booking, SagaState.SEATS_LOCKED);
                     booking.setExpiresAt(Instant.now().plusSeconds(600)); // 10 min expiry
-                    Booking saved = bookingRepository.save(booking);
+                    Booking saved = persist(booking);
+                    timerQueue.schedule(EXPIRY_TIMER, saved.getId(), saved.getExpiresAt());
 
                     log.info("Saga INITIATED: booking={} event={} user={}",
                             saved.getId(), saved.getEventId(), saved.getUserId());
@@ -81,8 +101,8 @@ public class BookingSagaOrchestrator {
             throw new IllegalStateException("Booking is not in the correct state for payment");
         }
 
-        booking.setSagaState(SagaState.PAYMENT_PENDING);
-        bookingRepository.save(booking);
+        transition(booking, SagaState.PAYMENT_PENDING);
+        persist(booking);
 
         // Publish payment.initiate event
         kafkaTemplate.send("payment-commands", booking.getId().toString(), Map.of(
@@ -100,6 +120,20 @@ public class BookingSagaOrchestrator {
         log.info("Saga PAYMENT_PENDING: booking={}", bookingId);
     }
 
+    /**
+     * Fast-path checkout: steps 1 and 2 in one transaction. The booking row and the
+     * PAYMENT_PENDING transition commit together, so a failure leaves no half-created booking
+     * and the caller can release the seats it locked.
+     */
+    @Transactional
+    public Booking checkout(Booking booking, String gateway, String returnUrl) {
+        Booking created = initiateBooking(booking);
+        if (created.getSagaState() == SagaState.SEATS_LOCKED) {
+            requestPayment(created.getId(), gateway, returnUrl);
+        }
+        return created;
+    }
+
     // ─────────────────────────────────────────────
     // Step 3: Handle payment result (from Kafka)
     // ─────────────────────────────────────────────
@@ -114,9 +148,9 @@ public class BookingSagaOrchestrator {
             return;
         }
 
-        booking.setSagaState(SagaState.PAYMENT_COMPLETED);
+        transition(booking, SagaState.PAYMENT_COMPLETED);
         booking.setPaymentId(paymentId);
-        bookingRepository.save(booking);
+        persist(booking);
 
         log.info("Saga PAYMENT_COMPLETED: booking={} payment={}", bookingId, paymentId);
 
@@ -131,7 +165,7 @@ public class BookingSagaOrchestrator {
         log.warn("Saga PAYMENT_FAILED: booking={} reason={}", bookingId, reason);
 
         // Trigger compensation
-        compensate(booking, "Payment failed: " + reason);
+        compensate(booking, REASON_PAYMENT_FAILED + reason);
     }
 
     // ─────────────────────────────────────────────
@@ -148,10 +182,15 @@ public class BookingSagaOrchestrator {
         }
 
         booking.setStatus(BookingStatus.CONFIRMED);
-        booking.setSagaState(SagaState.TICKET_ISSUED);
+        transition(booking, SagaState.TICKET_ISSUED);
         booking.setConfirmedAt(Instant.now());
         booking.setQrCode(generateQrCode(booking));
-        bookingRepository.save(booking);
+        persist(booking);
+        timerQueue.cancel(EXPIRY_TIMER, bookingId);
+        if (booking.getBookingType() == BookingType.BULK) {
+            // Per-seat tickets are rendered after this transaction commits (SeatTicketTimerHandler)
+            timerQueue.schedule(SEAT_TICKETS_TIMER, bookingId, Instant.now());
+        }
 
         // Tell seat service to finalize seats
         List<String> seatIds = booking.getSeats().stream()
@@ -182,8 +221,27 @@ public class BookingSagaOrchestrator {
         log.info("Saga COMPLETED: booking={} confirmed with {} seats",
                 bookingId, booking.getSeats().size());
 
-        booking.setSagaState(SagaState.COMPLETED);
-        bookingRepository.save(booking);
+        transition(booking, SagaState.COMPLETED);
+        persist(booking);
+
+        // Paid and confirmed — finance records the sale from this
+        publishSagaEvent("booking.confirmed", booking);
+    }
+
+    // ─────────────────────────────────────────────
+    // Refund settled by the payment service
+    // ─────────────────────────────────────────────
+
+    /**
+     * Announce a completed refund on {@code booking-events}; the booking itself was already
+     * compensated when the refund was requested.
+     */
+    @Transactional(readOnly = true)
+    public void handleRefundCompleted(UUID bookingId) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .or(() -> bookingArchive.findById(bookingId))
+                .orElseThrow(() -> new IllegalArgumentException("Booking not found: " + bookingId));
+        publishSagaEvent("booking.refunded", booking);
     }
 
     // ─────────────────────────────────────────────
@@ -193,10 +251,11 @@ public class BookingSagaOrchestrator {
     @Transactional
     public void compensate(Booking booking, String reason) {
         log.warn("Saga COMPENSATING: booking={} reason={}", booking.getId(), reason);
+        sagaMetrics.recordCompensation(compensationCause(reason), booking.getSagaState());
 
-        booking.setSagaState(SagaState.COMPENSATING);
+        transition(booking, SagaState.COMPENSATING);
         booking.setFailureReason(reason);
-        bookingRepository.save(booking);
+        persist(booking);
 
         // Release seats
         List<String> seatIds = booking.getSeats().stream()
@@ -234,9 +293,10 @@ public class BookingSagaOrchestrator {
         ));
 
         booking.setStatus(BookingStatus.CANCELLED);
-        booking.setSagaState(SagaState.COMPENSATION_COMPLETED);
+        transition(booking, SagaState.COMPENSATION_COMPLETED);
         booking.setCancelledAt(Instant.now());
-        bookingRepository.save(booking);
+        persist(booking);
+        timerQueue.cancel(EXPIRY_TIMER, booking.getId());
 
         log.info("Saga COMPENSATION_COMPLETED: booking={}", booking.getId());
     }
@@ -265,28 +325,29 @@ public class BookingSagaOrchestrator {
             ));
         }
 
-        compensate(booking, "Cancelled by user");
+        compensate(booking, REASON_USER_CANCELLED);
     }
 
     // ─────────────────────────────────────────────
-    // Scheduled: Expire stale bookings
+    // Timeout: expire unpaid bookings (fired by BookingExpiryTimerHandler)
     // ─────────────────────────────────────────────
 
-    @Scheduled(fixedDelay = 60000)
     @Transactional
-    public void expireStaleBookings() {
-        List<Booking> expired = bookingRepository.findExpiredBookings(
-                SagaState.PAYMENT_PENDING, Instant.now()
-        );
-
-        for (Booking booking : expired) {
-            log.info("Expiring stale booking: {}", booking.getId());
-            compensate(booking, "Payment timeout — booking expired");
+    public void expireBooking(UUID bookingId) {
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+        if (booking == null) {
+            log.warn("Expiry timer fired for unknown booking {}", bookingId);
+            return;
         }
 
-        if (!expired.isEmpty()) {
-            log.info("Expired {} stale bookings", expired.size());
+        if (booking.getSagaState() != SagaState.SEATS_LOCKED &&
+            booking.getSagaState() != SagaState.PAYMENT_PENDING) {
+            log.debug("Expiry timer ignored: booking {} is in state {}", bookingId, booking.getSagaState());
+            return;
         }
+
+        log.info("Expiring stale booking: {}", bookingId);
+        compensate(booking, REASON_TIMEOUT);
     }
 
     // ─────────────────────────────────────────────
@@ -298,6 +359,57 @@ public class BookingSagaOrchestrator {
                 .orElseThrow(() -> new IllegalArgumentException("Booking not found: " + bookingId));
     }
 
+    /**
+     * Move the booking to the next saga state, recording how long it spent in the current one.
+     */
+    private void transition(Booking booking, SagaState next) {
+        Instant now = Instant.now();
+        Instant enteredAt = booking.getSagaStateChangedAt() != null
+                ? booking.getSagaStateChangedAt()
+                : booking.getUpdatedAt();
+        if (enteredAt != null) {
+            sagaMetrics.recordTransition(booking.getSagaState(), next, Duration.between(enteredAt, now));
+        }
+        booking.setSagaState(next);
+        booking.setSagaStateChangedAt(now);
+
+        if (booking.getCreatedAt() != null) {
+            if (next == SagaState.COMPLETED) {
+                sagaMetrics.recordFinished("completed", Duration.between(booking.getCreatedAt(), now));
+            } else if (next == SagaState.COMPENSATION_COMPLETED) {
+                sagaMetrics.recordFinished("compensated", Duration.between(booking.getCreatedAt(), now));
+            }
+        }
+    }
+
+    /**
+     * Low-cardinality metric tag for a compensation reason.
+     */
+    private static String compensationCause(String reason) {
+        if (reason == null) {
+            return "other";
+        }
+        if (reason.startsWith(REASON_PAYMENT_FAILED)) {
+            return "payment_failed";
+        }
+        if (reason.equals(REASON_TIMEOUT)) {
+            return "payment_timeout";
+        }
+        if (reason.equals(REASON_USER_CANCELLED)) {
+            return "user_cancelled";
+        }
+        return "other";
+    }
+
+    /**
+     * Save the booking and refresh its read-model row in the same transaction.
+     */
+    private Booking persist(Booking booking) {
+        Booking saved = bookingRepository.save(booking);
+        bookingViewProjector.project(saved);
+        return saved;
+    }
+
     private String generateQrCode(Booking booking) {
         return qrCodeService.generateBookingQrCode(
                 booking.getId(), booking.getEventId(),
@@ -0,0 +1,48 @@
+package com.eventhub.booking.saga;
+
+import com.eventhub.booking.entity.SagaState;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Saga step metrics:
+ * - booking.saga.transition{from,to}    → time a booking spent in {@code from} before moving to {@code to}
+ * - booking.saga.duration{outcome}      → creation to COMPLETED / COMPENSATION_COMPLETED
+ * - booking.saga.compensations{reason,state} → compensations by cause and the state they interrupted
+ *
+ * Timers publish histogram buckets so percentiles can be aggregated across replicas in Prometheus.
+ */
+@Component
+@RequiredArgsConstructor
+public class SagaMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public void recordTransition(SagaState from, SagaState to, Duration timeInState) {
+        Timer.builder("booking.saga.transition")
+                .description("Time a booking spent in a saga state before the next transition")
+                .tag("from", from.name())
+                .tag("to", to.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(timeInState);
+    }
+
+    public void recordFinished(String outcome, Duration total) {
+        Timer.builder("booking.saga.duration")
+                .description("End-to-end saga duration from booking creation to a terminal state")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(total);
+    }
+
+    public void recordCompensation(String reason, SagaState interruptedState) {
+        meterRegistry.counter("booking.saga.compensations",
+                "reason", reason, "state", interruptedState.name()).increment();
+    }
+}
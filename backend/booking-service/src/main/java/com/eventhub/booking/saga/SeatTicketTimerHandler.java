@@ -0,0 +1,94 @@
+package com.eventhub.booking.saga;
+
+import com.eventhub.booking.entity.BookedSeat;
+import com.eventhub.booking.repository.BookingRepository;
+import com.eventhub.booking.service.QrCodeService;
+import com.eventhub.booking.timer.DurableTimerQueue;
+import com.eventhub.booking.timer.TimerHandler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Renders the per-seat tickets of a confirmed group booking after the confirmation commits.
+ * Rendering runs outside any transaction on {@link QrCodeService}'s bounded pool; only the seat
+ * lookup and the ticket write open short transactions. Seats that already have a ticket are
+ * left alone, so a retried timer does not render them again.
+ *
+ * The claim commits before rendering, so a replica that dies mid-render leaves no pending
+ * timer; {@link #sweepMissingTickets} re-arms bookings still without tickets after a grace period.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatTicketTimerHandler implements TimerHandler {
+
+    private final BookingRepository bookingRepository;
+    private final QrCodeService qrCodeService;
+    private final DurableTimerQueue timerQueue;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${booking.tickets.sweep-grace-minutes:10}")
+    private long sweepGraceMinutes;
+
+    @Value("${booking.tickets.sweep-batch-size:100}")
+    private int sweepBatchSize;
+
+    @Override
+    public String timerType() {
+        return BookingSagaOrchestrator.SEAT_TICKETS_TIMER;
+    }
+
+    @Override
+    public boolean inClaimTransaction() {
+        return false;
+    }
+
+    @Override
+    public void onTimeout(UUID bookingId) {
+        PendingTickets pending = transactionTemplate.execute(status -> bookingRepository.findById(bookingId)
+                .map(booking -> new PendingTickets(booking.getEventId(), booking.getSeats().stream()
+                        .filter(seat -> seat.getTicketQr() == null)
+                        .map(BookedSeat::getSeatId)
+                        .toList()))
+                .orElse(null));
+        if (pending == null || pending.seatIds().isEmpty()) {
+            return;
+        }
+
+        Map<UUID, String> tickets = qrCodeService.generateSeatQrCodes(bookingId, pending.eventId(), pending.seatIds());
+
+        transactionTemplate.executeWithoutResult(status -> bookingRepository.findById(bookingId)
+                .ifPresent(booking -> {
+                    booking.getSeats().stream()
+                            .filter(seat -> seat.getTicketQr() == null)
+                            .forEach(seat -> seat.setTicketQr(tickets.get(seat.getSeatId())));
+                    bookingRepository.save(booking);
+                }));
+        log.info("Issued {} seat tickets for group booking {}", tickets.size(), bookingId);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.tickets.sweep-interval-ms:600000}")
+    public void sweepMissingTickets() {
+        List<UUID> missing = bookingRepository.findBulkBookingsMissingTickets(
+                Instant.now().minus(Duration.ofMinutes(sweepGraceMinutes)), PageRequest.of(0, sweepBatchSize));
+        if (missing.isEmpty()) {
+            return;
+        }
+        log.warn("Re-arming seat ticket rendering for {} group bookings", missing.size());
+        missing.forEach(bookingId -> timerQueue.schedule(timerType(), bookingId, Instant.now()));
+    }
+
+    private record PendingTickets(UUID eventId, List<UUID> seatIds) {
+    }
+}
@@ -0,0 +1,266 @@
+package com.eventhub.booking.service;
+
+import com.eventhub.booking.archive.BookingArchive;
+import com.eventhub.booking.client.SeatInventoryClient;
+import com.eventhub.booking.entity.BookedSeat;
+import com.eventhub.booking.entity.Booking;
+import com.eventhub.booking.entity.BookingType;
+import com.eventhub.booking.repository.BookingRepository;
+import com.eventhub.booking.saga.BookingSagaOrchestrator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Single-call checkout: lock seats in seat-inventory, price them from the authoritative
+ * seat data, create the booking and enqueue payment initiation.
+ *
+ * If anything after the seat lock fails, the seats are released through the same
+ * {@code seats.release} command the saga uses for compensation, keyed on the lock id.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CheckoutService {
+
+    private final BookingRepository bookingRepository;
+    private final BookingArchive bookingArchive;
+    private final IdempotencyGuard idempotencyGuard;
+    private final BookingSagaOrchestrator sagaOrchestrator;
+    private final SeatInventoryClient seatInventoryClient;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public Booking checkout(UUID userId, UUID eventId, String idempotencyKey, List<UUID> seatIds,
+                            String gateway, String returnUrl) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            // Idempotent retry — don't touch seat locks again. Recent keys are answered from the
+            // idempotency cache; the database check covers keys whose cache entry has expired.
+            AtomicBoolean storedDuplicate = new AtomicBoolean();
+            IdempotencyGuard.Execution execution = idempotencyGuard.execute(userId, idempotencyKey, () ->
+                    bookingRepository.findByIdempotencyKey(idempotencyKey)
+                            .or(() -> bookingArchive.findByIdempotencyKey(idempotencyKey))
+                            .map(existing -> {
+                                storedDuplicate.set(true);
+                                return existing;
+                            })
+                            .orElseGet(() -> lockAndBook(userId, eventId, idempotencyKey, seatIds, gateway, returnUrl)));
+
+            outcome = execution.replayed() || storedDuplicate.get() ? "duplicate" : "success";
+            return execution.booking();
+        } catch (IllegalStateException e) {
+            outcome = "conflict";
+            throw e;
+        } catch (IllegalArgumentException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("booking.checkout.latency")
+                    .description("End-to-end latency of the single-call checkout")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private Booking lockAndBook(UUID userId, UUID eventId, String idempotencyKey, List<UUID> seatIds,
+                                String gateway, String returnUrl) {
+        SeatInventoryClient.SeatLock lock = seatInventoryClient.lockForCheckout(eventId, seatIds, userId);
+        Booking booking;
+        try {
+            booking = sagaOrchestrator.checkout(
+                    buildBooking(userId, eventId, idempotencyKey, lock.lockId(), lock.seats(), BookingType.STANDARD),
+                    gateway, returnUrl);
+        } catch (RuntimeException e) {
+            log.warn("Checkout failed after seat lock for user {} on event {}: {}",
+                    userId, eventId, e.getMessage());
+            releaseSeats(eventId, lock.lockId(), seatIds, userId);
+            throw e;
+        }
+
+        log.info("Checkout completed: booking={} event={} user={} seats={}",
+                booking.getId(), eventId, userId, seatIds.size());
+        return booking;
+    }
+
+    /**
+     * Create a booking for seats the user has already locked, without initiating payment.
+     * The lock is taken again through seat-inventory, which extends the user's own lock, so
+     * the booking is priced from the authoritative seat data rather than from the client.
+     */
+    public Booking createBooking(UUID userId, UUID eventId, String idempotencyKey, List<UUID> seatIds) {
+        return idempotencyGuard.execute(userId, idempotencyKey, () ->
+                bookingRepository.findByIdempotencyKey(idempotencyKey)
+                        .or(() -> bookingArchive.findByIdempotencyKey(idempotencyKey))
+                        .orElseGet(() -> lockAndCreate(userId, eventId, idempotencyKey, seatIds)))
+                .booking();
+    }
+
+    private Booking lockAndCreate(UUID userId, UUID eventId, String idempotencyKey, List<UUID> seatIds) {
+        SeatInventoryClient.SeatLock lock = seatInventoryClient.lockForCheckout(eventId, seatIds, userId);
+        try {
+            return sagaOrchestrator.initiateBooking(
+                    buildBooking(userId, eventId, idempotencyKey, lock.lockId(), lock.seats(), BookingType.STANDARD));
+        } catch (RuntimeException e) {
+            log.warn("Booking creation failed after seat lock for user {} on event {}: {}",
+                    userId, eventId, e.getMessage());
+            releaseSeats(eventId, lock.lockId(), seatIds, userId);
+            throw e;
+        }
+    }
+
+    /**
+     * Group booking: lock a block of up to a few thousand seats in one call, book whichever
+     * are available under a single saga and payment, and report the seats that were not.
+     * Retries and concurrent duplicates go through the same idempotency guard as checkout.
+     *
+     * @param minSeats smallest acceptable block; below it every locked seat is released
+     *                 and the request fails with a conflict
+     */
+    public BulkCheckout checkoutBulk(UUID userId, UUID eventId, String idempotencyKey, List<UUID> seatIds,
+                                     int minSeats, String gateway, String returnUrl) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        List<UUID> requested = seatIds.stream().distinct().toList();
+        try {
+            AtomicReference<BulkCheckout> booked = new AtomicReference<>();
+            IdempotencyGuard.Execution execution = idempotencyGuard.execute(userId, idempotencyKey, () ->
+                    bookingRepository.findByIdempotencyKey(idempotencyKey)
+                            .or(() -> bookingArchive.findByIdempotencyKey(idempotencyKey))
+                            .orElseGet(() -> {
+                                booked.set(lockAndBookBulk(userId, eventId, idempotencyKey, requested, minSeats,
+                                        gateway, returnUrl));
+                                return booked.get().booking();
+                            }));
+
+            BulkCheckout result = booked.get();
+            if (result == null) {
+                outcome = "duplicate";
+                return BulkCheckout.of(execution.booking(), requested);
+            }
+            outcome = result.unavailableSeatIds().isEmpty() ? "success" : "partial";
+            return result;
+        } catch (IllegalStateException e) {
+            outcome = "conflict";
+            throw e;
+        } catch (IllegalArgumentException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("booking.bulk.checkout.latency")
+                    .description("End-to-end latency of group booking checkout")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private BulkCheckout lockAndBookBulk(UUID userId, UUID eventId, String idempotencyKey, List<UUID> requested,
+                                         int minSeats, String gateway, String returnUrl) {
+        SeatInventoryClient.BulkSeatLock lock = seatInventoryClient.lockBulk(eventId, requested, userId);
+        List<UUID> locked = lock.seats().stream().map(SeatInventoryClient.LockedSeat::seatId).toList();
+        if (locked.isEmpty() || locked.size() < minSeats) {
+            if (!locked.isEmpty()) {
+                releaseSeats(eventId, lock.lockId(), locked, userId);
+            }
+            throw new IllegalStateException("Only " + locked.size() + " of " + requested.size()
+                    + " seats are available (minimum " + minSeats + ")");
+        }
+
+        Booking booking;
+        try {
+            booking = sagaOrchestrator.checkout(
+                    buildBooking(userId, eventId, idempotencyKey, lock.lockId(), lock.seats(), BookingType.BULK),
+                    gateway, returnUrl);
+        } catch (RuntimeException e) {
+            log.warn("Bulk checkout failed after seat lock for user {} on event {}: {}",
+                    userId, eventId, e.getMessage());
+            releaseSeats(eventId, lock.lockId(), locked, userId);
+            throw e;
+        }
+
+        log.info("Bulk checkout completed: booking={} event={} user={} seats={}/{}",
+                booking.getId(), eventId, userId, locked.size(), requested.size());
+        return new BulkCheckout(booking, requested.size(), lock.unavailableSeatIds());
+    }
+
+    // ─────────────────────────────────────────────
+    // Helpers
+    // ─────────────────────────────────────────────
+
+    private Booking buildBooking(UUID userId, UUID eventId, String idempotencyKey, String lockId,
+                                 List<SeatInventoryClient.LockedSeat> seats, BookingType bookingType) {
+        String currency = seats.get(0).currency();
+        if (seats.stream().anyMatch(s -> !currency.equals(s.currency()))) {
+            throw new IllegalArgumentException("Seats in one booking must share a currency");
+        }
+
+        Booking booking = Booking.builder()
+                .eventId(eventId)
+                .userId(userId)
+                .idempotencyKey(idempotencyKey)
+                .currency(currency)
+                .lockId(lockId)
+                .bookingType(bookingType)
+                .build();
+
+        BigDecimal total = BigDecimal.ZERO;
+        for (SeatInventoryClient.LockedSeat seat : seats) {
+            booking.addSeat(BookedSeat.builder()
+                    .seatId(seat.seatId())
+                    .sectionName(seat.sectionName() != null ? seat.sectionName() : "")
+                    .rowLabel(seat.rowLabel() != null ? seat.rowLabel() : "")
+                    .seatNumber(seat.seatNumber())
+                    .price(seat.price())
+                    .currency(seat.currency())
+                    .build());
+            total = total.add(seat.price());
+        }
+        booking.setTotalAmount(total);
+        return booking;
+    }
+
+    /**
+     * No booking row exists when the checkout fails, so the seat lock id stands in for the
+     * {@code bookingId} that seat-inventory requires and de-duplicates commands on.
+     */
+    private void releaseSeats(UUID eventId, String lockId, List<UUID> seatIds, UUID userId) {
+        try {
+            kafkaTemplate.send("seat-commands", eventId.toString(), Map.of(
+                    "commandType", "seats.release",
+                    "bookingId", lockId,
+                    "eventId", eventId.toString(),
+                    "userId", userId.toString(),
+                    "seatIds", seatIds.stream().map(UUID::toString).toList(),
+                    "timestamp", Instant.now().toString()
+            ));
+        } catch (Exception e) {
+            log.error("Failed to release seats after checkout failure for user {} on event {}: {}",
+                    userId, eventId, e.getMessage());
+        }
+    }
+
+    public record BulkCheckout(Booking booking, int requestedSeats, List<UUID> unavailableSeatIds) {
+
+        static BulkCheckout of(Booking booking, List<UUID> requested) {
+            Set<UUID> booked = booking.getSeats().stream().map(BookedSeat::getSeatId).collect(Collectors.toSet());
+            return new BulkCheckout(booking, requested.size(),
+                    requested.stream().filter(id -> !booked.contains(id)).toList());
+        }
+    }
+}
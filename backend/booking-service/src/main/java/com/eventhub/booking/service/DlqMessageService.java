@@ -0,0 +1,134 @@
+package com.eventhub.booking.service;
+
+import com.eventhub.booking.entity.DlqMessage;
+import com.eventhub.booking.entity.DlqMessageStatus;
+import com.eventhub.booking.kafka.DeadLetterPublisher;
+import com.eventhub.booking.repository.DlqMessageRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Durable store for dead-lettered Kafka records.
+ *
+ * Provenance is read from the {@code kafka_dlt-*} headers written by Spring Kafka's
+ * recoverers and {@link DeadLetterPublisher}; records without them are attributed to the
+ * DLQ topic name minus its {@code -dlq} suffix.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DlqMessageService {
+
+    private static final String DLQ_SUFFIX = "-dlq";
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final DlqMessageRepository dlqMessageRepository;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Persist a DLQ record. Idempotent on the DLQ record's coordinates, so consumer
+     * redelivery never creates duplicates.
+     */
+    @Transactional
+    public Optional<DlqMessage> capture(ConsumerRecord<String, Map<String, Object>> record) {
+        if (dlqMessageRepository.existsByDlqTopicAndDlqPartitionAndDlqOffset(
+                record.topic(), record.partition(), record.offset())) {
+            return Optional.empty();
+        }
+
+        String originalTopic = header(record, KafkaHeaders.DLT_ORIGINAL_TOPIC);
+        if (originalTopic == null) {
+            originalTopic = record.topic().endsWith(DLQ_SUFFIX)
+                    ? record.topic().substring(0, record.topic().length() - DLQ_SUFFIX.length())
+                    : record.topic();
+        }
+
+        DlqMessage message = DlqMessage.builder()
+                .dlqTopic(record.topic())
+                .dlqPartition(record.partition())
+                .dlqOffset(record.offset())
+                .originalTopic(originalTopic)
+                .originalPartition(intHeader(record, KafkaHeaders.DLT_ORIGINAL_PARTITION))
+                .originalOffset(longHeader(record, KafkaHeaders.DLT_ORIGINAL_OFFSET))
+                .messageKey(record.key())
+                .payload(record.value() != null ? record.value() : Map.of())
+                .errorClass(header(record, KafkaHeaders.DLT_EXCEPTION_FQCN))
+                .errorMessage(truncate(header(record, KafkaHeaders.DLT_EXCEPTION_MESSAGE)))
+                .attempts(Objects.requireNonNullElse(intHeader(record, DeadLetterPublisher.ATTEMPTS_HEADER), 0))
+                .status(DlqMessageStatus.PENDING)
+                .build();
+
+        DlqMessage saved = dlqMessageRepository.save(message);
+        meterRegistry.counter("booking.dlq.captured", "topic", originalTopic).increment();
+        return Optional.of(saved);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<DlqMessage> search(DlqMessageStatus status, String originalTopic,
+                                   Instant from, Instant to, int page, int size) {
+        return dlqMessageRepository.search(
+                status != null ? status : DlqMessageStatus.PENDING,
+                originalTopic,
+                from != null ? from : Instant.EPOCH,
+                to != null ? to : Instant.now(),
+                PageRequest.of(page, Math.min(size, 200)));
+    }
+
+    /**
+     * Message counts per original topic and status.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Map<String, Long>> stats() {
+        Map<String, Map<String, Long>> stats = new TreeMap<>();
+        for (Object[] row : dlqMessageRepository.countByTopicAndStatus()) {
+            stats.computeIfAbsent((String) row[0], k -> new TreeMap<>())
+                    .put(row[1].toString(), (Long) row[2]);
+        }
+        return stats;
+    }
+
+    @Transactional
+    public int discard(Collection<UUID> ids) {
+        int discarded = dlqMessageRepository.markDiscarded(ids);
+        log.info("[DLQ] Discarded {} messages", discarded);
+        return discarded;
+    }
+
+    private static String header(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null && header.value() != null
+                ? new String(header.value(), StandardCharsets.UTF_8)
+                : null;
+    }
+
+    private static Integer intHeader(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null && header.value() != null && header.value().length == Integer.BYTES
+                ? ByteBuffer.wrap(header.value()).getInt()
+                : null;
+    }
+
+    private static Long longHeader(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null && header.value() != null && header.value().length == Long.BYTES
+                ? ByteBuffer.wrap(header.value()).getLong()
+                : null;
+    }
+
+    private static String truncate(String value) {
+        return value != null && value.length() > MAX_ERROR_LENGTH ? value.substring(0, MAX_ERROR_LENGTH) : value;
+    }
+}
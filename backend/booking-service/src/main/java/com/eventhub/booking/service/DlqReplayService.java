@@ -0,0 +1,264 @@
+package com.eventhub.booking.service;
+
+import com.eventhub.booking.entity.DlqMessage;
+import com.eventhub.booking.entity.DlqMessageStatus;
+import com.eventhub.booking.repository.DlqMessageRepository;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk redelivery of stored DLQ messages to their original topics.
+ *
+ * A replay job walks matching PENDING messages oldest-first with a keyset cursor, so it
+ * never loads more than one batch into memory. Sends are throttled by a per-job rate
+ * limiter and capped at {@code concurrency} in-flight sends; messages are marked
+ * REPLAYED only after the broker acknowledges them, including when the job stops part-way
+ * through a batch. Failed sends stay PENDING for a later job. Only one job runs at a time so
+ * two operators cannot replay the same backlog twice. Finished jobs are kept for
+ * {@code job-retention-hours} so their progress can still be read.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DlqReplayService {
+
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    private final DlqMessageRepository dlqMessageRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<UUID, ReplayJob> jobs = new ConcurrentHashMap<>();
+
+    @Value("${booking.dlq.replay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${booking.dlq.replay.max-rate-per-second:2000}")
+    private int maxRatePerSecond;
+
+    @Value("${booking.dlq.replay.max-concurrency:64}")
+    private int maxConcurrency;
+
+    @Value("${booking.dlq.replay.job-retention-hours:24}")
+    private long jobRetentionHours;
+
+    private Counter replayed;
+    private Counter failed;
+
+    @PostConstruct
+    void registerMetrics() {
+        replayed = meterRegistry.counter("booking.dlq.replay.messages", "outcome", "replayed");
+        failed = meterRegistry.counter("booking.dlq.replay.messages", "outcome", "failed");
+        Gauge.builder("booking.dlq.replay.remaining", jobs, this::remaining)
+                .description("Matching messages running replay jobs have not reached yet")
+                .register(meterRegistry);
+    }
+
+    public synchronized ReplayJob startReplay(ReplayRequest request) {
+        if (jobs.values().stream().anyMatch(j -> j.getState() == JobState.RUNNING)) {
+            throw new IllegalStateException("A DLQ replay job is already running");
+        }
+        if (request.ratePerSecond() < 1 || request.ratePerSecond() > maxRatePerSecond) {
+            throw new IllegalArgumentException("ratePerSecond must be between 1 and " + maxRatePerSecond);
+        }
+        if (request.concurrency() < 1 || request.concurrency() > maxConcurrency) {
+            throw new IllegalArgumentException("concurrency must be between 1 and " + maxConcurrency);
+        }
+        pruneFinished();
+
+        ReplayJob job = new ReplayJob(UUID.randomUUID(), request);
+        jobs.put(job.getId(), job);
+        Thread.ofVirtual().name("dlq-replay-" + job.getId()).start(() -> run(job));
+
+        log.info("[DLQ] Replay job {} started: topic={} from={} to={} limit={} rate={}/s concurrency={}",
+                job.getId(), request.originalTopic(), request.from(), request.to(),
+                request.limit(), request.ratePerSecond(), request.concurrency());
+        return job;
+    }
+
+    public Optional<ReplayJob> getJob(UUID jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public Collection<ReplayJob> getJobs() {
+        return jobs.values();
+    }
+
+    public boolean cancel(UUID jobId) {
+        ReplayJob job = jobs.get(jobId);
+        if (job == null || job.getState() != JobState.RUNNING) {
+            return false;
+        }
+        job.cancelRequested = true;
+        return true;
+    }
+
+    private void run(ReplayJob job) {
+        ReplayRequest request = job.getRequest();
+        RateLimiter limiter = RateLimiter.of("dlq-replay-" + job.getId(), RateLimiterConfig.custom()
+                .limitForPeriod(request.ratePerSecond())
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .timeoutDuration(Duration.ofMinutes(1))
+                .build());
+        Semaphore inFlight = new Semaphore(request.concurrency());
+
+        Instant afterCreatedAt = Instant.EPOCH;
+        UUID afterId = MIN_UUID;
+
+        try {
+            job.matching.set(Math.min(request.limit(), dlqMessageRepository.countReplayCandidates(
+                    DlqMessageStatus.PENDING, request.originalTopic(), request.from(), request.to())));
+            while (!job.cancelRequested && job.scanned.get() < request.limit()) {
+                int fetch = (int) Math.min(batchSize, request.limit() - job.scanned.get());
+                List<DlqMessage> batch = dlqMessageRepository.findReplayBatch(
+                        DlqMessageStatus.PENDING, request.originalTopic(),
+                        request.from(), request.to(), afterCreatedAt, afterId,
+                        PageRequest.of(0, fetch));
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                Queue<UUID> sent = new ConcurrentLinkedQueue<>();
+                try {
+                    for (DlqMessage message : batch) {
+                        if (job.cancelRequested) {
+                            break;
+                        }
+                        limiter.acquirePermission();
+                        inFlight.acquire();
+                        job.scanned.incrementAndGet();
+                        send(message).whenComplete((result, error) -> {
+                            inFlight.release();
+                            if (error == null) {
+                                sent.add(message.getId());
+                                job.replayed.incrementAndGet();
+                                replayed.increment();
+                            } else {
+                                job.failed.incrementAndGet();
+                                failed.increment();
+                                log.warn("[DLQ] Replay of {} to {} failed: {}",
+                                        message.getId(), message.getOriginalTopic(), error.getMessage());
+                            }
+                        });
+                    }
+                } finally {
+                    // Drain this batch's sends and record the acknowledged ones, even if the batch was cut short
+                    inFlight.acquireUninterruptibly(request.concurrency());
+                    inFlight.release(request.concurrency());
+                    if (!sent.isEmpty()) {
+                        dlqMessageRepository.markReplayed(List.copyOf(sent), Instant.now());
+                    }
+                }
+
+                DlqMessage last = batch.get(batch.size() - 1);
+                afterCreatedAt = last.getCreatedAt();
+                afterId = last.getId();
+            }
+            job.finish(job.cancelRequested ? JobState.CANCELLED : JobState.COMPLETED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish(JobState.CANCELLED);
+        } catch (RuntimeException e) {
+            log.error("[DLQ] Replay job {} failed: {}", job.getId(), e.getMessage(), e);
+            job.finish(JobState.FAILED);
+        }
+
+        log.info("[DLQ] Replay job {} {}: replayed={} failed={}",
+                job.getId(), job.getState(), job.replayed.get(), job.failed.get());
+    }
+
+    private CompletableFuture<?> send(DlqMessage message) {
+        try {
+            Map<String, Object> payload = new HashMap<>(message.getPayload());
+            payload.put("_dlq_replayed_at", Instant.now().toString());
+            return kafkaTemplate.send(message.getOriginalTopic(), message.getMessageKey(), payload);
+        } catch (RuntimeException e) {
+            // Serialization or metadata errors surface synchronously; count them like broker failures
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private double remaining(Map<UUID, ReplayJob> jobs) {
+        return jobs.values().stream()
+                .filter(j -> j.getState() == JobState.RUNNING)
+                .mapToLong(j -> Math.max(0, j.matching.get() - j.scanned.get()))
+                .sum();
+    }
+
+    private void pruneFinished() {
+        Instant cutoff = Instant.now().minus(Duration.ofHours(jobRetentionHours));
+        jobs.values().removeIf(j -> j.getFinishedAt() != null && j.getFinishedAt().isBefore(cutoff));
+    }
+
+    // ─────────────────────────────────────────────
+    // Job model
+    // ─────────────────────────────────────────────
+
+    public record ReplayRequest(String originalTopic, Instant from, Instant to,
+                                long limit, int ratePerSecond, int concurrency) {
+    }
+
+    public enum JobState { RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    @Getter
+    public static class ReplayJob {
+        private final UUID id;
+        private final ReplayRequest request;
+        private final Instant startedAt = Instant.now();
+        private volatile Instant finishedAt;
+        private volatile JobState state = JobState.RUNNING;
+
+        private final AtomicLong matching = new AtomicLong();
+        private final AtomicLong scanned = new AtomicLong();
+        private final AtomicLong replayed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private volatile boolean cancelRequested;
+
+        ReplayJob(UUID id, ReplayRequest request) {
+            this.id = id;
+            this.request = request;
+        }
+
+        void finish(JobState finalState) {
+            this.state = finalState;
+            this.finishedAt = Instant.now();
+        }
+
+        public Map<String, Object> toProgress() {
+            Map<String, Object> progress = new LinkedHashMap<>();
+            progress.put("jobId", id.toString());
+            progress.put("state", state.name());
+            progress.put("originalTopic", request.originalTopic());
+            progress.put("limit", request.limit() != Long.MAX_VALUE ? request.limit() : null);
+            progress.put("matching", matching.get());
+            progress.put("scanned", scanned.get());
+            progress.put("replayed", replayed.get());
+            progress.put("failed", failed.get());
+            progress.put("ratePerSecond", request.ratePerSecond());
+            progress.put("concurrency", request.concurrency());
+            progress.put("startedAt", startedAt.toString());
+            progress.put("finishedAt", finishedAt != null ? finishedAt.toString() : null);
+            return progress;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.eventhub.booking.service;
+
+import com.eventhub.booking.archive.BookingArchive;
+import com.eventhub.booking.entity.Booking;
+import com.eventhub.booking.repository.BookingRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Redis idempotency layer in front of booking creation, consulted before any transaction opens.
+ *
+ * Keys:
+ * - idem:booking:{userId}:{idempotencyKey} → "pending:{token}" while a request is executing,
+ *   then "{bookingId}" for {@code booking.idempotency.ttl-seconds}
+ *
+ * Keys are scoped by user, so two users who happen to send the same Idempotency-Key never see
+ * each other's booking; a key the database already holds for another user's booking is a
+ * conflict. Retries of a completed request are answered with a primary-key read of the booking
+ * (its current status comes from that row) instead of the idempotency-key lookup, transaction
+ * and seat-lock round trip. Identical requests that arrive while one is executing are coalesced:
+ * on the same replica they share its future, on other replicas they wait for the marker to
+ * resolve, both for at most {@code booking.idempotency.wait-timeout-ms}. The pending marker is
+ * refreshed while its request runs, so a slow checkout cannot outlive it and let a duplicate
+ * through. Postgres' unique idempotency key stays the source of truth, so if Redis is
+ * unavailable requests simply go straight through.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyGuard {
+
+    private static final String KEY_PREFIX = "idem:booking:";
+    private static final String PENDING_PREFIX = "pending:";
+
+    // Release the in-flight marker only if it is still ours
+    private static final String RELEASE_SCRIPT = """
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """;
+
+    private static final DefaultRedisScript<Long> RELEASE = new DefaultRedisScript<>(RELEASE_SCRIPT, Long.class);
+
+    // Extend the in-flight marker only if it is still ours
+    private static final String REFRESH_SCRIPT = """
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            end
+            return 0
+            """;
+
+    private static final DefaultRedisScript<Long> REFRESH = new DefaultRedisScript<>(REFRESH_SCRIPT, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final BookingRepository bookingRepository;
+    private final BookingArchive bookingArchive;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, CompletableFuture<Booking>> inFlight = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("idempotency-heartbeat").daemon().factory());
+
+    @Value("${booking.idempotency.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${booking.idempotency.in-flight-ttl-seconds:30}")
+    private long inFlightTtlSeconds;
+
+    @Value("${booking.idempotency.wait-timeout-ms:5000}")
+    private long waitTimeoutMs;
+
+    @Value("${booking.idempotency.poll-interval-ms:50}")
+    private long pollIntervalMs;
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+    }
+
+    /**
+     * Run {@code action} at most once per user and idempotency key, or return the booking an
+     * earlier or concurrent execution produced.
+     *
+     * @throws IllegalStateException if the same request is still executing after
+     *                               {@code booking.idempotency.wait-timeout-ms}, or the key
+     *                               belongs to another user's booking
+     */
+    public Execution execute(UUID userId, String idempotencyKey, Supplier<Booking> action) {
+        String scopedKey = userId + ":" + idempotencyKey;
+        CompletableFuture<Booking> mine = new CompletableFuture<>();
+        CompletableFuture<Booking> running = inFlight.putIfAbsent(scopedKey, mine);
+        if (running != null) {
+            record("coalesced");
+            return ownedBy(userId, new Execution(join(running), true));
+        }
+
+        try {
+            Execution execution = executeOnce(scopedKey, action);
+            mine.complete(execution.booking());
+            return ownedBy(userId, execution);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(scopedKey, mine);
+        }
+    }
+
+    private Execution ownedBy(UUID userId, Execution execution) {
+        // The database key is global: another user's booking may come back for the same key
+        if (!userId.equals(execution.booking().getUserId())) {
+            record("foreign");
+            throw new IllegalStateException("This idempotency key is already in use");
+        }
+        return execution;
+    }
+
+    private Execution executeOnce(String scopedKey, Supplier<Booking> action) {
+        String key = KEY_PREFIX + scopedKey;
+        String token = PENDING_PREFIX + UUID.randomUUID();
+        long deadline = System.currentTimeMillis() + waitTimeoutMs;
+
+        while (true) {
+            String value;
+            boolean acquired;
+            try {
+                value = redisTemplate.opsForValue().get(key);
+                acquired = value == null && Boolean.TRUE.equals(redisTemplate.opsForValue()
+                        .setIfAbsent(key, token, Duration.ofSeconds(inFlightTtlSeconds)));
+            } catch (DataAccessException e) {
+                log.warn("Idempotency cache unavailable, executing directly: {}", e.getMessage());
+                record("bypass");
+                return new Execution(action.get(), false);
+            }
+
+            if (acquired) {
+                record("miss");
+                return new Execution(runAndRemember(key, token, action), false);
+            }
+
+            if (value != null && !value.startsWith(PENDING_PREFIX)) {
+                Optional<Booking> completed = load(value);
+                if (completed.isPresent()) {
+                    record("hit");
+                    return new Execution(completed.get(), true);
+                }
+                // Stale mapping (booking purged) — drop it and let the database decide
+                release(key, value);
+                continue;
+            }
+
+            // Marker held by another replica (or we lost the SETNX race): wait for it to resolve
+            if (System.currentTimeMillis() >= deadline) {
+                record("timeout");
+                throw new IllegalStateException("A request with this idempotency key is still being processed");
+            }
+            sleep();
+        }
+    }
+
+    private Booking runAndRemember(String key, String token, Supplier<Booking> action) {
+        Booking booking;
+        ScheduledFuture<?> heartbeat = startHeartbeat(key, token);
+        try {
+            booking = action.get();
+        } catch (RuntimeException e) {
+            release(key, token);
+            throw e;
+        } finally {
+            heartbeat.cancel(false);
+        }
+
+        try {
+            if (booking.getId() != null) {
+                redisTemplate.opsForValue().set(key, booking.getId().toString(), Duration.ofSeconds(ttlSeconds));
+            } else {
+                release(key, token);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to cache idempotency result for booking {}: {}", booking.getId(), e.getMessage());
+        }
+        return booking;
+    }
+
+    /**
+     * Keep the in-flight marker alive while the action runs: refreshed every third of
+     * {@code booking.idempotency.in-flight-ttl-seconds}, so it only lapses if this replica dies.
+     */
+    private ScheduledFuture<?> startHeartbeat(String key, String token) {
+        long ttlMs = TimeUnit.SECONDS.toMillis(inFlightTtlSeconds);
+        long periodMs = Math.max(1, ttlMs / 3);
+        return heartbeats.scheduleAtFixedRate(() -> {
+            try {
+                redisTemplate.execute(REFRESH, List.of(key), token, String.valueOf(ttlMs));
+            } catch (DataAccessException e) {
+                log.warn("Failed to refresh idempotency marker {}: {}", key, e.getMessage());
+            }
+        }, periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    private Optional<Booking> load(String value) {
+        UUID bookingId = UUID.fromString(value);
+        return bookingRepository.findById(bookingId).or(() -> bookingArchive.findById(bookingId));
+    }
+
+    private void release(String key, String token) {
+        try {
+            redisTemplate.execute(RELEASE, List.of(key), token);
+        } catch (DataAccessException e) {
+            log.warn("Failed to release idempotency marker {}: {}", key, e.getMessage());
+        }
+    }
+
+    private Booking join(CompletableFuture<Booking> running) {
+        try {
+            return running.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            record("timeout");
+            throw new IllegalStateException("A request with this idempotency key is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a duplicate request");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(pollIntervalMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a duplicate request");
+        }
+    }
+
+    private void record(String result) {
+        meterRegistry.counter("booking.idempotency.requests", "result", result).increment();
+    }
+
+    /**
+     * @param replayed true if the booking was produced by an earlier or concurrent request
+     */
+    public record Execution(Booking booking, boolean replayed) {}
+}
@@ -7,14 +7,25 @@ import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
 import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Generates QR code images as Base64-encoded PNG data URIs.
@@ -26,6 +37,32 @@ public class QrCodeService {
 
     private static final int QR_WIDTH = 300;
     private static final int QR_HEIGHT = 300;
+    // Seat tickets are printed or scanned individually; a smaller image with medium error
+    // correction is plenty and renders several times faster across thousands of seats
+    private static final int SEAT_QR_SIZE = 200;
+
+    // Seat tickets render on their own small pool so a large group booking cannot occupy
+    // every core or the JVM-wide common pool; when the queue is full the caller renders
+    private final ExecutorService renderPool;
+    private final int renderThreads;
+
+    public QrCodeService(@Value("${booking.tickets.render-threads:2}") int renderThreads) {
+        this.renderThreads = renderThreads;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.renderPool = new ThreadPoolExecutor(renderThreads, renderThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(renderThreads * 4),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "qr-render-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderPool.shutdownNow();
+    }
 
     /**
      * Generate a Base64-encoded PNG QR code for a booking.
@@ -41,15 +78,54 @@ public class QrCodeService {
                 "{\"bookingId\":\"%s\",\"eventId\":\"%s\",\"userId\":\"%s\",\"seats\":%d,\"ts\":%d}",
                 bookingId, eventId, userId, seatCount, System.currentTimeMillis()
         );
+        return render(payload, QR_WIDTH, QR_HEIGHT, ErrorCorrectionLevel.H,
+                "QR:" + bookingId + ":" + eventId + ":" + userId);
+    }
+
+    /**
+     * Generate one ticket QR code per seat of a group booking. Rendering is CPU-bound; the
+     * seats are split into one slice per render thread and encoded on the bounded render pool.
+     * Must not be called inside a database transaction: a 2,000-seat block takes seconds.
+     *
+     * @return seatId → Base64-encoded data URI
+     */
+    public Map<UUID, String> generateSeatQrCodes(UUID bookingId, UUID eventId, List<UUID> seatIds) {
+        long ts = System.currentTimeMillis();
+        int sliceSize = Math.max(1, (seatIds.size() + renderThreads - 1) / renderThreads);
+
+        List<CompletableFuture<Map<UUID, String>>> slices = new ArrayList<>();
+        for (int from = 0; from < seatIds.size(); from += sliceSize) {
+            List<UUID> slice = seatIds.subList(from, Math.min(from + sliceSize, seatIds.size()));
+            slices.add(CompletableFuture.supplyAsync(() -> renderSeats(bookingId, eventId, slice, ts), renderPool));
+        }
+
+        Map<UUID, String> tickets = new HashMap<>(seatIds.size() * 2);
+        slices.forEach(slice -> tickets.putAll(slice.join()));
+        return tickets;
+    }
+
+    private Map<UUID, String> renderSeats(UUID bookingId, UUID eventId, List<UUID> seatIds, long ts) {
+        Map<UUID, String> tickets = new HashMap<>(seatIds.size() * 2);
+        for (UUID seatId : seatIds) {
+            tickets.put(seatId, render(
+                    String.format("{\"bookingId\":\"%s\",\"eventId\":\"%s\",\"seatId\":\"%s\",\"ts\":%d}",
+                            bookingId, eventId, seatId, ts),
+                    SEAT_QR_SIZE, SEAT_QR_SIZE, ErrorCorrectionLevel.M,
+                    "QR:" + bookingId + ":" + eventId + ":" + seatId));
+        }
+        return tickets;
+    }
 
+    private String render(String payload, int width, int height, ErrorCorrectionLevel errorCorrection,
+                          String fallback) {
         try {
             QRCodeWriter writer = new QRCodeWriter();
             Map<EncodeHintType, Object> hints = Map.of(
-                    EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.H,
+                    EncodeHintType.ERROR_CORRECTION, errorCorrection,
                     EncodeHintType.MARGIN, 2
             );
 
-            BitMatrix matrix = writer.encode(payload, BarcodeFormat.QR_CODE, QR_WIDTH, QR_HEIGHT, hints);
+            BitMatrix matrix = writer.encode(payload, BarcodeFormat.QR_CODE, width, height, hints);
 
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             MatrixToImageWriter.writeToStream(matrix, "PNG", outputStream);
@@ -59,9 +135,9 @@ public class QrCodeService {
             return "data:image/png;base64," + base64;
 
         } catch (WriterException | IOException e) {
-            log.error("Failed to generate QR code for booking {}: {}", bookingId, e.getMessage());
+            log.error("Failed to generate QR code for {}: {}", fallback, e.getMessage());
             // Fallback to text-based QR identifier
-            return "QR:" + bookingId + ":" + eventId + ":" + userId;
+            return fallback;
         }
     }
 }
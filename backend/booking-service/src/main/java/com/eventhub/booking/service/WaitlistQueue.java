@@ -0,0 +1,200 @@
+package com.eventhub.booking.service;
+
+import com.eventhub.booking.entity.WaitlistEntry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Redis index over the waitlist, one sorted set per event.
+ *
+ * Keys:
+ * - waitlist:queue:{eventId} → ZSET of userId scored by join time (epoch millis)
+ * - waitlist:seats:{eventId} → HASH of userId → requested seat count
+ * - waitlist:sections:{eventId} → HASH of userId → requested section (absent: any section)
+ *
+ * Postgres stays the durable record; this index only answers "what is my position"
+ * (ZRANK, O(log n)) and "who gets the next N seats" (atomic Lua pop), and can be rebuilt
+ * from the table at any time.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WaitlistQueue {
+
+    private static final String QUEUE_PREFIX = "waitlist:queue:";
+    private static final String SEATS_PREFIX = "waitlist:seats:";
+    private static final String SECTIONS_PREFIX = "waitlist:sections:";
+
+    // Walks the queue head in join order and removes the entries whose seat request fits
+    // into the remaining seats of the given section, until seats run out or scanLimit entries
+    // were inspected. An empty section (not known) fits every entry; an entry without a section
+    // fits every section. Entries that do not fit keep their place. Returns a flat list of
+    // userId, seatCount pairs.
+    private static final String OFFER_SCRIPT = """
+            local queueKey = KEYS[1]
+            local seatsKey = KEYS[2]
+            local sectionsKey = KEYS[3]
+            local remaining = tonumber(ARGV[1])
+            local scanLimit = tonumber(ARGV[2])
+            local section = ARGV[3]
+            local offered = {}
+
+            local head = redis.call('ZRANGE', queueKey, 0, scanLimit - 1)
+            for i, userId in ipairs(head) do
+                if remaining <= 0 then
+                    break
+                end
+                local wanted = tonumber(redis.call('HGET', seatsKey, userId) or '1')
+                local wantedSection = redis.call('HGET', sectionsKey, userId)
+                local sectionFits = section == '' or not wantedSection or wantedSection == section
+                if wanted <= remaining and sectionFits then
+                    redis.call('ZREM', queueKey, userId)
+                    redis.call('HDEL', seatsKey, userId)
+                    redis.call('HDEL', sectionsKey, userId)
+                    remaining = remaining - wanted
+                    table.insert(offered, userId)
+                    table.insert(offered, tostring(wanted))
+                end
+            end
+
+            return offered
+            """;
+
+    private static final DefaultRedisScript<List> OFFER = new DefaultRedisScript<>(OFFER_SCRIPT, List.class);
+
+    // Swaps freshly built staging keys in for the live ones in one step. An empty staging key
+    // means an empty waitlist. RENAME carries the staging TTL over, so it is cleared afterwards.
+    private static final String SWAP_SCRIPT = """
+            for i = 1, 3 do
+                local staging = KEYS[i]
+                local live = KEYS[i + 3]
+                if redis.call('EXISTS', staging) == 1 then
+                    redis.call('RENAME', staging, live)
+                    redis.call('PERSIST', live)
+                else
+                    redis.call('DEL', live)
+                end
+            end
+            return 1
+            """;
+
+    private static final DefaultRedisScript<Long> SWAP = new DefaultRedisScript<>(SWAP_SCRIPT, Long.class);
+
+    // Staging keys outlive a crashed rebuild by this much at most
+    private static final Duration STAGING_TTL = Duration.ofMinutes(5);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public void add(UUID eventId, UUID userId, String sectionId, int seatCount, long joinedAtMillis) {
+        redisTemplate.opsForZSet().addIfAbsent(queueKey(eventId), userId.toString(), joinedAtMillis);
+        redisTemplate.opsForHash().put(seatsKey(eventId), userId.toString(), String.valueOf(seatCount));
+        if (sectionId != null) {
+            redisTemplate.opsForHash().put(sectionsKey(eventId), userId.toString(), sectionId);
+        }
+    }
+
+    public void remove(UUID eventId, UUID userId) {
+        redisTemplate.opsForZSet().remove(queueKey(eventId), userId.toString());
+        redisTemplate.opsForHash().delete(seatsKey(eventId), userId.toString());
+        redisTemplate.opsForHash().delete(sectionsKey(eventId), userId.toString());
+    }
+
+    /**
+     * Zero-based rank of the user in the event's queue, or empty if the user is not indexed.
+     */
+    public Optional<Long> rank(UUID eventId, UUID userId) {
+        return Optional.ofNullable(redisTemplate.opsForZSet().rank(queueKey(eventId), userId.toString()));
+    }
+
+    public long size(UUID eventId) {
+        Long size = redisTemplate.opsForZSet().zCard(queueKey(eventId));
+        return size != null ? size : 0;
+    }
+
+    /**
+     * Atomically take the earliest entries whose seat requests fit into {@code availableSeats}
+     * of {@code sectionId} ({@code null} when the seats' section is not known).
+     * Safe across replicas: each entry can be offered at most once.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Offer> pollOffers(UUID eventId, String sectionId, int availableSeats, int scanLimit) {
+        List<Object> raw = redisTemplate.execute(OFFER,
+                List.of(queueKey(eventId), seatsKey(eventId), sectionsKey(eventId)),
+                String.valueOf(availableSeats), String.valueOf(scanLimit), sectionId != null ? sectionId : "");
+
+        List<Offer> offers = new ArrayList<>();
+        if (raw == null) {
+            return offers;
+        }
+        for (int i = 0; i + 1 < raw.size(); i += 2) {
+            offers.add(new Offer(UUID.fromString(raw.get(i).toString()), Integer.parseInt(raw.get(i + 1).toString())));
+        }
+        return offers;
+    }
+
+    /**
+     * Replace the event's index with the given WAITING entries. The new index is written to
+     * staging keys and swapped in atomically, so readers and offer polls never see it half built.
+     */
+    public void rebuild(UUID eventId, List<WaitlistEntry> waiting) {
+        String suffix = ":rebuild:" + UUID.randomUUID();
+        String stagingQueue = queueKey(eventId) + suffix;
+        String stagingSeats = seatsKey(eventId) + suffix;
+        String stagingSections = sectionsKey(eventId) + suffix;
+
+        if (!waiting.isEmpty()) {
+            Set<ZSetOperations.TypedTuple<String>> members = new HashSet<>();
+            Map<String, String> seats = new HashMap<>();
+            Map<String, String> sections = new HashMap<>();
+            for (WaitlistEntry entry : waiting) {
+                members.add(ZSetOperations.TypedTuple.of(entry.getUserId().toString(),
+                        (double) entry.getCreatedAt().toEpochMilli()));
+                seats.put(entry.getUserId().toString(), String.valueOf(entry.getSeatCount()));
+                if (entry.getSectionId() != null) {
+                    sections.put(entry.getUserId().toString(), entry.getSectionId());
+                }
+            }
+            redisTemplate.opsForZSet().add(stagingQueue, members);
+            redisTemplate.opsForHash().putAll(stagingSeats, seats);
+            redisTemplate.expire(stagingQueue, STAGING_TTL);
+            redisTemplate.expire(stagingSeats, STAGING_TTL);
+            if (!sections.isEmpty()) {
+                redisTemplate.opsForHash().putAll(stagingSections, sections);
+                redisTemplate.expire(stagingSections, STAGING_TTL);
+            }
+        }
+
+        redisTemplate.execute(SWAP, List.of(stagingQueue, stagingSeats, stagingSections,
+                queueKey(eventId), seatsKey(eventId), sectionsKey(eventId)));
+        log.info("Rebuilt waitlist index for event {} with {} entries", eventId, waiting.size());
+    }
+
+    private static String queueKey(UUID eventId) {
+        return QUEUE_PREFIX + eventId;
+    }
+
+    private static String seatsKey(UUID eventId) {
+        return SEATS_PREFIX + eventId;
+    }
+
+    private static String sectionsKey(UUID eventId) {
+        return SECTIONS_PREFIX + eventId;
+    }
+
+    public record Offer(UUID userId, int seatCount) {
+    }
+}
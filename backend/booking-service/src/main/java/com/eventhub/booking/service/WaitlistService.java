@@ -4,25 +4,40 @@ import com.eventhub.booking.entity.WaitlistEntry;
 import com.eventhub.booking.repository.WaitlistRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Waitlist engine. Postgres ({@code waitlist_entries}) is the durable record; a per-event
+ * Redis sorted set ({@link WaitlistQueue}) gives exact positions in O(log n) and hands out
+ * released seats atomically, so concurrent replicas never offer the same seats twice.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class WaitlistService {
 
     private final WaitlistRepository waitlistRepository;
+    private final WaitlistQueue waitlistQueue;
     private final KafkaTemplate<String, Object> kafkaTemplate;
 
+    @Value("${booking.waitlist.hold-seconds:900}")
+    private int holdSeconds;
+
+    @Value("${booking.waitlist.offer-scan-limit:200}")
+    private int offerScanLimit;
+
     @Transactional
     public WaitlistEntry joinWaitlist(UUID eventId, UUID userId, String sectionId, int seatCount) {
         // Idempotent: if already on waitlist, return existing entry
@@ -35,10 +50,13 @@ public class WaitlistService {
                             .seatCount(seatCount)
                             .status("WAITING")
                             .build();
-                    entry = waitlistRepository.save(entry);
+                    // Flush so created_at is assigned; it is the queue score
+                    WaitlistEntry saved = waitlistRepository.saveAndFlush(entry);
+                    afterCommit(() -> waitlistQueue.add(eventId, userId, sectionId, seatCount,
+                            saved.getCreatedAt().toEpochMilli()));
                     log.info("User {} joined waitlist for event {} (section={}, seats={})",
                             userId, eventId, sectionId, seatCount);
-                    return entry;
+                    return saved;
                 });
     }
 
@@ -47,6 +65,7 @@ public class WaitlistService {
         waitlistRepository.findByEventIdAndUserId(eventId, userId)
                 .ifPresent(entry -> {
                     waitlistRepository.delete(entry);
+                    afterCommit(() -> waitlistQueue.remove(eventId, userId));
                     log.info("User {} left waitlist for event {}", userId, eventId);
                 });
     }
@@ -62,49 +81,211 @@ public class WaitlistService {
         return waitlistRepository.findByUserIdOrderByCreatedAtDesc(userId, PageRequest.of(page, size));
     }
 
+    /**
+     * One-based position of the user among WAITING entries for the event, or 0 if the user
+     * is not waiting. Answered by ZRANK; if the Redis index has lost the entry it is rebuilt
+     * from Postgres, and if Redis is unreachable the position is counted in the database.
+     */
     @Transactional(readOnly = true)
     public long getWaitlistPosition(UUID eventId, UUID userId) {
-        return waitlistRepository.findByEventIdAndUserId(eventId, userId)
-                .map(entry -> {
-                    // Count entries created before this one
-                    return waitlistRepository.countByEventIdAndStatus(eventId, "WAITING");
-                })
-                .orElse(0L);
+        Optional<WaitlistEntry> entry = waitlistRepository.findByEventIdAndUserId(eventId, userId)
+                .filter(e -> "WAITING".equals(e.getStatus()));
+        if (entry.isEmpty()) {
+            return 0L;
+        }
+
+        try {
+            Optional<Long> rank = waitlistQueue.rank(eventId, userId);
+            if (rank.isEmpty()) {
+                waitlistQueue.rebuild(eventId,
+                        waitlistRepository.findByEventIdAndStatusOrderByCreatedAtAsc(eventId, "WAITING"));
+                rank = waitlistQueue.rank(eventId, userId);
+            }
+            if (rank.isPresent()) {
+                return rank.get() + 1;
+            }
+        } catch (Exception e) {
+            log.warn("Waitlist index unavailable for event {}, counting in DB: {}", eventId, e.getMessage());
+        }
+
+        return waitlistRepository.countByEventIdAndStatusAndCreatedAtLessThan(
+                eventId, "WAITING", entry.get().getCreatedAt()) + 1;
+    }
+
+    /**
+     * Offer released seats to the earliest waiting users whose request fits. Seats of a known
+     * section only go to users who asked for that section or for any; {@code sections} maps
+     * seat to section and may be missing entries, which are then offered to everyone.
+     * Each offered user's entry moves to OFFERED and the seat inventory service is asked for a
+     * time-boxed hold on their share of the seats. The user is notified only once the hold is
+     * confirmed ({@link #confirmOffer}); if it cannot be placed the offer is withdrawn
+     * ({@link #withdrawOffer}).
+     *
+     * Stale index members (users who left or were already offered) are dropped from the index
+     * without using up seats, and the queue is polled again until the seats are handed out or
+     * nobody else fits. Holds go out only after the status change commits; if it rolls back, the
+     * event's index is rebuilt from Postgres so the popped users regain their places.
+     */
+    @Transactional
+    public List<WaitlistEntry> offerReleasedSeats(UUID eventId, List<UUID> releasedSeatIds, Map<UUID, String> sections) {
+        if (releasedSeatIds.isEmpty()) {
+            return List.of();
+        }
+        onRollback(() -> rebuildIndex(eventId));
+
+        Map<String, List<UUID>> bySection = releasedSeatIds.stream()
+                .collect(Collectors.groupingBy(id -> Objects.requireNonNullElse(sections.get(id), ""),
+                        LinkedHashMap::new, Collectors.toList()));
+
+        List<WaitlistEntry> offered = new ArrayList<>();
+        Map<UUID, List<String>> offeredSeats = new HashMap<>();
+        bySection.forEach((sectionId, seatIds) ->
+                offerSection(eventId, sectionId.isEmpty() ? null : sectionId, seatIds, offered, offeredSeats));
+
+        if (offered.isEmpty()) {
+            return List.of();
+        }
+        waitlistRepository.saveAll(offered);
+        Instant now = Instant.now();
+        afterCommit(() -> offered.forEach(entry -> sendHold(eventId, entry, offeredSeats.get(entry.getId()), now)));
+
+        log.info("Offered {} released seats on event {} to {} waitlisted users",
+                offeredSeats.values().stream().mapToInt(List::size).sum(), eventId, offered.size());
+        return offered;
+    }
+
+    /**
+     * The hold for an offer is in place: tell the user and move the entry to NOTIFIED.
+     * Repeated confirmations are ignored.
+     */
+    @Transactional
+    public void confirmOffer(UUID entryId, List<String> seatIds, Instant holdExpiresAt) {
+        waitlistRepository.findById(entryId)
+                .filter(entry -> "OFFERED".equals(entry.getStatus()))
+                .ifPresent(entry -> {
+                    Instant now = Instant.now();
+                    entry.setStatus("NOTIFIED");
+                    entry.setNotifiedAt(now);
+                    waitlistRepository.save(entry);
+                    afterCommit(() -> sendNotification(entry, seatIds, holdExpiresAt, now));
+                    log.info("Waitlist offer {} held for user {} on event {} until {}",
+                            entryId, entry.getUserId(), entry.getEventId(), holdExpiresAt);
+                });
     }
 
     /**
-     * Called when seats become available for an event.
-     * Notifies the next users in the waitlist.
+     * The hold for an offer could not be placed: the entry goes back to WAITING at its original
+     * place in the queue. Repeated withdrawals are ignored.
      */
     @Transactional
-    public void notifyNextInWaitlist(UUID eventId, int availableSeats) {
-        List<WaitlistEntry> entries = waitlistRepository
-                .findTop10ByEventIdAndStatusOrderByCreatedAtAsc(eventId, "WAITING");
-
-        for (WaitlistEntry entry : entries) {
-            if (availableSeats <= 0) break;
-            if (entry.getSeatCount() <= availableSeats) {
-                entry.setStatus("NOTIFIED");
-                entry.setNotifiedAt(Instant.now());
-                waitlistRepository.save(entry);
-                availableSeats -= entry.getSeatCount();
-
-                // Send notification
-                try {
-                    kafkaTemplate.send("notification-events", entry.getUserId().toString(), Map.of(
-                            "eventType", "waitlist.available",
-                            "userId", entry.getUserId().toString(),
-                            "eventId", eventId.toString(),
-                            "seatCount", entry.getSeatCount(),
-                            "timestamp", Instant.now().toString()
-                    ));
-                } catch (Exception e) {
-                    log.warn("Failed to send waitlist notification: {}", e.getMessage());
+    public void withdrawOffer(UUID entryId, String reason) {
+        waitlistRepository.findById(entryId)
+                .filter(entry -> "OFFERED".equals(entry.getStatus()))
+                .ifPresent(entry -> {
+                    entry.setStatus("WAITING");
+                    waitlistRepository.save(entry);
+                    afterCommit(() -> waitlistQueue.add(entry.getEventId(), entry.getUserId(), entry.getSectionId(),
+                            entry.getSeatCount(), entry.getCreatedAt().toEpochMilli()));
+                    log.info("Waitlist offer {} for user {} on event {} withdrawn: {}",
+                            entryId, entry.getUserId(), entry.getEventId(), reason);
+                });
+    }
+
+    private void offerSection(UUID eventId, String sectionId, List<UUID> seatIds,
+                              List<WaitlistEntry> offered, Map<UUID, List<String>> offeredSeats) {
+        int next = 0;
+        while (next < seatIds.size()) {
+            List<WaitlistQueue.Offer> offers =
+                    waitlistQueue.pollOffers(eventId, sectionId, seatIds.size() - next, offerScanLimit);
+            if (offers.isEmpty()) {
+                return;
+            }
+
+            Map<UUID, WaitlistEntry> entries = waitlistRepository
+                    .findByEventIdAndUserIdIn(eventId, offers.stream().map(WaitlistQueue.Offer::userId).toList())
+                    .stream()
+                    .collect(Collectors.toMap(WaitlistEntry::getUserId, Function.identity()));
+
+            for (WaitlistQueue.Offer offer : offers) {
+                WaitlistEntry entry = entries.get(offer.userId());
+                if (entry == null || !"WAITING".equals(entry.getStatus())) {
+                    // Stale index member — already removed by the poll; its seats go to the next round
+                    continue;
                 }
 
-                log.info("Notified waitlist user {} for event {} ({} seats)",
-                        entry.getUserId(), eventId, entry.getSeatCount());
+                offeredSeats.put(entry.getId(), seatIds.subList(next, next + offer.seatCount()).stream()
+                        .map(UUID::toString)
+                        .toList());
+                next += offer.seatCount();
+
+                entry.setStatus("OFFERED");
+                offered.add(entry);
             }
         }
     }
+
+    private void sendHold(UUID eventId, WaitlistEntry entry, List<String> seatIds, Instant now) {
+        kafkaTemplate.send("seat-commands", eventId.toString(), Map.of(
+                "commandType", "seats.hold",
+                "eventId", eventId.toString(),
+                "userId", entry.getUserId().toString(),
+                "bookingId", entry.getId().toString(),
+                "seatIds", seatIds,
+                "holdSeconds", String.valueOf(holdSeconds),
+                "timestamp", now.toString()
+        ));
+    }
+
+    private void sendNotification(WaitlistEntry entry, List<String> seatIds, Instant holdExpiresAt, Instant now) {
+        try {
+            kafkaTemplate.send("notification-events", entry.getUserId().toString(), Map.of(
+                    "eventType", "waitlist.available",
+                    "userId", entry.getUserId().toString(),
+                    "eventId", entry.getEventId().toString(),
+                    "seatCount", entry.getSeatCount(),
+                    "seatIds", seatIds,
+                    "holdExpiresAt", holdExpiresAt.toString(),
+                    "timestamp", now.toString()
+            ));
+        } catch (Exception e) {
+            log.warn("Failed to send waitlist notification: {}", e.getMessage());
+        }
+    }
+
+    private void rebuildIndex(UUID eventId) {
+        try {
+            waitlistQueue.rebuild(eventId,
+                    waitlistRepository.findByEventIdAndStatusOrderByCreatedAtAsc(eventId, "WAITING"));
+        } catch (Exception e) {
+            // Positions rebuild the index on the next miss
+            log.warn("Failed to restore waitlist index for event {} after rollback: {}", eventId, e.getMessage());
+        }
+    }
+
+    private static void onRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
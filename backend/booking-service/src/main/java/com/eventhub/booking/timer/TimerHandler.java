@@ -0,0 +1,25 @@
+package com.eventhub.booking.timer;
+
+import java.util.UUID;
+
+/**
+ * Callback for one timer type. Invoked by {@link TimerDispatcher} at most once per registered
+ * deadline, inside the transaction that marks the timer FIRED — throwing rolls the claim
+ * back and the timer is retried.
+ */
+public interface TimerHandler {
+
+    String timerType();
+
+    void onTimeout(UUID targetId);
+
+    /**
+     * Whether {@link #onTimeout} runs inside the claim transaction. Handlers that call remote
+     * services return false: the claim then commits first, so no connection is held across the
+     * call, and the handler opens its own short transactions. Throwing still re-arms the timer;
+     * a crash after the claim does not, so such handlers need another deadline as a backstop.
+     */
+    default boolean inClaimTransaction() {
+        return true;
+    }
+}
@@ -0,0 +1,35 @@
+-- Read model for "my bookings" listings.
+-- Denormalised, one row per booking, maintained by the saga on every state transition.
+-- Keeps seat rows and the QR image out of list queries.
+
+CREATE TABLE IF NOT EXISTS user_booking_view (
+    booking_id      UUID PRIMARY KEY REFERENCES bookings(id) ON DELETE CASCADE,
+    user_id         UUID NOT NULL,
+    event_id        UUID NOT NULL,
+    status          VARCHAR(20) NOT NULL,
+    saga_state      VARCHAR(50) NOT NULL,
+    total_amount    DECIMAL(12,2) NOT NULL,
+    currency        VARCHAR(3) NOT NULL,
+    seat_count      INT NOT NULL DEFAULT 0,
+    has_ticket      BOOLEAN NOT NULL DEFAULT FALSE,
+    confirmed_at    TIMESTAMP WITH TIME ZONE,
+    cancelled_at    TIMESTAMP WITH TIME ZONE,
+    created_at      TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at      TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+-- Keyset pagination on (user_id, created_at, booking_id)
+CREATE INDEX idx_user_booking_view_keyset
+    ON user_booking_view(user_id, created_at DESC, booking_id DESC);
+
+-- Backfill from existing bookings
+INSERT INTO user_booking_view (booking_id, user_id, event_id, status, saga_state, total_amount,
+                               currency, seat_count, has_ticket, confirmed_at, cancelled_at,
+                               created_at, updated_at)
+SELECT b.id, b.user_id, b.event_id, b.status, b.saga_state, b.total_amount,
+       b.currency,
+       (SELECT COUNT(*) FROM booked_seats s WHERE s.booking_id = b.id),
+       b.qr_code IS NOT NULL, b.confirmed_at, b.cancelled_at,
+       b.created_at, b.updated_at
+FROM bookings b
+ON CONFLICT (booking_id) DO NOTHING;
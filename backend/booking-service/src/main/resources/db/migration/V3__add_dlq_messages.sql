@@ -0,0 +1,26 @@
+-- Dead-lettered Kafka records captured by DlqConsumer for inspection and bulk replay.
+-- (dlq_topic, dlq_partition, dlq_offset) identifies the DLQ record, so redelivery of the
+-- same DLQ message is captured only once.
+
+CREATE TABLE IF NOT EXISTS dlq_messages (
+    id                  UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    dlq_topic           VARCHAR(255) NOT NULL,
+    dlq_partition       INT NOT NULL,
+    dlq_offset          BIGINT NOT NULL,
+    original_topic      VARCHAR(255) NOT NULL,
+    original_partition  INT,
+    original_offset     BIGINT,
+    message_key         VARCHAR(255),
+    payload             JSONB NOT NULL,
+    error_class         VARCHAR(255),
+    error_message       VARCHAR(2000),
+    attempts            INT NOT NULL DEFAULT 0,
+    status              VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    replay_count        INT NOT NULL DEFAULT 0,
+    last_replayed_at    TIMESTAMP WITH TIME ZONE,
+    created_at          TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    UNIQUE (dlq_topic, dlq_partition, dlq_offset)
+);
+
+-- Replay scans walk PENDING messages per topic in capture order
+CREATE INDEX idx_dlq_messages_replay ON dlq_messages(status, original_topic, created_at, id);
@@ -0,0 +1,25 @@
+-- Durable per-entity deadlines (saga timeouts). Postgres is the source of truth; a Redis
+-- sorted set mirrors the PENDING rows so timers fire within about a second.
+-- (timer_type, target_id) is unique: re-registering a timer moves its deadline.
+
+CREATE TABLE IF NOT EXISTS scheduled_timers (
+    id          UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    timer_type  VARCHAR(100) NOT NULL,
+    target_id   UUID NOT NULL,
+    fire_at     TIMESTAMP WITH TIME ZONE NOT NULL,
+    status      VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts    INT NOT NULL DEFAULT 0,
+    last_error  VARCHAR(1000),
+    created_at  TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    fired_at    TIMESTAMP WITH TIME ZONE,
+    CONSTRAINT uq_scheduled_timers_target UNIQUE (timer_type, target_id)
+);
+
+CREATE INDEX idx_scheduled_timers_due ON scheduled_timers(status, fire_at);
+
+-- Bookings still waiting on the customer get an expiry timer (replaces table polling)
+INSERT INTO scheduled_timers (timer_type, target_id, fire_at)
+SELECT 'booking.expiry', id, COALESCE(expires_at, NOW())
+FROM bookings
+WHERE saga_state IN ('SEATS_LOCKED', 'PAYMENT_PENDING')
+ON CONFLICT (timer_type, target_id) DO NOTHING;
@@ -0,0 +1,3 @@
+-- When the booking entered its current saga state; feeds the per-transition latency metrics.
+-- Left NULL for existing rows (the orchestrator falls back to updated_at).
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS saga_state_changed_at TIMESTAMP WITH TIME ZONE;
@@ -0,0 +1,4 @@
+-- Group bookings: one saga and one payment covering up to a few thousand seats,
+-- each seat carrying its own ticket QR code.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS booking_type VARCHAR(20) NOT NULL DEFAULT 'STANDARD';
+ALTER TABLE booked_seats ADD COLUMN IF NOT EXISTS ticket_qr TEXT;
@@ -0,0 +1,42 @@
+-- Cold tier for finished bookings.
+-- The archiver moves terminal bookings out of `bookings`/`booked_seats` once they are older than
+-- the retention window, so the hot table and its indexes stay bounded by recent activity.
+-- One row per booking; seats are folded into a JSONB array and per-seat ticket images dropped.
+-- Partitioned by creation year; the archiver creates each year's partition before moving into it.
+
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    id                  UUID NOT NULL,
+    event_id            UUID NOT NULL,
+    user_id             UUID NOT NULL,
+    status              VARCHAR(20) NOT NULL,
+    booking_type        VARCHAR(20) NOT NULL,
+    total_amount        DECIMAL(12,2) NOT NULL,
+    currency            VARCHAR(3) NOT NULL,
+    idempotency_key     VARCHAR(255) NOT NULL,
+    payment_id          UUID,
+    qr_code             TEXT,
+    saga_state          VARCHAR(50) NOT NULL,
+    failure_reason      TEXT,
+    confirmed_at        TIMESTAMP WITH TIME ZONE,
+    cancelled_at        TIMESTAMP WITH TIME ZONE,
+    seats               JSONB NOT NULL DEFAULT '[]'::jsonb,
+    created_at          TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at          TIMESTAMP WITH TIME ZONE NOT NULL,
+    archived_at         TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Catches rows whose year partition could not be created; should stay empty
+CREATE TABLE IF NOT EXISTS bookings_archive_default PARTITION OF bookings_archive DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_id ON bookings_archive(id);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_idempotency ON bookings_archive(idempotency_key);
+CREATE INDEX IF NOT EXISTS idx_bookings_archive_user ON bookings_archive(user_id, created_at DESC);
+
+-- Candidate scan for the archiver
+CREATE INDEX IF NOT EXISTS idx_bookings_archivable ON bookings(updated_at)
+    WHERE status IN ('CONFIRMED', 'CANCELLED', 'EXPIRED', 'REFUNDED')
+      AND saga_state IN ('COMPLETED', 'COMPENSATION_COMPLETED', 'FAILED');
+
+-- The listing read model keeps summaries of archived bookings
+ALTER TABLE user_booking_view DROP CONSTRAINT IF EXISTS user_booking_view_booking_id_fkey;
@@ -0,0 +1,16 @@
+-- Saga audit trail for archived bookings.
+-- booking_saga_log cascades from bookings, so the archiver copies a booking's saga steps here in the
+-- same statement that moves the booking to bookings_archive; the cascade then clears the hot rows.
+
+CREATE TABLE IF NOT EXISTS booking_saga_log_archive (
+    id              UUID PRIMARY KEY,
+    booking_id      UUID NOT NULL,
+    step            VARCHAR(50) NOT NULL,
+    status          VARCHAR(20) NOT NULL,
+    payload         JSONB,
+    error_message   TEXT,
+    created_at      TIMESTAMP WITH TIME ZONE NOT NULL,
+    archived_at     TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS idx_saga_log_archive_booking ON booking_saga_log_archive(booking_id, created_at);
@@ -0,0 +1,95 @@
+package com.eventhub.booking.archive;
+
+import com.eventhub.booking.repository.ArchivedBookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingArchiverTest {
+
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BookingArchiver archiver;
+
+    private final Instant cutoff = Instant.parse("2026-04-15T00:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        archiver = new BookingArchiver(archivedBookingRepository, jdbcTemplate,
+                new TransactionTemplate(transactionManager), meterRegistry);
+        ReflectionTestUtils.setField(archiver, "batchSize", 500);
+        ReflectionTestUtils.setField(archiver, "maxBatchesPerRun", 10);
+    }
+
+    @Test
+    @DisplayName("should move batches until a short batch signals the backlog is drained")
+    void shouldArchiveUntilShortBatch() {
+        when(archivedBookingRepository.findOldestArchivableCreatedAt(cutoff))
+                .thenReturn(Optional.of(Instant.parse("2025-11-02T08:00:00Z")));
+        when(archivedBookingRepository.archiveBatch(cutoff, 500)).thenReturn(500, 500, 120);
+
+        int moved = archiver.archive(cutoff);
+
+        assertThat(moved).isEqualTo(1120);
+        verify(archivedBookingRepository, times(3)).archiveBatch(cutoff, 500);
+        assertThat(meterRegistry.get("booking.archive.moved").counter().count()).isEqualTo(1120);
+    }
+
+    @Test
+    @DisplayName("should create a partition for every year between the oldest candidate and the cutoff")
+    void shouldEnsureYearPartitions() {
+        when(archivedBookingRepository.findOldestArchivableCreatedAt(cutoff))
+                .thenReturn(Optional.of(Instant.parse("2025-11-02T08:00:00Z")));
+
+        archiver.archive(cutoff);
+
+        verify(jdbcTemplate).execute(contains("bookings_archive_y2025 PARTITION OF bookings_archive"));
+        verify(jdbcTemplate).execute(contains("bookings_archive_y2026 PARTITION OF bookings_archive"));
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("should stop at the per-run batch budget")
+    void shouldRespectBatchBudget() {
+        ReflectionTestUtils.setField(archiver, "maxBatchesPerRun", 2);
+        when(archivedBookingRepository.findOldestArchivableCreatedAt(cutoff))
+                .thenReturn(Optional.of(Instant.parse("2026-01-10T08:00:00Z")));
+        when(archivedBookingRepository.archiveBatch(cutoff, 500)).thenReturn(500);
+
+        assertThat(archiver.archive(cutoff)).isEqualTo(1000);
+        verify(archivedBookingRepository, times(2)).archiveBatch(cutoff, 500);
+    }
+
+    @Test
+    @DisplayName("should do nothing when no booking is old enough")
+    void shouldSkipWhenNothingArchivable() {
+        when(archivedBookingRepository.findOldestArchivableCreatedAt(cutoff)).thenReturn(Optional.empty());
+
+        assertThat(archiver.archive(cutoff)).isZero();
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
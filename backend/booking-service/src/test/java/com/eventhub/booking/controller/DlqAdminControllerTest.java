@@ -0,0 +1,82 @@
+package com.eventhub.booking.controller;
+
+import com.eventhub.booking.service.DlqMessageService;
+import com.eventhub.booking.service.DlqReplayService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DlqAdminControllerTest {
+
+    @Mock
+    private DlqMessageService dlqMessageService;
+
+    @Mock
+    private DlqReplayService dlqReplayService;
+
+    private DlqAdminController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new DlqAdminController(dlqMessageService, dlqReplayService);
+    }
+
+    @Test
+    @DisplayName("should start an unbounded replay over all time when no limit or window is given")
+    void shouldApplyReplayDefaults() {
+        DlqReplayService.ReplayJob job = mock(DlqReplayService.ReplayJob.class);
+        when(job.toProgress()).thenReturn(Map.of("state", "RUNNING"));
+        when(dlqReplayService.startReplay(any())).thenReturn(job);
+        DlqAdminController.ReplayJobRequest request = new DlqAdminController.ReplayJobRequest();
+        request.setOriginalTopic("payment-events");
+
+        ResponseEntity<Map<String, Object>> response = controller.startReplay(request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        ArgumentCaptor<DlqReplayService.ReplayRequest> started = ArgumentCaptor.forClass(DlqReplayService.ReplayRequest.class);
+        verify(dlqReplayService).startReplay(started.capture());
+        assertThat(started.getValue().originalTopic()).isEqualTo("payment-events");
+        assertThat(started.getValue().from()).isEqualTo(Instant.EPOCH);
+        assertThat(started.getValue().limit()).isEqualTo(Long.MAX_VALUE);
+        assertThat(started.getValue().ratePerSecond()).isEqualTo(200);
+        assertThat(started.getValue().concurrency()).isEqualTo(16);
+    }
+
+    @Test
+    @DisplayName("should map a replay that is already running to 409")
+    void shouldRejectConcurrentReplay() {
+        when(dlqReplayService.startReplay(any())).thenThrow(new IllegalStateException("A DLQ replay job is already running"));
+
+        assertThatThrownBy(() -> controller.startReplay(new DlqAdminController.ReplayJobRequest()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(controller.handleConflict(new IllegalStateException("busy")).getStatusCode())
+                .isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    @DisplayName("should return 404 for unknown replay jobs")
+    void shouldReturnNotFoundForUnknownJob() {
+        UUID jobId = UUID.randomUUID();
+        when(dlqReplayService.getJob(jobId)).thenReturn(Optional.empty());
+        when(dlqReplayService.cancel(jobId)).thenReturn(false);
+
+        assertThat(controller.getReplayJob(jobId).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(controller.cancelReplayJob(jobId).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+}
@@ -0,0 +1,89 @@
+package com.eventhub.booking.kafka;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class KeyOrderedExecutorTest {
+
+    private final KeyOrderedExecutor executor = new KeyOrderedExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    @DisplayName("should run tasks for the same key in submission order")
+    void shouldPreserveOrderPerKey() {
+        List<Integer> seen = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 200; i++) {
+            int n = i;
+            futures.add(executor.submit("booking-1", () -> {
+                if (n % 10 == 0) sleep(1);
+                seen.add(n);
+            }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        assertThat(seen).hasSize(200).isSorted();
+        assertThat(executor.inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("should run tasks for different keys concurrently")
+    void shouldRunDifferentKeysConcurrently() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        CompletableFuture<Void> a = executor.submit("booking-a", () -> awaitQuietly(bothStarted));
+        CompletableFuture<Void> b = executor.submit("booking-b", () -> awaitQuietly(bothStarted));
+
+        CompletableFuture.allOf(a, b).get(5, TimeUnit.SECONDS);
+        assertThat(bothStarted.getCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("should keep processing a key after one of its tasks fails")
+    void shouldContinueAfterFailure() {
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+
+        CompletableFuture<Void> failed = executor.submit("booking-1", () -> {
+            throw new IllegalStateException("boom");
+        });
+        CompletableFuture<Void> next = executor.submit("booking-1", () -> seen.add("next"));
+
+        assertThatThrownBy(failed::join).hasCauseInstanceOf(IllegalStateException.class);
+        next.join();
+        assertThat(seen).containsExactly("next");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Other key never started");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.eventhub.booking.kafka;
+
+import com.eventhub.booking.saga.BookingSagaOrchestrator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentEventConsumerTest {
+
+    @Mock
+    private BookingSagaOrchestrator sagaOrchestrator;
+
+    @Mock
+    private DeadLetterPublisher deadLetterPublisher;
+
+    @Mock
+    private Acknowledgment ack;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PaymentEventConsumer consumer;
+
+    private final UUID bookingId = UUID.randomUUID();
+    private final UUID paymentId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        consumer = new PaymentEventConsumer(sagaOrchestrator, deadLetterPublisher, meterRegistry, ObservationRegistry.NOOP);
+        ReflectionTestUtils.setField(consumer, "maxAttempts", 3);
+        ReflectionTestUtils.setField(consumer, "backoffMs", 0L);
+        consumer.registerMetrics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumer.shutdown();
+    }
+
+    @Test
+    @DisplayName("should apply the event and acknowledge the batch")
+    void shouldApplyAndAcknowledge() {
+        consumer.handlePaymentEvents(List.of(record(0, success())), ack);
+
+        verify(sagaOrchestrator).handlePaymentSuccess(bookingId, paymentId);
+        verifyNoInteractions(deadLetterPublisher);
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    @DisplayName("should retry a transient failure and acknowledge once it succeeds")
+    void shouldRetryTransientFailure() {
+        doThrow(new QueryTimeoutException("db slow"))
+                .doNothing()
+                .when(sagaOrchestrator).handlePaymentSuccess(bookingId, paymentId);
+
+        consumer.handlePaymentEvents(List.of(record(0, success())), ack);
+
+        verify(sagaOrchestrator, times(2)).handlePaymentSuccess(bookingId, paymentId);
+        verifyNoInteractions(deadLetterPublisher);
+        verify(ack).acknowledge();
+        assertThat(meterRegistry.counter("booking.payment.events.retries").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should dead-letter after the last attempt and still acknowledge the batch")
+    void shouldDeadLetterWhenRetriesExhausted() {
+        QueryTimeoutException failure = new QueryTimeoutException("db down");
+        doThrow(failure).when(sagaOrchestrator).handlePaymentSuccess(bookingId, paymentId);
+        ConsumerRecord<String, Map<String, Object>> record = record(0, success());
+
+        consumer.handlePaymentEvents(List.of(record), ack);
+
+        verify(sagaOrchestrator, times(3)).handlePaymentSuccess(bookingId, paymentId);
+        verify(deadLetterPublisher).publish(PaymentEventConsumer.DLQ_TOPIC, record, failure, 3);
+        verify(ack).acknowledge();
+        assertThat(meterRegistry.timer("booking.payment.events.processing", "outcome", "dlq").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should dead-letter an event with a missing field on the first attempt")
+    void shouldDeadLetterInvalidEventImmediately() {
+        ConsumerRecord<String, Map<String, Object>> record = record(0, Map.of("eventType", "payment.success"));
+
+        consumer.handlePaymentEvents(List.of(record), ack);
+
+        verify(deadLetterPublisher).publish(eq(PaymentEventConsumer.DLQ_TOPIC), eq(record),
+                isA(IllegalArgumentException.class), eq(1));
+        verifyNoInteractions(sagaOrchestrator);
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    @DisplayName("should dead-letter a field of the wrong type instead of retrying it")
+    void shouldDeadLetterWrongFieldType() {
+        ConsumerRecord<String, Map<String, Object>> record = record(0,
+                Map.of("eventType", "payment.success", "bookingId", 42, "paymentId", paymentId.toString()));
+
+        consumer.handlePaymentEvents(List.of(record), ack);
+
+        verify(deadLetterPublisher).publish(eq(PaymentEventConsumer.DLQ_TOPIC), eq(record), any(), eq(1));
+        assertThat(meterRegistry.find("booking.payment.events.retries").counter().count()).isZero();
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    @DisplayName("should dead-letter a payload that is not a map on the first attempt")
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void shouldDeadLetterWrongPayloadShape() {
+        ConsumerRecord<String, Map<String, Object>> record =
+                (ConsumerRecord) new ConsumerRecord<>("payment-events", 0, 7L, null, "not-a-map");
+
+        consumer.handlePaymentEvents(List.of(record), ack);
+
+        verify(deadLetterPublisher).publish(eq(PaymentEventConsumer.DLQ_TOPIC), eq(record),
+                isA(ClassCastException.class), eq(1));
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    @DisplayName("should not acknowledge the batch when a record cannot be dead-lettered")
+    void shouldNotAcknowledgeWhenDlqFails() {
+        ConsumerRecord<String, Map<String, Object>> good = record(0, success());
+        ConsumerRecord<String, Map<String, Object>> bad = record(1, Map.of("eventType", "payment.failed"));
+        doThrow(new IllegalStateException("Failed to publish to payment-events-dlq"))
+                .when(deadLetterPublisher).publish(eq(PaymentEventConsumer.DLQ_TOPIC), eq(bad), any(), anyInt());
+
+        assertThatThrownBy(() -> consumer.handlePaymentEvents(List.of(good, bad), ack))
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+
+        verify(sagaOrchestrator).handlePaymentSuccess(bookingId, paymentId);
+        verify(ack, never()).acknowledge();
+    }
+
+    @Test
+    @DisplayName("should treat wrapped shape errors as non-retryable and infrastructure errors as retryable")
+    void shouldClassifyFailures() {
+        assertThat(PaymentEventConsumer.isRetryable(new QueryTimeoutException("db slow"))).isTrue();
+        assertThat(PaymentEventConsumer.isRetryable(new IllegalStateException("wrapped", new ClassCastException()))).isFalse();
+        assertThat(PaymentEventConsumer.isRetryable(new NumberFormatException("bad uuid"))).isFalse();
+    }
+
+    private Map<String, Object> success() {
+        return Map.of("eventType", "payment.success",
+                "bookingId", bookingId.toString(),
+                "paymentId", paymentId.toString());
+    }
+
+    private ConsumerRecord<String, Map<String, Object>> record(long offset, Map<String, Object> value) {
+        return new ConsumerRecord<>("payment-events", 0, offset, bookingId.toString(), value);
+    }
+}
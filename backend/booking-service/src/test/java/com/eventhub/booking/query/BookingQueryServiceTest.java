@@ -0,0 +1,123 @@
+package com.eventhub.booking.query;
+
+import com.eventhub.booking.archive.BookingArchive;
+import com.eventhub.booking.entity.BookingStatus;
+import com.eventhub.booking.entity.SagaState;
+import com.eventhub.booking.entity.UserBookingView;
+import com.eventhub.booking.repository.BookingRepository;
+import com.eventhub.booking.repository.UserBookingViewRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingQueryServiceTest {
+
+    @Mock
+    private UserBookingViewRepository viewRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingArchive bookingArchive;
+
+    @InjectMocks
+    private BookingQueryService queryService;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("should return a next cursor pointing at the last row when more rows exist")
+    void shouldReturnNextCursorWhenMoreRows() {
+        List<UserBookingView> rows = rows(3);
+        when(viewRepository.findFirstPage(eq(userId), any())).thenReturn(rows);
+
+        CursorPage<UserBookingView> page = queryService.getUserBookings(userId, null, 2);
+
+        assertThat(page.items()).hasSize(2);
+        assertThat(page.hasMore()).isTrue();
+        BookingCursor cursor = BookingCursor.decode(page.nextCursor());
+        assertThat(cursor.bookingId()).isEqualTo(rows.get(1).getBookingId());
+        assertThat(cursor.createdAt()).isEqualTo(rows.get(1).getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("should continue after the cursor position on subsequent pages")
+    void shouldSeekAfterCursor() {
+        BookingCursor cursor = new BookingCursor(Instant.parse("2026-01-01T10:00:00.123456Z"), UUID.randomUUID());
+        when(viewRepository.findPageAfter(eq(userId), eq(cursor.createdAt()), eq(cursor.bookingId()), any()))
+                .thenReturn(rows(1));
+
+        CursorPage<UserBookingView> page = queryService.getUserBookings(userId, cursor.encode(), 10);
+
+        assertThat(page.items()).hasSize(1);
+        assertThat(page.hasMore()).isFalse();
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("should reject a malformed cursor")
+    void shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> queryService.getUserBookings(userId, "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("should decode the stored PNG data URI into raw bytes")
+    void shouldDecodeTicketImage() {
+        UUID bookingId = UUID.randomUUID();
+        when(bookingRepository.findQrCodeByIdAndUserId(bookingId, userId))
+                .thenReturn(Optional.of("data:image/png;base64,AQID"));
+
+        Optional<byte[]> png = queryService.getTicketImage(bookingId, userId);
+
+        assertThat(png).hasValueSatisfying(bytes -> assertThat(bytes).containsExactly(1, 2, 3));
+    }
+
+    @Test
+    @DisplayName("should fall back to the archive for tickets of archived bookings")
+    void shouldReadArchivedTicketImage() {
+        UUID bookingId = UUID.randomUUID();
+        when(bookingRepository.findQrCodeByIdAndUserId(bookingId, userId)).thenReturn(Optional.empty());
+        when(bookingArchive.findQrCode(bookingId, userId)).thenReturn(Optional.of("data:image/png;base64,BAU="));
+
+        Optional<byte[]> png = queryService.getTicketImage(bookingId, userId);
+
+        assertThat(png).hasValueSatisfying(bytes -> assertThat(bytes).containsExactly(4, 5));
+    }
+
+    private List<UserBookingView> rows(int count) {
+        List<UserBookingView> rows = new ArrayList<>();
+        Instant createdAt = Instant.parse("2026-03-01T12:00:00Z");
+        for (int i = 0; i < count; i++) {
+            rows.add(UserBookingView.builder()
+                    .bookingId(UUID.randomUUID())
+                    .userId(userId)
+                    .eventId(UUID.randomUUID())
+                    .status(BookingStatus.CONFIRMED)
+                    .sagaState(SagaState.COMPLETED)
+                    .totalAmount(BigDecimal.TEN)
+                    .currency("USD")
+                    .seatCount(1)
+                    .createdAt(createdAt.minusSeconds(i))
+                    .updatedAt(createdAt)
+                    .build());
+        }
+        return rows;
+    }
+}
@@ -1,8 +1,11 @@
 package com.eventhub.booking.saga;
 
+import com.eventhub.booking.archive.BookingArchive;
 import com.eventhub.booking.entity.*;
+import com.eventhub.booking.query.BookingViewProjector;
 import com.eventhub.booking.repository.BookingRepository;
 import com.eventhub.booking.service.QrCodeService;
+import com.eventhub.booking.timer.DurableTimerQueue;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -38,6 +41,18 @@ class BookingSagaOrchestratorTest {
     @Mock
     private QrCodeService qrCodeService;
 
+    @Mock
+    private BookingViewProjector bookingViewProjector;
+
+    @Mock
+    private DurableTimerQueue timerQueue;
+
+    @Mock
+    private SagaMetrics sagaMetrics;
+
+    @Mock
+    private BookingArchive bookingArchive;
+
     @InjectMocks
     private BookingSagaOrchestrator orchestrator;
 
@@ -104,6 +119,26 @@ class BookingSagaOrchestratorTest {
             assertThat(result.getSagaState()).isEqualTo(SagaState.SEATS_LOCKED);
             assertThat(result.getExpiresAt()).isAfter(Instant.now());
             verify(kafkaTemplate).send(eq("booking-events"), anyString(), any(Map.class));
+            verify(timerQueue).schedule("booking.expiry", bookingId, result.getExpiresAt());
+        }
+
+        @Test
+        @DisplayName("should project the saved booking, with its generated timestamps, into the read model")
+        void shouldProjectSavedBooking() {
+            Booking saved = Booking.builder()
+                    .id(bookingId).eventId(eventId).userId(userId)
+                    .status(BookingStatus.PENDING).sagaState(SagaState.SEATS_LOCKED)
+                    .totalAmount(BigDecimal.valueOf(50)).currency("USD")
+                    .idempotencyKey("idem-key-123")
+                    .createdAt(Instant.parse("2026-10-01T10:00:00Z"))
+                    .build();
+            when(bookingRepository.findByIdempotencyKey("idem-key-123")).thenReturn(Optional.empty());
+            when(bookingRepository.save(any(Booking.class))).thenReturn(saved);
+
+            orchestrator.initiateBooking(testBooking);
+
+            verify(bookingViewProjector).project(saved);
+            verify(bookingViewProjector, never()).project(testBooking);
         }
 
         @Test
@@ -118,6 +153,22 @@ class BookingSagaOrchestratorTest {
             assertThat(result.getId()).isEqualTo(bookingId);
             verify(bookingRepository, never()).save(any());
         }
+
+        @Test
+        @DisplayName("should not reuse the idempotency key of an archived booking")
+        void shouldReturnArchivedBookingForDuplicateKey() {
+            Booking archived = Booking.builder().id(UUID.randomUUID()).eventId(eventId).userId(userId)
+                    .idempotencyKey("idem-key-123").status(BookingStatus.CONFIRMED)
+                    .sagaState(SagaState.COMPLETED).build();
+            when(bookingRepository.findByIdempotencyKey("idem-key-123")).thenReturn(Optional.empty());
+            when(bookingArchive.findByIdempotencyKey("idem-key-123")).thenReturn(Optional.of(archived));
+
+            Booking result = orchestrator.initiateBooking(testBooking);
+
+            assertThat(result).isSameAs(archived);
+            verify(bookingRepository, never()).save(any());
+            verifyNoInteractions(timerQueue);
+        }
     }
 
     // ─────────────────────────────────────────────
@@ -226,6 +277,24 @@ class BookingSagaOrchestratorTest {
             Booking lastSave = bookingCaptor.getAllValues().get(bookingCaptor.getAllValues().size() - 1);
             assertThat(lastSave.getSagaState()).isEqualTo(SagaState.COMPENSATION_COMPLETED);
             assertThat(lastSave.getStatus()).isEqualTo(BookingStatus.CANCELLED);
+            verify(sagaMetrics).recordCompensation("payment_failed", SagaState.PAYMENT_PENDING);
+        }
+
+        @Test
+        @DisplayName("should record time spent in the previous saga state")
+        void shouldRecordTransitionLatency() {
+            testBooking.setSagaState(SagaState.PAYMENT_PENDING);
+            testBooking.setSagaStateChangedAt(Instant.now().minusSeconds(30));
+            when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(testBooking));
+            when(bookingRepository.save(any(Booking.class)))
+                    .thenAnswer(inv -> inv.getArgument(0));
+            when(qrCodeService.generateBookingQrCode(any(), any(), any(), anyInt())).thenReturn("data:image/png;base64,x");
+
+            orchestrator.handlePaymentSuccess(bookingId, UUID.randomUUID());
+
+            verify(sagaMetrics).recordTransition(eq(SagaState.PAYMENT_PENDING), eq(SagaState.PAYMENT_COMPLETED),
+                    argThat(d -> d.getSeconds() >= 30));
+            assertThat(testBooking.getSagaState()).isEqualTo(SagaState.COMPLETED);
         }
     }
 
@@ -257,9 +326,28 @@ class BookingSagaOrchestratorTest {
             assertThat(lastSave.getQrCode()).isEqualTo("data:image/png;base64,MOCK_QR");
             assertThat(lastSave.getConfirmedAt()).isNotNull();
 
-            // Should send seat-commands and notification-events
+            // Should send seat-commands and notification-events, and announce the paid booking
             verify(kafkaTemplate).send(eq("seat-commands"), anyString(), any(Map.class));
             verify(kafkaTemplate).send(eq("notification-events"), anyString(), any(Map.class));
+            verify(kafkaTemplate).send(eq("booking-events"), eq(bookingId.toString()), argThat(map -> {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> m = (Map<String, Object>) map;
+                return "booking.confirmed".equals(m.get("eventType"));
+            }));
+        }
+
+        @Test
+        @DisplayName("should leave per-seat tickets of group bookings to a timer after commit")
+        void shouldScheduleSeatTicketsForBulkBooking() {
+            testBooking.setSagaState(SagaState.PAYMENT_COMPLETED);
+            testBooking.setBookingType(BookingType.BULK);
+            when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(testBooking));
+            when(bookingRepository.save(any(Booking.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            orchestrator.confirmBooking(bookingId);
+
+            verify(qrCodeService, never()).generateSeatQrCodes(any(), any(), any());
+            verify(timerQueue).schedule(eq(BookingSagaOrchestrator.SEAT_TICKETS_TIMER), eq(bookingId), any(Instant.class));
         }
 
         @Test
@@ -359,43 +447,72 @@ class BookingSagaOrchestratorTest {
     }
 
     // ─────────────────────────────────────────────
-    // Expire Stale Bookings
+    // Refund completed
     // ─────────────────────────────────────────────
 
     @Nested
-    @DisplayName("expireStaleBookings")
-    class ExpireStaleBookingsTests {
+    @DisplayName("handleRefundCompleted")
+    class HandleRefundCompletedTests {
 
         @Test
-        @DisplayName("should compensate all expired bookings")
-        void shouldExpireStaleBookings() {
-            Booking expired1 = Booking.builder()
-                    .id(UUID.randomUUID()).eventId(eventId).userId(userId)
-                    .sagaState(SagaState.PAYMENT_PENDING)
-                    .totalAmount(BigDecimal.TEN).currency("USD")
-                    .idempotencyKey("exp-1")
-                    .seats(new ArrayList<>())
-                    .build();
+        @DisplayName("should publish booking.refunded for finance")
+        void shouldPublishRefunded() {
+            testBooking.setStatus(BookingStatus.REFUNDED);
+            when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(testBooking));
+
+            orchestrator.handleRefundCompleted(bookingId);
+
+            verify(kafkaTemplate).send(eq("booking-events"), eq(bookingId.toString()), argThat(map -> {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> m = (Map<String, Object>) map;
+                return "booking.refunded".equals(m.get("eventType")) && "50".equals(m.get("totalAmount"));
+            }));
+        }
 
-            when(bookingRepository.findExpiredBookings(eq(SagaState.PAYMENT_PENDING), any(Instant.class)))
-                    .thenReturn(List.of(expired1));
+        @Test
+        @DisplayName("should fall back to the archive for old bookings")
+        void shouldReadArchivedBooking() {
+            when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
+            when(bookingArchive.findById(bookingId)).thenReturn(Optional.of(testBooking));
+
+            orchestrator.handleRefundCompleted(bookingId);
+
+            verify(kafkaTemplate).send(eq("booking-events"), eq(bookingId.toString()), any(Map.class));
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Expire Booking (timer callback)
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("expireBooking")
+    class ExpireBookingTests {
+
+        @Test
+        @DisplayName("should compensate a booking still awaiting payment")
+        void shouldExpireUnpaidBooking() {
+            testBooking.setSagaState(SagaState.PAYMENT_PENDING);
+            when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(testBooking));
             when(bookingRepository.save(any(Booking.class)))
                     .thenAnswer(inv -> inv.getArgument(0));
 
-            orchestrator.expireStaleBookings();
+            orchestrator.expireBooking(bookingId);
 
             verify(bookingRepository, atLeast(1)).save(bookingCaptor.capture());
             Booking lastSave = bookingCaptor.getAllValues().get(bookingCaptor.getAllValues().size() - 1);
             assertThat(lastSave.getStatus()).isEqualTo(BookingStatus.CANCELLED);
+            assertThat(lastSave.getFailureReason()).contains("Payment timeout");
+            verify(timerQueue).cancel("booking.expiry", bookingId);
         }
 
         @Test
-        @DisplayName("should do nothing if no expired bookings")
-        void shouldDoNothingIfNoExpired() {
-            when(bookingRepository.findExpiredBookings(eq(SagaState.PAYMENT_PENDING), any(Instant.class)))
-                    .thenReturn(List.of());
+        @DisplayName("should ignore bookings that already completed")
+        void shouldIgnoreCompletedBooking() {
+            testBooking.setSagaState(SagaState.COMPLETED);
+            when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(testBooking));
 
-            orchestrator.expireStaleBookings();
+            orchestrator.expireBooking(bookingId);
 
             verify(bookingRepository, never()).save(any());
         }
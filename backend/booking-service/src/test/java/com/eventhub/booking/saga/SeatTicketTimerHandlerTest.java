@@ -0,0 +1,121 @@
+package com.eventhub.booking.saga;
+
+import com.eventhub.booking.entity.BookedSeat;
+import com.eventhub.booking.entity.Booking;
+import com.eventhub.booking.entity.BookingType;
+import com.eventhub.booking.repository.BookingRepository;
+import com.eventhub.booking.service.QrCodeService;
+import com.eventhub.booking.timer.DurableTimerQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatTicketTimerHandlerTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private QrCodeService qrCodeService;
+
+    @Mock
+    private DurableTimerQueue timerQueue;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SeatTicketTimerHandler handler;
+
+    private final UUID bookingId = UUID.randomUUID();
+    private final UUID eventId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        handler = new SeatTicketTimerHandler(bookingRepository, qrCodeService, timerQueue,
+                new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(handler, "sweepGraceMinutes", 10L);
+        ReflectionTestUtils.setField(handler, "sweepBatchSize", 100);
+    }
+
+    @Test
+    @DisplayName("should render outside the claim transaction")
+    void shouldRunOutsideClaimTransaction() {
+        assertThat(handler.inClaimTransaction()).isFalse();
+    }
+
+    @Test
+    @DisplayName("should render only seats without a ticket and store the result")
+    void shouldIssueMissingTickets() {
+        BookedSeat issued = seat("data:image/png;base64,OLD");
+        BookedSeat missing = seat(null);
+        Booking booking = booking(issued, missing);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(qrCodeService.generateSeatQrCodes(bookingId, eventId, List.of(missing.getSeatId())))
+                .thenReturn(Map.of(missing.getSeatId(), "data:image/png;base64,NEW"));
+
+        handler.onTimeout(bookingId);
+
+        assertThat(issued.getTicketQr()).isEqualTo("data:image/png;base64,OLD");
+        assertThat(missing.getTicketQr()).isEqualTo("data:image/png;base64,NEW");
+        verify(bookingRepository).save(booking);
+    }
+
+    @Test
+    @DisplayName("should do nothing when every seat already has a ticket")
+    void shouldSkipIssuedBooking() {
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking(seat("data:image/png;base64,OLD"))));
+
+        handler.onTimeout(bookingId);
+
+        verifyNoInteractions(qrCodeService);
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("should re-arm group bookings whose tickets were never rendered")
+    void shouldRearmMissingTickets() {
+        when(bookingRepository.findBulkBookingsMissingTickets(any(Instant.class), any())).thenReturn(List.of(bookingId));
+
+        handler.sweepMissingTickets();
+
+        verify(timerQueue).schedule(eq(BookingSagaOrchestrator.SEAT_TICKETS_TIMER), eq(bookingId), any(Instant.class));
+    }
+
+    private Booking booking(BookedSeat... seats) {
+        Booking booking = Booking.builder()
+                .id(bookingId)
+                .eventId(eventId)
+                .userId(UUID.randomUUID())
+                .bookingType(BookingType.BULK)
+                .build();
+        for (BookedSeat seat : seats) {
+            booking.addSeat(seat);
+        }
+        return booking;
+    }
+
+    private BookedSeat seat(String ticketQr) {
+        return BookedSeat.builder()
+                .id(UUID.randomUUID())
+                .seatId(UUID.randomUUID())
+                .ticketQr(ticketQr)
+                .build();
+    }
+}
@@ -0,0 +1,278 @@
+package com.eventhub.booking.service;
+
+import com.eventhub.booking.archive.BookingArchive;
+import com.eventhub.booking.client.SeatInventoryClient;
+import com.eventhub.booking.entity.BookedSeat;
+import com.eventhub.booking.entity.Booking;
+import com.eventhub.booking.entity.BookingType;
+import com.eventhub.booking.repository.BookingRepository;
+import com.eventhub.booking.saga.BookingSagaOrchestrator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CheckoutServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingArchive bookingArchive;
+
+    @Mock
+    private IdempotencyGuard idempotencyGuard;
+
+    @Mock
+    private BookingSagaOrchestrator sagaOrchestrator;
+
+    @Mock
+    private SeatInventoryClient seatInventoryClient;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CheckoutService checkoutService;
+
+    private final UUID eventId = UUID.randomUUID();
+    private final UUID userId = UUID.randomUUID();
+    private final UUID seatA = UUID.randomUUID();
+    private final UUID seatB = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        checkoutService = new CheckoutService(bookingRepository, bookingArchive, idempotencyGuard, sagaOrchestrator,
+                seatInventoryClient, kafkaTemplate, meterRegistry);
+        lenient().when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        lenient().when(idempotencyGuard.execute(any(), anyString(), any())).thenAnswer(inv ->
+                new IdempotencyGuard.Execution(inv.<Supplier<Booking>>getArgument(2).get(), false));
+    }
+
+    private SeatInventoryClient.SeatLock lock() {
+        return new SeatInventoryClient.SeatLock("lock-1", Instant.now().plusSeconds(600), List.of(
+                new SeatInventoryClient.LockedSeat(seatA, "VIP", "A", 1, new BigDecimal("120.00"), "EUR"),
+                new SeatInventoryClient.LockedSeat(seatB, "VIP", "A", 2, new BigDecimal("80.00"), "EUR")));
+    }
+
+    @Test
+    @DisplayName("should price the booking from seat-inventory and initiate payment")
+    void shouldCheckoutWithAuthoritativePrices() {
+        when(bookingRepository.findByIdempotencyKey("key-1")).thenReturn(Optional.empty());
+        when(seatInventoryClient.lockForCheckout(eventId, List.of(seatA, seatB), userId)).thenReturn(lock());
+        when(sagaOrchestrator.checkout(any(Booking.class), eq("STRIPE"), eq("https://return")))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        Booking booking = checkoutService.checkout(userId, eventId, "key-1", List.of(seatA, seatB),
+                "STRIPE", "https://return");
+
+        assertThat(booking.getTotalAmount()).isEqualByComparingTo("200.00");
+        assertThat(booking.getCurrency()).isEqualTo("EUR");
+        assertThat(booking.getLockId()).isEqualTo("lock-1");
+        assertThat(booking.getSeats()).extracting(s -> s.getSectionName()).containsOnly("VIP");
+        assertThat(meterRegistry.get("booking.checkout.latency").tag("outcome", "success").timer().count())
+                .isEqualTo(1);
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("should release the locked seats when booking creation fails")
+    @SuppressWarnings("unchecked")
+    void shouldReleaseSeatsOnFailure() {
+        when(bookingRepository.findByIdempotencyKey("key-2")).thenReturn(Optional.empty());
+        when(seatInventoryClient.lockForCheckout(eventId, List.of(seatA, seatB), userId)).thenReturn(lock());
+        when(sagaOrchestrator.checkout(any(Booking.class), anyString(), anyString()))
+                .thenThrow(new IllegalStateException("Booking is not in the correct state for payment"));
+
+        assertThatThrownBy(() -> checkoutService.checkout(userId, eventId, "key-2", List.of(seatA, seatB),
+                "STRIPE", ""))
+                .isInstanceOf(IllegalStateException.class);
+
+        ArgumentCaptor<Object> command = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaTemplate).send(eq("seat-commands"), eq(eventId.toString()), command.capture());
+        Map<String, Object> payload = (Map<String, Object>) command.getValue();
+        assertThat(payload).containsOnlyKeys("commandType", "bookingId", "eventId", "userId", "seatIds", "timestamp");
+        assertThat(payload.get("commandType")).isEqualTo("seats.release");
+        assertThat(payload.get("bookingId")).isEqualTo("lock-1");
+        assertThat(payload.get("eventId")).isEqualTo(eventId.toString());
+        assertThat(payload.get("userId")).isEqualTo(userId.toString());
+        assertThat((List<String>) payload.get("seatIds")).containsExactly(seatA.toString(), seatB.toString());
+        assertThat(payload.get("timestamp")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("should return the existing booking for a repeated idempotency key without locking")
+    void shouldShortCircuitDuplicates() {
+        Booking existing = Booking.builder().id(UUID.randomUUID()).eventId(eventId).userId(userId)
+                .idempotencyKey("key-3").build();
+        when(bookingRepository.findByIdempotencyKey("key-3")).thenReturn(Optional.of(existing));
+
+        assertThat(checkoutService.checkout(userId, eventId, "key-3", List.of(seatA), "STRIPE", ""))
+                .isSameAs(existing);
+        verifyNoInteractions(seatInventoryClient, sagaOrchestrator);
+    }
+
+    @Test
+    @DisplayName("should count a booking replayed from the idempotency cache as a duplicate")
+    void shouldReportCachedReplayAsDuplicate() {
+        Booking cached = Booking.builder().id(UUID.randomUUID()).eventId(eventId).userId(userId)
+                .idempotencyKey("key-4").build();
+        when(idempotencyGuard.execute(eq(userId), eq("key-4"), any())).thenReturn(new IdempotencyGuard.Execution(cached, true));
+
+        assertThat(checkoutService.checkout(userId, eventId, "key-4", List.of(seatA), "STRIPE", ""))
+                .isSameAs(cached);
+        assertThat(meterRegistry.get("booking.checkout.latency").tag("outcome", "duplicate").timer().count())
+                .isEqualTo(1);
+        verifyNoInteractions(bookingRepository, seatInventoryClient, sagaOrchestrator);
+    }
+
+    // ─────────────────────────────────────────────
+    // Group bookings
+    // ─────────────────────────────────────────────
+
+    @Test
+    @DisplayName("should price a created booking from seat-inventory without initiating payment")
+    void shouldCreateBookingWithAuthoritativePrices() {
+        when(bookingRepository.findByIdempotencyKey("key-5")).thenReturn(Optional.empty());
+        when(seatInventoryClient.lockForCheckout(eventId, List.of(seatA, seatB), userId)).thenReturn(lock());
+        when(sagaOrchestrator.initiateBooking(any(Booking.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Booking booking = checkoutService.createBooking(userId, eventId, "key-5", List.of(seatA, seatB));
+
+        assertThat(booking.getTotalAmount()).isEqualByComparingTo("200.00");
+        assertThat(booking.getCurrency()).isEqualTo("EUR");
+        assertThat(booking.getSeats()).extracting(s -> s.getPrice())
+                .containsExactly(new BigDecimal("120.00"), new BigDecimal("80.00"));
+        verify(sagaOrchestrator, never()).checkout(any(), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("should release the locked seats when a created booking cannot be saved")
+    void shouldReleaseSeatsWhenCreateFails() {
+        when(bookingRepository.findByIdempotencyKey("key-6")).thenReturn(Optional.empty());
+        when(seatInventoryClient.lockForCheckout(eventId, List.of(seatA, seatB), userId)).thenReturn(lock());
+        when(sagaOrchestrator.initiateBooking(any(Booking.class))).thenThrow(new IllegalStateException("db down"));
+
+        assertThatThrownBy(() -> checkoutService.createBooking(userId, eventId, "key-6", List.of(seatA, seatB)))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(kafkaTemplate).send(eq("seat-commands"), eq(eventId.toString()), argThat(command ->
+                "seats.release".equals(((Map<?, ?>) command).get("commandType"))));
+    }
+
+    @Test
+    @DisplayName("should book the available part of a 2,000-seat block under one booking")
+    void shouldPartiallyFulfilLargeBlock() {
+        List<UUID> requested = IntStream.range(0, 2000).mapToObj(i -> UUID.randomUUID()).toList();
+        List<UUID> taken = requested.subList(1900, 2000);
+        List<SeatInventoryClient.LockedSeat> locked = requested.subList(0, 1900).stream()
+                .map(id -> new SeatInventoryClient.LockedSeat(id, "FLOOR", "A", 1, new BigDecimal("25.00"), "USD"))
+                .toList();
+        when(bookingRepository.findByIdempotencyKey("bulk-1")).thenReturn(Optional.empty());
+        when(seatInventoryClient.lockBulk(eventId, requested, userId)).thenReturn(
+                new SeatInventoryClient.BulkSeatLock("lock-b", Instant.now().plusSeconds(600), locked, taken));
+        when(sagaOrchestrator.checkout(any(Booking.class), anyString(), anyString()))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        CheckoutService.BulkCheckout result = checkoutService.checkoutBulk(
+                userId, eventId, "bulk-1", requested, 1500, "STRIPE", "");
+
+        Booking booking = result.booking();
+        assertThat(booking.getBookingType()).isEqualTo(BookingType.BULK);
+        assertThat(booking.getSeats()).hasSize(1900);
+        assertThat(booking.getTotalAmount()).isEqualByComparingTo("47500.00");
+        assertThat(result.requestedSeats()).isEqualTo(2000);
+        assertThat(result.unavailableSeatIds()).isEqualTo(taken);
+        assertThat(meterRegistry.get("booking.bulk.checkout.latency").tag("outcome", "partial").timer().count())
+                .isEqualTo(1);
+        verify(sagaOrchestrator, times(1)).checkout(any(Booking.class), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("should answer a retried block booking through the idempotency guard without locking again")
+    void shouldReplayBulkCheckoutThroughGuard() {
+        Booking cached = Booking.builder().id(UUID.randomUUID()).eventId(eventId).userId(userId)
+                .idempotencyKey("bulk-4").bookingType(BookingType.BULK).build();
+        cached.addSeat(BookedSeat.builder().seatId(seatA).build());
+        when(idempotencyGuard.execute(eq(userId), eq("bulk-4"), any()))
+                .thenReturn(new IdempotencyGuard.Execution(cached, true));
+
+        CheckoutService.BulkCheckout result = checkoutService.checkoutBulk(
+                userId, eventId, "bulk-4", List.of(seatA, seatB), 1, "STRIPE", "");
+
+        assertThat(result.booking()).isSameAs(cached);
+        assertThat(result.unavailableSeatIds()).containsExactly(seatB);
+        assertThat(meterRegistry.get("booking.bulk.checkout.latency").tag("outcome", "duplicate").timer().count())
+                .isEqualTo(1);
+        verifyNoInteractions(seatInventoryClient, sagaOrchestrator);
+    }
+
+    @Test
+    @DisplayName("should release the block when fewer than the minimum seats could be locked")
+    @SuppressWarnings("unchecked")
+    void shouldReleaseBlockBelowMinimum() {
+        when(bookingRepository.findByIdempotencyKey("bulk-2")).thenReturn(Optional.empty());
+        when(seatInventoryClient.lockBulk(eventId, List.of(seatA, seatB), userId)).thenReturn(
+                new SeatInventoryClient.BulkSeatLock("lock-c", Instant.now().plusSeconds(600),
+                        List.of(new SeatInventoryClient.LockedSeat(seatA, "VIP", "A", 1, BigDecimal.TEN, "USD")),
+                        List.of(seatB)));
+
+        assertThatThrownBy(() -> checkoutService.checkoutBulk(
+                userId, eventId, "bulk-2", List.of(seatA, seatB), 2, "STRIPE", ""))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Only 1 of 2");
+
+        ArgumentCaptor<Object> command = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaTemplate).send(eq("seat-commands"), eq(eventId.toString()), command.capture());
+        Map<String, Object> payload = (Map<String, Object>) command.getValue();
+        assertThat(payload.get("commandType")).isEqualTo("seats.release");
+        assertThat(payload.get("bookingId")).isEqualTo("lock-c");
+        assertThat(payload.get("userId")).isEqualTo(userId.toString());
+        assertThat((List<String>) payload.get("seatIds")).containsExactly(seatA.toString());
+        verifyNoInteractions(sagaOrchestrator);
+    }
+
+    @Test
+    @DisplayName("should release the locked block when booking creation fails")
+    @SuppressWarnings("unchecked")
+    void shouldReleaseBlockOnFailure() {
+        when(bookingRepository.findByIdempotencyKey("bulk-3")).thenReturn(Optional.empty());
+        when(seatInventoryClient.lockBulk(eventId, List.of(seatA, seatB), userId)).thenReturn(
+                new SeatInventoryClient.BulkSeatLock("lock-d", Instant.now().plusSeconds(600), lock().seats(),
+                        List.of()));
+        when(sagaOrchestrator.checkout(any(Booking.class), anyString(), anyString()))
+                .thenThrow(new IllegalStateException("Booking is not in the correct state for payment"));
+
+        assertThatThrownBy(() -> checkoutService.checkoutBulk(
+                userId, eventId, "bulk-3", List.of(seatA, seatB), 1, "STRIPE", ""))
+                .isInstanceOf(IllegalStateException.class);
+
+        ArgumentCaptor<Object> command = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaTemplate).send(eq("seat-commands"), eq(eventId.toString()), command.capture());
+        Map<String, Object> payload = (Map<String, Object>) command.getValue();
+        assertThat(payload.get("commandType")).isEqualTo("seats.release");
+        assertThat(payload.get("bookingId")).isEqualTo("lock-d");
+        assertThat((List<String>) payload.get("seatIds")).containsExactly(seatA.toString(), seatB.toString());
+    }
+}
@@ -0,0 +1,106 @@
+package com.eventhub.booking.service;
+
+import com.eventhub.booking.entity.DlqMessage;
+import com.eventhub.booking.entity.DlqMessageStatus;
+import com.eventhub.booking.kafka.DeadLetterPublisher;
+import com.eventhub.booking.repository.DlqMessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DlqMessageServiceTest {
+
+    @Mock
+    private DlqMessageRepository dlqMessageRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DlqMessageService dlqMessageService;
+
+    @BeforeEach
+    void setUp() {
+        dlqMessageService = new DlqMessageService(dlqMessageRepository, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("should store provenance from the dead-letter headers")
+    void shouldCaptureProvenanceFromHeaders() {
+        ConsumerRecord<String, Map<String, Object>> record = record("payment-events-dlq", 7L);
+        record.headers()
+                .add(KafkaHeaders.DLT_ORIGINAL_TOPIC, "payment-events".getBytes(StandardCharsets.UTF_8))
+                .add(KafkaHeaders.DLT_ORIGINAL_PARTITION, ByteBuffer.allocate(Integer.BYTES).putInt(2).array())
+                .add(KafkaHeaders.DLT_ORIGINAL_OFFSET, ByteBuffer.allocate(Long.BYTES).putLong(41L).array())
+                .add(KafkaHeaders.DLT_EXCEPTION_FQCN, "java.lang.IllegalStateException".getBytes(StandardCharsets.UTF_8))
+                .add(DeadLetterPublisher.ATTEMPTS_HEADER, ByteBuffer.allocate(Integer.BYTES).putInt(5).array());
+        when(dlqMessageRepository.save(any(DlqMessage.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        DlqMessage captured = dlqMessageService.capture(record).orElseThrow();
+
+        assertThat(captured.getOriginalTopic()).isEqualTo("payment-events");
+        assertThat(captured.getOriginalPartition()).isEqualTo(2);
+        assertThat(captured.getOriginalOffset()).isEqualTo(41L);
+        assertThat(captured.getErrorClass()).isEqualTo("java.lang.IllegalStateException");
+        assertThat(captured.getAttempts()).isEqualTo(5);
+        assertThat(captured.getStatus()).isEqualTo(DlqMessageStatus.PENDING);
+        assertThat(meterRegistry.get("booking.dlq.captured").tag("topic", "payment-events").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should derive the original topic from the DLQ topic name when headers are missing")
+    void shouldFallBackToTopicSuffix() {
+        when(dlqMessageRepository.save(any(DlqMessage.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        DlqMessage captured = dlqMessageService.capture(record("booking-commands-dlq", 3L)).orElseThrow();
+
+        assertThat(captured.getOriginalTopic()).isEqualTo("booking-commands");
+        assertThat(captured.getOriginalPartition()).isNull();
+        assertThat(captured.getAttempts()).isZero();
+    }
+
+    @Test
+    @DisplayName("should not store a redelivered DLQ record twice")
+    void shouldSkipRedelivery() {
+        when(dlqMessageRepository.existsByDlqTopicAndDlqPartitionAndDlqOffset("booking-commands-dlq", 0, 3L))
+                .thenReturn(true);
+
+        Optional<DlqMessage> captured = dlqMessageService.capture(record("booking-commands-dlq", 3L));
+
+        assertThat(captured).isEmpty();
+        verify(dlqMessageRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("should group message counts by original topic and status")
+    void shouldGroupStats() {
+        when(dlqMessageRepository.countByTopicAndStatus()).thenReturn(List.of(
+                new Object[]{"payment-events", DlqMessageStatus.PENDING, 4L},
+                new Object[]{"payment-events", DlqMessageStatus.REPLAYED, 9L},
+                new Object[]{"booking-commands", DlqMessageStatus.PENDING, 1L}));
+
+        Map<String, Map<String, Long>> stats = dlqMessageService.stats();
+
+        assertThat(stats).containsOnlyKeys("booking-commands", "payment-events");
+        assertThat(stats.get("payment-events")).containsEntry("PENDING", 4L).containsEntry("REPLAYED", 9L);
+    }
+
+    private ConsumerRecord<String, Map<String, Object>> record(String topic, long offset) {
+        return new ConsumerRecord<>(topic, 0, offset, "key-1", Map.of("eventType", "payment.success"));
+    }
+}
@@ -0,0 +1,183 @@
+package com.eventhub.booking.service;
+
+import com.eventhub.booking.entity.DlqMessage;
+import com.eventhub.booking.entity.DlqMessageStatus;
+import com.eventhub.booking.repository.DlqMessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DlqReplayServiceTest {
+
+    @Mock
+    private DlqMessageRepository dlqMessageRepository;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DlqReplayService replayService;
+
+    @BeforeEach
+    void setUp() {
+        replayService = new DlqReplayService(dlqMessageRepository, kafkaTemplate, meterRegistry);
+        ReflectionTestUtils.setField(replayService, "batchSize", 500);
+        ReflectionTestUtils.setField(replayService, "maxRatePerSecond", 2000);
+        ReflectionTestUtils.setField(replayService, "maxConcurrency", 64);
+        ReflectionTestUtils.setField(replayService, "jobRetentionHours", 24L);
+        replayService.registerMetrics();
+    }
+
+    @Test
+    @DisplayName("should send every matching message and mark the acknowledged ones replayed")
+    void shouldReplayAndMarkAcknowledged() {
+        DlqMessage first = message("booking-commands");
+        DlqMessage second = message("booking-commands");
+        stubCandidates(first, second);
+        when(kafkaTemplate.send(eq("booking-commands"), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        DlqReplayService.ReplayJob job = replayService.startReplay(request(Long.MAX_VALUE, 4));
+        awaitFinished(job);
+
+        assertThat(job.getState()).isEqualTo(DlqReplayService.JobState.COMPLETED);
+        assertThat(job.toProgress()).containsEntry("replayed", 2L).containsEntry("matching", 2L);
+        assertThat(replayedIds()).containsExactlyInAnyOrder(first.getId(), second.getId());
+    }
+
+    @Test
+    @DisplayName("should count a send that throws as failed and still mark the messages already sent")
+    void shouldSurviveSynchronousSendFailure() {
+        DlqMessage good = message("booking-commands");
+        DlqMessage bad = message("booking-commands");
+        stubCandidates(good, bad);
+        when(kafkaTemplate.send(eq("booking-commands"), eq(good.getMessageKey()), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(kafkaTemplate.send(eq("booking-commands"), eq(bad.getMessageKey()), any()))
+                .thenThrow(new IllegalStateException("Failed to serialize value"));
+
+        DlqReplayService.ReplayJob job = replayService.startReplay(request(Long.MAX_VALUE, 4));
+        awaitFinished(job);
+
+        assertThat(job.getState()).isEqualTo(DlqReplayService.JobState.COMPLETED);
+        assertThat(job.toProgress()).containsEntry("replayed", 1L).containsEntry("failed", 1L);
+        assertThat(replayedIds()).containsExactly(good.getId());
+    }
+
+    @Test
+    @DisplayName("should report remaining work from the matching count, not the unbounded limit")
+    void shouldReportRemainingFromMatchingCount() {
+        DlqMessage first = message("booking-commands");
+        DlqMessage second = message("booking-commands");
+        DlqMessage third = message("booking-commands");
+        stubCandidates(first, second, third);
+        CompletableFuture<SendResult<String, Object>> pending = new CompletableFuture<>();
+        when(kafkaTemplate.send(eq("booking-commands"), anyString(), any()))
+                .thenReturn(pending)
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        DlqReplayService.ReplayJob job = replayService.startReplay(request(Long.MAX_VALUE, 1));
+        await(() -> job.getScanned().get() == 1);
+
+        assertThat(meterRegistry.get("booking.dlq.replay.remaining").gauge().value()).isEqualTo(2.0);
+        assertThat(job.toProgress()).containsEntry("limit", null);
+
+        pending.complete(null);
+        awaitFinished(job);
+        assertThat(meterRegistry.get("booking.dlq.replay.remaining").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("should refuse a second job while one is running")
+    void shouldRejectConcurrentJob() {
+        stubCandidates(message("booking-commands"));
+        CompletableFuture<SendResult<String, Object>> pending = new CompletableFuture<>();
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(pending);
+
+        DlqReplayService.ReplayJob running = replayService.startReplay(request(Long.MAX_VALUE, 1));
+
+        assertThatThrownBy(() -> replayService.startReplay(request(Long.MAX_VALUE, 1)))
+                .isInstanceOf(IllegalStateException.class);
+        pending.complete(null);
+        awaitFinished(running);
+    }
+
+    @Test
+    @DisplayName("should forget finished jobs once they are past the retention window")
+    void shouldPruneFinishedJobs() {
+        stubCandidates();
+
+        DlqReplayService.ReplayJob old = replayService.startReplay(request(Long.MAX_VALUE, 1));
+        awaitFinished(old);
+        ReflectionTestUtils.setField(old, "finishedAt", Instant.now().minus(Duration.ofHours(25)));
+        DlqReplayService.ReplayJob latest = replayService.startReplay(request(Long.MAX_VALUE, 1));
+
+        assertThat(replayService.getJob(old.getId())).isEmpty();
+        assertThat(replayService.getJob(latest.getId())).isPresent();
+    }
+
+    private void stubCandidates(DlqMessage... messages) {
+        when(dlqMessageRepository.countReplayCandidates(eq(DlqMessageStatus.PENDING), any(), any(), any()))
+                .thenReturn((long) messages.length);
+        lenient().when(dlqMessageRepository.findReplayBatch(eq(DlqMessageStatus.PENDING), any(), any(), any(),
+                        any(), any(), any()))
+                .thenReturn(List.of(messages))
+                .thenReturn(List.of());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<UUID> replayedIds() {
+        ArgumentCaptor<Collection<UUID>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(dlqMessageRepository, atLeastOnce()).markReplayed(ids.capture(), any());
+        return ids.getAllValues().stream().flatMap(Collection::stream).toList();
+    }
+
+    private DlqReplayService.ReplayRequest request(long limit, int concurrency) {
+        return new DlqReplayService.ReplayRequest(null, Instant.EPOCH, Instant.now(), limit, 1000, concurrency);
+    }
+
+    private DlqMessage message(String topic) {
+        return DlqMessage.builder()
+                .id(UUID.randomUUID())
+                .dlqTopic(topic + "-dlq")
+                .originalTopic(topic)
+                .messageKey(UUID.randomUUID().toString())
+                .payload(Map.of("commandType", "booking.create"))
+                .createdAt(Instant.now().minusSeconds(60))
+                .build();
+    }
+
+    private void awaitFinished(DlqReplayService.ReplayJob job) {
+        await(() -> job.getState() != DlqReplayService.JobState.RUNNING);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(5));
+        while (!condition.getAsBoolean()) {
+            assertThat(Instant.now()).as("condition not met in time").isBefore(deadline);
+            Thread.onSpinWait();
+        }
+    }
+}
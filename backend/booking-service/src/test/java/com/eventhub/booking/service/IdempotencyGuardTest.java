@@ -0,0 +1,277 @@
+package com.eventhub.booking.service;
+
+import com.eventhub.booking.archive.BookingArchive;
+import com.eventhub.booking.entity.Booking;
+import com.eventhub.booking.entity.BookingStatus;
+import com.eventhub.booking.repository.BookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyGuardTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOps;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingArchive bookingArchive;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private IdempotencyGuard guard;
+
+    private final UUID userId = UUID.randomUUID();
+    private final String redisKey = "idem:booking:" + userId + ":key-1";
+
+    private final Booking booking = Booking.builder()
+            .id(UUID.randomUUID())
+            .eventId(UUID.randomUUID())
+            .userId(userId)
+            .idempotencyKey("key-1")
+            .status(BookingStatus.PENDING)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        guard = new IdempotencyGuard(redisTemplate, bookingRepository, bookingArchive, meterRegistry);
+        ReflectionTestUtils.setField(guard, "ttlSeconds", 600L);
+        ReflectionTestUtils.setField(guard, "inFlightTtlSeconds", 30L);
+        ReflectionTestUtils.setField(guard, "waitTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(guard, "pollIntervalMs", 5L);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOps);
+    }
+
+    @AfterEach
+    void tearDown() {
+        guard.shutdown();
+    }
+
+    @Test
+    @DisplayName("should execute once and remember the booking id")
+    void shouldExecuteAndRemember() {
+        when(valueOps.get(redisKey)).thenReturn(null);
+        when(valueOps.setIfAbsent(eq(redisKey), startsWith("pending:"), any(Duration.class)))
+                .thenReturn(true);
+
+        IdempotencyGuard.Execution execution = guard.execute(userId, "key-1", () -> booking);
+
+        assertThat(execution.booking()).isSameAs(booking);
+        assertThat(execution.replayed()).isFalse();
+        verify(valueOps).set(redisKey, booking.getId().toString(), Duration.ofSeconds(600));
+    }
+
+    @Test
+    @DisplayName("should answer a completed key with a primary-key read and skip the action")
+    void shouldReplayCompletedRequest() {
+        when(valueOps.get(redisKey)).thenReturn(booking.getId().toString());
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+
+        IdempotencyGuard.Execution execution = guard.execute(userId, "key-1", () -> {
+            throw new AssertionError("must not execute");
+        });
+
+        assertThat(execution.booking()).isSameAs(booking);
+        assertThat(execution.replayed()).isTrue();
+        assertThat(meterRegistry.get("booking.idempotency.requests").tag("result", "hit").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should wait for a request in flight on another replica")
+    void shouldWaitForInFlightMarker() {
+        when(valueOps.get(redisKey))
+                .thenReturn("pending:other", "pending:other", booking.getId().toString());
+        when(bookingRepository.findById(booking.getId())).thenReturn(Optional.of(booking));
+
+        IdempotencyGuard.Execution execution = guard.execute(userId, "key-1", () -> {
+            throw new AssertionError("must not execute");
+        });
+
+        assertThat(execution.booking()).isSameAs(booking);
+        verify(valueOps, never()).setIfAbsent(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("should give up with a conflict if the other request does not finish in time")
+    void shouldTimeOutWaiting() {
+        ReflectionTestUtils.setField(guard, "waitTimeoutMs", 20L);
+        when(valueOps.get(redisKey)).thenReturn("pending:other");
+
+        assertThatThrownBy(() -> guard.execute(userId, "key-1", () -> booking))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("should release the in-flight marker when the action fails")
+    @SuppressWarnings("unchecked")
+    void shouldReleaseMarkerOnFailure() {
+        when(valueOps.get(redisKey)).thenReturn(null);
+        when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+
+        assertThatThrownBy(() -> guard.execute(userId, "key-1", () -> {
+            throw new IllegalStateException("Seat already locked");
+        })).hasMessage("Seat already locked");
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(redisKey)), startsWith("pending:"));
+        verify(valueOps, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("should execute directly when Redis is unavailable")
+    void shouldBypassWhenRedisDown() {
+        when(valueOps.get(anyString())).thenThrow(new RedisConnectionFailureException("down"));
+
+        IdempotencyGuard.Execution execution = guard.execute(userId, "key-1", () -> booking);
+
+        assertThat(execution.booking()).isSameAs(booking);
+        assertThat(execution.replayed()).isFalse();
+    }
+
+    @Test
+    @DisplayName("should coalesce concurrent identical requests on the same replica")
+    void shouldCoalesceConcurrentRequests() throws Exception {
+        when(valueOps.get(redisKey)).thenReturn(null);
+        when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<IdempotencyGuard.Execution> first = executor.submit(() -> guard.execute(userId, "key-1", () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                await(release);
+                return booking;
+            }));
+            started.await(1, TimeUnit.SECONDS);
+            Future<IdempotencyGuard.Execution> second = executor.submit(() -> guard.execute(userId, "key-1", () -> {
+                executions.incrementAndGet();
+                return booking;
+            }));
+            Thread.sleep(50);
+            release.countDown();
+
+            assertThat(first.get(1, TimeUnit.SECONDS).replayed()).isFalse();
+            assertThat(second.get(1, TimeUnit.SECONDS).replayed()).isTrue();
+            assertThat(second.get().booking()).isSameAs(booking);
+            assertThat(executions).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("should keep the same key apart for different users")
+    void shouldScopeKeyByUser() {
+        UUID otherUser = UUID.randomUUID();
+        Booking theirs = Booking.builder().id(UUID.randomUUID()).userId(otherUser).idempotencyKey("key-1").build();
+        when(valueOps.get("idem:booking:" + otherUser + ":key-1")).thenReturn(null);
+        when(valueOps.setIfAbsent(eq("idem:booking:" + otherUser + ":key-1"), startsWith("pending:"), any(Duration.class)))
+                .thenReturn(true);
+
+        IdempotencyGuard.Execution execution = guard.execute(otherUser, "key-1", () -> theirs);
+
+        assertThat(execution.booking()).isSameAs(theirs);
+        verify(valueOps, never()).get(redisKey);
+    }
+
+    @Test
+    @DisplayName("should reject a key whose stored booking belongs to another user")
+    void shouldRejectForeignBooking() {
+        Booking theirs = Booking.builder().id(UUID.randomUUID()).userId(UUID.randomUUID()).idempotencyKey("key-1").build();
+        when(valueOps.get(redisKey)).thenReturn(null);
+        when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+
+        assertThatThrownBy(() -> guard.execute(userId, "key-1", () -> theirs))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("already in use");
+    }
+
+    @Test
+    @DisplayName("should refresh the in-flight marker while a slow request runs")
+    @SuppressWarnings("unchecked")
+    void shouldRefreshMarkerWhileRunning() {
+        ReflectionTestUtils.setField(guard, "inFlightTtlSeconds", 1L);
+        when(valueOps.get(redisKey)).thenReturn(null);
+        when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+
+        guard.execute(userId, "key-1", () -> {
+            sleepMs(800);
+            return booking;
+        });
+
+        verify(redisTemplate, atLeastOnce())
+                .execute(any(RedisScript.class), eq(List.of(redisKey)), startsWith("pending:"), eq("1000"));
+    }
+
+    @Test
+    @DisplayName("should stop waiting for a coalesced request after the wait timeout")
+    void shouldBoundCoalescedWait() throws Exception {
+        ReflectionTestUtils.setField(guard, "waitTimeoutMs", 50L);
+        when(valueOps.get(redisKey)).thenReturn(null);
+        when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> guard.execute(userId, "key-1", () -> {
+                started.countDown();
+                await(release);
+                return booking;
+            }));
+            started.await(1, TimeUnit.SECONDS);
+
+            assertThatThrownBy(() -> guard.execute(userId, "key-1", () -> booking))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("still being processed");
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void sleepMs(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
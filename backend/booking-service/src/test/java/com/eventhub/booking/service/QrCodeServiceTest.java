@@ -1,15 +1,25 @@
 package com.eventhub.booking.service;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.*;
 
 class QrCodeServiceTest {
 
-    private final QrCodeService qrCodeService = new QrCodeService();
+    private final QrCodeService qrCodeService = new QrCodeService(2);
+
+    @AfterEach
+    void tearDown() {
+        qrCodeService.shutdown();
+    }
 
     @Test
     @DisplayName("should generate a valid Base64-encoded PNG data URI")
@@ -44,4 +54,16 @@ class QrCodeServiceTest {
 
         assertThat(result).startsWith("data:image/png;base64,");
     }
+
+    @Test
+    @DisplayName("should render a distinct ticket for every seat of a group booking")
+    void shouldRenderSeatTicketsForLargeGroup() {
+        List<UUID> seatIds = IntStream.range(0, 200).mapToObj(i -> UUID.randomUUID()).toList();
+
+        Map<UUID, String> tickets = qrCodeService.generateSeatQrCodes(UUID.randomUUID(), UUID.randomUUID(), seatIds);
+
+        assertThat(tickets).hasSize(200).containsOnlyKeys(seatIds);
+        assertThat(tickets.values()).allMatch(qr -> qr.startsWith("data:image/png;base64,"));
+        assertThat(new HashSet<>(tickets.values())).hasSize(200);
+    }
 }
@@ -0,0 +1,245 @@
+package com.eventhub.booking.service;
+
+import com.eventhub.booking.entity.WaitlistEntry;
+import com.eventhub.booking.repository.WaitlistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatcher;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistServiceTest {
+
+    @Mock
+    private WaitlistRepository waitlistRepository;
+
+    @Mock
+    private WaitlistQueue waitlistQueue;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @InjectMocks
+    private WaitlistService waitlistService;
+
+    private final UUID eventId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(waitlistService, "holdSeconds", 900);
+        ReflectionTestUtils.setField(waitlistService, "offerScanLimit", 200);
+        lenient().when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    @DisplayName("should return the ZRANK-based position of a waiting user")
+    void shouldReturnPositionFromIndex() {
+        UUID userId = UUID.randomUUID();
+        when(waitlistRepository.findByEventIdAndUserId(eventId, userId))
+                .thenReturn(Optional.of(entry(userId, 1)));
+        when(waitlistQueue.rank(eventId, userId)).thenReturn(Optional.of(41L));
+
+        assertThat(waitlistService.getWaitlistPosition(eventId, userId)).isEqualTo(42L);
+        verify(waitlistRepository, never()).countByEventIdAndStatus(any(), any());
+    }
+
+    @Test
+    @DisplayName("should fall back to counting earlier entries when the index is unavailable")
+    void shouldCountInDbWhenIndexFails() {
+        UUID userId = UUID.randomUUID();
+        WaitlistEntry entry = entry(userId, 1);
+        when(waitlistRepository.findByEventIdAndUserId(eventId, userId)).thenReturn(Optional.of(entry));
+        when(waitlistQueue.rank(eventId, userId)).thenThrow(new IllegalStateException("redis down"));
+        when(waitlistRepository.countByEventIdAndStatusAndCreatedAtLessThan(eventId, "WAITING", entry.getCreatedAt()))
+                .thenReturn(7L);
+
+        assertThat(waitlistService.getWaitlistPosition(eventId, userId)).isEqualTo(8L);
+    }
+
+    @Test
+    @DisplayName("should request a hold for each offered user's share of the seats and skip stale entries")
+    void shouldOfferReleasedSeats() {
+        UUID first = UUID.randomUUID();
+        UUID stale = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        List<UUID> released = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+        when(waitlistQueue.pollOffers(eventId, null, 3, 200)).thenReturn(List.of(
+                new WaitlistQueue.Offer(first, 2),
+                new WaitlistQueue.Offer(stale, 1),
+                new WaitlistQueue.Offer(second, 1)));
+        when(waitlistRepository.findByEventIdAndUserIdIn(eq(eventId), anyCollection()))
+                .thenReturn(List.of(entry(first, 2), entry(second, 1)));
+
+        List<WaitlistEntry> notified = waitlistService.offerReleasedSeats(eventId, released, Map.of());
+
+        assertThat(notified).extracting(WaitlistEntry::getUserId).containsExactly(first, second);
+        assertThat(notified).allSatisfy(e -> assertThat(e.getStatus()).isEqualTo("OFFERED"));
+        verify(kafkaTemplate).send(eq("seat-commands"), eq(eventId.toString()), argThat(holdFor(first,
+                List.of(released.get(0).toString(), released.get(1).toString()))));
+        verify(kafkaTemplate).send(eq("seat-commands"), eq(eventId.toString()), argThat(holdFor(second,
+                List.of(released.get(2).toString()))));
+        verify(waitlistRepository).saveAll(notified);
+        verify(kafkaTemplate, never()).send(eq("notification-events"), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("should offer seats of a section only to users who asked for it or for any section")
+    void shouldOfferBySection() {
+        UUID vipFan = UUID.randomUUID();
+        UUID anyFan = UUID.randomUUID();
+        UUID vipSeat = UUID.randomUUID();
+        UUID floorSeat = UUID.randomUUID();
+
+        when(waitlistQueue.pollOffers(eventId, "VIP", 1, 200)).thenReturn(List.of(new WaitlistQueue.Offer(vipFan, 1)));
+        when(waitlistQueue.pollOffers(eventId, "FLOOR", 1, 200)).thenReturn(List.of(new WaitlistQueue.Offer(anyFan, 1)));
+        when(waitlistRepository.findByEventIdAndUserIdIn(eq(eventId), anyCollection()))
+                .thenReturn(List.of(entry(vipFan, 1)))
+                .thenReturn(List.of(entry(anyFan, 1)));
+
+        waitlistService.offerReleasedSeats(eventId, List.of(vipSeat, floorSeat),
+                Map.of(vipSeat, "VIP", floorSeat, "FLOOR"));
+
+        verify(kafkaTemplate).send(eq("seat-commands"), eq(eventId.toString()),
+                argThat(holdFor(vipFan, List.of(vipSeat.toString()))));
+        verify(kafkaTemplate).send(eq("seat-commands"), eq(eventId.toString()),
+                argThat(holdFor(anyFan, List.of(floorSeat.toString()))));
+    }
+
+    @Test
+    @DisplayName("should notify the user once the hold is confirmed")
+    void shouldNotifyOnConfirmedHold() {
+        WaitlistEntry offered = entry(UUID.randomUUID(), 1);
+        offered.setStatus("OFFERED");
+        Instant holdExpiresAt = Instant.parse("2026-05-01T09:15:00Z");
+        when(waitlistRepository.findById(offered.getId())).thenReturn(Optional.of(offered));
+
+        waitlistService.confirmOffer(offered.getId(), List.of("seat-1"), holdExpiresAt);
+
+        assertThat(offered.getStatus()).isEqualTo("NOTIFIED");
+        assertThat(offered.getNotifiedAt()).isNotNull();
+        verify(kafkaTemplate).send(eq("notification-events"), eq(offered.getUserId().toString()), argThat(value -> {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> notification = (Map<String, Object>) value;
+            return "waitlist.available".equals(notification.get("eventType"))
+                    && holdExpiresAt.toString().equals(notification.get("holdExpiresAt"));
+        }));
+    }
+
+    @Test
+    @DisplayName("should ignore a repeated hold confirmation")
+    void shouldIgnoreRepeatedConfirmation() {
+        WaitlistEntry notified = entry(UUID.randomUUID(), 1);
+        notified.setStatus("NOTIFIED");
+        when(waitlistRepository.findById(notified.getId())).thenReturn(Optional.of(notified));
+
+        waitlistService.confirmOffer(notified.getId(), List.of("seat-1"), Instant.now());
+
+        verifyNoInteractions(kafkaTemplate);
+        verify(waitlistRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("should put the user back at their place when the hold fails")
+    void shouldRequeueOnFailedHold() {
+        WaitlistEntry offered = entry(UUID.randomUUID(), 2);
+        offered.setStatus("OFFERED");
+        offered.setSectionId("VIP");
+        when(waitlistRepository.findById(offered.getId())).thenReturn(Optional.of(offered));
+
+        waitlistService.withdrawOffer(offered.getId(), "Seat taken");
+
+        assertThat(offered.getStatus()).isEqualTo("WAITING");
+        verify(waitlistQueue).add(eventId, offered.getUserId(), "VIP", 2, offered.getCreatedAt().toEpochMilli());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    @DisplayName("should give seats a stale member would have used to the next waiting user")
+    void shouldPollAgainForSeatsLeftByStaleMembers() {
+        UUID first = UUID.randomUUID();
+        UUID stale = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        List<UUID> released = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+        when(waitlistQueue.pollOffers(eventId, null, 3, 200)).thenReturn(List.of(
+                new WaitlistQueue.Offer(first, 2),
+                new WaitlistQueue.Offer(stale, 1)));
+        when(waitlistQueue.pollOffers(eventId, null, 1, 200)).thenReturn(List.of(new WaitlistQueue.Offer(third, 1)));
+        when(waitlistRepository.findByEventIdAndUserIdIn(eq(eventId), anyCollection()))
+                .thenReturn(List.of(entry(first, 2)))
+                .thenReturn(List.of(entry(third, 1)));
+
+        List<WaitlistEntry> notified = waitlistService.offerReleasedSeats(eventId, released, Map.of());
+
+        assertThat(notified).extracting(WaitlistEntry::getUserId).containsExactly(first, third);
+        verify(kafkaTemplate).send(eq("seat-commands"), eq(eventId.toString()), argThat(holdFor(third,
+                List.of(released.get(2).toString()))));
+    }
+
+    @Test
+    @DisplayName("should send holds only after commit and restore the index if the offer rolls back")
+    void shouldDeferHoldsAndRestoreIndexOnRollback() {
+        UUID first = UUID.randomUUID();
+        List<UUID> released = List.of(UUID.randomUUID());
+        List<WaitlistEntry> waiting = List.of(entry(first, 1));
+        when(waitlistQueue.pollOffers(eventId, null, 1, 200)).thenReturn(List.of(new WaitlistQueue.Offer(first, 1)));
+        when(waitlistRepository.findByEventIdAndUserIdIn(eq(eventId), anyCollection())).thenReturn(waiting);
+        when(waitlistRepository.findByEventIdAndStatusOrderByCreatedAtAsc(eventId, "WAITING")).thenReturn(waiting);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            waitlistService.offerReleasedSeats(eventId, released, Map.of());
+            verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
+        verify(waitlistQueue).rebuild(eventId, waiting);
+    }
+
+    private ArgumentMatcher<Object> holdFor(UUID userId, List<String> seatIds) {
+        return value -> {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> command = (Map<String, Object>) value;
+            return "seats.hold".equals(command.get("commandType"))
+                    && userId.toString().equals(command.get("userId"))
+                    && seatIds.equals(command.get("seatIds"));
+        };
+    }
+
+    private WaitlistEntry entry(UUID userId, int seatCount) {
+        return WaitlistEntry.builder()
+                .id(UUID.randomUUID())
+                .eventId(eventId)
+                .userId(userId)
+                .seatCount(seatCount)
+                .status("WAITING")
+                .createdAt(Instant.parse("2026-05-01T09:00:00Z"))
+                .build();
+    }
+}
@@ -0,0 +1,214 @@
+package com.eventhub.event.cache;
+
+import com.eventhub.event.entity.Event;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Two-tier cache for event detail reads.
+ *
+ * - L1: in-process Caffeine cache, bounded by {@code event.cache.l1.max-size} and a short
+ *   {@code event.cache.l1.ttl-seconds}, which also bounds staleness if an invalidation is lost
+ * - L2: Redis, shared by every replica, key {@code event:detail:{eventId}} → JSON {@link Event},
+ *   expiring after {@code event.cache.l2.ttl-seconds}
+ *
+ * Concurrent misses for the same event on one replica are coalesced: one caller reads L2 and
+ * then the database while the others wait for its result. Events that do not exist are not cached.
+ *
+ * Invalidation: the writing replica evicts both tiers after its transaction commits, and every
+ * replica evicts its L1 (and L2, idempotently) on {@code event.updated}, {@code event.published}
+ * and {@code event.seats.updated} messages. The listener uses a group id per replica so each one
+ * sees every message.
+ *
+ * A miss that read the old row just before the commit can still write it back after the
+ * post-commit delete. The writing replica therefore deletes both tiers a second time
+ * {@code event.cache.l2.redelete-delay-ms} later, and the Kafka eviction, which arrives later
+ * still, deletes L2 again. Together they bound a stale write-back to that delay instead of the
+ * L2 TTL.
+ *
+ * Cached events are shared between callers and must be treated as read-only.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventCache {
+
+    private static final String KEY_PREFIX = "event:detail:";
+    private static final Set<String> INVALIDATING_TYPES = Set.of("event.updated", "event.published",
+            "event.seats.updated");
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${event.cache.l1.max-size:10000}")
+    private long l1MaxSize;
+
+    @Value("${event.cache.l1.ttl-seconds:30}")
+    private long l1TtlSeconds;
+
+    @Value("${event.cache.l2.ttl-seconds:300}")
+    private long l2TtlSeconds;
+
+    @Value("${event.cache.l2.redelete-delay-ms:1000}")
+    private long l2RedeleteDelayMs;
+
+    private Cache<UUID, Event> local;
+    private Timer loadTimer;
+    private Executor redelete;
+
+    @PostConstruct
+    void init() {
+        local = Caffeine.newBuilder()
+                .maximumSize(l1MaxSize)
+                .expireAfterWrite(Duration.ofSeconds(l1TtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "event-detail");
+        loadTimer = Timer.builder("event.cache.load")
+                .description("Latency of loading an event detail on an L1 miss, from Redis or the database")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        redelete = CompletableFuture.delayedExecutor(l2RedeleteDelayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The event, from L1, L2 or {@code loader} in that order.
+     *
+     * @return empty if {@code loader} does not find the event
+     */
+    public Optional<Event> get(UUID eventId, Function<UUID, Optional<Event>> loader) {
+        Event cached = local.getIfPresent(eventId);
+        if (cached != null) {
+            record("l1", "hit");
+            return Optional.of(cached);
+        }
+        record("l1", "miss");
+
+        boolean[] loaded = {false};
+        Event event = local.get(eventId, id -> {
+            loaded[0] = true;
+            return loadTimer.record(() -> loadShared(id, loader));
+        });
+        if (!loaded[0]) {
+            meterRegistry.counter("event.cache.coalesced").increment();
+        }
+        return Optional.ofNullable(event);
+    }
+
+    /**
+     * Drop the event from both tiers. Inside a transaction this happens after commit, and again
+     * after {@code event.cache.l2.redelete-delay-ms} in case a miss that loaded the old row
+     * re-cached it in between.
+     */
+    public void evict(UUID eventId) {
+        afterCommit(() -> {
+            local.invalidate(eventId);
+            deleteShared(eventId);
+            redelete.execute(() -> {
+                local.invalidate(eventId);
+                deleteShared(eventId);
+            });
+        });
+    }
+
+    @KafkaListener(topics = "event-events", groupId = "event-cache-${random.uuid}",
+            properties = {"auto.offset.reset=latest", "enable.auto.commit=false"})
+    public void handleEventChange(Map<String, Object> message) {
+        if (!INVALIDATING_TYPES.contains(String.valueOf(message.get("eventType")))) {
+            return;
+        }
+        try {
+            UUID eventId = UUID.fromString(String.valueOf(message.get("eventId")));
+            local.invalidate(eventId);
+            // Also clears L2 a stale miss may have re-filled after the writer's own delete
+            deleteShared(eventId);
+            meterRegistry.counter("event.cache.invalidations", "source", "kafka").increment();
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring event change without a valid eventId: {}", message);
+        }
+    }
+
+    private Event loadShared(UUID eventId, Function<UUID, Optional<Event>> loader) {
+        Optional<Event> shared = readShared(eventId);
+        if (shared.isPresent()) {
+            record("l2", "hit");
+            return shared.get();
+        }
+        record("l2", "miss");
+
+        Event event = loader.apply(eventId).orElse(null);
+        if (event != null) {
+            writeShared(event);
+        }
+        return event;
+    }
+
+    private Optional<Event> readShared(UUID eventId) {
+        try {
+            String json = redisTemplate.opsForValue().get(KEY_PREFIX + eventId);
+            return json != null ? Optional.of(objectMapper.readValue(json, Event.class)) : Optional.empty();
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.debug("Event cache read failed for {}: {}", eventId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void writeShared(Event event) {
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + event.getId(), objectMapper.writeValueAsString(event),
+                    Duration.ofSeconds(l2TtlSeconds));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.debug("Event cache write failed for {}: {}", event.getId(), e.getMessage());
+        }
+    }
+
+    private void deleteShared(UUID eventId) {
+        try {
+            redisTemplate.delete(KEY_PREFIX + eventId);
+        } catch (RuntimeException e) {
+            log.warn("Event cache eviction failed for {}: {}", eventId, e.getMessage());
+        }
+    }
+
+    private void record(String tier, String result) {
+        meterRegistry.counter("event.cache.requests", "tier", tier, "result", result).increment();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
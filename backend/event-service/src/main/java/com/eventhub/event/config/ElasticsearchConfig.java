@@ -18,10 +18,20 @@ public class ElasticsearchConfig {
     @Value("${elasticsearch.port:9200}")
     private int port;
 
+    // Short timeouts so searches fall back to Postgres quickly when the cluster is struggling
+    @Value("${elasticsearch.connect-timeout-ms:1000}")
+    private int connectTimeoutMs;
+
+    @Value("${elasticsearch.socket-timeout-ms:5000}")
+    private int socketTimeoutMs;
+
     @Bean
     public ElasticsearchClient elasticsearchClient() {
         RestClient restClient = RestClient.builder(
                 new HttpHost(host, port, "http")
+        ).setRequestConfigCallback(config -> config
+                .setConnectTimeout(connectTimeoutMs)
+                .setSocketTimeout(socketTimeoutMs)
         ).build();
 
         RestClientTransport transport = new RestClientTransport(
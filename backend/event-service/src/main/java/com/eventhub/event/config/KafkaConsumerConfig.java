@@ -0,0 +1,47 @@
+package com.eventhub.event.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+/**
+ * Listener container factories for consumers that need more than the Boot default.
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    /**
+     * Batch listener feeding the search index: each poll becomes one {@code _bulk} request and
+     * offsets are acknowledged only after it succeeds. A failed batch is redelivered with back-off
+     * rather than skipped; indexing is idempotent, so redelivery is safe.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> eventIndexContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            @Value("${event.search.index.concurrency:1}") int concurrency,
+            @Value("${event.search.index.max-poll-records:500}") int maxPollRecords,
+            @Value("${event.search.index.fetch-max-wait-ms:500}") int fetchMaxWaitMs,
+            @Value("${event.search.index.max-backoff-ms:30000}") long maxBackoffMs) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        factory.getContainerProperties().getKafkaConsumerProperties()
+                .setProperty("max.poll.records", String.valueOf(maxPollRecords));
+        factory.getContainerProperties().getKafkaConsumerProperties()
+                .setProperty("fetch.max.wait.ms", String.valueOf(fetchMaxWaitMs));
+
+        ExponentialBackOff backOff = new ExponentialBackOff(500, 2.0);
+        backOff.setMaxInterval(maxBackoffMs);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(backOff));
+        return factory;
+    }
+}
@@ -1,6 +1,7 @@
 package com.eventhub.event.controller;
 
 import com.eventhub.event.entity.Event;
+import com.eventhub.event.search.EventIndexer;
 import com.eventhub.event.service.EventService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -19,6 +20,7 @@ import java.util.UUID;
 public class EventController {
 
     private final EventService eventService;
+    private final EventIndexer eventIndexer;
 
     @GetMapping
     public ResponseEntity<Page<Event>> getEvents(
@@ -39,12 +41,18 @@ public class EventController {
         return ResponseEntity.ok(eventService.getTrendingEvents());
     }
 
+    /**
+     * An organizer's events. The path is open, so only the organizer themself (identified by the
+     * gateway's X-User-Id) sees drafts; everyone else gets the published ones.
+     */
     @GetMapping("/organizer/{organizerId}")
     public ResponseEntity<Page<Event>> getOrganizerEvents(
             @PathVariable UUID organizerId,
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
-        return ResponseEntity.ok(eventService.getOrganizerEvents(organizerId, page, size));
+        return ResponseEntity.ok(eventService.getOrganizerEvents(
+                organizerId, userId != null ? UUID.fromString(userId) : null, page, size));
     }
 
     @PostMapping
@@ -70,6 +78,19 @@ public class EventController {
         return ResponseEntity.ok(eventService.publishEvent(eventId, UUID.fromString(userId)));
     }
 
+    /**
+     * Rebuild the search index from the database in the background. Admin only.
+     */
+    @PostMapping("/search/reindex")
+    public ResponseEntity<Map<String, Object>> reindex(
+            @RequestHeader(value = "X-User-Role", required = false) String role) {
+        if (!"ADMIN".equals(role)) {
+            throw new SecurityException("Only administrators can rebuild the search index");
+        }
+        Instant startedAt = eventIndexer.startReindex();
+        return ResponseEntity.accepted().body(Map.of("status", "STARTED", "startedAt", startedAt.toString()));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Map<String, Object>> handleNotFound(IllegalArgumentException e) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
@@ -87,4 +108,13 @@ public class EventController {
                 "timestamp", Instant.now().toString()
         ));
     }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, Object>> handleConflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "status", 409,
+                "message", e.getMessage(),
+                "timestamp", Instant.now().toString()
+        ));
+    }
 }
@@ -0,0 +1,52 @@
+package com.eventhub.event.controller;
+
+import com.eventhub.event.query.CursorPage;
+import com.eventhub.event.query.EventCard;
+import com.eventhub.event.query.EventListingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Slim, keyset-paginated event listings. Pass the returned {@code nextCursor} back as
+ * {@code cursor} to fetch the next page; every page costs the same, however deep.
+ */
+@RestController
+@RequestMapping("/api/v1/events")
+@RequiredArgsConstructor
+public class EventListingController {
+
+    private final EventListingService listingService;
+
+    @GetMapping("/cards")
+    public ResponseEntity<CursorPage<EventCard>> getEventCards(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "12") int size) {
+        return ResponseEntity.ok(listingService.getPublishedEvents(category, cursor, size));
+    }
+
+    /**
+     * An organizer's event cards; drafts are included only when X-User-Id is the organizer.
+     */
+    @GetMapping("/organizer/{organizerId}/cards")
+    public ResponseEntity<CursorPage<EventCard>> getOrganizerEventCards(
+            @PathVariable UUID organizerId,
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(listingService.getOrganizerEvents(
+                organizerId, userId != null ? UUID.fromString(userId) : null, cursor, size));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, Object>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                "status", 400, "message", e.getMessage(), "timestamp", Instant.now().toString()));
+    }
+}
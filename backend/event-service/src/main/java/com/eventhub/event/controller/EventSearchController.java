@@ -0,0 +1,95 @@
+package com.eventhub.event.controller;
+
+import com.eventhub.event.search.EventSearchQuery;
+import com.eventhub.event.search.EventSearchResult;
+import com.eventhub.event.search.EventSearchService;
+import com.eventhub.event.search.EventSearchService.Suggestion;
+import com.eventhub.event.search.EventSuggestService;
+import com.eventhub.event.search.SearchUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Event discovery: filters, sorting and facets over the search index, paged by cursor, and
+ * search-as-you-type suggestions.
+ */
+@RestController
+@RequestMapping("/api/v1/events/search")
+@RequiredArgsConstructor
+public class EventSearchController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SUGGESTIONS = 20;
+
+    private final EventSearchService searchService;
+    private final EventSuggestService suggestService;
+    private final MeterRegistry meterRegistry;
+
+    @GetMapping
+    public ResponseEntity<EventSearchResult> search(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (radiusKm != null && radiusKm <= 0) {
+            throw new IllegalArgumentException("radiusKm must be positive");
+        }
+        EventSearchQuery query = new EventSearchQuery(q, category, from, to, minPrice, maxPrice, city,
+                lat, lon, radiusKm, EventSearchQuery.Sort.parse(sort), size, cursor);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            EventSearchResult result = searchService.discover(query);
+            outcome = "success";
+            return ResponseEntity.ok(result);
+        } finally {
+            sample.stop(meterRegistry.timer("event.search.discover", "outcome", outcome,
+                    "page", cursor == null ? "first" : "next"));
+        }
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Suggestion>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int size) {
+        if (size < 1 || size > MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        return ResponseEntity.ok(suggestService.suggest(q, size));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, Object>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                "status", 400, "message", e.getMessage(), "timestamp", Instant.now().toString()));
+    }
+
+    @ExceptionHandler(SearchUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleUnavailable(SearchUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                "status", 503, "message", "Search is temporarily unavailable", "timestamp", Instant.now().toString()));
+    }
+}
@@ -0,0 +1,9 @@
+package com.eventhub.event.query;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is null on the last page.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor, boolean hasMore) {
+}
@@ -0,0 +1,46 @@
+package com.eventhub.event.query;
+
+import com.eventhub.event.entity.EventCategory;
+import com.eventhub.event.entity.EventStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * What an event listing shows per event, read as one row instead of a full {@code Event} with
+ * its eager venue and tags.
+ */
+public record EventCard(
+        UUID id,
+        String title,
+        EventCategory category,
+        EventStatus status,
+        String coverImageUrl,
+        Instant startDate,
+        VenueSummary venue,
+        BigDecimal minPrice,
+        String currency,
+        int availableSeats,
+        Set<String> tags
+) {
+
+    /**
+     * Constructor expression target of the listing queries; tags are attached afterwards.
+     */
+    public EventCard(UUID id, String title, EventCategory category, EventStatus status, String coverImageUrl,
+                     Instant startDate, UUID venueId, String venueName, String venueCity,
+                     BigDecimal minPrice, String currency, int availableSeats) {
+        this(id, title, category, status, coverImageUrl, startDate,
+                venueId != null ? new VenueSummary(venueId, venueName, venueCity) : null,
+                minPrice, currency, availableSeats, Set.of());
+    }
+
+    public EventCard withTags(Set<String> tags) {
+        return new EventCard(id, title, category, status, coverImageUrl, startDate, venue,
+                minPrice, currency, availableSeats, Set.copyOf(tags));
+    }
+
+    public record VenueSummary(UUID id, String name, String city) {}
+}
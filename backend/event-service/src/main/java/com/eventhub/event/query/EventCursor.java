@@ -0,0 +1,37 @@
+package com.eventhub.event.query;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque keyset cursor over (start_date, event_id), encoded as URL-safe Base64
+ * so clients treat it as a token rather than building it themselves.
+ */
+public record EventCursor(Instant startDate, UUID eventId) {
+
+    /**
+     * Sorts after every event in (start_date DESC, id DESC) order, so the first page is the
+     * same index range scan as every other page.
+     */
+    public static final EventCursor FIRST = new EventCursor(Instant.parse("9999-12-31T23:59:59Z"), new UUID(-1L, -1L));
+
+    public String encode() {
+        String raw = startDate.toString() + "|" + eventId;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static EventCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            return new EventCursor(
+                    Instant.parse(raw.substring(0, sep)),
+                    UUID.fromString(raw.substring(sep + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.eventhub.event.query;
+
+import com.eventhub.event.entity.EventCategory;
+import com.eventhub.event.entity.EventStatus;
+import com.eventhub.event.repository.EventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keyset-paginated event listings as {@link EventCard}s, newest start date first.
+ *
+ * Each page is two queries whatever its depth: one range scan of the
+ * (…, start_date, id) index for the cards, and one for the tags of all of them.
+ */
+@Service
+@RequiredArgsConstructor
+public class EventListingService {
+
+    private static final int MAX_PAGE_SIZE = 50;
+
+    private final EventRepository eventRepository;
+
+    /**
+     * Published events, optionally of one category.
+     *
+     * @throws IllegalArgumentException for an unknown category or a malformed cursor
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<EventCard> getPublishedEvents(String category, String cursor, int size) {
+        if (category == null || category.isBlank()) {
+            return page(cursor, size, (after, window) -> eventRepository.findCardsByStatusBefore(
+                    EventStatus.PUBLISHED, after.startDate(), after.eventId(), window));
+        }
+        EventCategory cat = parseCategory(category);
+        return page(cursor, size, (after, window) -> eventRepository.findCardsByStatusAndCategoryBefore(
+                EventStatus.PUBLISHED, cat, after.startDate(), after.eventId(), window));
+    }
+
+    /**
+     * An organizer's events: all of them, drafts included, when {@code viewerId} is the organizer,
+     * otherwise only the published ones.
+     *
+     * @param viewerId the caller, or null when anonymous
+     * @throws IllegalArgumentException for a malformed cursor
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<EventCard> getOrganizerEvents(UUID organizerId, UUID viewerId, String cursor, int size) {
+        if (organizerId.equals(viewerId)) {
+            return page(cursor, size, (after, window) -> eventRepository.findCardsByOrganizerBefore(
+                    organizerId, after.startDate(), after.eventId(), window));
+        }
+        return page(cursor, size, (after, window) -> eventRepository.findCardsByOrganizerAndStatusBefore(
+                organizerId, EventStatus.PUBLISHED, after.startDate(), after.eventId(), window));
+    }
+
+    private CursorPage<EventCard> page(String cursor, int size, CardQuery query) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        EventCursor after = cursor == null || cursor.isBlank() ? EventCursor.FIRST : EventCursor.decode(cursor);
+        // Fetch one extra row to know whether another page exists without a COUNT query
+        List<EventCard> rows = query.find(after, PageRequest.of(0, limit + 1));
+
+        boolean hasMore = rows.size() > limit;
+        List<EventCard> items = withTags(hasMore ? rows.subList(0, limit) : rows);
+        String nextCursor = null;
+        if (hasMore) {
+            EventCard last = items.get(items.size() - 1);
+            nextCursor = new EventCursor(last.startDate(), last.id()).encode();
+        }
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    private List<EventCard> withTags(List<EventCard> cards) {
+        if (cards.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Set<String>> tags = new HashMap<>();
+        for (Object[] row : eventRepository.findTagsByEventIdIn(cards.stream().map(EventCard::id).toList())) {
+            tags.computeIfAbsent((UUID) row[0], id -> new HashSet<>()).add((String) row[1]);
+        }
+        return cards.stream()
+                .map(card -> tags.containsKey(card.id()) ? card.withTags(tags.get(card.id())) : card)
+                .toList();
+    }
+
+    private static EventCategory parseCategory(String category) {
+        try {
+            return EventCategory.valueOf(category.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown category: " + category);
+        }
+    }
+
+    @FunctionalInterface
+    private interface CardQuery {
+        List<EventCard> find(EventCursor after, PageRequest window);
+    }
+}
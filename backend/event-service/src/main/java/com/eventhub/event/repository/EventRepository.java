@@ -3,6 +3,7 @@ package com.eventhub.event.repository;
 import com.eventhub.event.entity.Event;
 import com.eventhub.event.entity.EventCategory;
 import com.eventhub.event.entity.EventStatus;
+import com.eventhub.event.query.EventCard;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,6 +11,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -22,11 +25,104 @@ public interface EventRepository extends JpaRepository<Event, UUID> {
 
     Page<Event> findByOrganizerId(UUID organizerId, Pageable pageable);
 
-    @Query("SELECT e FROM Event e WHERE e.status = 'PUBLISHED' AND " +
-           "(LOWER(e.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(e.description) LIKE LOWER(CONCAT('%', :search, '%')))")
+    Page<Event> findByOrganizerIdAndStatus(UUID organizerId, EventStatus status, Pageable pageable);
+
+    /**
+     * Published events matching {@code search} as a web-style query ("quoted phrases", or, -not),
+     * best match first. The tsvector expression must stay identical to idx_events_search.
+     * Pass an unsorted {@link Pageable}; the order is fixed by rank.
+     */
+    @Query(value = "SELECT e.* FROM events e " +
+                   "WHERE e.status = 'PUBLISHED' " +
+                   "AND to_tsvector('english', e.title || ' ' || COALESCE(e.description, '')) " +
+                   "    @@ websearch_to_tsquery('english', :search) " +
+                   "ORDER BY ts_rank_cd(to_tsvector('english', e.title || ' ' || COALESCE(e.description, '')), " +
+                   "                    websearch_to_tsquery('english', :search)) DESC, e.start_date DESC, e.id",
+           countQuery = "SELECT COUNT(*) FROM events e " +
+                        "WHERE e.status = 'PUBLISHED' " +
+                        "AND to_tsvector('english', e.title || ' ' || COALESCE(e.description, '')) " +
+                        "    @@ websearch_to_tsquery('english', :search)",
+           nativeQuery = true)
     Page<Event> searchEvents(@Param("search") String search, Pageable pageable);
 
+    /**
+     * Published events whose title contains a word similar to {@code search}, for misspellings
+     * the full-text query cannot match. Uses idx_events_title_trgm.
+     */
+    @Query(value = "SELECT e.* FROM events e " +
+                   "WHERE e.status = 'PUBLISHED' AND :search <% e.title " +
+                   "ORDER BY word_similarity(:search, e.title) DESC, e.start_date DESC, e.id",
+           countQuery = "SELECT COUNT(*) FROM events e WHERE e.status = 'PUBLISHED' AND :search <% e.title",
+           nativeQuery = true)
+    Page<Event> searchEventsBySimilarity(@Param("search") String search, Pageable pageable);
+
+    /**
+     * Events with their venue and tags in one query, for callers that load many by id.
+     */
+    @Query("SELECT DISTINCT e FROM Event e LEFT JOIN FETCH e.venue LEFT JOIN FETCH e.tags WHERE e.id IN :ids")
+    List<Event> findWithDetailsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Keyset page of ids in {@code status}, in id order, starting after {@code after}.
+     */
+    @Query("SELECT e.id FROM Event e WHERE e.status = :status AND e.id > :after ORDER BY e.id")
+    List<UUID> findIdsByStatusAfter(@Param("status") EventStatus status, @Param("after") UUID after, Pageable pageable);
+
+    String CARD_SELECT = "SELECT new com.eventhub.event.query.EventCard(e.id, e.title, e.category, e.status, " +
+                         "e.coverImageUrl, e.startDate, v.id, v.name, v.city, e.minPrice, e.currency, e.availableSeats) " +
+                         "FROM Event e LEFT JOIN e.venue v ";
+
+    // Listing cards strictly before (startDate, id) in (startDate DESC, id DESC) order. The row-value
+    // comparison bounds the index scan, where an OR of the two columns would only filter it.
+
+    /**
+     * Served by idx_events_status_start_date.
+     */
+    @Query(CARD_SELECT + "WHERE e.status = :status AND (e.startDate, e.id) < (:startDate, :id) " +
+           "ORDER BY e.startDate DESC, e.id DESC")
+    List<EventCard> findCardsByStatusBefore(@Param("status") EventStatus status,
+                                            @Param("startDate") Instant startDate,
+                                            @Param("id") UUID id,
+                                            Pageable pageable);
+
+    /**
+     * Served by idx_events_status_category_start_date.
+     */
+    @Query(CARD_SELECT + "WHERE e.status = :status AND e.category = :category " +
+           "AND (e.startDate, e.id) < (:startDate, :id) ORDER BY e.startDate DESC, e.id DESC")
+    List<EventCard> findCardsByStatusAndCategoryBefore(@Param("status") EventStatus status,
+                                                       @Param("category") EventCategory category,
+                                                       @Param("startDate") Instant startDate,
+                                                       @Param("id") UUID id,
+                                                       Pageable pageable);
+
+    /**
+     * Served by idx_events_organizer_start_date.
+     */
+    @Query(CARD_SELECT + "WHERE e.organizerId = :organizerId AND (e.startDate, e.id) < (:startDate, :id) " +
+           "ORDER BY e.startDate DESC, e.id DESC")
+    List<EventCard> findCardsByOrganizerBefore(@Param("organizerId") UUID organizerId,
+                                               @Param("startDate") Instant startDate,
+                                               @Param("id") UUID id,
+                                               Pageable pageable);
+
+    /**
+     * Served by idx_events_organizer_start_date, with the status filtered during the scan.
+     */
+    @Query(CARD_SELECT + "WHERE e.organizerId = :organizerId AND e.status = :status " +
+           "AND (e.startDate, e.id) < (:startDate, :id) ORDER BY e.startDate DESC, e.id DESC")
+    List<EventCard> findCardsByOrganizerAndStatusBefore(@Param("organizerId") UUID organizerId,
+                                                        @Param("status") EventStatus status,
+                                                        @Param("startDate") Instant startDate,
+                                                        @Param("id") UUID id,
+                                                        Pageable pageable);
+
+    /**
+     * (eventId, tag) pairs for a page of cards, in one query instead of one per event.
+     */
+    @Query("SELECT e.id, t FROM Event e JOIN e.tags t WHERE e.id IN :ids")
+    List<Object[]> findTagsByEventIdIn(@Param("ids") Collection<UUID> ids);
+
     @Query("SELECT e FROM Event e WHERE e.status = 'PUBLISHED' ORDER BY e.availableSeats DESC")
     List<Event> findTrendingEvents(Pageable pageable);
 }
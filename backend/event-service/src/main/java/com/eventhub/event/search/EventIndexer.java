@@ -0,0 +1,181 @@
+package com.eventhub.event.search;
+
+import com.eventhub.event.entity.Event;
+import com.eventhub.event.entity.EventStatus;
+import com.eventhub.event.repository.EventRepository;
+import com.eventhub.event.search.EventSearchService.BulkResult;
+import com.eventhub.event.search.EventSearchService.EventDocument;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the Elasticsearch index in step with the database, off the request path.
+ *
+ * - Incremental: every {@code event-events} message names an event whose document may have
+ *   changed. A polled batch is reduced to its distinct events, which are re-read from the
+ *   database in one query and written with one {@code _bulk} request — published events are
+ *   indexed, anything else is removed. Because documents are rebuilt from the current row,
+ *   message order and duplicates do not matter.
+ * - Full: {@link #startReindex()} walks every published event in id order and bulk-indexes it in
+ *   batches of {@code event.search.reindex-batch-size}, e.g. after a mapping change or data loss.
+ *
+ * Bulk latency is exported as {@code event.search.index.bulk} and documents written as
+ * {@code event.search.index.docs} (per source and operation).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventIndexer {
+
+    private final EventRepository eventRepository;
+    private final EventSearchService searchService;
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean reindexing = new AtomicBoolean();
+
+    @Value("${event.search.reindex-batch-size:500}")
+    private int reindexBatchSize;
+
+    @KafkaListener(topics = "event-events", groupId = "event-search-indexer",
+            containerFactory = "eventIndexContainerFactory")
+    public void handleEventChanges(List<ConsumerRecord<String, Map<String, Object>>> records, Acknowledgment ack) {
+        Set<UUID> changed = new LinkedHashSet<>();
+        for (ConsumerRecord<String, Map<String, Object>> record : records) {
+            Object eventId = record.value() != null ? record.value().get("eventId") : null;
+            try {
+                changed.add(UUID.fromString(String.valueOf(eventId)));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring event change without a valid eventId at offset {}", record.offset());
+            }
+        }
+
+        // Throws on failure: nothing is acknowledged and the batch is redelivered
+        BulkResult result = sync(changed);
+        if (result.retryable() > 0) {
+            throw new IllegalStateException(result.retryable() + " documents were rejected by Elasticsearch");
+        }
+        ack.acknowledge();
+    }
+
+    /**
+     * Bring the documents of {@code eventIds} in line with the database in one bulk request.
+     */
+    BulkResult sync(Collection<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return new BulkResult(0, 0, 0, 0);
+        }
+        Map<UUID, Event> events = eventRepository.findWithDetailsByIdIn(eventIds).stream()
+                .collect(Collectors.toMap(Event::getId, Function.identity()));
+
+        List<EventDocument> documents = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        for (UUID eventId : eventIds) {
+            Event event = events.get(eventId);
+            if (event != null && event.getStatus() == EventStatus.PUBLISHED) {
+                documents.add(EventDocument.of(event));
+            } else {
+                deleted.add(eventId.toString());
+            }
+        }
+        return write("incremental", documents, deleted);
+    }
+
+    /**
+     * Start a full reindex of published events in the background.
+     *
+     * @throws IllegalStateException if a reindex is already running
+     */
+    public Instant startReindex() {
+        if (!reindexing.compareAndSet(false, true)) {
+            throw new IllegalStateException("A reindex is already running");
+        }
+        Instant startedAt = Instant.now();
+        Thread.ofVirtual().name("event-reindex").start(() -> {
+            try {
+                reindexAll();
+            } finally {
+                reindexing.set(false);
+            }
+        });
+        return startedAt;
+    }
+
+    /**
+     * Index every published event, in id order so each batch is a cheap keyset query.
+     *
+     * @return number of events indexed
+     */
+    long reindexAll() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failed";
+        long indexed = 0;
+        UUID after = new UUID(0, 0);
+        try {
+            while (true) {
+                List<UUID> ids = eventRepository.findIdsByStatusAfter(EventStatus.PUBLISHED, after,
+                        PageRequest.of(0, reindexBatchSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                List<EventDocument> documents = eventRepository.findWithDetailsByIdIn(ids).stream()
+                        .filter(event -> event.getStatus() == EventStatus.PUBLISHED)
+                        .map(EventDocument::of)
+                        .toList();
+                indexed += write("reindex", documents, List.of()).indexed();
+                after = ids.get(ids.size() - 1);
+            }
+            outcome = "success";
+            log.info("Reindexed {} published events", indexed);
+        } catch (RuntimeException e) {
+            log.error("Reindex failed after {} events: {}", indexed, e.getMessage(), e);
+        } finally {
+            sample.stop(meterRegistry.timer("event.search.reindex", "outcome", outcome));
+        }
+        return indexed;
+    }
+
+    private BulkResult write(String source, List<EventDocument> documents, List<String> deleted) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            BulkResult result = searchService.bulk(documents, deleted);
+            outcome = result.failed() > 0 ? "partial" : "success";
+            count(source, "index", result.indexed());
+            count(source, "delete", result.deleted());
+            count(source, "failed", result.failed());
+            return result;
+        } finally {
+            sample.stop(Timer.builder("event.search.index.bulk")
+                    .description("Latency of Elasticsearch _bulk requests")
+                    .tag("source", source)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private void count(String source, String operation, int documents) {
+        if (documents > 0) {
+            meterRegistry.counter("event.search.index.docs", "source", source, "operation", operation)
+                    .increment(documents);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.eventhub.event.search;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Discovery search over published events. Every field except {@code size} is optional.
+ *
+ * @param text       free text matched against title, description, tags and category
+ * @param categories any of these categories
+ * @param from       events starting at or after this instant
+ * @param to         events starting before this instant
+ * @param minPrice   events with a ticket at or above this price (price bands overlap)
+ * @param maxPrice   events with a ticket at or below this price
+ * @param city       venue city, exactly as returned in the {@code cities} facet
+ * @param lat        latitude of the searcher; with {@code lon} and {@code radiusKm} limits by distance
+ * @param radiusKm   maximum distance from {@code lat}/{@code lon}
+ * @param sort       result order; {@link Sort#DISTANCE} needs a location
+ * @param cursor     {@code nextCursor} of the previous page, or null for the first page
+ */
+public record EventSearchQuery(
+        String text,
+        List<String> categories,
+        Instant from,
+        Instant to,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        String city,
+        Double lat,
+        Double lon,
+        Double radiusKm,
+        Sort sort,
+        int size,
+        String cursor
+) {
+
+    public enum Sort {
+        RELEVANCE, DATE, PRICE, DISTANCE;
+
+        public static Sort parse(String value) {
+            if (value == null || value.isBlank()) {
+                return RELEVANCE;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown sort '" + value + "', expected one of relevance, date, price, distance");
+            }
+        }
+    }
+
+    public boolean hasLocation() {
+        return lat != null && lon != null;
+    }
+
+    public boolean hasText() {
+        return text != null && !text.isBlank();
+    }
+}
@@ -0,0 +1,28 @@
+package com.eventhub.event.search;
+
+import com.eventhub.event.search.EventSearchService.EventDocument;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of discovery results with the facets for the whole result set.
+ *
+ * @param total      matching events, exact up to 10,000
+ * @param categories event count per category, ignoring the category filter so other
+ *                   categories stay selectable
+ * @param cities     event count per venue city
+ * @param prices     event count per band of the lowest ticket price, ignoring the price filter
+ * @param nextCursor pass back as {@code cursor} for the next page; null on the last page
+ */
+public record EventSearchResult(
+        List<EventDocument> events,
+        long total,
+        Map<String, Long> categories,
+        Map<String, Long> cities,
+        List<PriceBucket> prices,
+        String nextCursor
+) {
+
+    public record PriceBucket(double from, double to, long count) {}
+}
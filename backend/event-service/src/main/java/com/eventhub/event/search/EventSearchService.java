@@ -1,29 +1,59 @@
 package com.eventhub.event.search;
 
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.DistanceUnit;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.SortOptions;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.mapping.Property;
 import co.elastic.clients.elasticsearch._types.query_dsl.MultiMatchQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
 import co.elastic.clients.elasticsearch.core.IndexRequest;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
 import co.elastic.clients.elasticsearch.core.search.Hit;
 import co.elastic.clients.elasticsearch.indices.CreateIndexRequest;
 import co.elastic.clients.elasticsearch.indices.ExistsRequest;
+import co.elastic.clients.json.JsonData;
+import com.eventhub.event.entity.Event;
+import com.eventhub.event.entity.Venue;
+import com.eventhub.event.search.EventSearchQuery.Sort;
+import com.eventhub.event.search.EventSearchResult.PriceBucket;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 /**
  * Elasticsearch-backed full-text search for events.
  * Indexes event documents and provides multi-field fuzzy search
  * across title, description, tags, and category.
+ *
+ * A failed search marks the cluster unavailable for {@code event.search.retry-after-seconds},
+ * so callers can go straight to the database fallback instead of waiting on every request.
+ * Requests Elasticsearch rejects as malformed (4xx) are the caller's fault and surface as
+ * {@link IllegalArgumentException} without marking anything unavailable; failed suggestions
+ * only pause suggestions.
  */
 @Service
 @RequiredArgsConstructor
@@ -31,9 +61,45 @@ import java.util.stream.Collectors;
 public class EventSearchService {
 
     private final ElasticsearchClient esClient;
+    private final ObjectMapper objectMapper;
 
     private static final String INDEX_NAME = "events";
 
+    // Elasticsearch's default index.max_result_window: the deepest from + size it will serve
+    public static final int MAX_RESULT_WINDOW = 10_000;
+
+    // Fields added after the index was first created: discovery filters, sorts, facets and suggestions
+    private static final Map<String, Property> DISCOVERY_PROPERTIES = Map.of(
+            // Same as the dynamic mapping older indices got; id.keyword is the search_after tiebreaker
+            "id", Property.of(p -> p.text(t -> t.fields("keyword", f -> f.keyword(k -> k.ignoreAbove(256))))),
+            "endDate", Property.of(p -> p.date(d -> d)),
+            "minPrice", Property.of(p -> p.double_(d -> d)),
+            "maxPrice", Property.of(p -> p.double_(d -> d)),
+            "currency", Property.of(p -> p.keyword(k -> k)),
+            "venueName", Property.of(p -> p.text(t -> t.analyzer("standard"))),
+            "city", Property.of(p -> p.keyword(k -> k)),
+            "location", Property.of(p -> p.geoPoint(g -> g)),
+            // In-memory prefix FST over titles, tags and venue names, for search-as-you-type
+            "suggest", Property.of(p -> p.completion(c -> c.analyzer("simple")))
+    );
+
+    private static final String SUGGESTER = "events";
+    private static final int TITLE_WEIGHT = 3;
+
+    private static final TypeReference<List<Object>> CURSOR_TYPE = new TypeReference<>() {};
+
+    @Value("${event.search.retry-after-seconds:30}")
+    private long retryAfterSeconds;
+
+    @Value("${event.search.facets.price-interval:25}")
+    private double priceInterval;
+
+    @Value("${event.search.facets.max-cities:20}")
+    private int maxCities;
+
+    private volatile long unavailableUntil;
+    private volatile long suggestUnavailableUntil;
+
     @PostConstruct
     public void ensureIndex() {
         try {
@@ -53,11 +119,15 @@ public class EventSearchService {
                                 .properties("organizerId", p -> p.keyword(k -> k))
                                 .properties("startDate", p -> p.date(d -> d))
                                 .properties("availableSeats", p -> p.integer(i -> i))
+                                .properties(DISCOVERY_PROPERTIES)
                         )
                 ));
                 log.info("Elasticsearch index '{}' created", INDEX_NAME);
+            } else {
+                // Adding fields is allowed on a live index; existing documents get them on reindex
+                esClient.indices().putMapping(pm -> pm.index(INDEX_NAME).properties(DISCOVERY_PROPERTIES));
             }
-        } catch (IOException e) {
+        } catch (IOException | RuntimeException e) {
             log.warn("Failed to initialize Elasticsearch index: {}. Full-text search will fall back to DB.", e.getMessage());
         }
     }
@@ -91,24 +161,22 @@ public class EventSearchService {
     }
 
     /**
-     * Full-text search across title, description, tags.
-     * Returns a list of matching event IDs.
+     * Full-text search across title, description, tags, paged by offset. Pages ending beyond
+     * {@link #MAX_RESULT_WINDOW} cannot be served this way; {@link #discover} pages without limit.
+     *
+     * @throws IllegalArgumentException    if Elasticsearch rejects the query as malformed
+     * @throws SearchUnavailableException if Elasticsearch cannot be reached or fails the query
      */
-    public List<String> search(String query, int page, int size) {
+    public SearchHits search(String query, int page, int size) {
         try {
             SearchResponse<EventDocument> response = esClient.search(SearchRequest.of(s -> s
                     .index(INDEX_NAME)
                     .from(page * size)
                     .size(size)
+                    .source(src -> src.fetch(false))
                     .query(Query.of(q -> q
                             .bool(b -> b
-                                    .must(m -> m
-                                            .multiMatch(MultiMatchQuery.of(mm -> mm
-                                                    .query(query)
-                                                    .fields("title^3", "description", "tags^2", "category")
-                                                    .fuzziness("AUTO")
-                                            ))
-                                    )
+                                    .must(textQuery(query))
                                     .filter(f -> f
                                             .term(t -> t.field("status").value("PUBLISHED"))
                                     )
@@ -116,16 +184,356 @@ public class EventSearchService {
                     ))
             ), EventDocument.class);
 
-            return response.hits().hits().stream()
-                    .map(Hit::id)
-                    .collect(Collectors.toList());
+            List<String> ids = response.hits().hits().stream().map(Hit::id).toList();
+            long total = response.hits().total() != null ? response.hits().total().value() : ids.size();
+            return new SearchHits(ids, total);
+        } catch (IOException | RuntimeException e) {
+            throw failed(e, false);
+        }
+    }
 
-        } catch (IOException e) {
-            log.warn("Elasticsearch search failed, returning empty: {}", e.getMessage());
-            return Collections.emptyList();
+    /**
+     * Filtered, sorted search with facets in one request. Pages with {@code search_after} on the
+     * sort values of the previous page's last hit, so page 500 costs the same as page 1. Facets
+     * are only computed for the first page.
+     *
+     * Category, price and city filters are applied as a {@code post_filter}, and each of their
+     * facets is filtered by the other two only, so a facet still counts the alternatives to its
+     * own selection.
+     *
+     * @throws IllegalArgumentException    for a malformed cursor or one from another sort, distance
+     *                                     without a location, or a query Elasticsearch rejects
+     * @throws SearchUnavailableException if Elasticsearch cannot be reached or fails the query
+     */
+    public EventSearchResult discover(EventSearchQuery query) {
+        if ((query.sort() == Sort.DISTANCE || query.radiusKm() != null) && !query.hasLocation()) {
+            throw new IllegalArgumentException("Distance sorting and filtering need lat and lon");
+        }
+        if (query.minPrice() != null && query.maxPrice() != null && query.minPrice().compareTo(query.maxPrice()) > 0) {
+            throw new IllegalArgumentException("minPrice must not exceed maxPrice");
+        }
+        List<SortOptions> sort = sortOptions(query);
+        List<FieldValue> searchAfter = query.cursor() != null ? decodeCursor(query.cursor()) : null;
+        if (searchAfter != null && searchAfter.size() != sort.size()) {
+            throw new IllegalArgumentException("Search cursor does not match the requested sort");
+        }
+        boolean withFacets = searchAfter == null;
+
+        List<Query> filters = new ArrayList<>();
+        filters.add(Query.of(q -> q.term(t -> t.field("status").value("PUBLISHED"))));
+        if (query.from() != null || query.to() != null) {
+            filters.add(Query.of(q -> q.range(r -> {
+                r.field("startDate");
+                if (query.from() != null) r.gte(JsonData.of(query.from().toString()));
+                if (query.to() != null) r.lt(JsonData.of(query.to().toString()));
+                return r;
+            })));
+        }
+        if (query.radiusKm() != null) {
+            filters.add(Query.of(q -> q.geoDistance(g -> g
+                    .field("location")
+                    .distance(query.radiusKm() + "km")
+                    .location(l -> l.latlon(ll -> ll.lat(query.lat()).lon(query.lon()))))));
+        }
+        Query categoryFilter = categoryFilter(query);
+        Query priceFilter = priceFilter(query);
+        Query cityFilter = cityFilter(query);
+        Query postFilter = allOfPresent(categoryFilter, priceFilter, cityFilter);
+
+        SearchResponse<EventDocument> response;
+        try {
+            response = esClient.search(s -> {
+                s.index(INDEX_NAME)
+                        .size(query.size())
+                        .source(src -> src.filter(f -> f.excludes("suggest")))
+                        .query(q -> q.bool(b -> {
+                            if (query.hasText()) {
+                                b.must(textQuery(query.text()));
+                            }
+                            return b.filter(filters);
+                        }))
+                        .sort(sort);
+                if (postFilter != null) {
+                    s.postFilter(postFilter);
+                }
+                if (searchAfter != null) {
+                    s.searchAfter(searchAfter);
+                }
+                if (withFacets) {
+                    s.aggregations("categories", a -> a
+                                    .filter(orMatchAll(allOfPresent(priceFilter, cityFilter)))
+                                    .aggregations("values", v -> v.terms(t -> t.field("category").size(50))))
+                            .aggregations("prices", a -> a
+                                    .filter(orMatchAll(allOfPresent(categoryFilter, cityFilter)))
+                                    .aggregations("values", v -> v.histogram(h -> h
+                                            .field("minPrice").interval(priceInterval).minDocCount(1))))
+                            .aggregations("cities", a -> a
+                                    .filter(orMatchAll(allOfPresent(categoryFilter, priceFilter)))
+                                    .aggregations("values", v -> v.terms(t -> t.field("city").size(maxCities))));
+                }
+                return s;
+            }, EventDocument.class);
+        } catch (IOException | RuntimeException e) {
+            throw failed(e, false);
+        }
+
+        List<Hit<EventDocument>> hits = response.hits().hits();
+        String nextCursor = hits.size() == query.size() && !hits.isEmpty()
+                ? encodeCursor(hits.get(hits.size() - 1).sort())
+                : null;
+        Map<String, Aggregate> facets = response.aggregations();
+        return new EventSearchResult(
+                hits.stream().map(Hit::source).filter(Objects::nonNull).toList(),
+                response.hits().total() != null ? response.hits().total().value() : hits.size(),
+                termCounts(facets.get("categories")),
+                termCounts(facets.get("cities")),
+                priceBuckets(facets.get("prices")),
+                nextCursor);
+    }
+
+    /**
+     * Completion suggestions for a typed prefix, best first. A title matches ahead of a tag or
+     * venue name. Suggestions with the same text are returned once.
+     *
+     * @throws IllegalArgumentException    if Elasticsearch rejects the query as malformed
+     * @throws SearchUnavailableException if Elasticsearch cannot be reached or fails the query
+     */
+    public List<Suggestion> suggest(String prefix, int size) {
+        SearchResponse<EventDocument> response;
+        try {
+            response = esClient.search(s -> s
+                    .index(INDEX_NAME)
+                    .size(0)
+                    .source(src -> src.filter(f -> f.includes("title")))
+                    .suggest(sg -> sg.suggesters(SUGGESTER, fs -> fs
+                            .prefix(prefix)
+                            .completion(c -> c
+                                    .field("suggest")
+                                    .size(size)
+                                    .skipDuplicates(true)
+                                    .fuzzy(f -> f.fuzziness("AUTO").prefixLength(1).minLength(4))))),
+                    EventDocument.class);
+        } catch (IOException | RuntimeException e) {
+            throw failed(e, true);
+        }
+
+        return response.suggest().getOrDefault(SUGGESTER, List.of()).stream()
+                .flatMap(suggestion -> suggestion.completion().options().stream())
+                .map(option -> new Suggestion(option.text(), option.id(),
+                        option.source() != null ? option.source().title() : null))
+                .toList();
+    }
+
+    private static Query textQuery(String text) {
+        return Query.of(q -> q.multiMatch(MultiMatchQuery.of(mm -> mm
+                .query(text)
+                .fields("title^3", "description", "tags^2", "category")
+                .fuzziness("AUTO"))));
+    }
+
+    private static Query categoryFilter(EventSearchQuery query) {
+        if (query.categories() == null || query.categories().isEmpty()) {
+            return null;
+        }
+        List<FieldValue> values = query.categories().stream()
+                .map(category -> FieldValue.of(category.trim().toUpperCase()))
+                .toList();
+        return Query.of(q -> q.terms(t -> t.field("category").terms(v -> v.value(values))));
+    }
+
+    private static Query cityFilter(EventSearchQuery query) {
+        if (query.city() == null || query.city().isBlank()) {
+            return null;
+        }
+        return Query.of(q -> q.term(t -> t.field("city").value(query.city())));
+    }
+
+    // Price bands overlap the requested range: some ticket is within it
+    private static Query priceFilter(EventSearchQuery query) {
+        List<Query> bounds = new ArrayList<>();
+        if (query.maxPrice() != null) {
+            bounds.add(Query.of(q -> q.range(r -> r.field("minPrice").lte(JsonData.of(query.maxPrice())))));
+        }
+        if (query.minPrice() != null) {
+            bounds.add(Query.of(q -> q.range(r -> r.field("maxPrice").gte(JsonData.of(query.minPrice())))));
+        }
+        return allOf(bounds);
+    }
+
+    private static Query allOf(List<Query> queries) {
+        if (queries.isEmpty()) {
+            return null;
+        }
+        return queries.size() == 1 ? queries.get(0) : Query.of(q -> q.bool(b -> b.filter(queries)));
+    }
+
+    private static Query allOfPresent(Query... queries) {
+        return allOf(Stream.of(queries).filter(Objects::nonNull).toList());
+    }
+
+    private static Query orMatchAll(Query query) {
+        return query != null ? query : Query.of(q -> q.matchAll(m -> m));
+    }
+
+    private static List<SortOptions> sortOptions(EventSearchQuery query) {
+        List<SortOptions> sort = new ArrayList<>();
+        switch (query.sort()) {
+            case RELEVANCE -> sort.add(SortOptions.of(o -> o.score(sc -> sc.order(SortOrder.Desc))));
+            case PRICE -> sort.add(SortOptions.of(o -> o.field(f -> f.field("minPrice").order(SortOrder.Asc))));
+            case DISTANCE -> sort.add(SortOptions.of(o -> o.geoDistance(g -> g
+                    .field("location")
+                    .location(l -> l.latlon(ll -> ll.lat(query.lat()).lon(query.lon())))
+                    .unit(DistanceUnit.Kilometers)
+                    .order(SortOrder.Asc))));
+            case DATE -> { }
+        }
+        sort.add(SortOptions.of(o -> o.field(f -> f.field("startDate").order(SortOrder.Asc))));
+        // Unique tiebreaker, so search_after neither skips nor repeats hits with equal sort values
+        sort.add(SortOptions.of(o -> o.field(f -> f.field("id.keyword").order(SortOrder.Asc))));
+        return sort;
+    }
+
+    private static Map<String, Long> termCounts(Aggregate facet) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (facet != null) {
+            facet.filter().aggregations().get("values").sterms().buckets().array()
+                    .forEach(bucket -> counts.put(bucket.key().stringValue(), bucket.docCount()));
+        }
+        return counts;
+    }
+
+    private List<PriceBucket> priceBuckets(Aggregate facet) {
+        if (facet == null) {
+            return List.of();
+        }
+        return facet.filter().aggregations().get("values").histogram().buckets().array().stream()
+                .map(bucket -> new PriceBucket(bucket.key(), bucket.key() + priceInterval, bucket.docCount()))
+                .toList();
+    }
+
+    // Opaque cursor: the last hit's sort values as base64url JSON
+    String encodeCursor(List<FieldValue> sortValues) {
+        List<Object> values = sortValues.stream().map(value -> switch (value._kind()) {
+            case Long -> (Object) value.longValue();
+            case Double -> value.doubleValue();
+            case Boolean -> value.booleanValue();
+            case String -> value.stringValue();
+            default -> null;
+        }).toList();
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(values));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode search cursor", e);
+        }
+    }
+
+    List<FieldValue> decodeCursor(String cursor) {
+        try {
+            List<Object> values = objectMapper.readValue(Base64.getUrlDecoder().decode(cursor), CURSOR_TYPE);
+            return values.stream().map(value -> switch (value) {
+                case null -> FieldValue.NULL;
+                case Double d -> FieldValue.of(d.doubleValue());
+                case Number n -> FieldValue.of(n.longValue());
+                case Boolean b -> FieldValue.of(b.booleanValue());
+                default -> FieldValue.of(value.toString());
+            }).toList();
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid search cursor");
+        }
+    }
+
+    /**
+     * Map a failed request. A 4xx other than 408/429 means Elasticsearch rejected the request
+     * itself, so it is a bad request and marks nothing unavailable. Anything else marks
+     * Elasticsearch unavailable for {@code event.search.retry-after-seconds}: for suggestions only
+     * if {@code suggestion} is set, otherwise for every request.
+     */
+    private RuntimeException failed(Exception e, boolean suggestion) {
+        if (e instanceof ElasticsearchException rejected && isClientError(rejected.status())) {
+            log.debug("Elasticsearch rejected the request: {}", rejected.getMessage());
+            return new IllegalArgumentException("Invalid search request");
+        }
+        long until = System.currentTimeMillis() + retryAfterSeconds * 1000;
+        if (suggestion) {
+            suggestUnavailableUntil = until;
+        } else {
+            unavailableUntil = until;
+        }
+        return new SearchUnavailableException("Elasticsearch search failed: " + e.getMessage(), e);
+    }
+
+    private static boolean isClientError(int status) {
+        return status >= 400 && status < 500 && status != 408 && status != 429;
+    }
+
+    /**
+     * Whether searches should be sent to Elasticsearch, i.e. no search failed recently.
+     */
+    public boolean isAvailable() {
+        return System.currentTimeMillis() >= unavailableUntil;
+    }
+
+    /**
+     * Whether suggestions should be requested: neither a search nor a suggestion failed recently.
+     */
+    public boolean isSuggestAvailable() {
+        return isAvailable() && System.currentTimeMillis() >= suggestUnavailableUntil;
+    }
+
+    /**
+     * Index {@code documents} and delete {@code deletedIds} in one {@code _bulk} request.
+     * Deleting a document that is not indexed is not a failure.
+     *
+     * @throws IllegalStateException if the request itself fails
+     */
+    public BulkResult bulk(Collection<EventDocument> documents, Collection<String> deletedIds) {
+        if (documents.isEmpty() && deletedIds.isEmpty()) {
+            return new BulkResult(0, 0, 0, 0);
+        }
+        BulkRequest.Builder request = new BulkRequest.Builder();
+        documents.forEach(doc -> request.operations(op -> op
+                .index(i -> i.index(INDEX_NAME).id(doc.id()).document(doc))));
+        deletedIds.forEach(id -> request.operations(op -> op
+                .delete(d -> d.index(INDEX_NAME).id(id))));
+
+        BulkResponse response;
+        try {
+            response = esClient.bulk(request.build());
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Elasticsearch bulk request failed: " + e.getMessage(), e);
+        }
+
+        int failed = 0;
+        int retryable = 0;
+        if (response.errors()) {
+            for (BulkResponseItem item : response.items()) {
+                if (item.error() == null) {
+                    continue;
+                }
+                failed++;
+                // Rejections under load and shard failures succeed on retry; mapping errors never do
+                if (item.status() == 429 || item.status() >= 500) {
+                    retryable++;
+                }
+                log.warn("Failed to {} event {} in Elasticsearch: {}", item.operationType().jsonValue(), item.id(),
+                        item.error().reason());
+            }
         }
+        return new BulkResult(documents.size(), deletedIds.size(), failed, retryable);
     }
 
+    public record SearchHits(List<String> ids, long total) {}
+
+    /**
+     * A suggested search text and the event it came from; {@code text} is a title, tag or venue name.
+     */
+    public record Suggestion(String text, String eventId, String title) {}
+
+    /**
+     * Outcome of a {@code _bulk} request; {@code failed} includes {@code retryable}.
+     */
+    public record BulkResult(int indexed, int deleted, int failed, int retryable) {}
+
     public record EventDocument(
             String id,
             String title,
@@ -135,6 +543,68 @@ public class EventSearchService {
             String status,
             String organizerId,
             String startDate,
-            int availableSeats
-    ) {}
+            int availableSeats,
+            String endDate,
+            Double minPrice,
+            Double maxPrice,
+            String currency,
+            String venueName,
+            String city,
+            GeoPoint location,
+            // Indexed for the completion suggester, excluded from discovery results
+            @JsonInclude(JsonInclude.Include.NON_NULL) List<SuggestInput> suggest
+    ) {
+        public static EventDocument of(Event event) {
+            Venue venue = event.getVenue();
+            return new EventDocument(
+                    event.getId().toString(),
+                    event.getTitle(),
+                    event.getDescription(),
+                    event.getCategory() != null ? event.getCategory().name() : "",
+                    event.getTags() != null ? List.copyOf(event.getTags()) : List.of(),
+                    event.getStatus().name(),
+                    event.getOrganizerId().toString(),
+                    event.getStartDate() != null ? event.getStartDate().toString() : "",
+                    event.getAvailableSeats(),
+                    event.getEndDate() != null ? event.getEndDate().toString() : null,
+                    event.getMinPrice() != null ? event.getMinPrice().doubleValue() : null,
+                    event.getMaxPrice() != null ? event.getMaxPrice().doubleValue() : null,
+                    event.getCurrency(),
+                    venue != null ? venue.getName() : null,
+                    venue != null ? venue.getCity() : null,
+                    venue != null && venue.getLatitude() != null && venue.getLongitude() != null
+                            ? new GeoPoint(venue.getLatitude(), venue.getLongitude())
+                            : null,
+                    suggestInputs(event, venue)
+            );
+        }
+
+        private static List<SuggestInput> suggestInputs(Event event, Venue venue) {
+            List<SuggestInput> inputs = new ArrayList<>();
+            if (event.getTitle() != null && !event.getTitle().isBlank()) {
+                inputs.add(new SuggestInput(List.of(event.getTitle()), TITLE_WEIGHT));
+            }
+            List<String> others = new ArrayList<>();
+            if (event.getTags() != null) {
+                event.getTags().stream().filter(tag -> tag != null && !tag.isBlank()).forEach(others::add);
+            }
+            if (venue != null && venue.getName() != null && !venue.getName().isBlank()) {
+                others.add(venue.getName());
+            }
+            if (!others.isEmpty()) {
+                inputs.add(new SuggestInput(others, 1));
+            }
+            return inputs;
+        }
+    }
+
+    /**
+     * Completion inputs sharing a weight; the weight of the matching input ranks the suggestion.
+     */
+    public record SuggestInput(List<String> input, int weight) {}
+
+    /**
+     * Serialises as {@code {"lat": .., "lon": ..}}, which {@code geo_point} accepts.
+     */
+    public record GeoPoint(double lat, double lon) {}
 }
@@ -0,0 +1,114 @@
+package com.eventhub.event.search;
+
+import com.eventhub.event.search.EventSearchService.Suggestion;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Search-as-you-type suggestions from the completion field of the event index.
+ *
+ * Prefixes are normalised (trimmed, lower-cased, whitespace collapsed) and their results kept in
+ * a per-replica Caffeine cache for {@code event.search.suggest.cache.ttl-seconds}, so the popular
+ * first few characters of a query do not reach Elasticsearch on every keystroke. The TTL also
+ * bounds how long a suggestion can outlive an unpublished event.
+ *
+ * Suggestions are best effort: while Elasticsearch is unavailable an empty list is returned, and
+ * is not cached.
+ *
+ * Latency is exported as {@code event.search.suggest{source=cache|elasticsearch}}, timed from
+ * method entry so both sources include normalisation and the cache lookup. The 10 ms target for
+ * this endpoint has not been measured yet; these percentiles are what to check it against.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EventSuggestService {
+
+    private final EventSearchService searchService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${event.search.suggest.min-prefix-length:2}")
+    private int minPrefixLength;
+
+    @Value("${event.search.suggest.max-prefix-length:50}")
+    private int maxPrefixLength;
+
+    @Value("${event.search.suggest.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${event.search.suggest.cache.ttl-seconds:60}")
+    private long cacheTtlSeconds;
+
+    private Cache<String, List<Suggestion>> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "event-suggest");
+    }
+
+    /**
+     * Up to {@code size} suggestions for {@code prefix}; empty for prefixes shorter than
+     * {@code event.search.suggest.min-prefix-length}.
+     */
+    public List<Suggestion> suggest(String prefix, int size) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String normalized = normalize(prefix);
+        if (normalized.length() < minPrefixLength) {
+            return List.of();
+        }
+
+        String key = size + ":" + normalized;
+        List<Suggestion> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            record("cache", sample);
+            return cached;
+        }
+        if (!searchService.isSuggestAvailable()) {
+            return List.of();
+        }
+
+        try {
+            List<Suggestion> suggestions = searchService.suggest(normalized, size);
+            cache.put(key, suggestions);
+            return suggestions;
+        } catch (SearchUnavailableException e) {
+            log.debug("Suggestions unavailable for '{}': {}", normalized, e.getMessage());
+            return List.of();
+        } finally {
+            record("elasticsearch", sample);
+        }
+    }
+
+    private String normalize(String prefix) {
+        if (prefix == null) {
+            return "";
+        }
+        String normalized = prefix.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalized.length() > maxPrefixLength ? normalized.substring(0, maxPrefixLength) : normalized;
+    }
+
+    private void record(String source, Timer.Sample sample) {
+        sample.stop(Timer.builder("event.search.suggest")
+                .description("Latency of search-as-you-type suggestions")
+                .tag("source", source)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry));
+    }
+}
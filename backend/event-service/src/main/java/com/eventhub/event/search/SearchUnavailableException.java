@@ -0,0 +1,11 @@
+package com.eventhub.event.search;
+
+/**
+ * Elasticsearch could not answer a search: unreachable, too slow or rejecting the request.
+ */
+public class SearchUnavailableException extends IllegalStateException {
+
+    public SearchUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
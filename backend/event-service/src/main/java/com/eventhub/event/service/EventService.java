@@ -1,25 +1,34 @@
 package com.eventhub.event.service;
 
+import com.eventhub.event.cache.EventCache;
 import com.eventhub.event.entity.Event;
 import com.eventhub.event.entity.EventCategory;
 import com.eventhub.event.entity.EventStatus;
 import com.eventhub.event.entity.Venue;
 import com.eventhub.event.repository.EventRepository;
 import com.eventhub.event.search.EventSearchService;
-import com.eventhub.event.search.EventSearchService.EventDocument;
+import com.eventhub.event.search.EventSearchService.SearchHits;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 @Service
@@ -30,15 +39,20 @@ public class EventService {
     private final EventRepository eventRepository;
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final EventSearchService searchService;
+    private final EventCache eventCache;
+    private final MeterRegistry meterRegistry;
 
-    @Transactional(readOnly = true)
-    public Page<Event> getEvents(int page, int size, String category, String search) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "startDate"));
+    @Value("${event.search.trigram-fallback:true}")
+    private boolean trigramFallback;
 
+    // No transaction: a search must not hold a connection while waiting on Elasticsearch
+    public Page<Event> getEvents(int page, int size, String category, String search) {
         if (search != null && !search.isBlank()) {
-            return eventRepository.searchEvents(search.trim(), pageable);
+            return search(search.trim(), page, size);
         }
 
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "startDate"));
+
         if (category != null && !category.isBlank()) {
             try {
                 EventCategory cat = EventCategory.valueOf(category.toUpperCase());
@@ -51,9 +65,68 @@ public class EventService {
         return eventRepository.findByStatus(EventStatus.PUBLISHED, pageable);
     }
 
+    /**
+     * Search published events in Elasticsearch, falling back to Postgres while it is failing
+     * and for pages deeper than Elasticsearch serves by offset. Latency is exported as {@code event.search} per backend and outcome.
+     */
+    private Page<Event> search(String search, int page, int size) {
+        boolean withinWindow = (long) (page + 1) * size <= EventSearchService.MAX_RESULT_WINDOW;
+        if (withinWindow && searchService.isAvailable()) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                Page<Event> results = loadHits(searchService.search(search, page, size), page, size);
+                sample.stop(searchTimer("elasticsearch", "success"));
+                return results;
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                sample.stop(searchTimer("elasticsearch", "error"));
+                log.warn("Falling back to database search: {}", e.getMessage());
+            }
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Page<Event> results = searchInDatabase(search, page, size);
+        sample.stop(searchTimer("database", "success"));
+        return results;
+    }
+
+    // Hits in relevance order; ids the database no longer has are dropped
+    private Page<Event> loadHits(SearchHits hits, int page, int size) {
+        Map<String, Event> events = new HashMap<>();
+        if (!hits.ids().isEmpty()) {
+            List<UUID> ids = hits.ids().stream().map(UUID::fromString).toList();
+            eventRepository.findWithDetailsByIdIn(ids).forEach(event -> events.put(event.getId().toString(), event));
+        }
+        List<Event> ordered = hits.ids().stream().map(events::get).filter(Objects::nonNull).toList();
+        return new PageImpl<>(ordered, PageRequest.of(page, size), hits.total());
+    }
+
+    private Timer searchTimer(String backend, String outcome) {
+        return Timer.builder("event.search")
+                .description("Latency of event searches, including loading the matched events")
+                .tag("backend", backend)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Full-text search over published events in Postgres, ranked by relevance. When nothing
+     * matches and {@code event.search.trigram-fallback} is on, retries by title similarity so
+     * misspelled searches still find something.
+     */
     @Transactional(readOnly = true)
+    public Page<Event> searchInDatabase(String search, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        Page<Event> results = eventRepository.searchEvents(search, pageable);
+        if (results.getTotalElements() > 0 || !trigramFallback) {
+            meterRegistry.counter("event.search.db", "mode", "fulltext").increment();
+            return results;
+        }
+        meterRegistry.counter("event.search.db", "mode", "trigram").increment();
+        return eventRepository.searchEventsBySimilarity(search, pageable);
+    }
+
+    // No transaction: cache hits must not check out a connection
     public Event getEvent(UUID eventId) {
-        return eventRepository.findById(eventId)
+        return eventCache.get(eventId, eventRepository::findById)
                 .orElseThrow(() -> new IllegalArgumentException("Event not found: " + eventId));
     }
 
@@ -62,9 +135,16 @@ public class EventService {
         return eventRepository.findTrendingEvents(PageRequest.of(0, 10));
     }
 
+    /**
+     * An organizer's events; drafts and other unpublished events only when {@code viewerId} is
+     * the organizer.
+     */
     @Transactional(readOnly = true)
-    public Page<Event> getOrganizerEvents(UUID organizerId, int page, int size) {
-        return eventRepository.findByOrganizerId(organizerId, PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt")));
+    public Page<Event> getOrganizerEvents(UUID organizerId, UUID viewerId, int page, int size) {
+        PageRequest pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        return organizerId.equals(viewerId)
+                ? eventRepository.findByOrganizerId(organizerId, pageable)
+                : eventRepository.findByOrganizerIdAndStatus(organizerId, EventStatus.PUBLISHED, pageable);
     }
 
     @Transactional
@@ -97,6 +177,7 @@ public class EventService {
         if (updates.getTags() != null && !updates.getTags().isEmpty()) event.setTags(updates.getTags());
 
         event = eventRepository.save(event);
+        eventCache.evict(eventId);
         publishEventMessage("event.updated", event);
         return event;
     }
@@ -114,8 +195,8 @@ public class EventService {
         event = eventRepository.save(event);
 
         log.info("Event published: {}", event.getId());
+        eventCache.evict(eventId);
         publishEventMessage("event.published", event);
-        indexEventInElasticsearch(event);
         return event;
     }
 
@@ -127,28 +208,17 @@ public class EventService {
         int newAvailable = event.getAvailableSeats() + delta;
         if (newAvailable < 0) newAvailable = 0;
         event.setAvailableSeats(newAvailable);
-        eventRepository.save(event);
+        event = eventRepository.save(event);
+        eventCache.evict(eventId);
+        publishEventMessage("event.seats.updated", event);
     }
 
-    private void indexEventInElasticsearch(Event event) {
-        try {
-            searchService.indexEvent(new EventDocument(
-                    event.getId().toString(),
-                    event.getTitle(),
-                    event.getDescription(),
-                    event.getCategory() != null ? event.getCategory().name() : "",
-                    event.getTags() != null ? List.copyOf(event.getTags()) : List.of(),
-                    event.getStatus().name(),
-                    event.getOrganizerId().toString(),
-                    event.getStartDate() != null ? event.getStartDate().toString() : "",
-                    event.getAvailableSeats()
-            ));
-        } catch (Exception e) {
-            log.warn("Failed to index event in Elasticsearch: {}", e.getMessage());
-        }
+    private void publishEventMessage(String eventType, Event event) {
+        // After commit, so replicas evicting on this message cannot reload the old row
+        afterCommit(() -> sendEventMessage(eventType, event));
     }
 
-    private void publishEventMessage(String eventType, Event event) {
+    private void sendEventMessage(String eventType, Event event) {
         try {
             kafkaTemplate.send("event-events", event.getId().toString(), Map.of(
                     "eventType", eventType,
@@ -162,4 +232,17 @@ public class EventService {
             log.warn("Failed to publish event message: {}", e.getMessage());
         }
     }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
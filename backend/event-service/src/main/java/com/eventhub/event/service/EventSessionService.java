@@ -40,9 +40,9 @@ public class EventSessionService {
             throw new SecurityException("Not authorized to add sessions to this event");
         }
 
-        session = sessionRepository.save(session);
-        log.info("Session created: {} for event {}", session.getId(), session.getEventId());
-        return session;
+        EventSession saved = sessionRepository.save(session);
+        log.info("Session created: {} for event {}", saved.getId(), saved.getEventId());
+        return saved;
     }
 
     @Transactional
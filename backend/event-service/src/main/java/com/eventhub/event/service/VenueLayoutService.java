@@ -51,9 +51,9 @@ public class VenueLayoutService {
             throw new SecurityException("Not authorized to create layouts for this venue");
         }
 
-        layout = layoutRepository.save(layout);
-        log.info("Layout created: {} for venue {} by organizer {}", layout.getId(), layout.getVenueId(), organizerId);
-        return layout;
+        VenueLayout saved = layoutRepository.save(layout);
+        log.info("Layout created: {} for venue {} by organizer {}", saved.getId(), saved.getVenueId(), organizerId);
+        return saved;
     }
 
     @Transactional
@@ -0,0 +1,6 @@
+-- Typo-tolerant fallback for searches that match nothing in idx_events_search.
+-- pg_trgm is a trusted extension, so the database owner can create it.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Serves "search <% title" (word similarity) without scanning events
+CREATE INDEX IF NOT EXISTS idx_events_title_trgm ON events USING gin (title gin_trgm_ops);
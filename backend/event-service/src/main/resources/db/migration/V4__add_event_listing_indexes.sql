@@ -0,0 +1,10 @@
+-- Keyset pagination for event listings: each (filter, start_date, id) index serves
+-- "ORDER BY start_date DESC, id DESC" after a (start_date, id) cursor as one range scan,
+-- read backwards, however deep the page.
+CREATE INDEX IF NOT EXISTS idx_events_status_start_date ON events (status, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_events_status_category_start_date ON events (status, category, start_date, id);
+CREATE INDEX IF NOT EXISTS idx_events_organizer_start_date ON events (organizer_id, start_date, id);
+
+-- Leading columns of the indexes above
+DROP INDEX IF EXISTS idx_events_status;
+DROP INDEX IF EXISTS idx_events_organizer;
@@ -0,0 +1,226 @@
+package com.eventhub.event.cache;
+
+import com.eventhub.event.entity.Event;
+import com.eventhub.event.entity.EventCategory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventCacheTest {
+
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private ValueOperations<String, String> valueOps;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private SimpleMeterRegistry meterRegistry;
+    private EventCache cache;
+    private Event event;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new EventCache(redisTemplate, objectMapper, meterRegistry);
+        ReflectionTestUtils.setField(cache, "l1MaxSize", 100L);
+        ReflectionTestUtils.setField(cache, "l1TtlSeconds", 30L);
+        ReflectionTestUtils.setField(cache, "l2TtlSeconds", 300L);
+        ReflectionTestUtils.setField(cache, "l2RedeleteDelayMs", 60_000L);
+        cache.init();
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOps);
+
+        event = Event.builder()
+                .id(UUID.randomUUID()).title("Jazz Night").category(EventCategory.CONCERT)
+                .organizerId(UUID.randomUUID()).startDate(Instant.parse("2026-11-01T20:00:00Z"))
+                .endDate(Instant.parse("2026-11-01T23:00:00Z")).tags(Set.of("jazz"))
+                .build();
+        key = "event:detail:" + event.getId();
+    }
+
+    // ─────────────────────────────────────────────
+    // Reads
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Reads")
+    class Reads {
+
+        @Test
+        @DisplayName("should load from the database on a full miss and populate both tiers")
+        void shouldLoadAndPopulateBothTiers() {
+            AtomicInteger loads = new AtomicInteger();
+            Function<UUID, Optional<Event>> loader = id -> {
+                loads.incrementAndGet();
+                return Optional.of(event);
+            };
+
+            assertThat(cache.get(event.getId(), loader)).contains(event);
+            assertThat(cache.get(event.getId(), loader)).contains(event);
+
+            assertThat(loads).hasValue(1);
+            verify(valueOps).set(eq(key), contains("Jazz Night"), eq(Duration.ofSeconds(300)));
+            assertThat(requests("l1", "hit")).isEqualTo(1);
+            assertThat(requests("l2", "miss")).isEqualTo(1);
+            assertThat(meterRegistry.get("event.cache.load").timer().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should answer from Redis without touching the database")
+        void shouldServeFromSharedTier() throws Exception {
+            when(valueOps.get(key)).thenReturn(objectMapper.writeValueAsString(event));
+
+            Optional<Event> cached = cache.get(event.getId(), id -> fail("database should not be read"));
+
+            assertThat(cached).get().extracting(Event::getTitle).isEqualTo("Jazz Night");
+            assertThat(requests("l2", "hit")).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should fall back to the database when Redis is unavailable")
+        void shouldSurviveRedisFailure() {
+            when(valueOps.get(key)).thenThrow(new IllegalStateException("connection refused"));
+
+            assertThat(cache.get(event.getId(), id -> Optional.of(event))).contains(event);
+        }
+
+        @Test
+        @DisplayName("should not cache events that do not exist")
+        void shouldNotCacheMissingEvents() {
+            AtomicInteger loads = new AtomicInteger();
+            Function<UUID, Optional<Event>> loader = id -> {
+                loads.incrementAndGet();
+                return Optional.empty();
+            };
+
+            assertThat(cache.get(event.getId(), loader)).isEmpty();
+            assertThat(cache.get(event.getId(), loader)).isEmpty();
+
+            assertThat(loads).hasValue(2);
+            verify(valueOps, never()).set(anyString(), anyString(), any(Duration.class));
+        }
+
+        @Test
+        @DisplayName("should coalesce concurrent misses on the same event into one load")
+        void shouldCoalesceConcurrentMisses() throws Exception {
+            CountDownLatch loading = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger loads = new AtomicInteger();
+            Function<UUID, Optional<Event>> loader = id -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Optional.of(event);
+            };
+
+            CompletableFuture<Optional<Event>> first = CompletableFuture.supplyAsync(() -> cache.get(event.getId(), loader));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<Optional<Event>> second = CompletableFuture.supplyAsync(() -> cache.get(event.getId(), loader));
+            Thread.sleep(50);
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).contains(event);
+            assertThat(second.get(5, TimeUnit.SECONDS)).contains(event);
+            assertThat(loads).hasValue(1);
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Invalidation
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Invalidation")
+    class Invalidation {
+
+        @Test
+        @DisplayName("should evict both tiers on event.updated")
+        void shouldEvictOnUpdate() {
+            AtomicInteger loads = new AtomicInteger();
+            Function<UUID, Optional<Event>> loader = id -> {
+                loads.incrementAndGet();
+                return Optional.of(event);
+            };
+            cache.get(event.getId(), loader);
+
+            cache.handleEventChange(Map.of("eventType", "event.updated", "eventId", event.getId().toString()));
+            cache.get(event.getId(), loader);
+
+            assertThat(loads).hasValue(2);
+            verify(redisTemplate).delete(key);
+        }
+
+        @Test
+        @DisplayName("should ignore messages that do not change cached events")
+        void shouldIgnoreOtherMessages() {
+            cache.handleEventChange(Map.of("eventType", "event.created", "eventId", event.getId().toString()));
+
+            verify(redisTemplate, never()).delete(anyString());
+        }
+
+        @Test
+        @DisplayName("should evict immediately outside a transaction")
+        void shouldEvictLocally() {
+            cache.get(event.getId(), id -> Optional.of(event));
+
+            cache.evict(event.getId());
+
+            verify(redisTemplate).delete(key);
+            assertThat(cache.get(event.getId(), id -> Optional.empty())).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should delete again after the delay to clear a stale copy re-cached by a racing miss")
+        void shouldRedeleteAfterDelay() {
+            List<Runnable> delayed = new ArrayList<>();
+            ReflectionTestUtils.setField(cache, "redelete", (Executor) delayed::add);
+
+            cache.evict(event.getId());
+            // A miss that read the old row before commit re-caches it after the first delete
+            Event stale = Event.builder().id(event.getId()).title("Old Title").build();
+            cache.get(event.getId(), id -> Optional.of(stale));
+            verify(valueOps).set(eq(key), contains("Old Title"), any(Duration.class));
+
+            delayed.forEach(Runnable::run);
+
+            verify(redisTemplate, times(2)).delete(key);
+            assertThat(cache.get(event.getId(), id -> Optional.of(event))).get()
+                    .extracting(Event::getTitle).isEqualTo("Jazz Night");
+        }
+    }
+
+    private double requests(String tier, String result) {
+        return meterRegistry.get("event.cache.requests").tag("tier", tier).tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,126 @@
+package com.eventhub.event.query;
+
+import com.eventhub.event.entity.EventCategory;
+import com.eventhub.event.entity.EventStatus;
+import com.eventhub.event.repository.EventRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventListingServiceTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @InjectMocks
+    private EventListingService listingService;
+
+    @Test
+    @DisplayName("should start the first page from the sentinel cursor and point the next cursor at the last card")
+    void shouldReturnNextCursorWhenMoreRows() {
+        List<EventCard> rows = cards(3);
+        when(eventRepository.findCardsByStatusBefore(EventStatus.PUBLISHED, EventCursor.FIRST.startDate(),
+                EventCursor.FIRST.eventId(), PageRequest.of(0, 3))).thenReturn(rows);
+
+        CursorPage<EventCard> page = listingService.getPublishedEvents(null, null, 2);
+
+        assertThat(page.items()).extracting(EventCard::id).containsExactly(rows.get(0).id(), rows.get(1).id());
+        assertThat(page.hasMore()).isTrue();
+        EventCursor cursor = EventCursor.decode(page.nextCursor());
+        assertThat(cursor.eventId()).isEqualTo(rows.get(1).id());
+        assertThat(cursor.startDate()).isEqualTo(rows.get(1).startDate());
+    }
+
+    @Test
+    @DisplayName("should continue after the cursor position within the category")
+    void shouldSeekAfterCursor() {
+        EventCursor cursor = new EventCursor(Instant.parse("2026-11-01T20:00:00Z"), UUID.randomUUID());
+        when(eventRepository.findCardsByStatusAndCategoryBefore(eq(EventStatus.PUBLISHED), eq(EventCategory.CONCERT),
+                eq(cursor.startDate()), eq(cursor.eventId()), any())).thenReturn(cards(1));
+
+        CursorPage<EventCard> page = listingService.getPublishedEvents("concert", cursor.encode(), 10);
+
+        assertThat(page.items()).hasSize(1);
+        assertThat(page.hasMore()).isFalse();
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("should attach tags to the whole page with one query")
+    void shouldBatchTags() {
+        List<EventCard> rows = cards(2);
+        UUID organizerId = UUID.randomUUID();
+        when(eventRepository.findCardsByOrganizerBefore(eq(organizerId), any(), any(), any())).thenReturn(rows);
+        when(eventRepository.findTagsByEventIdIn(List.of(rows.get(0).id(), rows.get(1).id()))).thenReturn(List.of(
+                new Object[]{rows.get(0).id(), "jazz"},
+                new Object[]{rows.get(0).id(), "live"}));
+
+        CursorPage<EventCard> page = listingService.getOrganizerEvents(organizerId, organizerId, null, 10);
+
+        assertThat(page.items().get(0).tags()).containsExactlyInAnyOrder("jazz", "live");
+        assertThat(page.items().get(1).tags()).isEmpty();
+        verify(eventRepository, times(1)).findTagsByEventIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("should list only published events to anyone but the organizer")
+    void shouldHideUnpublishedFromOthers() {
+        UUID organizerId = UUID.randomUUID();
+        when(eventRepository.findCardsByOrganizerAndStatusBefore(eq(organizerId), eq(EventStatus.PUBLISHED),
+                any(), any(), any())).thenReturn(List.of());
+
+        listingService.getOrganizerEvents(organizerId, UUID.randomUUID(), null, 10);
+        listingService.getOrganizerEvents(organizerId, null, null, 10);
+
+        verify(eventRepository, times(2)).findCardsByOrganizerAndStatusBefore(eq(organizerId),
+                eq(EventStatus.PUBLISHED), any(), any(), any());
+        verify(eventRepository, never()).findCardsByOrganizerBefore(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("should cap the page size")
+    void shouldCapPageSize() {
+        when(eventRepository.findCardsByStatusBefore(any(), any(), any(), any())).thenReturn(List.of());
+
+        listingService.getPublishedEvents(null, null, 500);
+
+        verify(eventRepository).findCardsByStatusBefore(any(), any(), any(), eq(PageRequest.of(0, 51)));
+        verify(eventRepository, never()).findTagsByEventIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("should reject a malformed cursor or an unknown category")
+    void shouldRejectBadInput() {
+        assertThatThrownBy(() -> listingService.getPublishedEvents(null, "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> listingService.getPublishedEvents("polka", null, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("polka");
+        verifyNoInteractions(eventRepository);
+    }
+
+    private List<EventCard> cards(int count) {
+        List<EventCard> cards = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            cards.add(new EventCard(UUID.randomUUID(), "Event " + i, EventCategory.CONCERT, EventStatus.PUBLISHED,
+                    null, Instant.parse("2026-11-01T20:00:00Z").minusSeconds(i * 3600L), UUID.randomUUID(),
+                    "Blue Note", "Lisbon", new BigDecimal("15.00"), "USD", 100));
+        }
+        return cards;
+    }
+}
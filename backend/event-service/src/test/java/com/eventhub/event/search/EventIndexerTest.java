@@ -0,0 +1,172 @@
+package com.eventhub.event.search;
+
+import com.eventhub.event.entity.Event;
+import com.eventhub.event.entity.EventCategory;
+import com.eventhub.event.entity.EventStatus;
+import com.eventhub.event.repository.EventRepository;
+import com.eventhub.event.search.EventSearchService.BulkResult;
+import com.eventhub.event.search.EventSearchService.EventDocument;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventIndexerTest {
+
+    @Mock private EventRepository eventRepository;
+    @Mock private EventSearchService searchService;
+    @Mock private Acknowledgment ack;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EventIndexer indexer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        indexer = new EventIndexer(eventRepository, searchService, meterRegistry);
+        ReflectionTestUtils.setField(indexer, "reindexBatchSize", 2);
+    }
+
+    // ─────────────────────────────────────────────
+    // Incremental indexing
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Incremental indexing")
+    class Incremental {
+
+        @Test
+        @DisplayName("should fold a batch into one bulk request: index published, delete the rest")
+        @SuppressWarnings("unchecked")
+        void shouldBulkIndexDistinctEvents() {
+            Event published = event(EventStatus.PUBLISHED);
+            Event draft = event(EventStatus.DRAFT);
+            UUID deleted = UUID.randomUUID();
+            when(eventRepository.findWithDetailsByIdIn(anyCollection())).thenReturn(List.of(published, draft));
+            when(searchService.bulk(anyCollection(), anyCollection())).thenReturn(new BulkResult(1, 2, 0, 0));
+
+            indexer.handleEventChanges(List.of(
+                    record("event.updated", published.getId()),
+                    record("event.seats.updated", published.getId()),
+                    record("event.created", draft.getId()),
+                    record("event.updated", deleted)), ack);
+
+            ArgumentCaptor<Collection<EventDocument>> documents = ArgumentCaptor.forClass(Collection.class);
+            ArgumentCaptor<Collection<String>> deletes = ArgumentCaptor.forClass(Collection.class);
+            verify(searchService).bulk(documents.capture(), deletes.capture());
+            assertThat(documents.getValue()).extracting(EventDocument::id).containsExactly(published.getId().toString());
+            assertThat(deletes.getValue()).containsExactly(draft.getId().toString(), deleted.toString());
+            verify(ack).acknowledge();
+            assertThat(meterRegistry.get("event.search.index.docs").tag("operation", "delete").counter().count())
+                    .isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should not acknowledge when the bulk request fails, so the batch is redelivered")
+        void shouldNotAcknowledgeFailedBatch() {
+            when(eventRepository.findWithDetailsByIdIn(anyCollection())).thenReturn(List.of());
+            when(searchService.bulk(anyCollection(), anyCollection()))
+                    .thenThrow(new IllegalStateException("Elasticsearch bulk request failed"));
+
+            assertThatThrownBy(() -> indexer.handleEventChanges(
+                    List.of(record("event.updated", UUID.randomUUID())), ack))
+                    .isInstanceOf(IllegalStateException.class);
+            verify(ack, never()).acknowledge();
+        }
+
+        @Test
+        @DisplayName("should redeliver when Elasticsearch rejects documents under load")
+        void shouldRetryRejectedDocuments() {
+            when(eventRepository.findWithDetailsByIdIn(anyCollection())).thenReturn(List.of());
+            when(searchService.bulk(anyCollection(), anyCollection())).thenReturn(new BulkResult(0, 1, 1, 1));
+
+            assertThatThrownBy(() -> indexer.handleEventChanges(
+                    List.of(record("event.updated", UUID.randomUUID())), ack))
+                    .isInstanceOf(IllegalStateException.class);
+            verify(ack, never()).acknowledge();
+        }
+
+        @Test
+        @DisplayName("should skip messages without a valid event id")
+        void shouldSkipInvalidMessages() {
+            indexer.handleEventChanges(List.of(
+                    new ConsumerRecord<>("event-events", 0, 7L, "k", Map.of("eventType", "event.updated"))), ack);
+
+            verifyNoInteractions(eventRepository);
+            verify(ack).acknowledge();
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Full reindex
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Full reindex")
+    class FullReindex {
+
+        @Test
+        @DisplayName("should walk published events by id in keyset batches")
+        void shouldReindexInKeysetBatches() {
+            Event a = event(EventStatus.PUBLISHED);
+            Event b = event(EventStatus.PUBLISHED);
+            Event c = event(EventStatus.PUBLISHED);
+            UUID start = new UUID(0, 0);
+            when(eventRepository.findIdsByStatusAfter(EventStatus.PUBLISHED, start, PageRequest.of(0, 2)))
+                    .thenReturn(List.of(a.getId(), b.getId()));
+            when(eventRepository.findIdsByStatusAfter(EventStatus.PUBLISHED, b.getId(), PageRequest.of(0, 2)))
+                    .thenReturn(List.of(c.getId()));
+            when(eventRepository.findIdsByStatusAfter(EventStatus.PUBLISHED, c.getId(), PageRequest.of(0, 2)))
+                    .thenReturn(List.of());
+            when(eventRepository.findWithDetailsByIdIn(List.of(a.getId(), b.getId()))).thenReturn(List.of(a, b));
+            when(eventRepository.findWithDetailsByIdIn(List.of(c.getId()))).thenReturn(List.of(c));
+            when(searchService.bulk(anyCollection(), anyCollection()))
+                    .thenAnswer(inv -> new BulkResult(inv.<Collection<?>>getArgument(0).size(), 0, 0, 0));
+
+            assertThat(indexer.reindexAll()).isEqualTo(3);
+            verify(searchService, times(2)).bulk(anyCollection(), eq(List.of()));
+            assertThat(meterRegistry.get("event.search.reindex").tag("outcome", "success").timer().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should refuse to start while a reindex is running")
+        void shouldRejectConcurrentReindex() {
+            ReflectionTestUtils.setField(indexer, "reindexing", new AtomicBoolean(true));
+
+            assertThatThrownBy(() -> indexer.startReindex()).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    private Event event(EventStatus status) {
+        return Event.builder()
+                .id(UUID.randomUUID()).title("Jazz Night").category(EventCategory.CONCERT).status(status)
+                .organizerId(UUID.randomUUID()).startDate(Instant.parse("2026-11-01T20:00:00Z"))
+                .build();
+    }
+
+    private ConsumerRecord<String, Map<String, Object>> record(String eventType, UUID eventId) {
+        return new ConsumerRecord<>("event-events", 0, 0L, eventId.toString(),
+                Map.of("eventType", eventType, "eventId", eventId.toString()));
+    }
+}
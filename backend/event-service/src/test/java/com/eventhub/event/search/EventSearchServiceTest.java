@@ -0,0 +1,231 @@
+package com.eventhub.event.search;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.ErrorResponse;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.json.JsonpUtils;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import com.eventhub.event.entity.Event;
+import com.eventhub.event.entity.EventCategory;
+import com.eventhub.event.entity.EventStatus;
+import com.eventhub.event.entity.Venue;
+import com.eventhub.event.search.EventSearchQuery.Sort;
+import com.eventhub.event.search.EventSearchService.EventDocument;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventSearchServiceTest {
+
+    @Mock private ElasticsearchClient esClient;
+
+    private EventSearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        searchService = new EventSearchService(esClient, new ObjectMapper());
+        ReflectionTestUtils.setField(searchService, "retryAfterSeconds", 30L);
+        ReflectionTestUtils.setField(searchService, "priceInterval", 25.0);
+        ReflectionTestUtils.setField(searchService, "maxCities", 20);
+    }
+
+    // ─────────────────────────────────────────────
+    // Discovery
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Discovery")
+    class Discovery {
+
+        @Test
+        @DisplayName("should round-trip sort values through an opaque cursor")
+        void shouldRoundTripCursor() {
+            List<FieldValue> sortValues = List.of(FieldValue.of(1.25), FieldValue.of(1793570400000L),
+                    FieldValue.of("0b6c1f6e-4a7e-4c1e-9b0f-0d9c9b1f2a33"));
+
+            String cursor = searchService.encodeCursor(sortValues);
+
+            assertThat(cursor).doesNotContain("=", "+", "/");
+            List<FieldValue> decoded = searchService.decodeCursor(cursor);
+            assertThat(decoded.get(0).doubleValue()).isEqualTo(1.25);
+            assertThat(decoded.get(1).longValue()).isEqualTo(1793570400000L);
+            assertThat(decoded.get(2).stringValue()).isEqualTo("0b6c1f6e-4a7e-4c1e-9b0f-0d9c9b1f2a33");
+        }
+
+        @Test
+        @DisplayName("should reject a tampered cursor without calling Elasticsearch")
+        void shouldRejectMalformedCursor() {
+            assertThatThrownBy(() -> searchService.discover(query(Sort.DATE, "not-a-cursor!")))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("cursor");
+            verifyNoInteractions(esClient);
+        }
+
+        @Test
+        @DisplayName("should require a location to sort by distance")
+        void shouldRequireLocationForDistance() {
+            assertThatThrownBy(() -> searchService.discover(query(Sort.DISTANCE, null)))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(esClient);
+        }
+
+        @Test
+        @DisplayName("should page with search_after and a post_filter, skipping facets after the first page")
+        @SuppressWarnings("unchecked")
+        void shouldBuildSearchAfterRequest() throws Exception {
+            AtomicReference<SearchRequest> sent = new AtomicReference<>();
+            when(esClient.search(any(Function.class), eq(EventDocument.class))).thenAnswer(inv -> {
+                Function<SearchRequest.Builder, SearchRequest.Builder> build = inv.getArgument(0);
+                sent.set(build.apply(new SearchRequest.Builder()).build());
+                throw new IOException("connection refused");
+            });
+            String cursor = searchService.encodeCursor(List.of(FieldValue.of(1793570400000L), FieldValue.of("id-1")));
+
+            assertThatThrownBy(() -> searchService.discover(query(Sort.DATE, cursor)))
+                    .isInstanceOf(SearchUnavailableException.class);
+
+            String json = JsonpUtils.toJsonString(sent.get(), new JacksonJsonpMapper());
+            assertThat(json).contains("\"search_after\":[1793570400000,\"id-1\"]")
+                    .contains("\"post_filter\"")
+                    .contains("\"id.keyword\"")
+                    .doesNotContain("\"from\"")
+                    .contains("\"excludes\":[\"suggest\"]")
+                    .doesNotContain("\"aggregations\"");
+            assertThat(searchService.isAvailable()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should reject a cursor whose length does not match the sort without calling Elasticsearch")
+        void shouldRejectCursorFromAnotherSort() {
+            String cursor = searchService.encodeCursor(List.of(FieldValue.of(1793570400000L), FieldValue.of("id-1")));
+
+            assertThatThrownBy(() -> searchService.discover(query(Sort.PRICE, cursor)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("cursor");
+            verifyNoInteractions(esClient);
+        }
+
+        @Test
+        @DisplayName("should report a query Elasticsearch rejects as a bad request and stay available")
+        @SuppressWarnings("unchecked")
+        void shouldNotTripOnClientError() throws Exception {
+            when(esClient.search(any(Function.class), eq(EventDocument.class)))
+                    .thenThrow(rejected(400));
+
+            assertThatThrownBy(() -> searchService.discover(query(Sort.DATE, null)))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThat(searchService.isAvailable()).isTrue();
+        }
+
+        @Test
+        @DisplayName("should treat Elasticsearch throttling as unavailability")
+        @SuppressWarnings("unchecked")
+        void shouldTripOnThrottling() throws Exception {
+            when(esClient.search(any(Function.class), eq(EventDocument.class)))
+                    .thenThrow(rejected(429));
+
+            assertThatThrownBy(() -> searchService.discover(query(Sort.DATE, null)))
+                    .isInstanceOf(SearchUnavailableException.class);
+            assertThat(searchService.isAvailable()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should count cities across the other filters, not the selected city")
+        @SuppressWarnings("unchecked")
+        void shouldNotFilterCityFacetByCity() throws Exception {
+            AtomicReference<SearchRequest> sent = new AtomicReference<>();
+            when(esClient.search(any(Function.class), eq(EventDocument.class))).thenAnswer(inv -> {
+                Function<SearchRequest.Builder, SearchRequest.Builder> build = inv.getArgument(0);
+                sent.set(build.apply(new SearchRequest.Builder()).build());
+                throw new IOException("connection refused");
+            });
+            EventSearchQuery query = new EventSearchQuery(null, null, null, null, null, null, "Lisbon",
+                    null, null, null, Sort.DATE, 20, null);
+
+            assertThatThrownBy(() -> searchService.discover(query)).isInstanceOf(SearchUnavailableException.class);
+
+            SearchRequest request = sent.get();
+            assertThat(request.postFilter().term().field()).isEqualTo("city");
+            assertThat(request.aggregations().get("cities").filter().isMatchAll()).isTrue();
+            assertThat(request.aggregations().get("categories").filter().term().field()).isEqualTo("city");
+        }
+
+        private EventSearchQuery query(Sort sort, String cursor) {
+            return new EventSearchQuery("jazz", List.of("concert"), null, null, new BigDecimal("10"),
+                    new BigDecimal("80"), null, null, null, null, sort, 20, cursor);
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Suggestions
+    // ─────────────────────────────────────────────
+
+    @Test
+    @DisplayName("should pause suggestions, but not searches, when a suggest request fails")
+    @SuppressWarnings("unchecked")
+    void shouldIsolateSuggestFailures() throws Exception {
+        when(esClient.search(any(Function.class), eq(EventDocument.class)))
+                .thenThrow(new IOException("connection refused"));
+
+        assertThatThrownBy(() -> searchService.suggest("jazz", 8)).isInstanceOf(SearchUnavailableException.class);
+
+        assertThat(searchService.isSuggestAvailable()).isFalse();
+        assertThat(searchService.isAvailable()).isTrue();
+    }
+
+    private static ElasticsearchException rejected(int status) {
+        return new ElasticsearchException("search", ErrorResponse.of(r -> r
+                .status(status)
+                .error(e -> e.type("search_phase_execution_exception").reason("rejected"))));
+    }
+
+    // ─────────────────────────────────────────────
+    // Documents
+    // ─────────────────────────────────────────────
+
+    @Test
+    @DisplayName("should carry prices, city and venue location into the document")
+    void shouldBuildDiscoveryFields() {
+        Venue venue = Venue.builder().name("Blue Note").city("Lisbon").latitude(38.71).longitude(-9.14).build();
+        Event event = Event.builder()
+                .id(UUID.randomUUID()).title("Jazz Night").category(EventCategory.CONCERT)
+                .status(EventStatus.PUBLISHED).organizerId(UUID.randomUUID()).venue(venue)
+                .startDate(Instant.parse("2026-11-01T20:00:00Z")).endDate(Instant.parse("2026-11-01T23:00:00Z"))
+                .minPrice(new BigDecimal("15.00")).maxPrice(new BigDecimal("60.00"))
+                .tags(Set.of("jazz"))
+                .build();
+
+        EventDocument doc = EventDocument.of(event);
+
+        assertThat(doc.minPrice()).isEqualTo(15.0);
+        assertThat(doc.maxPrice()).isEqualTo(60.0);
+        assertThat(doc.city()).isEqualTo("Lisbon");
+        assertThat(doc.venueName()).isEqualTo("Blue Note");
+        assertThat(doc.location()).isEqualTo(new EventSearchService.GeoPoint(38.71, -9.14));
+        assertThat(doc.suggest()).containsExactly(
+                new EventSearchService.SuggestInput(List.of("Jazz Night"), 3),
+                new EventSearchService.SuggestInput(List.of("jazz", "Blue Note"), 1));
+    }
+}
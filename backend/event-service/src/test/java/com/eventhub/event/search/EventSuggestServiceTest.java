@@ -0,0 +1,93 @@
+package com.eventhub.event.search;
+
+import com.eventhub.event.search.EventSearchService.Suggestion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventSuggestServiceTest {
+
+    @Mock private EventSearchService searchService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EventSuggestService suggestService;
+
+    private final List<Suggestion> jazz = List.of(new Suggestion("Jazz Night", "e-1", "Jazz Night"));
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        suggestService = new EventSuggestService(searchService, meterRegistry);
+        ReflectionTestUtils.setField(suggestService, "minPrefixLength", 2);
+        ReflectionTestUtils.setField(suggestService, "maxPrefixLength", 50);
+        ReflectionTestUtils.setField(suggestService, "cacheMaxSize", 100L);
+        ReflectionTestUtils.setField(suggestService, "cacheTtlSeconds", 60L);
+        suggestService.init();
+        lenient().when(searchService.isSuggestAvailable()).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("should serve a repeated prefix from the cache, whatever its case and spacing")
+    void shouldCacheNormalisedPrefix() {
+        when(searchService.suggest("jazz n", 8)).thenReturn(jazz);
+
+        assertThat(suggestService.suggest("Jazz  N", 8)).isEqualTo(jazz);
+        assertThat(suggestService.suggest(" jazz n ", 8)).isEqualTo(jazz);
+
+        verify(searchService, times(1)).suggest(anyString(), anyInt());
+        assertThat(meterRegistry.get("event.search.suggest").tag("source", "cache").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should cache each requested size separately")
+    void shouldKeySizeSeparately() {
+        when(searchService.suggest(eq("ja"), anyInt())).thenReturn(jazz);
+
+        suggestService.suggest("ja", 5);
+        suggestService.suggest("ja", 10);
+
+        verify(searchService).suggest("ja", 5);
+        verify(searchService).suggest("ja", 10);
+    }
+
+    @Test
+    @DisplayName("should not query Elasticsearch for a prefix below the minimum length")
+    void shouldIgnoreShortPrefix() {
+        assertThat(suggestService.suggest(" j ", 8)).isEmpty();
+        assertThat(suggestService.suggest(null, 8)).isEmpty();
+
+        verifyNoInteractions(searchService);
+    }
+
+    @Test
+    @DisplayName("should return nothing, and cache nothing, while Elasticsearch fails")
+    void shouldDegradeWhenUnavailable() {
+        when(searchService.suggest("jazz", 8))
+                .thenThrow(new SearchUnavailableException("connection refused", null))
+                .thenReturn(jazz);
+
+        assertThat(suggestService.suggest("jazz", 8)).isEmpty();
+        assertThat(suggestService.suggest("jazz", 8)).isEqualTo(jazz);
+    }
+
+    @Test
+    @DisplayName("should skip Elasticsearch while it is marked unavailable")
+    void shouldSkipUnavailableElasticsearch() {
+        when(searchService.isSuggestAvailable()).thenReturn(false);
+
+        assertThat(suggestService.suggest("jazz", 8)).isEmpty();
+        verify(searchService, never()).suggest(anyString(), anyInt());
+    }
+}
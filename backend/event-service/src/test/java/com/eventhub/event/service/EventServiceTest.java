@@ -0,0 +1,185 @@
+package com.eventhub.event.service;
+
+import com.eventhub.event.cache.EventCache;
+import com.eventhub.event.entity.Event;
+import com.eventhub.event.entity.EventStatus;
+import com.eventhub.event.repository.EventRepository;
+import com.eventhub.event.search.EventSearchService;
+import com.eventhub.event.search.EventSearchService.SearchHits;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventServiceTest {
+
+    @Mock private EventRepository eventRepository;
+    @Mock private KafkaTemplate<String, Object> kafkaTemplate;
+    @Mock private EventSearchService searchService;
+    @Mock private EventCache eventCache;
+
+    private SimpleMeterRegistry meterRegistry;
+    private EventService eventService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        eventService = new EventService(eventRepository, kafkaTemplate, searchService, eventCache, meterRegistry);
+        ReflectionTestUtils.setField(eventService, "trigramFallback", true);
+    }
+
+    // ─────────────────────────────────────────────
+    // Database search
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Database search")
+    class DatabaseSearch {
+
+        private final PageRequest firstPage = PageRequest.of(0, 20);
+
+        @Test
+        @DisplayName("should search the full-text index with an unsorted page, trimming the term")
+        void shouldUseFullTextSearch() {
+            Page<Event> matches = new PageImpl<>(List.of(Event.builder().id(UUID.randomUUID()).build()), firstPage, 1);
+            when(eventRepository.searchEvents("jazz night", firstPage)).thenReturn(matches);
+
+            Page<Event> results = eventService.getEvents(0, 20, null, "  jazz night ");
+
+            assertThat(results).isSameAs(matches);
+            verify(eventRepository, never()).searchEventsBySimilarity(anyString(), any());
+            assertThat(meterRegistry.get("event.search.db").tag("mode", "fulltext").counter().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should retry by title similarity when the full-text query matches nothing")
+        void shouldFallBackToTrigrams() {
+            Page<Event> similar = new PageImpl<>(List.of(Event.builder().id(UUID.randomUUID()).build()), firstPage, 1);
+            when(eventRepository.searchEvents("jaz nite", firstPage)).thenReturn(Page.empty(firstPage));
+            when(eventRepository.searchEventsBySimilarity("jaz nite", firstPage)).thenReturn(similar);
+
+            assertThat(eventService.searchInDatabase("jaz nite", 0, 20)).isSameAs(similar);
+            assertThat(meterRegistry.get("event.search.db").tag("mode", "trigram").counter().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should not fall back on a later page of a query that has matches")
+        void shouldNotFallBackPastLastPage() {
+            PageRequest farPage = PageRequest.of(5, 20);
+            when(eventRepository.searchEvents("jazz", farPage)).thenReturn(new PageImpl<>(List.of(), farPage, 3));
+
+            assertThat(eventService.searchInDatabase("jazz", 5, 20).getTotalElements()).isEqualTo(3);
+            verify(eventRepository, never()).searchEventsBySimilarity(anyString(), any());
+        }
+
+        @Test
+        @DisplayName("should not fall back when trigram search is disabled")
+        void shouldRespectFallbackSwitch() {
+            ReflectionTestUtils.setField(eventService, "trigramFallback", false);
+            when(eventRepository.searchEvents("jaz", firstPage)).thenReturn(Page.empty(firstPage));
+
+            assertThat(eventService.searchInDatabase("jaz", 0, 20)).isEmpty();
+            verify(eventRepository, never()).searchEventsBySimilarity(anyString(), any());
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Search routing
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Search routing")
+    class SearchRouting {
+
+        @Test
+        @DisplayName("should return Elasticsearch hits in relevance order, loaded in one query")
+        void shouldServeFromElasticsearch() {
+            Event first = Event.builder().id(UUID.randomUUID()).build();
+            Event second = Event.builder().id(UUID.randomUUID()).build();
+            UUID gone = UUID.randomUUID();
+            when(searchService.isAvailable()).thenReturn(true);
+            when(searchService.search("jazz", 0, 3)).thenReturn(new SearchHits(
+                    List.of(second.getId().toString(), gone.toString(), first.getId().toString()), 7));
+            when(eventRepository.findWithDetailsByIdIn(List.of(second.getId(), gone, first.getId())))
+                    .thenReturn(List.of(first, second));
+
+            Page<Event> results = eventService.getEvents(0, 3, null, "jazz");
+
+            assertThat(results.getContent()).containsExactly(second, first);
+            assertThat(results.getTotalElements()).isEqualTo(7);
+            verify(eventRepository, never()).searchEvents(anyString(), any());
+            assertThat(meterRegistry.get("event.search").tag("backend", "elasticsearch").timer().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should fall back to the database when Elasticsearch fails")
+        void shouldFallBackWhenSearchFails() {
+            when(searchService.isAvailable()).thenReturn(true);
+            when(searchService.search("jazz", 0, 20)).thenThrow(new IllegalStateException("connection refused"));
+            when(eventRepository.searchEvents("jazz", PageRequest.of(0, 20)))
+                    .thenReturn(new PageImpl<>(List.of(Event.builder().build()), PageRequest.of(0, 20), 1));
+
+            assertThat(eventService.getEvents(0, 20, null, "jazz")).hasSize(1);
+            assertThat(meterRegistry.get("event.search").tag("backend", "elasticsearch").tag("outcome", "error")
+                    .timer().count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should skip Elasticsearch while it is marked unavailable")
+        void shouldSkipUnavailableElasticsearch() {
+            when(searchService.isAvailable()).thenReturn(false);
+            when(eventRepository.searchEvents("jazz", PageRequest.of(0, 20))).thenReturn(Page.empty());
+
+            eventService.getEvents(0, 20, null, "jazz");
+
+            verify(searchService, never()).search(anyString(), anyInt(), anyInt());
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Organizer listing
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Organizer listing")
+    class OrganizerListing {
+
+        private final UUID organizerId = UUID.randomUUID();
+
+        @Test
+        @DisplayName("should include drafts when the organizer lists their own events")
+        void shouldListAllForOwner() {
+            eventService.getOrganizerEvents(organizerId, organizerId, 0, 10);
+
+            verify(eventRepository).findByOrganizerId(eq(organizerId), any());
+            verify(eventRepository, never()).findByOrganizerIdAndStatus(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should list only published events to other and anonymous callers")
+        void shouldListPublishedForOthers() {
+            eventService.getOrganizerEvents(organizerId, UUID.randomUUID(), 0, 10);
+            eventService.getOrganizerEvents(organizerId, null, 0, 10);
+
+            verify(eventRepository, times(2)).findByOrganizerIdAndStatus(eq(organizerId), eq(EventStatus.PUBLISHED), any());
+            verify(eventRepository, never()).findByOrganizerId(any(), any());
+        }
+    }
+}
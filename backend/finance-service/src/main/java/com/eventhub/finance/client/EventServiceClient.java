@@ -0,0 +1,60 @@
+package com.eventhub.finance.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Direct client for event-service, used to look up the organizer of events that
+ * {@code event-events} has not told us about yet.
+ */
+@Component
+@Slf4j
+public class EventServiceClient {
+
+    private final RestClient restClient;
+
+    public EventServiceClient(
+            RestClient.Builder restClientBuilder,
+            @Value("${finance.event-service.base-url:http://localhost:8082}") String baseUrl,
+            @Value("${finance.event-service.connect-timeout-ms:500}") long connectTimeoutMs,
+            @Value("${finance.event-service.read-timeout-ms:2000}") long readTimeoutMs) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        this.restClient = restClientBuilder.clone()
+                .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
+                .build();
+    }
+
+    /**
+     * @return the event's organizer, or empty if event-service does not know the event
+     * @throws org.springframework.web.client.RestClientException if event-service cannot be reached
+     */
+    public Optional<UUID> findOrganizerId(UUID eventId) {
+        try {
+            EventSummary event = restClient.get()
+                    .uri("/api/v1/events/{eventId}", eventId)
+                    .retrieve()
+                    .body(EventSummary.class);
+            return Optional.ofNullable(event).map(EventSummary::organizerId);
+        } catch (HttpClientErrorException e) {
+            log.warn("Event {} not found in event-service ({})", eventId, e.getStatusCode());
+            return Optional.empty();
+        }
+    }
+
+    record EventSummary(UUID id, UUID organizerId) {}
+}
@@ -0,0 +1,45 @@
+package com.eventhub.finance.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+/**
+ * Listener container factories for consumers that need more than the Boot default.
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    /**
+     * Batch listener for {@code booking-events}: each poll is written in one transaction and the
+     * offsets are acknowledged only after it commits. A failed batch is redelivered with
+     * back-off until it succeeds rather than skipped, since skipping would lose revenue; the
+     * insert is idempotent, so redelivery is safe.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> bookingEventsContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            @Value("${finance.booking-events.concurrency:3}") int concurrency,
+            @Value("${finance.booking-events.max-poll-records:500}") int maxPollRecords,
+            @Value("${finance.booking-events.max-backoff-ms:30000}") long maxBackoffMs) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        factory.getContainerProperties().getKafkaConsumerProperties()
+                .setProperty("max.poll.records", String.valueOf(maxPollRecords));
+
+        ExponentialBackOff backOff = new ExponentialBackOff(500, 2.0);
+        backOff.setMaxInterval(maxBackoffMs);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(backOff));
+        return factory;
+    }
+}
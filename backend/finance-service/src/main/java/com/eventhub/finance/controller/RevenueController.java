@@ -2,13 +2,25 @@ package com.eventhub.finance.controller;
 
 import com.eventhub.finance.entity.RevenueRecord;
 import com.eventhub.finance.entity.Settlement;
+import com.eventhub.finance.export.RevenueCsvExporter;
+import com.eventhub.finance.organizer.OrganizerBackfill;
+import com.eventhub.finance.rollup.RevenuePoint;
+import com.eventhub.finance.rollup.TimeBucket;
 import com.eventhub.finance.service.RevenueService;
+import com.eventhub.finance.settlement.SettlementEngine;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -19,6 +31,9 @@ import java.util.UUID;
 public class RevenueController {
 
     private final RevenueService revenueService;
+    private final SettlementEngine settlementEngine;
+    private final RevenueCsvExporter revenueCsvExporter;
+    private final OrganizerBackfill organizerBackfill;
 
     @GetMapping("/revenue/event/{eventId}")
     public ResponseEntity<Page<RevenueRecord>> getEventRevenue(
@@ -36,6 +51,40 @@ public class RevenueController {
         return ResponseEntity.ok(revenueService.getOrganizerRevenue(UUID.fromString(userId), page, size));
     }
 
+    /**
+     * Revenue over time for one of the caller's events ({@code eventId}) or for their whole
+     * organizer account, served from the rollups. Other organizers' events answer 403.
+     */
+    @GetMapping("/revenue/timeseries")
+    public ResponseEntity<List<RevenuePoint>> getRevenueTimeseries(
+            @RequestHeader("X-User-Id") String userId,
+            @RequestParam(required = false) UUID eventId,
+            @RequestParam(defaultValue = "day") String bucket,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String currency) {
+        return ResponseEntity.ok(revenueService.getRevenueTimeseries(
+                UUID.fromString(userId), eventId, TimeBucket.parse(bucket), from, to, currency));
+    }
+
+    /**
+     * Stream the caller's revenue records as CSV; defaults to the last 30 days.
+     */
+    @GetMapping("/revenue/export")
+    public ResponseEntity<StreamingResponseBody> exportRevenue(
+            @RequestHeader("X-User-Id") String userId,
+            @RequestParam(required = false) UUID eventId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofDays(30));
+        StreamingResponseBody body = revenueCsvExporter.export(UUID.fromString(userId), eventId, start, end);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"revenue.csv\"")
+                .contentType(new MediaType("text", "csv"))
+                .body(body);
+    }
+
     @PostMapping("/revenue")
     public ResponseEntity<RevenueRecord> recordRevenue(@RequestBody RevenueRecord record) {
         return ResponseEntity.status(HttpStatus.CREATED).body(revenueService.recordRevenue(record));
@@ -52,6 +101,23 @@ public class RevenueController {
         return ResponseEntity.ok(revenueService.getOrganizerAnalytics(UUID.fromString(userId)));
     }
 
+    /**
+     * Rebuild the revenue rollups from raw records, e.g. after a backfill or a manual correction.
+     */
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRollups() {
+        return ResponseEntity.ok(Map.of("records", revenueService.rebuildRollups()));
+    }
+
+    /**
+     * Re-attribute revenue recorded against the buyer instead of the event's organizer and
+     * rebuild the rollups.
+     */
+    @PostMapping("/rollups/backfill-organizers")
+    public ResponseEntity<OrganizerBackfill.Result> backfillOrganizers() {
+        return ResponseEntity.ok(organizerBackfill.backfill());
+    }
+
     // ─── Settlements ───
 
     @GetMapping("/settlements")
@@ -81,4 +147,34 @@ public class RevenueController {
     public ResponseEntity<List<Settlement>> getPendingSettlements() {
         return ResponseEntity.ok(revenueService.getPendingSettlements());
     }
+
+    /**
+     * Run the settlement engine for the UTC days {@code from}..{@code to}; days already settled
+     * are skipped unless {@code force} is set.
+     */
+    @PostMapping("/settlements/run")
+    public ResponseEntity<List<SettlementEngine.RunSummary>> runSettlements(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean force) {
+        return ResponseEntity.ok(settlementEngine.settle(from, to != null ? to : from, force));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, Object>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                "status", 400, "message", e.getMessage(), "timestamp", Instant.now().toString()));
+    }
+
+    @ExceptionHandler(SecurityException.class)
+    public ResponseEntity<Map<String, Object>> handleForbidden(SecurityException e) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                "status", 403, "message", e.getMessage(), "timestamp", Instant.now().toString()));
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, Object>> handleConflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "status", 409, "message", e.getMessage(), "timestamp", Instant.now().toString()));
+    }
 }
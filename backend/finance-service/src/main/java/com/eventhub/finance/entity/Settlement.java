@@ -40,6 +40,24 @@ public class Settlement {
     @Column(name = "payout_ref")
     private String payoutRef;
 
+    @Column(name = "period_start")
+    private Instant periodStart;
+
+    @Column(name = "period_end")
+    private Instant periodEnd;
+
+    @Column(name = "gross_amount")
+    private BigDecimal grossAmount;
+
+    @Column(name = "refund_amount")
+    private BigDecimal refundAmount;
+
+    @Column(name = "fee_amount")
+    private BigDecimal feeAmount;
+
+    @Column(name = "record_count")
+    private Long recordCount;
+
     @Column(name = "settled_at")
     private Instant settledAt;
 
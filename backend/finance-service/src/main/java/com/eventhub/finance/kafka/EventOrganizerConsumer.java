@@ -0,0 +1,36 @@
+package com.eventhub.finance.kafka;
+
+import com.eventhub.finance.organizer.EventOrganizers;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps {@code event_organizers} in step with {@code event-events}, so revenue can be attributed
+ * to the organizer without calling event-service for every booking.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventOrganizerConsumer {
+
+    private final EventOrganizers eventOrganizers;
+
+    @KafkaListener(topics = "event-events", groupId = "finance-event-organizers")
+    public void handleEventEvent(Map<String, Object> event) {
+        Object eventId = event != null ? event.get("eventId") : null;
+        Object organizerId = event != null ? event.get("organizerId") : null;
+        if (eventId == null || organizerId == null) {
+            return;
+        }
+        try {
+            eventOrganizers.remember(UUID.fromString(eventId.toString()), UUID.fromString(organizerId.toString()));
+        } catch (IllegalArgumentException e) {
+            log.warn("Skipping event message with malformed ids: {}", e.getMessage());
+        }
+    }
+}
@@ -1,80 +1,133 @@
 package com.eventhub.finance.kafka;
 
 import com.eventhub.finance.entity.RevenueRecord;
-import com.eventhub.finance.repository.RevenueRecordRepository;
+import com.eventhub.finance.organizer.EventOrganizers;
+import com.eventhub.finance.organizer.UnattributedRevenue;
+import com.eventhub.finance.service.RevenueService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
+/**
+ * Records revenue from {@code booking-events}: a sale when a booking is confirmed (paid) and a
+ * refund when its refund completes.
+ *
+ * Booking events name the buyer, not the organizer, so each record is attributed to the owner of
+ * its event through {@link EventOrganizers}; records whose event no one can name yet are parked in
+ * {@link UnattributedRevenue} for {@code OrganizerBackfill} to replay, never dropped. Each polled
+ * batch is then written with a single
+ * multi-row insert that skips bookings already recorded for the same type, and the offsets are
+ * acknowledged only once that insert has committed, so a redelivered or replayed event never
+ * counts twice. Throughput is exported as {@code finance.booking.events} (per outcome) and
+ * {@code finance.booking.events.batch}.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class FinanceEventConsumer {
 
-    private final RevenueRecordRepository revenueRepository;
+    private final RevenueService revenueService;
+    private final EventOrganizers eventOrganizers;
+    private final UnattributedRevenue unattributedRevenue;
+    private final MeterRegistry meterRegistry;
 
-    @KafkaListener(topics = "booking-events", groupId = "finance-service-group")
-    public void handleBookingEvent(Map<String, Object> event) {
-        String eventType = (String) event.get("eventType");
-        if (eventType == null) return;
+    @KafkaListener(topics = "booking-events", groupId = "finance-service-group",
+            containerFactory = "bookingEventsContainerFactory")
+    public void handleBookingEvents(List<ConsumerRecord<String, Map<String, Object>>> records, Acknowledgment ack) {
+        Timer.Sample sample = Timer.start(meterRegistry);
 
-        try {
-            switch (eventType) {
-                case "booking.requested" -> recordTicketSale(event);
-                case "booking.refunded" -> recordRefund(event);
-                default -> log.trace("Unhandled booking event: {}", eventType);
+        List<RevenueRecord> parsed = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, Map<String, Object>> record : records) {
+            toRevenueRecord(record.value()).ifPresent(parsed::add);
+        }
+
+        // Throws if event-service is unreachable: the batch is redelivered rather than misattributed
+        Map<UUID, UUID> organizers = eventOrganizers.resolve(
+                parsed.stream().map(RevenueRecord::getEventId).collect(Collectors.toSet()));
+        List<RevenueRecord> revenue = new ArrayList<>(parsed.size());
+        List<RevenueRecord> unattributed = new ArrayList<>();
+        for (RevenueRecord record : parsed) {
+            UUID organizerId = organizers.get(record.getEventId());
+            if (organizerId == null) {
+                log.warn("Parking {} for booking {}: event {} is unknown to event-service",
+                        record.getType(), record.getBookingId(), record.getEventId());
+                unattributed.add(record);
+                continue;
             }
-        } catch (Exception e) {
-            log.error("Error processing finance event: {}", e.getMessage(), e);
+            record.setOrganizerId(organizerId);
+            revenue.add(record);
         }
-    }
 
-    private void recordTicketSale(Map<String, Object> event) {
-        String eventId = (String) event.get("eventId");
-        String userId = (String) event.get("userId");
-        String bookingId = (String) event.get("bookingId");
-        String amount = (String) event.get("totalAmount");
-        String currency = (String) event.getOrDefault("currency", "USD");
+        // Both throw on failure: nothing is acknowledged and the batch is redelivered
+        unattributedRevenue.park(unattributed);
+        int recorded = revenue.isEmpty() ? 0 : revenueService.recordRevenueBatch(revenue);
+        ack.acknowledge();
 
-        if (eventId == null || amount == null) return;
+        count("recorded", recorded);
+        count("duplicate", revenue.size() - recorded);
+        count("parked", unattributed.size());
+        count("ignored", records.size() - parsed.size());
+        sample.stop(meterRegistry.timer("finance.booking.events.batch"));
+        if (recorded > 0) {
+            log.debug("Recorded {} of {} booking events ({} duplicates)",
+                    recorded, records.size(), revenue.size() - recorded);
+        }
+    }
 
-        RevenueRecord record = RevenueRecord.builder()
-                .eventId(UUID.fromString(eventId))
-                .organizerId(UUID.fromString(userId)) // Will be resolved to organizer later
-                .bookingId(bookingId != null ? UUID.fromString(bookingId) : null)
-                .amount(new BigDecimal(amount))
-                .currency(currency)
-                .type("TICKET_SALE")
-                .build();
+    /**
+     * Parse a booking event into a revenue record; the organizer is filled in by the caller.
+     */
+    Optional<RevenueRecord> toRevenueRecord(Map<String, Object> event) {
+        String eventType = event != null ? (String) event.get("eventType") : null;
+        if (eventType == null) return Optional.empty();
 
-        revenueRepository.save(record);
-        log.info("Revenue recorded: {} {} for event {}", currency, amount, eventId);
-    }
+        String type = switch (eventType) {
+            case "booking.confirmed" -> "TICKET_SALE";
+            case "booking.refunded" -> "REFUND";
+            default -> null;
+        };
+        if (type == null) {
+            log.trace("Unhandled booking event: {}", eventType);
+            return Optional.empty();
+        }
 
-    private void recordRefund(Map<String, Object> event) {
         String eventId = (String) event.get("eventId");
-        String userId = (String) event.get("userId");
         String bookingId = (String) event.get("bookingId");
         String amount = (String) event.get("totalAmount");
         String currency = (String) event.getOrDefault("currency", "USD");
 
-        if (eventId == null || amount == null) return;
+        if (eventId == null || amount == null) return Optional.empty();
 
-        RevenueRecord record = RevenueRecord.builder()
-                .eventId(UUID.fromString(eventId))
-                .organizerId(UUID.fromString(userId))
-                .bookingId(bookingId != null ? UUID.fromString(bookingId) : null)
-                .amount(new BigDecimal(amount))
-                .currency(currency)
-                .type("REFUND")
-                .build();
+        try {
+            return Optional.of(RevenueRecord.builder()
+                    .eventId(UUID.fromString(eventId))
+                    .bookingId(bookingId != null ? UUID.fromString(bookingId) : null)
+                    .amount(new BigDecimal(amount))
+                    .currency(currency)
+                    .type(type)
+                    .build());
+        } catch (IllegalArgumentException e) {
+            log.warn("Skipping malformed {} event for booking {}: {}", eventType, bookingId, e.getMessage());
+            return Optional.empty();
+        }
+    }
 
-        revenueRepository.save(record);
-        log.info("Refund recorded: {} {} for event {}", currency, amount, eventId);
+    private void count(String outcome, int amount) {
+        if (amount > 0) {
+            meterRegistry.counter("finance.booking.events", "outcome", outcome).increment(amount);
+        }
     }
 }
@@ -0,0 +1,84 @@
+package com.eventhub.finance.organizer;
+
+import com.eventhub.finance.client.EventServiceClient;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Local copy of which organizer owns each event (see V5__add_event_organizers.sql).
+ *
+ * Booking and payment events only name the buyer, so revenue is attributed through this table.
+ * It is fed by {@code event-events}; events it has not seen yet are fetched from event-service
+ * once and remembered.
+ */
+@Component
+@RequiredArgsConstructor
+public class EventOrganizers {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO event_organizers (event_id, organizer_id, updated_at)
+            VALUES (?, ?, NOW())
+            ON CONFLICT (event_id) DO UPDATE SET organizer_id = EXCLUDED.organizer_id, updated_at = NOW()
+             WHERE event_organizers.organizer_id <> EXCLUDED.organizer_id
+            """;
+
+    private static final String FIND_SQL = "SELECT event_id, organizer_id FROM event_organizers WHERE event_id = ANY (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EventServiceClient eventServiceClient;
+
+    public void remember(UUID eventId, UUID organizerId) {
+        jdbcTemplate.update(UPSERT_SQL, eventId, organizerId);
+    }
+
+    /**
+     * Organizer of {@code eventId} from the local table only: no remote lookup and no write, so
+     * it is safe on read-only request paths.
+     */
+    public Optional<UUID> findLocal(UUID eventId) {
+        List<UUID> organizers = jdbcTemplate.queryForList(
+                "SELECT organizer_id FROM event_organizers WHERE event_id = ?", UUID.class, eventId);
+        return organizers.stream().findFirst();
+    }
+
+    /**
+     * Organizer of each of {@code eventIds}; events unknown to event-service are left out.
+     *
+     * @throws org.springframework.web.client.RestClientException if a missing event could not be
+     *         looked up, so the caller can retry rather than misattribute revenue
+     */
+    public Map<UUID, UUID> resolve(Collection<UUID> eventIds) {
+        Map<UUID, UUID> organizers = new HashMap<>();
+        Set<UUID> ids = new HashSet<>(eventIds);
+        if (ids.isEmpty()) {
+            return organizers;
+        }
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(FIND_SQL);
+            ps.setArray(1, con.createArrayOf("uuid", ids.toArray()));
+            return ps;
+        }, (RowCallbackHandler) rs -> organizers.put(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class)));
+
+        for (UUID eventId : ids) {
+            if (!organizers.containsKey(eventId)) {
+                eventServiceClient.findOrganizerId(eventId).ifPresent(organizerId -> {
+                    remember(eventId, organizerId);
+                    organizers.put(eventId, organizerId);
+                });
+            }
+        }
+        return organizers;
+    }
+}
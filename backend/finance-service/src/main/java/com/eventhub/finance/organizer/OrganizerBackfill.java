@@ -0,0 +1,139 @@
+package com.eventhub.finance.organizer;
+
+import com.eventhub.finance.entity.RevenueRecord;
+import com.eventhub.finance.rollup.RevenueRollups;
+import com.eventhub.finance.settlement.SettlementEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Re-attributes revenue recorded before organizers were resolved, when
+ * {@code revenue_records.organizer_id} held the buyer.
+ *
+ * Every event with revenue is resolved through {@link EventOrganizers} first, outside any
+ * transaction; the records are then corrected and the rollups rebuilt in one transaction, so
+ * organizer totals never mix old and new attribution. Unpaid settlements built on the old
+ * attribution are discarded and their days settled again. Safe to run repeatedly.
+ *
+ * Revenue parked in {@link UnattributedRevenue} because its event was unknown is replayed on
+ * every backfill and every {@code finance.organizer-backfill.replay-interval-ms}: rows whose
+ * organizer now resolves are recorded and removed from the parking table in one transaction.
+ * They are recorded as of the replay, so they count towards the day they are replayed on.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrganizerBackfill {
+
+    private static final String CORRECT_SQL = """
+            UPDATE revenue_records r
+               SET organizer_id = eo.organizer_id
+              FROM event_organizers eo
+             WHERE r.event_id = eo.event_id AND r.organizer_id <> eo.organizer_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EventOrganizers eventOrganizers;
+    private final UnattributedRevenue unattributedRevenue;
+    private final RevenueRollups revenueRollups;
+    private final SettlementEngine settlementEngine;
+
+    @Value("${finance.organizer-backfill.chunk-size:500}")
+    private int chunkSize;
+
+    public Result backfill() {
+        int replayed = replayParked();
+        List<UUID> eventIds = jdbcTemplate.queryForList(
+                "SELECT DISTINCT event_id FROM revenue_records", UUID.class);
+
+        int unresolved = 0;
+        for (int from = 0; from < eventIds.size(); from += chunkSize) {
+            List<UUID> chunk = eventIds.subList(from, Math.min(from + chunkSize, eventIds.size()));
+            Map<UUID, UUID> organizers = eventOrganizers.resolve(chunk);
+            unresolved += chunk.size() - organizers.size();
+        }
+
+        int corrected = transactionTemplate.execute(status -> {
+            int updated = jdbcTemplate.update(CORRECT_SQL);
+            if (updated > 0) {
+                revenueRollups.rebuild();
+            }
+            return updated;
+        });
+
+        // Settlements computed from the old attribution: unpaid ones are recomputed, paid ones reported
+        SettlementEngine.Reattribution settlements = settlementEngine.discardMisattributed();
+        settlements.reopenedDays().forEach(day -> settlementEngine.settle(day, false));
+        if (settlements.paidMisattributed() > 0) {
+            log.warn("{} paid settlements were computed for a buyer instead of the organizer and need manual correction",
+                    settlements.paidMisattributed());
+        }
+
+        log.info("Organizer backfill: {} events, {} unresolved, {} revenue records re-attributed, "
+                        + "{} settlements recomputed over {} days",
+                eventIds.size(), unresolved, corrected, settlements.discardedSettlements(),
+                settlements.reopenedDays().size());
+        return new Result(eventIds.size(), unresolved, corrected, settlements.discardedSettlements(),
+                settlements.reopenedDays().size(), settlements.paidMisattributed(),
+                replayed, unattributedRevenue.count());
+    }
+
+    @Scheduled(fixedDelayString = "${finance.organizer-backfill.replay-interval-ms:300000}",
+            initialDelayString = "${finance.organizer-backfill.replay-interval-ms:300000}")
+    void replayParkedOnSchedule() {
+        replayParked();
+    }
+
+    /**
+     * Record parked revenue whose event's organizer can now be resolved.
+     *
+     * @return number of parked records replayed
+     */
+    public int replayParked() {
+        int replayed = 0;
+        UUID after = new UUID(0, 0);
+        List<UnattributedRevenue.Parked> chunk;
+        while (!(chunk = unattributedRevenue.findAfter(after, chunkSize)).isEmpty()) {
+            after = chunk.get(chunk.size() - 1).id();
+            Map<UUID, UUID> organizers = eventOrganizers.resolve(
+                    chunk.stream().map(p -> p.record().getEventId()).toList());
+
+            List<RevenueRecord> resolved = new ArrayList<>();
+            List<UUID> ids = new ArrayList<>();
+            for (UnattributedRevenue.Parked parked : chunk) {
+                UUID organizerId = organizers.get(parked.record().getEventId());
+                if (organizerId != null) {
+                    parked.record().setOrganizerId(organizerId);
+                    resolved.add(parked.record());
+                    ids.add(parked.id());
+                }
+            }
+            if (!resolved.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    revenueRollups.recordAll(resolved);
+                    unattributedRevenue.delete(ids);
+                });
+                replayed += resolved.size();
+            }
+        }
+        if (replayed > 0) {
+            log.info("Replayed {} parked revenue records", replayed);
+        }
+        return replayed;
+    }
+
+    public record Result(int events, int unresolvedEvents, int correctedRecords, int discardedSettlements,
+                         int resettledDays, int paidMisattributedSettlements,
+                         int replayedParkedRecords, long stillParkedRecords) {}
+}
@@ -0,0 +1,87 @@
+package com.eventhub.finance.organizer;
+
+import com.eventhub.finance.entity.RevenueRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Revenue parked because its event's organizer could not be resolved (see
+ * V7__add_unattributed_revenue.sql). Parking is idempotent per booking and type, so a
+ * redelivered batch does not park the same sale twice.
+ */
+@Component
+@RequiredArgsConstructor
+public class UnattributedRevenue {
+
+    private static final String PARK_SQL = """
+            INSERT INTO unattributed_revenue (event_id, booking_id, amount, currency, type)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (booking_id, type) DO NOTHING
+            """;
+
+    private static final String FIND_SQL = """
+            SELECT id, event_id, booking_id, amount, currency, type
+              FROM unattributed_revenue
+             WHERE id > ?
+             ORDER BY id
+             LIMIT ?
+            """;
+
+    private static final RowMapper<Parked> PARKED_MAPPER = (rs, i) -> new Parked(
+            rs.getObject("id", UUID.class),
+            RevenueRecord.builder()
+                    .eventId(rs.getObject("event_id", UUID.class))
+                    .bookingId(rs.getObject("booking_id", UUID.class))
+                    .amount(rs.getBigDecimal("amount"))
+                    .currency(rs.getString("currency"))
+                    .type(rs.getString("type"))
+                    .build());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void park(List<RevenueRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(PARK_SQL, records, records.size(), (PreparedStatement ps, RevenueRecord r) -> {
+            ps.setObject(1, r.getEventId());
+            ps.setObject(2, r.getBookingId());
+            ps.setBigDecimal(3, r.getAmount());
+            ps.setString(4, r.getCurrency());
+            ps.setString(5, r.getType());
+        });
+    }
+
+    /**
+     * Keyset page of parked revenue in id order, starting after {@code after}.
+     */
+    public List<Parked> findAfter(UUID after, int limit) {
+        return jdbcTemplate.query(FIND_SQL, PARKED_MAPPER, after, limit);
+    }
+
+    public void delete(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement("DELETE FROM unattributed_revenue WHERE id = ANY (?)");
+            ps.setArray(1, con.createArrayOf("uuid", ids.toArray()));
+            return ps;
+        });
+    }
+
+    public long count() {
+        Long parked = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM unattributed_revenue", Long.class);
+        return parked != null ? parked : 0;
+    }
+
+    /** A parked revenue record; its organizer is still unset. */
+    public record Parked(UUID id, RevenueRecord record) {}
+}
@@ -0,0 +1,18 @@
+package com.eventhub.finance.rollup;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One bucket of a revenue time series, in one currency.
+ */
+public record RevenuePoint(Instant bucket, String currency, BigDecimal sales, long salesCount,
+                           BigDecimal refunds, long refundCount) {
+
+    @JsonProperty
+    public BigDecimal net() {
+        return sales.subtract(refunds);
+    }
+}
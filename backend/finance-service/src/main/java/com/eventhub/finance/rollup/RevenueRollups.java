@@ -0,0 +1,249 @@
+package com.eventhub.finance.rollup;
+
+import com.eventhub.finance.entity.RevenueRecord;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Incrementally maintained revenue rollups (see V3__add_revenue_rollups.sql).
+ *
+ * Every rollup table is updated by one statement that aggregates an {@code input} relation of
+ * revenue rows — {@code (event_id, organizer_id, currency, type, amount, recorded_at)} — and adds
+ * the deltas with {@code ON CONFLICT DO UPDATE}. The input can be records just written, the
+ * {@code RETURNING} of an insert, or the whole of {@code revenue_records} for a rebuild, so all
+ * three paths share the same bucketing and arithmetic. Deltas must be applied in the transaction
+ * that writes the records, otherwise a rollback leaves them counted.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RevenueRollups {
+
+    private static final String AGGREGATES = """
+            COALESCE(SUM(amount) FILTER (WHERE type = 'TICKET_SALE'), 0),
+                   COUNT(*) FILTER (WHERE type = 'TICKET_SALE'),
+                   COALESCE(SUM(amount) FILTER (WHERE type = 'REFUND'), 0),
+                   COUNT(*) FILTER (WHERE type = 'REFUND')""";
+
+    private static final String ADD_DELTAS = """
+            sales_amount  = r.sales_amount + EXCLUDED.sales_amount,
+                              sales_count   = r.sales_count + EXCLUDED.sales_count,
+                              refund_amount = r.refund_amount + EXCLUDED.refund_amount,
+                              refund_count  = r.refund_count + EXCLUDED.refund_count""";
+
+    // Records passed as parallel text arrays: one round trip whatever the batch size
+    private static final String ARRAY_INPUT = """
+            SELECT t.event_id::uuid AS event_id, t.organizer_id::uuid AS organizer_id, t.currency, t.type,
+                   t.amount::numeric AS amount, t.recorded_at::timestamptz AS recorded_at
+              FROM unnest(?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[])
+                   AS t(event_id, organizer_id, currency, type, amount, recorded_at)
+            """;
+
+    // Insert what is new and feed exactly those rows to the rollups, so redeliveries count once
+    private static final String INSERT_NEW_INPUT = """
+            INSERT INTO revenue_records (event_id, organizer_id, booking_id, amount, currency, type)
+            SELECT t.event_id::uuid, t.organizer_id::uuid, t.booking_id::uuid, t.amount::numeric, t.currency, t.type
+              FROM unnest(?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[])
+                   AS t(event_id, organizer_id, booking_id, amount, currency, type)
+            ON CONFLICT (booking_id, type) DO NOTHING
+            RETURNING event_id, organizer_id, currency, type, amount, recorded_at
+            """;
+
+    private static final String TABLE_INPUT = """
+            SELECT event_id, organizer_id, currency, type, amount, recorded_at FROM revenue_records
+            """;
+
+    private static final List<String> TABLES = List.of("revenue_event_hourly", "revenue_event_daily",
+            "revenue_event_totals", "revenue_organizer_daily", "revenue_organizer_totals");
+
+    private static final String APPLY_RECORDS_SQL = rollupStatement(ARRAY_INPUT);
+
+    private static final String RECORD_NEW_SQL = rollupStatement(INSERT_NEW_INPUT);
+
+    private static final String REBUILD_SQL = rollupStatement(TABLE_INPUT);
+
+    private static final RowMapper<RevenueTotals> TOTALS_MAPPER = (rs, rowNum) -> new RevenueTotals(
+            rs.getString("currency"), rs.getBigDecimal("sales_amount"), rs.getLong("sales_count"),
+            rs.getBigDecimal("refund_amount"), rs.getLong("refund_count"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Build the statement that folds {@code input} into every rollup table and returns the number
+     * of input rows it aggregated.
+     */
+    public static String rollupStatement(String input) {
+        return "WITH input AS (" + input + "),\n"
+                + "event_hourly AS (" + upsert("revenue_event_hourly", "event_id", "hour") + "),\n"
+                + "event_daily AS (" + upsert("revenue_event_daily", "event_id", "day") + "),\n"
+                + "event_totals AS (" + upsert("revenue_event_totals", "event_id", null) + "),\n"
+                + "organizer_daily AS (" + upsert("revenue_organizer_daily", "organizer_id", "day") + "),\n"
+                + "organizer_totals AS (" + upsert("revenue_organizer_totals", "organizer_id", null) + ")\n"
+                + "SELECT COUNT(*) FROM input WHERE type IN ('TICKET_SALE', 'REFUND')";
+    }
+
+    private static String upsert(String table, String key, String bucket) {
+        String columns = key + ", currency" + (bucket != null ? ", bucket_start" : "");
+        String select = key + ", currency" + (bucket != null ? ", date_trunc('" + bucket + "', recorded_at, 'UTC')" : "");
+        String groupBy = bucket != null ? "1, 2, 3" : "1, 2";
+        // ORDER BY keeps row-lock order stable across concurrent writers
+        return """
+                INSERT INTO %s AS r (%s, sales_amount, sales_count, refund_amount, refund_count)
+                SELECT %s,
+                       %s
+                  FROM input
+                 WHERE type IN ('TICKET_SALE', 'REFUND')
+                 GROUP BY %s
+                 ORDER BY %s
+                ON CONFLICT (%s) DO UPDATE SET %s
+                """.formatted(table, columns, select, AGGREGATES, groupBy, groupBy, columns, ADD_DELTAS);
+    }
+
+    /**
+     * Add {@code records} to the rollups. Must run inside the transaction that inserted them.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Collection<RevenueRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(APPLY_RECORDS_SQL);
+            ps.setArray(1, textArray(con, records, r -> r.getEventId().toString()));
+            ps.setArray(2, textArray(con, records, r -> r.getOrganizerId().toString()));
+            ps.setArray(3, textArray(con, records, RevenueRecord::getCurrency));
+            ps.setArray(4, textArray(con, records, RevenueRecord::getType));
+            ps.setArray(5, textArray(con, records, r -> r.getAmount().toPlainString()));
+            ps.setArray(6, textArray(con, records,
+                    r -> Objects.requireNonNullElseGet(r.getRecordedAt(), Instant::now).toString()));
+            return ps;
+        }, rs -> null);
+    }
+
+    /**
+     * Insert {@code records} into {@code revenue_records}, skipping any (booking, type) already
+     * recorded, and add the inserted ones to the rollups — all in one statement.
+     *
+     * @return number of records inserted
+     */
+    @Transactional
+    public int recordAll(Collection<RevenueRecord> records) {
+        if (records.isEmpty()) {
+            return 0;
+        }
+        Long inserted = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(RECORD_NEW_SQL);
+            ps.setArray(1, textArray(con, records, r -> r.getEventId().toString()));
+            ps.setArray(2, textArray(con, records, r -> r.getOrganizerId().toString()));
+            ps.setArray(3, textArray(con, records, r -> r.getBookingId() != null ? r.getBookingId().toString() : null));
+            ps.setArray(4, textArray(con, records, r -> r.getAmount().toPlainString()));
+            ps.setArray(5, textArray(con, records, RevenueRecord::getCurrency));
+            ps.setArray(6, textArray(con, records, RevenueRecord::getType));
+            return ps;
+        }, rs -> rs.next() ? rs.getLong(1) : 0L);
+        return inserted != null ? inserted.intValue() : 0;
+    }
+
+    /**
+     * Recompute every rollup from {@code revenue_records}. Blocks revenue inserts until it commits
+     * so no record is missed or counted twice; readers keep seeing the previous rollups meanwhile.
+     *
+     * @return number of revenue records aggregated
+     */
+    @Transactional
+    public long rebuild() {
+        jdbcTemplate.execute("LOCK TABLE revenue_records IN SHARE MODE");
+        TABLES.forEach(table -> jdbcTemplate.update("DELETE FROM " + table));
+        Long records = jdbcTemplate.queryForObject(REBUILD_SQL, Long.class);
+        log.info("Rebuilt revenue rollups from {} records", records);
+        return records != null ? records : 0;
+    }
+
+    @Transactional(readOnly = true)
+    public List<RevenueTotals> eventTotals(UUID eventId) {
+        return jdbcTemplate.query("""
+                SELECT currency, sales_amount, sales_count, refund_amount, refund_count
+                  FROM revenue_event_totals WHERE event_id = ? ORDER BY currency
+                """, TOTALS_MAPPER, eventId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RevenueTotals> organizerTotals(UUID organizerId) {
+        return jdbcTemplate.query("""
+                SELECT currency, sales_amount, sales_count, refund_amount, refund_count
+                  FROM revenue_organizer_totals WHERE organizer_id = ? ORDER BY currency
+                """, TOTALS_MAPPER, organizerId);
+    }
+
+    /**
+     * Sales and refunds per {@code bucket} and currency for one event, oldest first. Buckets
+     * without revenue are omitted.
+     */
+    @Transactional(readOnly = true)
+    public List<RevenuePoint> eventSeries(UUID eventId, TimeBucket bucket, Instant from, Instant to,
+                                          String currency) {
+        String table = bucket == TimeBucket.HOUR ? "revenue_event_hourly" : "revenue_event_daily";
+        return series(table, "event_id", eventId, bucket, from, to, currency);
+    }
+
+    /**
+     * Sales and refunds per {@code bucket} and currency for one organizer, oldest first.
+     *
+     * @throws IllegalArgumentException for hourly buckets, which are only kept per event
+     */
+    @Transactional(readOnly = true)
+    public List<RevenuePoint> organizerSeries(UUID organizerId, TimeBucket bucket, Instant from, Instant to,
+                                              String currency) {
+        if (bucket == TimeBucket.HOUR) {
+            throw new IllegalArgumentException("Hourly buckets are only available per event");
+        }
+        return series("revenue_organizer_daily", "organizer_id", organizerId, bucket, from, to, currency);
+    }
+
+    private List<RevenuePoint> series(String table, String key, UUID id, TimeBucket bucket,
+                                      Instant from, Instant to, String currency) {
+        String sql = """
+                SELECT date_trunc(?, bucket_start, 'UTC') AS bucket, currency,
+                       SUM(sales_amount) AS sales_amount, SUM(sales_count) AS sales_count,
+                       SUM(refund_amount) AS refund_amount, SUM(refund_count) AS refund_count
+                  FROM %s
+                 WHERE %s = ? AND bucket_start >= ? AND bucket_start < ?%s
+                 GROUP BY 1, 2
+                 ORDER BY 1, 2
+                """.formatted(table, key, currency != null ? " AND currency = ?" : "");
+
+        List<Object> args = new ArrayList<>(List.of(bucket.unit(), id,
+                from.atOffset(ZoneOffset.UTC), to.atOffset(ZoneOffset.UTC)));
+        if (currency != null) {
+            args.add(currency);
+        }
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new RevenuePoint(
+                rs.getObject("bucket", OffsetDateTime.class).toInstant(), rs.getString("currency"),
+                rs.getBigDecimal("sales_amount"), rs.getLong("sales_count"),
+                rs.getBigDecimal("refund_amount"), rs.getLong("refund_count")), args.toArray());
+    }
+
+    private static Array textArray(Connection con, Collection<RevenueRecord> records,
+                                            Function<RevenueRecord, String> column) throws SQLException {
+        return con.createArrayOf("text", records.stream().map(column).toArray(String[]::new));
+    }
+}
@@ -0,0 +1,17 @@
+package com.eventhub.finance.rollup;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+
+/**
+ * Sales and refunds in one currency, as read from a rollup table.
+ */
+public record RevenueTotals(String currency, BigDecimal sales, long salesCount,
+                            BigDecimal refunds, long refundCount) {
+
+    @JsonProperty
+    public BigDecimal net() {
+        return sales.subtract(refunds);
+    }
+}
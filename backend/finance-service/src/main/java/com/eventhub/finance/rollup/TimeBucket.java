@@ -0,0 +1,60 @@
+package com.eventhub.finance.rollup;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * Bucket widths for revenue time series. Hourly series come from the hourly rollup, the rest
+ * are grouped from the daily rollups. All buckets are aligned to UTC.
+ */
+public enum TimeBucket {
+
+    HOUR(Duration.ofHours(1)),
+    DAY(Duration.ofDays(1)),
+    WEEK(Duration.ofDays(7)),
+    MONTH(Duration.ofDays(30));
+
+    private final Duration approximateWidth;
+
+    TimeBucket(Duration approximateWidth) {
+        this.approximateWidth = approximateWidth;
+    }
+
+    /** Unit name understood by Postgres' {@code date_trunc}. */
+    public String unit() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public Duration approximateWidth() {
+        return approximateWidth;
+    }
+
+    /** Start of the bucket holding {@code instant}, matching {@code date_trunc(unit(), ...)} in UTC. */
+    public Instant truncate(Instant instant) {
+        LocalDate day = LocalDate.ofInstant(instant, ZoneOffset.UTC);
+        return switch (this) {
+            case HOUR -> instant.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> instant.truncatedTo(ChronoUnit.DAYS);
+            // ISO weeks start on Monday, as in Postgres
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay(ZoneOffset.UTC).toInstant();
+            case MONTH -> day.withDayOfMonth(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        };
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code value} is not a bucket name
+     */
+    public static TimeBucket parse(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown bucket '" + value + "', expected hour, day, week or month");
+        }
+    }
+}
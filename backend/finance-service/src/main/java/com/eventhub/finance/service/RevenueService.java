@@ -2,20 +2,28 @@ package com.eventhub.finance.service;
 
 import com.eventhub.finance.entity.RevenueRecord;
 import com.eventhub.finance.entity.Settlement;
+import com.eventhub.finance.organizer.EventOrganizers;
 import com.eventhub.finance.repository.RevenueRecordRepository;
 import com.eventhub.finance.repository.SettlementRepository;
+import com.eventhub.finance.rollup.RevenuePoint;
+import com.eventhub.finance.rollup.RevenueRollups;
+import com.eventhub.finance.rollup.RevenueTotals;
+import com.eventhub.finance.rollup.TimeBucket;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -24,17 +32,38 @@ public class RevenueService {
 
     private final RevenueRecordRepository revenueRepository;
     private final SettlementRepository settlementRepository;
+    private final RevenueRollups revenueRollups;
+    private final EventOrganizers eventOrganizers;
+
+    @Value("${finance.timeseries.max-buckets:1000}")
+    private long maxBuckets;
+
+    @Value("${finance.timeseries.default-days:30}")
+    private long defaultDays;
 
     // ─── Revenue Records ───
 
     @Transactional
     public RevenueRecord recordRevenue(RevenueRecord record) {
-        record = revenueRepository.save(record);
+        // Flush so recorded_at is assigned before it picks the rollup buckets
+        record = revenueRepository.saveAndFlush(record);
+        revenueRollups.apply(List.of(record));
         log.info("Revenue recorded: {} {} for event {} (type={})",
                 record.getCurrency(), record.getAmount(), record.getEventId(), record.getType());
         return record;
     }
 
+    /**
+     * Record revenue from booking events. Records whose booking and type are already recorded
+     * are skipped, so redelivered events are counted once.
+     *
+     * @return number of records actually inserted
+     */
+    @Transactional
+    public int recordRevenueBatch(List<RevenueRecord> records) {
+        return revenueRollups.recordAll(records);
+    }
+
     @Transactional(readOnly = true)
     public Page<RevenueRecord> getEventRevenue(UUID eventId, int page, int size) {
         return revenueRepository.findByEventIdOrderByRecordedAtDesc(eventId, PageRequest.of(page, size));
@@ -47,9 +76,10 @@ public class RevenueService {
 
     @Transactional(readOnly = true)
     public Map<String, Object> getEventAnalytics(UUID eventId) {
-        BigDecimal totalRevenue = revenueRepository.sumRevenueByEventId(eventId);
-        BigDecimal totalRefunds = revenueRepository.sumRefundsByEventId(eventId);
-        long totalBookings = revenueRepository.countByEventId(eventId);
+        List<RevenueTotals> totals = revenueRollups.eventTotals(eventId);
+        BigDecimal totalRevenue = sum(totals, RevenueTotals::sales);
+        BigDecimal totalRefunds = sum(totals, RevenueTotals::refunds);
+        long totalBookings = totals.stream().mapToLong(RevenueTotals::salesCount).sum();
         BigDecimal netRevenue = totalRevenue.subtract(totalRefunds);
 
         return Map.of(
@@ -57,19 +87,61 @@ public class RevenueService {
                 "totalRevenue", totalRevenue,
                 "totalRefunds", totalRefunds,
                 "netRevenue", netRevenue,
-                "totalBookings", totalBookings
+                "totalBookings", totalBookings,
+                "byCurrency", totals
         );
     }
 
     @Transactional(readOnly = true)
     public Map<String, Object> getOrganizerAnalytics(UUID organizerId) {
-        BigDecimal totalRevenue = revenueRepository.sumRevenueByOrganizerId(organizerId);
+        List<RevenueTotals> totals = revenueRollups.organizerTotals(organizerId);
         return Map.of(
                 "organizerId", organizerId.toString(),
-                "totalRevenue", totalRevenue
+                "totalRevenue", sum(totals, RevenueTotals::sales),
+                "byCurrency", totals
         );
     }
 
+    /**
+     * Revenue over time from the rollups: for {@code eventId} if given, otherwise for the organizer.
+     * Defaults to the last {@code finance.timeseries.default-days} days; {@code from} is widened to
+     * the start of its bucket (Monday for weeks, the 1st for months, all UTC).
+     *
+     * @throws IllegalArgumentException if the range is empty or spans too many buckets
+     * @throws SecurityException if {@code eventId} is not one of the organizer's events. Ownership
+     *         comes from the local event_organizers table only; every event with attributed revenue
+     *         is in it, so a miss is refused rather than looked up remotely
+     */
+    @Transactional(readOnly = true)
+    public List<RevenuePoint> getRevenueTimeseries(UUID organizerId, UUID eventId, TimeBucket bucket,
+                                                   Instant from, Instant to, String currency) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = bucket.truncate(from != null ? from : end.minus(Duration.ofDays(defaultDays)));
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        if (Duration.between(start, end).dividedBy(bucket.approximateWidth()) > maxBuckets) {
+            throw new IllegalArgumentException("Range spans more than " + maxBuckets + " " + bucket.unit()
+                    + " buckets; use a wider bucket or a shorter range");
+        }
+        if (eventId != null && !eventOrganizers.findLocal(eventId).filter(organizerId::equals).isPresent()) {
+            throw new SecurityException("Not authorized for this event");
+        }
+
+        return eventId != null
+                ? revenueRollups.eventSeries(eventId, bucket, start, end, currency)
+                : revenueRollups.organizerSeries(organizerId, bucket, start, end, currency);
+    }
+
+    @Transactional
+    public long rebuildRollups() {
+        return revenueRollups.rebuild();
+    }
+
+    private static BigDecimal sum(List<RevenueTotals> totals, Function<RevenueTotals, BigDecimal> field) {
+        return totals.stream().map(field).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
     // ─── Settlements ───
 
     @Transactional
@@ -88,6 +160,9 @@ public class RevenueService {
     public Settlement processSettlement(UUID settlementId, String payoutRef) {
         Settlement settlement = settlementRepository.findById(settlementId)
                 .orElseThrow(() -> new IllegalArgumentException("Settlement not found: " + settlementId));
+        if (!"PENDING".equals(settlement.getStatus())) {
+            throw new IllegalStateException("Settlement " + settlementId + " is already " + settlement.getStatus());
+        }
 
         settlement.setStatus("COMPLETED");
         settlement.setPayoutRef(payoutRef);
@@ -0,0 +1,23 @@
+package com.eventhub.finance.settlement;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Platform fee charged on each ticket sale: {@code percent} of the sale plus {@code fixed},
+ * rounded half-up to the cent and never more than the sale itself.
+ */
+record FeeSchedule(BigDecimal percent, BigDecimal fixed) {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    BigDecimal feeFor(BigDecimal saleAmount) {
+        if (saleAmount.signum() <= 0) {
+            return BigDecimal.ZERO;
+        }
+        BigDecimal fee = saleAmount.multiply(percent).divide(HUNDRED)
+                .add(fixed)
+                .setScale(2, RoundingMode.HALF_UP);
+        return fee.min(saleAmount);
+    }
+}
@@ -0,0 +1,376 @@
+package com.eventhub.finance.settlement;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes organiser settlements from {@code revenue_records}, one UTC day per run.
+ *
+ * A run claims its day in {@code settlement_runs} so only one replica settles it, keeping the
+ * claim alive with a heartbeat; a claim is only taken over, forced or not, once its heartbeat is
+ * older than {@code finance.settlement.stale-run-seconds}. The run settles every organiser with
+ * revenue that day on {@code finance.settlement.parallelism} threads. Each
+ * organiser's records are streamed through a server-side cursor in a read-only transaction and
+ * folded into per-(event, currency) totals, so memory is bounded by the organiser's event count,
+ * not their record count. The totals are then upserted into {@code settlements} in one batch.
+ *
+ * Reruns recompute the same rows: settlements still PENDING are overwritten, paid ones are left
+ * alone. A run with failed organisers is marked FAILED and can simply be run again.
+ *
+ * Throughput against a full day of about 10M records is unverified. Only the in-memory fold has
+ * been timed. The cursor scan and the upsert have not been measured against Postgres.
+ */
+@Component
+@Slf4j
+public class SettlementEngine {
+
+    // Claim the period unless it completed (and force is off) or a live run holds it. A RUNNING
+    // claim is only taken over once its heartbeat has lapsed, even when forced.
+    private static final String CLAIM_RUN_SQL = """
+            INSERT INTO settlement_runs (period_start, period_end, status, started_at, heartbeat_at)
+            VALUES (?, ?, 'RUNNING', NOW(), NOW())
+            ON CONFLICT (period_start) DO UPDATE
+               SET status = 'RUNNING', started_at = NOW(), heartbeat_at = NOW(), finished_at = NULL
+             WHERE settlement_runs.status = 'FAILED'
+                OR (? AND settlement_runs.status = 'COMPLETED')
+                OR (settlement_runs.status = 'RUNNING'
+                    AND settlement_runs.heartbeat_at < NOW() - make_interval(secs => ?))
+            """;
+
+    private static final String HEARTBEAT_SQL = """
+            UPDATE settlement_runs SET heartbeat_at = NOW() WHERE period_start = ? AND status = 'RUNNING'
+            """;
+
+    private static final String FINISH_RUN_SQL = """
+            UPDATE settlement_runs
+               SET status = ?, organizers = ?, failed_organizers = ?, records = ?, settlements = ?,
+                   finished_at = NOW()
+             WHERE period_start = ?
+            """;
+
+    private static final String ORGANIZERS_SQL = """
+            SELECT DISTINCT organizer_id
+              FROM revenue_records
+             WHERE recorded_at >= ? AND recorded_at < ?
+            """;
+
+    private static final String RECORDS_SQL = """
+            SELECT event_id, currency, type, amount
+              FROM revenue_records
+             WHERE organizer_id = ? AND recorded_at >= ? AND recorded_at < ?
+            """;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO settlements (organizer_id, event_id, currency, period_start, period_end,
+                                     gross_amount, refund_amount, fee_amount, amount, record_count, status)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 'PENDING')
+            ON CONFLICT (organizer_id, event_id, currency, period_start) WHERE period_start IS NOT NULL
+            DO UPDATE SET gross_amount  = EXCLUDED.gross_amount,
+                          refund_amount = EXCLUDED.refund_amount,
+                          fee_amount    = EXCLUDED.fee_amount,
+                          amount        = EXCLUDED.amount,
+                          record_count  = EXCLUDED.record_count
+             WHERE settlements.status = 'PENDING'
+            """;
+
+    // Drop unpaid settlements keyed by someone other than the event's organizer and reopen their
+    // days, so the next run recomputes them (see OrganizerBackfill)
+    private static final String DISCARD_MISATTRIBUTED_SQL = """
+            WITH discarded AS (
+                DELETE FROM settlements s
+                 USING event_organizers eo
+                 WHERE s.event_id = eo.event_id AND s.organizer_id <> eo.organizer_id
+                   AND s.period_start IS NOT NULL AND s.status = 'PENDING'
+             RETURNING s.period_start
+            ), reopened AS (
+                UPDATE settlement_runs SET status = 'FAILED'
+                 WHERE period_start IN (SELECT period_start FROM discarded) AND status = 'COMPLETED'
+             RETURNING period_start
+            )
+            SELECT (SELECT COUNT(*) FROM discarded) AS discarded,
+                   (SELECT COUNT(*) FROM settlements s JOIN event_organizers eo ON eo.event_id = s.event_id
+                     WHERE s.organizer_id <> eo.organizer_id AND s.period_start IS NOT NULL
+                       AND s.status <> 'PENDING') AS paid,
+                   ARRAY(SELECT DISTINCT period_start FROM discarded ORDER BY 1) AS days
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MeterRegistry meterRegistry;
+    private final Counter recordsCounter;
+    private final Timer runTimer;
+
+    @Value("${finance.settlement.enabled:true}")
+    private boolean enabled;
+
+    @Value("${finance.settlement.parallelism:4}")
+    private int parallelism;
+
+    @Value("${finance.settlement.fetch-size:5000}")
+    private int fetchSize;
+
+    @Value("${finance.settlement.batch-size:500}")
+    private int batchSize;
+
+    @Value("${finance.settlement.stale-run-seconds:300}")
+    private long staleRunSeconds;
+
+    @Value("${finance.settlement.heartbeat-seconds:60}")
+    private long heartbeatSeconds;
+
+    @Value("${finance.settlement.max-days-per-request:92}")
+    private int maxDaysPerRequest;
+
+    @Value("${finance.settlement.fee.percent:2.5}")
+    private BigDecimal feePercent;
+
+    @Value("${finance.settlement.fee.fixed:0.30}")
+    private BigDecimal feeFixed;
+
+    public SettlementEngine(JdbcTemplate jdbcTemplate,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+        this.recordsCounter = Counter.builder("finance.settlement.records")
+                .description("Revenue records folded into settlements")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("finance.settlement.run")
+                .description("Duration of a settlement run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${finance.settlement.cron:0 15 0 * * *}", zone = "UTC")
+    public void settlePreviousDay() {
+        if (!enabled) {
+            return;
+        }
+        settle(LocalDate.now(ZoneOffset.UTC).minusDays(1), false);
+    }
+
+    /**
+     * Settle every day from {@code from} to {@code to}, inclusive, in order.
+     *
+     * @param force rerun days that already completed (PENDING settlements are recomputed)
+     * @throws IllegalArgumentException if the range is inverted, too long or not yet over
+     */
+    public List<RunSummary> settle(LocalDate from, LocalDate to, boolean force) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Settlement range ends before it starts");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDaysPerRequest) {
+            throw new IllegalArgumentException("Settlement range is limited to " + maxDaysPerRequest + " days");
+        }
+        List<RunSummary> summaries = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            summaries.add(settle(day, force));
+        }
+        return summaries;
+    }
+
+    /**
+     * Settle revenue recorded on {@code day} (UTC).
+     *
+     * @return the run's outcome; SKIPPED if the day is already settled or being settled elsewhere
+     * @throws IllegalArgumentException if the day has not ended yet
+     */
+    public RunSummary settle(LocalDate day, boolean force) {
+        OffsetDateTime start = day.atStartOfDay().atOffset(ZoneOffset.UTC);
+        OffsetDateTime end = start.plusDays(1);
+        if (end.toInstant().isAfter(Instant.now())) {
+            throw new IllegalArgumentException("Cannot settle " + day + " before the day has ended");
+        }
+
+        if (jdbcTemplate.update(CLAIM_RUN_SQL, start, end, force, staleRunSeconds) == 0) {
+            log.info("Settlement for {} already completed or in progress, skipping", day);
+            return RunSummary.skipped(day);
+        }
+
+        return runTimer.record(() -> execute(day, start, end));
+    }
+
+    private RunSummary execute(LocalDate day, OffsetDateTime start, OffsetDateTime end) {
+        RunSummary summary;
+        // Keeps the claim alive while the run lasts; the task is cancelled when the executor closes
+        try (ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("settlement-heartbeat").daemon().factory())) {
+            heartbeats.scheduleAtFixedRate(() -> heartbeat(start), heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+            summary = settleOrganizers(day, start, end);
+        } catch (RuntimeException e) {
+            finish(start, new RunSummary(day, RunStatus.FAILED, 0, 0, 0, 0));
+            throw e;
+        }
+        finish(start, summary);
+        log.info("Settlement for {} {}: {} organizers ({} failed), {} records, {} settlements",
+                day, summary.status(), summary.organizers(), summary.failedOrganizers(),
+                summary.records(), summary.settlements());
+        return summary;
+    }
+
+    private RunSummary settleOrganizers(LocalDate day, OffsetDateTime start, OffsetDateTime end) {
+        List<UUID> organizers = jdbcTemplate.queryForList(ORGANIZERS_SQL, UUID.class, start, end);
+        FeeSchedule feeSchedule = new FeeSchedule(feePercent, feeFixed);
+
+        long records = 0;
+        int settlements = 0;
+        int failed = 0;
+        try (ExecutorService pool = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("settlement-", 0).factory())) {
+            List<Future<OrganizerResult>> futures = new ArrayList<>(organizers.size());
+            for (UUID organizerId : organizers) {
+                futures.add(pool.submit(() -> settleOrganizer(organizerId, start, end, feeSchedule)));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    OrganizerResult result = futures.get(i).get();
+                    records += result.records();
+                    settlements += result.settlements();
+                    recordOrganizer("settled");
+                } catch (ExecutionException e) {
+                    failed++;
+                    recordOrganizer("failed");
+                    log.warn("Settlement for organizer {} on {} failed: {}",
+                            organizers.get(i), day, e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    pool.shutdownNow();
+                    throw new IllegalStateException("Interrupted while settling " + day);
+                }
+            }
+        }
+
+        RunStatus status = failed == 0 ? RunStatus.COMPLETED : RunStatus.FAILED;
+        return new RunSummary(day, status, organizers.size(), failed, records, settlements);
+    }
+
+    /**
+     * Stream one organiser's records for the period and upsert their settlements.
+     */
+    OrganizerResult settleOrganizer(UUID organizerId, OffsetDateTime start, OffsetDateTime end,
+                                    FeeSchedule feeSchedule) {
+        Map<SettlementKey, SettlementTotals> totals = new HashMap<>();
+
+        // The Postgres driver only uses a cursor inside a transaction with a fetch size set
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(RECORDS_SQL);
+            ps.setFetchSize(fetchSize);
+            ps.setObject(1, organizerId);
+            ps.setObject(2, start);
+            ps.setObject(3, end);
+            return ps;
+        }, (RowCallbackHandler) rs -> totals
+                .computeIfAbsent(new SettlementKey(rs.getObject(1, UUID.class), rs.getString(2)),
+                        key -> new SettlementTotals())
+                .add(rs.getString(3), rs.getBigDecimal(4), feeSchedule)));
+
+        List<Map.Entry<SettlementKey, SettlementTotals>> rows = totals.entrySet().stream()
+                .filter(entry -> entry.getValue().records() > 0)
+                .toList();
+        if (rows.isEmpty()) {
+            return new OrganizerResult(0, 0);
+        }
+
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(UPSERT_SQL, rows, batchSize, (ps, row) -> {
+                    SettlementTotals total = row.getValue();
+                    ps.setObject(1, organizerId);
+                    ps.setObject(2, row.getKey().eventId());
+                    ps.setString(3, row.getKey().currency());
+                    ps.setObject(4, start);
+                    ps.setObject(5, end);
+                    ps.setBigDecimal(6, total.gross());
+                    ps.setBigDecimal(7, total.refunds());
+                    ps.setBigDecimal(8, total.fees());
+                    ps.setBigDecimal(9, total.net());
+                    ps.setLong(10, total.records());
+                }));
+
+        long records = rows.stream().mapToLong(row -> row.getValue().records()).sum();
+        recordsCounter.increment(records);
+        return new OrganizerResult(records, rows.size());
+    }
+
+    private void heartbeat(OffsetDateTime start) {
+        try {
+            jdbcTemplate.update(HEARTBEAT_SQL, start);
+        } catch (RuntimeException e) {
+            log.warn("Settlement heartbeat for {} failed: {}", start.toLocalDate(), e.getMessage());
+        }
+    }
+
+    /**
+     * Discard PENDING settlements whose organizer does not own the settled event — rows computed
+     * while revenue was attributed to buyers — and reopen their days.
+     *
+     * @return what was discarded, how many paid settlements are misattributed and need manual
+     *         correction, and the days to settle again
+     */
+    public Reattribution discardMisattributed() {
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject(DISCARD_MISATTRIBUTED_SQL,
+                (rs, rowNum) -> {
+                    List<LocalDate> days = new ArrayList<>();
+                    for (Object day : (Object[]) rs.getArray("days").getArray()) {
+                        days.add(((Timestamp) day).toInstant().atOffset(ZoneOffset.UTC).toLocalDate());
+                    }
+                    return new Reattribution(rs.getInt("discarded"), rs.getInt("paid"), days);
+                }));
+    }
+
+    private void finish(OffsetDateTime start, RunSummary summary) {
+        jdbcTemplate.update(FINISH_RUN_SQL, summary.status().name(), summary.organizers(),
+                summary.failedOrganizers(), summary.records(), summary.settlements(), start);
+    }
+
+    private void recordOrganizer(String outcome) {
+        meterRegistry.counter("finance.settlement.organizers", "outcome", outcome).increment();
+    }
+
+    record SettlementKey(UUID eventId, String currency) {}
+
+    record OrganizerResult(long records, int settlements) {}
+
+    public enum RunStatus { COMPLETED, FAILED, SKIPPED }
+
+    public record Reattribution(int discardedSettlements, int paidMisattributed, List<LocalDate> reopenedDays) {}
+
+    public record RunSummary(LocalDate day, RunStatus status, int organizers, int failedOrganizers,
+                             long records, int settlements) {
+
+        static RunSummary skipped(LocalDate day) {
+            return new RunSummary(day, RunStatus.SKIPPED, 0, 0, 0, 0);
+        }
+    }
+}
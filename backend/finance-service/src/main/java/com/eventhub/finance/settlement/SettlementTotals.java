@@ -0,0 +1,55 @@
+package com.eventhub.finance.settlement;
+
+import java.math.BigDecimal;
+
+/**
+ * Running totals for one event and currency within an organiser's settlement period.
+ *
+ * Fees are taken per sale record, so the settled fee matches the sum of what each sale was
+ * charged rather than a rounding of the period total. Fees are kept on refunds.
+ */
+final class SettlementTotals {
+
+    static final String TICKET_SALE = "TICKET_SALE";
+    static final String REFUND = "REFUND";
+
+    private BigDecimal gross = BigDecimal.ZERO;
+    private BigDecimal refunds = BigDecimal.ZERO;
+    private BigDecimal fees = BigDecimal.ZERO;
+    private long records;
+
+    void add(String type, BigDecimal amount, FeeSchedule feeSchedule) {
+        switch (type) {
+            case TICKET_SALE -> {
+                gross = gross.add(amount);
+                fees = fees.add(feeSchedule.feeFor(amount));
+            }
+            case REFUND -> refunds = refunds.add(amount.abs());
+            default -> {
+                return;
+            }
+        }
+        records++;
+    }
+
+    BigDecimal gross() {
+        return gross;
+    }
+
+    BigDecimal refunds() {
+        return refunds;
+    }
+
+    BigDecimal fees() {
+        return fees;
+    }
+
+    /** Amount owed to the organiser; negative when refunds exceed the period's sales. */
+    BigDecimal net() {
+        return gross.subtract(refunds).subtract(fees);
+    }
+
+    long records() {
+        return records;
+    }
+}
@@ -0,0 +1,37 @@
+-- Settlement engine.
+-- Each run settles one UTC day: revenue recorded in [period_start, period_end) is folded into one
+-- settlement per (organizer, event, currency). Reruns upsert on that key and only rewrite rows
+-- still PENDING, so a paid-out settlement is never changed. Manually created settlements keep
+-- period_start NULL and stay outside the key.
+
+ALTER TABLE settlements
+    ADD COLUMN IF NOT EXISTS period_start  TIMESTAMP WITH TIME ZONE,
+    ADD COLUMN IF NOT EXISTS period_end    TIMESTAMP WITH TIME ZONE,
+    ADD COLUMN IF NOT EXISTS gross_amount  DECIMAL(14,2),
+    ADD COLUMN IF NOT EXISTS refund_amount DECIMAL(14,2),
+    ADD COLUMN IF NOT EXISTS fee_amount    DECIMAL(14,2),
+    ADD COLUMN IF NOT EXISTS record_count  BIGINT;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_settlements_period
+    ON settlements(organizer_id, event_id, currency, period_start)
+    WHERE period_start IS NOT NULL;
+
+-- One row per settled period; claimed by a single replica per run
+CREATE TABLE IF NOT EXISTS settlement_runs (
+    period_start    TIMESTAMP WITH TIME ZONE PRIMARY KEY,
+    period_end      TIMESTAMP WITH TIME ZONE NOT NULL,
+    status          VARCHAR(20) NOT NULL,
+    organizers      INT NOT NULL DEFAULT 0,
+    failed_organizers INT NOT NULL DEFAULT 0,
+    records         BIGINT NOT NULL DEFAULT 0,
+    settlements     INT NOT NULL DEFAULT 0,
+    started_at      TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    finished_at     TIMESTAMP WITH TIME ZONE
+);
+
+-- Organisers with revenue in a period
+CREATE INDEX IF NOT EXISTS idx_revenue_recorded ON revenue_records(recorded_at) INCLUDE (organizer_id);
+
+-- Per-organiser period scan, answered from the index alone
+CREATE INDEX IF NOT EXISTS idx_revenue_organizer_recorded ON revenue_records(organizer_id, recorded_at)
+    INCLUDE (event_id, currency, type, amount);
@@ -0,0 +1,114 @@
+-- Revenue rollups.
+-- Pre-aggregated sales and refunds per event and per organizer, one row per currency and UTC
+-- bucket. RevenueRollups keeps them up to date in the same transaction that records revenue,
+-- and can rebuild them from revenue_records. Analytics read these instead of scanning raw records.
+
+-- Per-event hourly buckets — intraday charts
+CREATE TABLE IF NOT EXISTS revenue_event_hourly (
+    event_id      UUID NOT NULL,
+    currency      VARCHAR(3) NOT NULL,
+    bucket_start  TIMESTAMP WITH TIME ZONE NOT NULL,
+    sales_amount  DECIMAL(14,2) NOT NULL DEFAULT 0,
+    sales_count   BIGINT NOT NULL DEFAULT 0,
+    refund_amount DECIMAL(14,2) NOT NULL DEFAULT 0,
+    refund_count  BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (event_id, currency, bucket_start)
+);
+
+-- Per-event daily buckets — longer charts
+CREATE TABLE IF NOT EXISTS revenue_event_daily (
+    event_id      UUID NOT NULL,
+    currency      VARCHAR(3) NOT NULL,
+    bucket_start  TIMESTAMP WITH TIME ZONE NOT NULL,
+    sales_amount  DECIMAL(14,2) NOT NULL DEFAULT 0,
+    sales_count   BIGINT NOT NULL DEFAULT 0,
+    refund_amount DECIMAL(14,2) NOT NULL DEFAULT 0,
+    refund_count  BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (event_id, currency, bucket_start)
+);
+
+-- Per-event lifetime totals — event analytics
+CREATE TABLE IF NOT EXISTS revenue_event_totals (
+    event_id      UUID NOT NULL,
+    currency      VARCHAR(3) NOT NULL,
+    sales_amount  DECIMAL(14,2) NOT NULL DEFAULT 0,
+    sales_count   BIGINT NOT NULL DEFAULT 0,
+    refund_amount DECIMAL(14,2) NOT NULL DEFAULT 0,
+    refund_count  BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (event_id, currency)
+);
+
+-- Per-organizer daily buckets
+CREATE TABLE IF NOT EXISTS revenue_organizer_daily (
+    organizer_id  UUID NOT NULL,
+    currency      VARCHAR(3) NOT NULL,
+    bucket_start  TIMESTAMP WITH TIME ZONE NOT NULL,
+    sales_amount  DECIMAL(14,2) NOT NULL DEFAULT 0,
+    sales_count   BIGINT NOT NULL DEFAULT 0,
+    refund_amount DECIMAL(14,2) NOT NULL DEFAULT 0,
+    refund_count  BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (organizer_id, currency, bucket_start)
+);
+
+-- Per-organizer lifetime totals — dashboard analytics
+CREATE TABLE IF NOT EXISTS revenue_organizer_totals (
+    organizer_id  UUID NOT NULL,
+    currency      VARCHAR(3) NOT NULL,
+    sales_amount  DECIMAL(14,2) NOT NULL DEFAULT 0,
+    sales_count   BIGINT NOT NULL DEFAULT 0,
+    refund_amount DECIMAL(14,2) NOT NULL DEFAULT 0,
+    refund_count  BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (organizer_id, currency)
+);
+
+-- Seed from existing records
+
+INSERT INTO revenue_event_hourly
+SELECT event_id, currency, date_trunc('hour', recorded_at, 'UTC'),
+       COALESCE(SUM(amount) FILTER (WHERE type = 'TICKET_SALE'), 0),
+       COUNT(*) FILTER (WHERE type = 'TICKET_SALE'),
+       COALESCE(SUM(amount) FILTER (WHERE type = 'REFUND'), 0),
+       COUNT(*) FILTER (WHERE type = 'REFUND')
+  FROM revenue_records
+ WHERE type IN ('TICKET_SALE', 'REFUND')
+ GROUP BY 1, 2, 3;
+
+INSERT INTO revenue_event_daily
+SELECT event_id, currency, date_trunc('day', recorded_at, 'UTC'),
+       COALESCE(SUM(amount) FILTER (WHERE type = 'TICKET_SALE'), 0),
+       COUNT(*) FILTER (WHERE type = 'TICKET_SALE'),
+       COALESCE(SUM(amount) FILTER (WHERE type = 'REFUND'), 0),
+       COUNT(*) FILTER (WHERE type = 'REFUND')
+  FROM revenue_records
+ WHERE type IN ('TICKET_SALE', 'REFUND')
+ GROUP BY 1, 2, 3;
+
+INSERT INTO revenue_event_totals
+SELECT event_id, currency,
+       COALESCE(SUM(amount) FILTER (WHERE type = 'TICKET_SALE'), 0),
+       COUNT(*) FILTER (WHERE type = 'TICKET_SALE'),
+       COALESCE(SUM(amount) FILTER (WHERE type = 'REFUND'), 0),
+       COUNT(*) FILTER (WHERE type = 'REFUND')
+  FROM revenue_records
+ WHERE type IN ('TICKET_SALE', 'REFUND')
+ GROUP BY 1, 2;
+
+INSERT INTO revenue_organizer_daily
+SELECT organizer_id, currency, date_trunc('day', recorded_at, 'UTC'),
+       COALESCE(SUM(amount) FILTER (WHERE type = 'TICKET_SALE'), 0),
+       COUNT(*) FILTER (WHERE type = 'TICKET_SALE'),
+       COALESCE(SUM(amount) FILTER (WHERE type = 'REFUND'), 0),
+       COUNT(*) FILTER (WHERE type = 'REFUND')
+  FROM revenue_records
+ WHERE type IN ('TICKET_SALE', 'REFUND')
+ GROUP BY 1, 2, 3;
+
+INSERT INTO revenue_organizer_totals
+SELECT organizer_id, currency,
+       COALESCE(SUM(amount) FILTER (WHERE type = 'TICKET_SALE'), 0),
+       COUNT(*) FILTER (WHERE type = 'TICKET_SALE'),
+       COALESCE(SUM(amount) FILTER (WHERE type = 'REFUND'), 0),
+       COUNT(*) FILTER (WHERE type = 'REFUND')
+  FROM revenue_records
+ WHERE type IN ('TICKET_SALE', 'REFUND')
+ GROUP BY 1, 2;
@@ -0,0 +1,68 @@
+-- Exactly-once revenue recording.
+-- FinanceEventConsumer inserts with ON CONFLICT (booking_id, type) DO NOTHING, so a redelivered
+-- booking event cannot record the same sale or refund twice. Records without a booking (manual
+-- entries) have a NULL booking_id and are not deduplicated.
+
+-- Duplicates left by earlier redeliveries (all but the first record of each booking and type),
+-- summed per hour so the rollups can be corrected by exactly what is removed
+CREATE TEMPORARY TABLE revenue_duplicate_deltas ON COMMIT DROP AS
+SELECT r.event_id, r.organizer_id, r.currency, date_trunc('hour', r.recorded_at, 'UTC') AS hour_start,
+       COALESCE(SUM(r.amount) FILTER (WHERE r.type = 'TICKET_SALE'), 0) AS sales_amount,
+       COUNT(*) FILTER (WHERE r.type = 'TICKET_SALE') AS sales_count,
+       COALESCE(SUM(r.amount) FILTER (WHERE r.type = 'REFUND'), 0) AS refund_amount,
+       COUNT(*) FILTER (WHERE r.type = 'REFUND') AS refund_count
+  FROM revenue_records r
+ WHERE r.type IN ('TICKET_SALE', 'REFUND')
+   AND EXISTS (SELECT 1 FROM revenue_records d
+                WHERE d.booking_id = r.booking_id AND d.type = r.type
+                  AND (r.recorded_at, r.id) > (d.recorded_at, d.id))
+ GROUP BY 1, 2, 3, 4;
+
+DELETE FROM revenue_records r
+ USING revenue_records d
+ WHERE r.booking_id = d.booking_id
+   AND r.type = d.type
+   AND (r.recorded_at, r.id) > (d.recorded_at, d.id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_revenue_booking_type ON revenue_records(booking_id, type);
+
+-- Take the removed duplicates back out of the rollups seeded by V3
+UPDATE revenue_event_hourly t
+   SET sales_amount = t.sales_amount - d.sales_amount, sales_count = t.sales_count - d.sales_count,
+       refund_amount = t.refund_amount - d.refund_amount, refund_count = t.refund_count - d.refund_count
+  FROM (SELECT event_id, currency, hour_start AS bucket_start, SUM(sales_amount) AS sales_amount,
+               SUM(sales_count) AS sales_count, SUM(refund_amount) AS refund_amount, SUM(refund_count) AS refund_count
+          FROM revenue_duplicate_deltas GROUP BY 1, 2, 3) d
+ WHERE t.event_id = d.event_id AND t.currency = d.currency AND t.bucket_start = d.bucket_start;
+
+UPDATE revenue_event_daily t
+   SET sales_amount = t.sales_amount - d.sales_amount, sales_count = t.sales_count - d.sales_count,
+       refund_amount = t.refund_amount - d.refund_amount, refund_count = t.refund_count - d.refund_count
+  FROM (SELECT event_id, currency, date_trunc('day', hour_start, 'UTC') AS bucket_start, SUM(sales_amount) AS sales_amount,
+               SUM(sales_count) AS sales_count, SUM(refund_amount) AS refund_amount, SUM(refund_count) AS refund_count
+          FROM revenue_duplicate_deltas GROUP BY 1, 2, 3) d
+ WHERE t.event_id = d.event_id AND t.currency = d.currency AND t.bucket_start = d.bucket_start;
+
+UPDATE revenue_event_totals t
+   SET sales_amount = t.sales_amount - d.sales_amount, sales_count = t.sales_count - d.sales_count,
+       refund_amount = t.refund_amount - d.refund_amount, refund_count = t.refund_count - d.refund_count
+  FROM (SELECT event_id, currency, SUM(sales_amount) AS sales_amount,
+               SUM(sales_count) AS sales_count, SUM(refund_amount) AS refund_amount, SUM(refund_count) AS refund_count
+          FROM revenue_duplicate_deltas GROUP BY 1, 2) d
+ WHERE t.event_id = d.event_id AND t.currency = d.currency;
+
+UPDATE revenue_organizer_daily t
+   SET sales_amount = t.sales_amount - d.sales_amount, sales_count = t.sales_count - d.sales_count,
+       refund_amount = t.refund_amount - d.refund_amount, refund_count = t.refund_count - d.refund_count
+  FROM (SELECT organizer_id, currency, date_trunc('day', hour_start, 'UTC') AS bucket_start, SUM(sales_amount) AS sales_amount,
+               SUM(sales_count) AS sales_count, SUM(refund_amount) AS refund_amount, SUM(refund_count) AS refund_count
+          FROM revenue_duplicate_deltas GROUP BY 1, 2, 3) d
+ WHERE t.organizer_id = d.organizer_id AND t.currency = d.currency AND t.bucket_start = d.bucket_start;
+
+UPDATE revenue_organizer_totals t
+   SET sales_amount = t.sales_amount - d.sales_amount, sales_count = t.sales_count - d.sales_count,
+       refund_amount = t.refund_amount - d.refund_amount, refund_count = t.refund_count - d.refund_count
+  FROM (SELECT organizer_id, currency, SUM(sales_amount) AS sales_amount,
+               SUM(sales_count) AS sales_count, SUM(refund_amount) AS refund_amount, SUM(refund_count) AS refund_count
+          FROM revenue_duplicate_deltas GROUP BY 1, 2) d
+ WHERE t.organizer_id = d.organizer_id AND t.currency = d.currency;
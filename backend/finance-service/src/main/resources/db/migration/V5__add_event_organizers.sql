@@ -0,0 +1,13 @@
+-- Event → organizer lookup for revenue attribution.
+-- booking.confirmed / booking.refunded only carry the buyer, and earlier versions of
+-- FinanceEventConsumer stored that buyer in revenue_records.organizer_id. The consumer now
+-- resolves the organizer through this table, which is fed by event-events and filled on demand
+-- from event-service. Rows recorded before this migration are corrected by
+-- POST /api/v1/finance/rollups/backfill-organizers (OrganizerBackfill).
+
+CREATE TABLE IF NOT EXISTS event_organizers (
+    event_id     UUID PRIMARY KEY,
+    organizer_id UUID NOT NULL,
+    updated_at   TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
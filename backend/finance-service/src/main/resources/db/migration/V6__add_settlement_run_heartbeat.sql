@@ -0,0 +1,7 @@
+-- Settlement run leases.
+-- A running settlement refreshes heartbeat_at every finance.settlement.heartbeat-seconds. Another
+-- replica, or a forced rerun, may only take over a RUNNING claim once its heartbeat has lapsed,
+-- so two runs never compute and upsert the same day concurrently.
+
+ALTER TABLE settlement_runs
+    ADD COLUMN IF NOT EXISTS heartbeat_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW();
@@ -0,0 +1,17 @@
+-- Revenue whose event has no known organizer yet.
+-- FinanceEventConsumer parks a sale or refund here instead of dropping it when neither
+-- event_organizers nor event-service can name the event's owner, then acknowledges the batch.
+-- OrganizerBackfill replays parked rows into revenue_records once the organizer resolves; a
+-- replayed booking that was already recorded is skipped by uq_revenue_booking_type.
+
+CREATE TABLE IF NOT EXISTS unattributed_revenue (
+    id          UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    event_id    UUID NOT NULL,
+    booking_id  UUID,
+    amount      DECIMAL(12,2) NOT NULL,
+    currency    VARCHAR(3) NOT NULL DEFAULT 'USD',
+    type        VARCHAR(30) NOT NULL,
+    parked_at   TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_unattributed_booking_type ON unattributed_revenue(booking_id, type);
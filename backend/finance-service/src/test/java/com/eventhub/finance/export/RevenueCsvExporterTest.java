@@ -0,0 +1,125 @@
+package com.eventhub.finance.export;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RevenueCsvExporterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RevenueCsvExporter exporter;
+
+    private final UUID organizerId = UUID.randomUUID();
+    private final Instant from = Instant.parse("2026-09-01T00:00:00Z");
+    private final Instant to = Instant.parse("2026-10-01T00:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        exporter = new RevenueCsvExporter(jdbcTemplate, new TransactionTemplate(transactionManager), meterRegistry);
+        ReflectionTestUtils.setField(exporter, "fetchSize", 5000);
+        ReflectionTestUtils.setField(exporter, "maxDays", 366L);
+    }
+
+    @Test
+    @DisplayName("should write a header and one line per streamed record")
+    void shouldStreamRowsAsCsv() throws Exception {
+        UUID id = UUID.randomUUID();
+        UUID eventId = UUID.randomUUID();
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn(id.toString());
+        when(rs.getString(2)).thenReturn(eventId.toString());
+        when(rs.getString(3)).thenReturn(null);
+        when(rs.getString(4)).thenReturn("TICKET_SALE");
+        when(rs.getBigDecimal(5)).thenReturn(new BigDecimal("42.50"));
+        when(rs.getString(6)).thenReturn("USD");
+        when(rs.getObject(7, OffsetDateTime.class))
+                .thenReturn(OffsetDateTime.of(2026, 9, 3, 10, 15, 0, 0, ZoneOffset.UTC));
+        streamRows(rs, 2);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exporter.write(organizerId, null, from, to, out);
+
+        String line = id + "," + eventId + ",,TICKET_SALE,42.50,USD,2026-09-03T10:15:00Z\n";
+        assertThat(rows).isEqualTo(2);
+        assertThat(out.toString()).isEqualTo(RevenueCsvExporter.HEADER + line + line);
+        assertThat(meterRegistry.get("finance.export.rows").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should abort the query when the client disconnects")
+    void shouldAbortOnWriteFailure() throws Exception {
+        ResultSet rs = mock(ResultSet.class, RETURNS_DEEP_STUBS);
+        when(rs.getString(anyInt())).thenReturn("x".repeat(1024));
+        when(rs.getBigDecimal(5)).thenReturn(BigDecimal.ONE);
+        when(rs.getObject(7, OffsetDateTime.class)).thenReturn(OffsetDateTime.now(ZoneOffset.UTC));
+        streamRows(rs, 1000);
+
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThatThrownBy(() -> exporter.write(organizerId, null, from, to, broken))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Broken pipe");
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("should reject ranges before streaming starts")
+    void shouldValidateRangeEagerly() {
+        assertThatThrownBy(() -> exporter.export(organizerId, null, to, from))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> exporter.export(organizerId, null, from, from.plusSeconds(400L * 86400)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private void streamRows(ResultSet rs, int count) {
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            for (int i = 0; i < count; i++) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+}
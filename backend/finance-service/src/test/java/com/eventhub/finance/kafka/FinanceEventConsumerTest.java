@@ -0,0 +1,164 @@
+package com.eventhub.finance.kafka;
+
+import com.eventhub.finance.entity.RevenueRecord;
+import com.eventhub.finance.organizer.EventOrganizers;
+import com.eventhub.finance.organizer.UnattributedRevenue;
+import com.eventhub.finance.service.RevenueService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FinanceEventConsumerTest {
+
+    @Mock
+    private RevenueService revenueService;
+
+    @Mock
+    private EventOrganizers eventOrganizers;
+
+    @Mock
+    private UnattributedRevenue unattributedRevenue;
+
+    @Mock
+    private Acknowledgment ack;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UUID organizerId = UUID.randomUUID();
+    private FinanceEventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new FinanceEventConsumer(revenueService, eventOrganizers, unattributedRevenue, meterRegistry);
+        lenient().when(eventOrganizers.resolve(anyCollection())).thenAnswer(inv -> {
+            Map<UUID, UUID> organizers = new HashMap<>();
+            inv.<Collection<UUID>>getArgument(0).forEach(eventId -> organizers.put(eventId, organizerId));
+            return organizers;
+        });
+    }
+
+    @Test
+    @DisplayName("should record confirmed sales and refunds in one batch and skip unpaid requests")
+    @SuppressWarnings("unchecked")
+    void shouldRecordBatch() {
+        when(revenueService.recordRevenueBatch(anyList())).thenReturn(1);
+
+        consumer.handleBookingEvents(List.of(
+                record(event("booking.requested")),
+                record(event("booking.confirmed")),
+                record(event("booking.refunded"))), ack);
+
+        ArgumentCaptor<List<RevenueRecord>> batch = ArgumentCaptor.forClass(List.class);
+        verify(revenueService).recordRevenueBatch(batch.capture());
+        assertThat(batch.getValue()).extracting(RevenueRecord::getType).containsExactly("TICKET_SALE", "REFUND");
+        assertThat(batch.getValue()).extracting(RevenueRecord::getOrganizerId).containsOnly(organizerId);
+        verify(ack).acknowledge();
+        assertThat(meterRegistry.get("finance.booking.events").tag("outcome", "recorded").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("finance.booking.events").tag("outcome", "duplicate").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("finance.booking.events").tag("outcome", "ignored").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should attribute revenue to the event's organizer, not the buyer, and park the rest")
+    @SuppressWarnings("unchecked")
+    void shouldAttributeToOrganizer() {
+        Map<String, Object> sale = event("booking.confirmed");
+        Map<String, Object> unknownEvent = event("booking.confirmed");
+        UUID eventId = UUID.fromString((String) sale.get("eventId"));
+        when(eventOrganizers.resolve(anyCollection())).thenReturn(Map.of(eventId, organizerId));
+        when(revenueService.recordRevenueBatch(anyList())).thenReturn(1);
+
+        consumer.handleBookingEvents(List.of(record(sale), record(unknownEvent)), ack);
+
+        ArgumentCaptor<List<RevenueRecord>> batch = ArgumentCaptor.forClass(List.class);
+        verify(revenueService).recordRevenueBatch(batch.capture());
+        assertThat(batch.getValue()).singleElement().satisfies(r -> {
+            assertThat(r.getEventId()).isEqualTo(eventId);
+            assertThat(r.getOrganizerId()).isEqualTo(organizerId).isNotEqualTo(UUID.fromString((String) sale.get("userId")));
+        });
+        ArgumentCaptor<List<RevenueRecord>> parked = ArgumentCaptor.forClass(List.class);
+        verify(unattributedRevenue).park(parked.capture());
+        assertThat(parked.getValue()).singleElement()
+                .extracting(RevenueRecord::getEventId).isEqualTo(UUID.fromString((String) unknownEvent.get("eventId")));
+        assertThat(meterRegistry.get("finance.booking.events").tag("outcome", "parked").counter().count())
+                .isEqualTo(1);
+        verify(ack).acknowledge();
+    }
+
+    @Test
+    @DisplayName("should not acknowledge a batch whose organizers could not be looked up")
+    void shouldNotAckWhenOrganizerLookupFails() {
+        when(eventOrganizers.resolve(anyCollection())).thenThrow(new ResourceAccessException("event-service down"));
+
+        assertThatThrownBy(() -> consumer.handleBookingEvents(List.of(record(event("booking.confirmed"))), ack))
+                .isInstanceOf(ResourceAccessException.class);
+        verifyNoInteractions(revenueService);
+        verify(ack, never()).acknowledge();
+    }
+
+    @Test
+    @DisplayName("should not acknowledge a batch whose unattributed revenue could not be parked")
+    void shouldNotAckWhenParkingFails() {
+        when(eventOrganizers.resolve(anyCollection())).thenReturn(Map.of());
+        doThrow(new QueryTimeoutException("timeout")).when(unattributedRevenue).park(anyList());
+
+        assertThatThrownBy(() -> consumer.handleBookingEvents(List.of(record(event("booking.confirmed"))), ack))
+                .isInstanceOf(QueryTimeoutException.class);
+        verify(ack, never()).acknowledge();
+    }
+
+    @Test
+    @DisplayName("should not acknowledge a batch that failed to commit")
+    void shouldNotAckOnFailure() {
+        when(revenueService.recordRevenueBatch(anyList())).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThatThrownBy(() -> consumer.handleBookingEvents(List.of(record(event("booking.confirmed"))), ack))
+                .isInstanceOf(QueryTimeoutException.class);
+        verify(ack, never()).acknowledge();
+    }
+
+    @Test
+    @DisplayName("should skip malformed events without failing the batch")
+    void shouldSkipMalformed() {
+        Map<String, Object> malformed = Map.of("eventType", "booking.confirmed", "eventId", "not-a-uuid",
+                "userId", UUID.randomUUID().toString(), "totalAmount", "10.00");
+
+        consumer.handleBookingEvents(List.of(record(malformed)), ack);
+
+        verifyNoInteractions(revenueService);
+        verify(ack).acknowledge();
+    }
+
+    private Map<String, Object> event(String eventType) {
+        return Map.of(
+                "eventType", eventType,
+                "bookingId", UUID.randomUUID().toString(),
+                "eventId", UUID.randomUUID().toString(),
+                "userId", UUID.randomUUID().toString(),
+                "totalAmount", "50.00",
+                "currency", "USD");
+    }
+
+    private ConsumerRecord<String, Map<String, Object>> record(Map<String, Object> value) {
+        return new ConsumerRecord<>("booking-events", 0, 0L, (String) value.get("bookingId"), value);
+    }
+}
@@ -0,0 +1,197 @@
+package com.eventhub.finance.service;
+
+import com.eventhub.finance.entity.RevenueRecord;
+import com.eventhub.finance.organizer.EventOrganizers;
+import com.eventhub.finance.repository.RevenueRecordRepository;
+import com.eventhub.finance.repository.SettlementRepository;
+import com.eventhub.finance.rollup.RevenueRollups;
+import com.eventhub.finance.rollup.RevenueTotals;
+import com.eventhub.finance.rollup.TimeBucket;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RevenueServiceTest {
+
+    @Mock
+    private RevenueRecordRepository revenueRepository;
+
+    @Mock
+    private SettlementRepository settlementRepository;
+
+    @Mock
+    private RevenueRollups revenueRollups;
+
+    @Mock
+    private EventOrganizers eventOrganizers;
+
+    @InjectMocks
+    private RevenueService revenueService;
+
+    private final UUID eventId = UUID.randomUUID();
+
+    // ─────────────────────────────────────────────
+    // Recording
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Recording")
+    class Recording {
+
+        @Test
+        @DisplayName("should add the flushed record to the rollups")
+        void shouldApplyRollupsAfterFlush() {
+            RevenueRecord record = RevenueRecord.builder()
+                    .eventId(eventId).organizerId(UUID.randomUUID()).amount(new BigDecimal("25.00")).build();
+            when(revenueRepository.saveAndFlush(record)).thenReturn(record);
+
+            revenueService.recordRevenue(record);
+
+            var inOrder = inOrder(revenueRepository, revenueRollups);
+            inOrder.verify(revenueRepository).saveAndFlush(record);
+            inOrder.verify(revenueRollups).apply(List.of(record));
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Analytics
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Analytics")
+    class Analytics {
+
+        @Test
+        @DisplayName("should answer event analytics from the per-currency totals rollup")
+        void shouldReadEventTotalsFromRollups() {
+            when(revenueRollups.eventTotals(eventId)).thenReturn(List.of(
+                    new RevenueTotals("EUR", new BigDecimal("200.00"), 4, new BigDecimal("50.00"), 1),
+                    new RevenueTotals("USD", new BigDecimal("100.00"), 2, BigDecimal.ZERO, 0)));
+
+            Map<String, Object> analytics = revenueService.getEventAnalytics(eventId);
+
+            assertThat((BigDecimal) analytics.get("totalRevenue")).isEqualByComparingTo("300.00");
+            assertThat((BigDecimal) analytics.get("totalRefunds")).isEqualByComparingTo("50.00");
+            assertThat((BigDecimal) analytics.get("netRevenue")).isEqualByComparingTo("250.00");
+            assertThat(analytics.get("totalBookings")).isEqualTo(6L);
+            assertThat((List<?>) analytics.get("byCurrency")).hasSize(2);
+            verifyNoInteractions(revenueRepository);
+        }
+
+        @Test
+        @DisplayName("should report zero for an event without revenue")
+        void shouldReportZeroWithoutRollups() {
+            when(revenueRollups.eventTotals(any())).thenReturn(List.of());
+
+            Map<String, Object> analytics = revenueService.getEventAnalytics(eventId);
+
+            assertThat((BigDecimal) analytics.get("netRevenue")).isEqualByComparingTo("0");
+            assertThat(analytics.get("totalBookings")).isEqualTo(0L);
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Timeseries
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Timeseries")
+    class Timeseries {
+
+        private final UUID organizerId = UUID.randomUUID();
+        private final Instant to = Instant.parse("2026-10-01T00:00:00Z");
+
+        @Test
+        @DisplayName("should read the event rollup and widen 'from' to the start of its bucket")
+        void shouldReadEventSeries() {
+            ReflectionTestUtils.setField(revenueService, "maxBuckets", 1000L);
+            when(eventOrganizers.findLocal(eventId)).thenReturn(Optional.of(organizerId));
+
+            revenueService.getRevenueTimeseries(organizerId, eventId, TimeBucket.DAY,
+                    Instant.parse("2026-09-01T13:45:00Z"), to, "USD");
+
+            verify(revenueRollups).eventSeries(eventId, TimeBucket.DAY,
+                    Instant.parse("2026-09-01T00:00:00Z"), to, "USD");
+        }
+
+        @Test
+        @DisplayName("should read the organizer rollup when no event is given, from the Monday of the first week")
+        void shouldReadOrganizerSeries() {
+            ReflectionTestUtils.setField(revenueService, "maxBuckets", 1000L);
+
+            // 2026-01-01 is a Thursday
+            revenueService.getRevenueTimeseries(organizerId, null, TimeBucket.WEEK,
+                    Instant.parse("2026-01-01T09:00:00Z"), to, null);
+
+            verify(revenueRollups).organizerSeries(organizerId, TimeBucket.WEEK,
+                    Instant.parse("2025-12-29T00:00:00Z"), to, null);
+            verifyNoInteractions(eventOrganizers);
+        }
+
+        @Test
+        @DisplayName("should widen 'from' to the first of the month for monthly buckets")
+        void shouldTruncateToMonth() {
+            ReflectionTestUtils.setField(revenueService, "maxBuckets", 1000L);
+
+            revenueService.getRevenueTimeseries(organizerId, null, TimeBucket.MONTH,
+                    Instant.parse("2026-03-17T22:10:00Z"), to, null);
+
+            verify(revenueRollups).organizerSeries(organizerId, TimeBucket.MONTH,
+                    Instant.parse("2026-03-01T00:00:00Z"), to, null);
+        }
+
+        @Test
+        @DisplayName("should refuse an event owned by another organizer")
+        void shouldRejectForeignEvent() {
+            ReflectionTestUtils.setField(revenueService, "maxBuckets", 1000L);
+            when(eventOrganizers.findLocal(eventId)).thenReturn(Optional.of(UUID.randomUUID()));
+
+            assertThatThrownBy(() -> revenueService.getRevenueTimeseries(organizerId, eventId, TimeBucket.DAY,
+                    Instant.parse("2026-09-01T00:00:00Z"), to, null))
+                    .isInstanceOf(SecurityException.class);
+            verifyNoInteractions(revenueRollups);
+        }
+
+        @Test
+        @DisplayName("should refuse an event missing from the local organizer table without a remote lookup")
+        void shouldRejectUnknownEvent() {
+            ReflectionTestUtils.setField(revenueService, "maxBuckets", 1000L);
+            when(eventOrganizers.findLocal(eventId)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> revenueService.getRevenueTimeseries(organizerId, eventId, TimeBucket.DAY,
+                    Instant.parse("2026-09-01T00:00:00Z"), to, null))
+                    .isInstanceOf(SecurityException.class);
+            verify(eventOrganizers, never()).resolve(any());
+            verifyNoInteractions(revenueRollups);
+        }
+
+        @Test
+        @DisplayName("should reject ranges with too many buckets")
+        void shouldRejectTooManyBuckets() {
+            ReflectionTestUtils.setField(revenueService, "maxBuckets", 24L);
+
+            assertThatThrownBy(() -> revenueService.getRevenueTimeseries(organizerId, eventId, TimeBucket.HOUR,
+                    Instant.parse("2026-09-01T00:00:00Z"), to, null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("24 hour buckets");
+            verifyNoInteractions(revenueRollups);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.eventhub.finance.settlement;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SettlementEngineTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FeeSchedule feeSchedule = new FeeSchedule(new BigDecimal("2.5"), new BigDecimal("0.30"));
+    private SettlementEngine engine;
+
+    private final UUID organizerId = UUID.randomUUID();
+    private final UUID eventA = UUID.randomUUID();
+    private final UUID eventB = UUID.randomUUID();
+    private final LocalDate day = LocalDate.of(2026, 10, 1);
+    private final OffsetDateTime start = day.atStartOfDay().atOffset(ZoneOffset.UTC);
+    private final OffsetDateTime end = start.plusDays(1);
+
+    @BeforeEach
+    void setUp() {
+        engine = new SettlementEngine(jdbcTemplate, new TransactionTemplate(transactionManager), meterRegistry);
+        ReflectionTestUtils.setField(engine, "parallelism", 2);
+        ReflectionTestUtils.setField(engine, "fetchSize", 5000);
+        ReflectionTestUtils.setField(engine, "batchSize", 500);
+        ReflectionTestUtils.setField(engine, "staleRunSeconds", 3600L);
+        ReflectionTestUtils.setField(engine, "heartbeatSeconds", 60L);
+        ReflectionTestUtils.setField(engine, "maxDaysPerRequest", 92);
+        ReflectionTestUtils.setField(engine, "feePercent", new BigDecimal("2.5"));
+        ReflectionTestUtils.setField(engine, "feeFixed", new BigDecimal("0.30"));
+    }
+
+    // ─────────────────────────────────────────────
+    // Totals
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Totals")
+    class Totals {
+
+        @Test
+        @DisplayName("should charge fees per sale, rounded to the cent, and keep them on refunds")
+        void shouldComputeGrossRefundsFeesAndNet() {
+            SettlementTotals totals = new SettlementTotals();
+            totals.add("TICKET_SALE", new BigDecimal("50.00"), feeSchedule);  // fee 1.55
+            totals.add("TICKET_SALE", new BigDecimal("19.99"), feeSchedule);  // fee 0.7997 → 0.80
+            totals.add("REFUND", new BigDecimal("19.99"), feeSchedule);
+
+            assertThat(totals.gross()).isEqualByComparingTo("69.99");
+            assertThat(totals.refunds()).isEqualByComparingTo("19.99");
+            assertThat(totals.fees()).isEqualByComparingTo("2.35");
+            assertThat(totals.net()).isEqualByComparingTo("47.65");
+            assertThat(totals.records()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("should never charge more than the sale and nothing on free tickets")
+        void shouldCapFees() {
+            assertThat(feeSchedule.feeFor(new BigDecimal("0.20"))).isEqualByComparingTo("0.20");
+            assertThat(feeSchedule.feeFor(BigDecimal.ZERO)).isEqualByComparingTo("0");
+        }
+
+        @Test
+        @DisplayName("should ignore record types it does not settle")
+        void shouldIgnoreUnknownTypes() {
+            SettlementTotals totals = new SettlementTotals();
+            totals.add("ADJUSTMENT", new BigDecimal("10.00"), feeSchedule);
+
+            assertThat(totals.records()).isZero();
+            assertThat(totals.net()).isEqualByComparingTo("0");
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Organiser settlement
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Organiser settlement")
+    class OrganizerSettlement {
+
+        @Test
+        @DisplayName("should stream records with a fetch size and upsert one row per event and currency")
+        @SuppressWarnings("unchecked")
+        void shouldStreamAndUpsertPerEventAndCurrency() throws Exception {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getObject(1, UUID.class)).thenReturn(eventA, eventA, eventB, eventA);
+            when(rs.getString(2)).thenReturn("USD", "USD", "USD", "EUR");
+            when(rs.getString(3)).thenReturn("TICKET_SALE", "REFUND", "TICKET_SALE", "TICKET_SALE");
+            when(rs.getBigDecimal(4)).thenReturn(new BigDecimal("100.00"), new BigDecimal("40.00"),
+                    new BigDecimal("10.00"), new BigDecimal("20.00"));
+            doAnswer(inv -> {
+                RowCallbackHandler handler = inv.getArgument(1);
+                for (int i = 0; i < 4; i++) {
+                    handler.processRow(rs);
+                }
+                return null;
+            }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+            List<Object> upserted = new ArrayList<>();
+            when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO settlements"), any(Collection.class), eq(500),
+                    any(ParameterizedPreparedStatementSetter.class)))
+                    .thenAnswer(inv -> {
+                        upserted.addAll(inv.<Collection<?>>getArgument(1));
+                        return new int[0][];
+                    });
+
+            SettlementEngine.OrganizerResult result = engine.settleOrganizer(organizerId, start, end, feeSchedule);
+
+            assertThat(result.records()).isEqualTo(4);
+            assertThat(result.settlements()).isEqualTo(3);
+            assertThat(upserted).hasSize(3);
+
+            SettlementTotals usdA = totalsFor(upserted, eventA, "USD");
+            assertThat(usdA.gross()).isEqualByComparingTo("100.00");
+            assertThat(usdA.refunds()).isEqualByComparingTo("40.00");
+            assertThat(usdA.fees()).isEqualByComparingTo("2.80");
+            assertThat(usdA.net()).isEqualByComparingTo("57.20");
+            assertThat(meterRegistry.get("finance.settlement.records").counter().count()).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("should not write anything for an organiser without settleable records")
+        void shouldSkipEmptyOrganizer() {
+            SettlementEngine.OrganizerResult result = engine.settleOrganizer(organizerId, start, end, feeSchedule);
+
+            assertThat(result.settlements()).isZero();
+            verify(jdbcTemplate, never()).batchUpdate(anyString(), anyCollection(), anyInt(),
+                    any(ParameterizedPreparedStatementSetter.class));
+        }
+
+        @SuppressWarnings("unchecked")
+        private SettlementTotals totalsFor(List<Object> rows, UUID eventId, String currency) {
+            return rows.stream()
+                    .map(row -> (Map.Entry<SettlementEngine.SettlementKey, SettlementTotals>) row)
+                    .filter(row -> row.getKey().equals(new SettlementEngine.SettlementKey(eventId, currency)))
+                    .map(Map.Entry::getValue)
+                    .findFirst()
+                    .orElseThrow();
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Runs
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("Runs")
+    class Runs {
+
+        @Test
+        @DisplayName("should skip a day another run already claimed")
+        void shouldSkipClaimedDay() {
+            when(jdbcTemplate.update(startsWith("INSERT INTO settlement_runs"), any(Object[].class))).thenReturn(0);
+
+            SettlementEngine.RunSummary summary = engine.settle(day, false);
+
+            assertThat(summary.status()).isEqualTo(SettlementEngine.RunStatus.SKIPPED);
+            verify(jdbcTemplate, never()).queryForList(anyString(), eq(UUID.class), any(Object[].class));
+        }
+
+        @Test
+        @DisplayName("should let a forced rerun take over completed days but not a live RUNNING claim")
+        void shouldNotForceOverLiveClaim() {
+            ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+            ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+            when(jdbcTemplate.update(sql.capture(), args.capture())).thenReturn(0);
+
+            engine.settle(day, true);
+
+            assertThat(sql.getValue())
+                    .contains("(? AND settlement_runs.status = 'COMPLETED')")
+                    .contains("heartbeat_at < NOW() - make_interval(secs => ?)")
+                    .doesNotContain("WHERE ? OR");
+            assertThat(args.getValue()).containsExactly(start, end, true, 3600L);
+        }
+
+        @Test
+        @DisplayName("should mark the run failed when an organiser fails, so it can be rerun")
+        void shouldMarkRunFailedOnOrganizerFailure() {
+            UUID other = UUID.randomUUID();
+            when(jdbcTemplate.update(startsWith("INSERT INTO settlement_runs"), any(Object[].class))).thenReturn(1);
+            when(jdbcTemplate.queryForList(startsWith("SELECT DISTINCT organizer_id"), eq(UUID.class), any(Object[].class)))
+                    .thenReturn(List.of(organizerId, other));
+            doThrow(new QueryTimeoutException("canceling statement due to statement timeout"))
+                    .doNothing()
+                    .when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+            SettlementEngine.RunSummary summary = engine.settle(day, false);
+
+            assertThat(summary.status()).isEqualTo(SettlementEngine.RunStatus.FAILED);
+            assertThat(summary.organizers()).isEqualTo(2);
+            assertThat(summary.failedOrganizers()).isEqualTo(1);
+            ArgumentCaptor<Object[]> finish = ArgumentCaptor.forClass(Object[].class);
+            verify(jdbcTemplate).update(startsWith("UPDATE settlement_runs"), finish.capture());
+            assertThat(finish.getValue()[0]).isEqualTo("FAILED");
+        }
+
+        @Test
+        @DisplayName("should refuse to settle a day that has not ended")
+        void shouldRejectOpenDay() {
+            assertThatThrownBy(() -> engine.settle(LocalDate.now(ZoneOffset.UTC), false))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(jdbcTemplate);
+        }
+
+        @Test
+        @DisplayName("should settle each day of a range in order")
+        void shouldSettleRange() {
+            when(jdbcTemplate.update(startsWith("INSERT INTO settlement_runs"), any(Object[].class))).thenReturn(0);
+
+            List<SettlementEngine.RunSummary> summaries = engine.settle(day, day.plusDays(2), false);
+
+            assertThat(summaries).extracting(SettlementEngine.RunSummary::day)
+                    .containsExactly(day, day.plusDays(1), day.plusDays(2));
+        }
+    }
+}
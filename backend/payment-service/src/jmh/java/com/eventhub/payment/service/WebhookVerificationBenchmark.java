@@ -0,0 +1,100 @@
+package com.eventhub.payment.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Webhook signature verification: the pooled, allocation-light path against the previous
+ * per-call Mac.getInstance / split / hex-string implementation.
+ *
+ * Run with:
+ *   mvn -Pbenchmarks test-compile exec:java -Dexec.classpathScope=test \
+ *       -Dexec.mainClass=com.eventhub.payment.service.WebhookVerificationBenchmark
+ *
+ * Add {@code -prof gc} through {@link OptionsBuilder#addProfiler} to compare allocation rates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class WebhookVerificationBenchmark {
+
+    private static final String SECRET = "whsec_benchmark_current";
+    private static final String OLD_SECRET = "whsec_benchmark_previous";
+
+    @Param({"512", "4096"})
+    private int payloadBytes;
+
+    private WebhookVerificationService service;
+    private String payload;
+    private String header;
+    private String rotatedHeader;
+
+    @Setup
+    public void setUp() throws Exception {
+        service = new WebhookVerificationService();
+        ReflectionTestUtils.setField(service, "stripeWebhookSecret", SECRET + "," + OLD_SECRET);
+        ReflectionTestUtils.setField(service, "razorpayWebhookSecret", SECRET);
+        ReflectionTestUtils.setField(service, "paypalWebhookId", "");
+        service.init();
+
+        StringBuilder body = new StringBuilder("{\"id\":\"evt_1\",\"sessionId\":\"cs_test_1\",\"status\":\"succeeded\",\"pad\":\"");
+        while (body.length() < payloadBytes - 2) {
+            body.append('x');
+        }
+        payload = body.append("\"}").toString();
+
+        String timestamp = "1700000000";
+        header = "t=" + timestamp + ",v1=" + legacyHmac(SECRET, timestamp + "." + payload);
+        rotatedHeader = "t=" + timestamp + ",v1=" + legacyHmac(OLD_SECRET, timestamp + "." + payload);
+    }
+
+    @Benchmark
+    public boolean pooled() {
+        return service.verifyStripeSignature(payload, header);
+    }
+
+    @Benchmark
+    public boolean pooledRotatedSecret() {
+        return service.verifyStripeSignature(payload, rotatedHeader);
+    }
+
+    @Benchmark
+    public boolean legacy() throws Exception {
+        String timestamp = null;
+        String expected = null;
+        for (String part : header.split(",")) {
+            String[] kv = part.split("=", 2);
+            if ("t".equals(kv[0])) timestamp = kv[1];
+            if ("v1".equals(kv[0])) expected = kv[1];
+        }
+        String computed = legacyHmac(SECRET, timestamp + "." + payload);
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8),
+                computed.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String legacyHmac(String secret, String message) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(message.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WebhookVerificationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
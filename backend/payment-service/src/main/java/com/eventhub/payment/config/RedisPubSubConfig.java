@@ -0,0 +1,24 @@
+package com.eventhub.payment.config;
+
+import com.eventhub.payment.status.PaymentStatusTracker;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Redis pub/sub subscriptions shared by all replicas.
+ */
+@Configuration
+public class RedisPubSubConfig {
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       PaymentStatusTracker statusTracker) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(statusTracker, new ChannelTopic(PaymentStatusTracker.CHANGES_CHANNEL));
+        return container;
+    }
+}
@@ -1,17 +1,23 @@
 package com.eventhub.payment.controller;
 
 import com.eventhub.payment.entity.Payment;
+import com.eventhub.payment.entity.PaymentStatus;
 import com.eventhub.payment.service.PaymentService;
 import com.eventhub.payment.service.WebhookVerificationService;
+import com.eventhub.payment.status.PaymentStatusTracker;
+import com.eventhub.payment.status.PaymentStatusView;
+import com.eventhub.payment.webhook.WebhookInbox;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Map;
 import java.util.UUID;
@@ -23,6 +29,11 @@ public class PaymentController {
 
     private final PaymentService paymentService;
     private final WebhookVerificationService webhookVerificationService;
+    private final WebhookInbox webhookInbox;
+    private final PaymentStatusTracker statusTracker;
+
+    @Value("${payment.status.max-wait-ms:25000}")
+    private long maxWaitMs;
 
     @PostMapping("/initiate")
     public ResponseEntity<Map<String, Object>> initiatePayment(
@@ -47,12 +58,17 @@ public class PaymentController {
         ));
     }
 
+    /**
+     * Verify and enqueue a gateway webhook. The event is applied asynchronously, so this answers
+     * within a single insert; redeliveries of an event already in the inbox are acknowledged too.
+     */
     @PostMapping("/webhook/{gateway}")
     public ResponseEntity<Void> handleWebhook(
             @PathVariable String gateway,
             @RequestBody String rawPayload,
             @RequestHeader(value = "Stripe-Signature", required = false) String stripeSignature,
-            @RequestHeader(value = "X-Razorpay-Signature", required = false) String razorpaySignature) {
+            @RequestHeader(value = "X-Razorpay-Signature", required = false) String razorpaySignature,
+            @RequestHeader(value = "X-Razorpay-Event-Id", required = false) String razorpayEventId) {
 
         // Verify webhook signature
         String signature = stripeSignature != null ? stripeSignature : razorpaySignature;
@@ -60,22 +76,7 @@ public class PaymentController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        // Parse payload after verification
-        @SuppressWarnings("unchecked")
-        Map<String, Object> payload = new com.fasterxml.jackson.databind.ObjectMapper()
-                .convertValue(rawPayload, Map.class);
-        // Fallback: try parsing as JSON
-        try {
-            payload = new com.fasterxml.jackson.databind.ObjectMapper().readValue(rawPayload, Map.class);
-        } catch (Exception ignored) {}
-
-        String sessionId = (String) payload.get("sessionId");
-        String transactionId = (String) payload.get("transactionId");
-        String status = (String) payload.get("status");
-        BigDecimal amount = payload.get("amount") != null
-                ? new BigDecimal(payload.get("amount").toString()) : BigDecimal.ZERO;
-
-        paymentService.handleWebhook(gateway, sessionId, transactionId, status, amount);
+        webhookInbox.accept(gateway, rawPayload, razorpayEventId);
         return ResponseEntity.ok().build();
     }
 
@@ -84,6 +85,26 @@ public class PaymentController {
         return ResponseEntity.ok(paymentService.getPaymentByBooking(bookingId));
     }
 
+    /**
+     * Payment status for checkout clients returning from the gateway. With {@code after} and
+     * {@code waitMs}, the request is held until the status differs from {@code after} or the wait
+     * (capped at {@code payment.status.max-wait-ms}) runs out, replacing tight polling loops.
+     * Only the user who is paying for the booking may read it.
+     */
+    @GetMapping("/booking/{bookingId}/status")
+    public ResponseEntity<PaymentStatusView> getPaymentStatus(
+            @PathVariable UUID bookingId,
+            @RequestHeader("X-User-Id") String userId,
+            @RequestParam(required = false) PaymentStatus after,
+            @RequestParam(defaultValue = "0") long waitMs) {
+        UUID caller = UUID.fromString(userId);
+        if (after == null || waitMs <= 0) {
+            return ResponseEntity.ok(statusTracker.current(bookingId, caller));
+        }
+        Duration wait = Duration.ofMillis(Math.min(waitMs, maxWaitMs));
+        return ResponseEntity.ok(statusTracker.awaitChange(bookingId, caller, after, wait));
+    }
+
     @PostMapping("/{bookingId}/refund")
     public ResponseEntity<Payment> refundPayment(@PathVariable UUID bookingId) {
         return ResponseEntity.ok(paymentService.refundPayment(bookingId));
@@ -120,4 +141,11 @@ public class PaymentController {
                 "status", 400, "message", e.getMessage(), "timestamp", Instant.now().toString()
         ));
     }
+
+    @ExceptionHandler(SecurityException.class)
+    public ResponseEntity<Map<String, Object>> handleForbidden(SecurityException e) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of(
+                "status", 403, "message", e.getMessage(), "timestamp", Instant.now().toString()
+        ));
+    }
 }
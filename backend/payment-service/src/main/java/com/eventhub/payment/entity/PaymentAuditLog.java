@@ -0,0 +1,43 @@
+package com.eventhub.payment.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+@Entity
+@Table(name = "payment_audit_log")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class PaymentAuditLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "payment_id", nullable = false)
+    private UUID paymentId;
+
+    @Column(nullable = false, length = 50)
+    private String action;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "old_status", length = 20)
+    private PaymentStatus oldStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "new_status", length = 20)
+    private PaymentStatus newStatus;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private Map<String, Object> details;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -4,6 +4,7 @@ public enum PaymentStatus {
     INITIATED,
     PROCESSING,
     SUCCESS,
+    REFUNDING,
     FAILED,
     REFUNDED,
     PARTIALLY_REFUNDED
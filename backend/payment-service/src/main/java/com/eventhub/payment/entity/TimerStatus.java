@@ -0,0 +1,8 @@
+package com.eventhub.payment.entity;
+
+public enum TimerStatus {
+    PENDING,
+    FIRED,
+    CANCELLED,
+    DEAD
+}
@@ -0,0 +1,8 @@
+package com.eventhub.payment.entity;
+
+public enum WebhookInboxStatus {
+    PENDING,
+    PROCESSED,
+    IGNORED,
+    FAILED
+}
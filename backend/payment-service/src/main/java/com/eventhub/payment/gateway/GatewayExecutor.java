@@ -0,0 +1,118 @@
+package com.eventhub.payment.gateway;
+
+import com.eventhub.payment.entity.PaymentGateway;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs gateway SDK calls on virtual threads, isolated per provider.
+ *
+ * Every provider gets its own resilience4j instances, named after the gateway in lower case
+ * ({@code stripe}, {@code razorpay}, {@code paypal}):
+ * - bulkhead: caps concurrent calls, so one slow gateway cannot absorb every request thread
+ * - rate limiter: keeps call rate under the provider's API limits
+ * - time limiter: bounds the wait; the virtual thread running the SDK call is interrupted
+ * - circuit breaker: fails fast while a gateway keeps timing out or erroring
+ *
+ * Callers must not hold a database transaction across {@link #execute}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GatewayExecutor {
+
+    private final BulkheadRegistry bulkheadRegistry;
+    private final TimeLimiterRegistry timeLimiterRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Execute {@code call} against {@code gateway}.
+     *
+     * @param operation short name used in metrics, e.g. {@code create_session}
+     * @throws GatewayTimeoutException if the call was made but did not finish in time
+     * @throws IllegalStateException   if the gateway is saturated, rate limited or unavailable
+     */
+    public <T> T execute(PaymentGateway gateway, String operation, Supplier<T> call) {
+        String name = gateway.name().toLowerCase();
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(name);
+        TimeLimiter timeLimiter = timeLimiterRegistry.timeLimiter(name);
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(name);
+        RateLimiter rateLimiter = rateLimiterRegistry.rateLimiter(name);
+
+        Callable<T> timed = () -> timeLimiter.executeFutureSupplier(() -> executor.submit(call::get));
+        Callable<T> guarded = CircuitBreaker.decorateCallable(circuitBreaker,
+                Bulkhead.decorateCallable(bulkhead,
+                        RateLimiter.decorateCallable(rateLimiter, timed)));
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = guarded.call();
+            outcome = "success";
+            return result;
+        } catch (BulkheadFullException e) {
+            outcome = "rejected";
+            throw new IllegalStateException(gateway + " gateway is at capacity, try again shortly");
+        } catch (RequestNotPermitted e) {
+            outcome = "rate_limited";
+            throw new IllegalStateException(gateway + " gateway rate limit reached, try again shortly");
+        } catch (CallNotPermittedException e) {
+            outcome = "circuit_open";
+            throw new IllegalStateException(gateway + " gateway temporarily unavailable");
+        } catch (TimeoutException e) {
+            outcome = "timeout";
+            log.warn("{} {} timed out", gateway, operation);
+            throw new GatewayTimeoutException(gateway + " gateway timed out");
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(gateway + " " + operation + " failed: " + e.getMessage(), e);
+        } finally {
+            sample.stop(Timer.builder("payment.gateway.call")
+                    .description("Latency of payment gateway calls, including bulkhead wait")
+                    .tag("gateway", name)
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,12 @@
+package com.eventhub.payment.gateway;
+
+/**
+ * A gateway call that ran out of time. Unlike the other {@link GatewayExecutor} failures, the
+ * call was made, so the gateway may still have acted on it.
+ */
+public class GatewayTimeoutException extends IllegalStateException {
+
+    public GatewayTimeoutException(String message) {
+        super(message);
+    }
+}
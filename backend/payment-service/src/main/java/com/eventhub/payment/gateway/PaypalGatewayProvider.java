@@ -31,6 +31,10 @@ public class PaypalGatewayProvider implements PaymentGatewayProvider {
     @Value("${payment.gateways.paypal.mode:sandbox}")
     private String mode;
 
+    // Override only to point at a local stand-in (e.g. WireMock) for latency testing
+    @Value("${payment.gateways.paypal.base-url:}")
+    private String baseUrl;
+
     private PayPalHttpClient paypalClient;
 
     @PostConstruct
@@ -41,9 +45,14 @@ public class PaypalGatewayProvider implements PaymentGatewayProvider {
             return;
         }
 
-        PayPalEnvironment environment = "live".equalsIgnoreCase(mode)
-                ? new PayPalEnvironment.Live(clientId, clientSecret)
-                : new PayPalEnvironment.Sandbox(clientId, clientSecret);
+        PayPalEnvironment environment;
+        if (!baseUrl.isBlank()) {
+            environment = new PayPalEnvironment(clientId, clientSecret, baseUrl, baseUrl);
+        } else {
+            environment = "live".equalsIgnoreCase(mode)
+                    ? new PayPalEnvironment.Live(clientId, clientSecret)
+                    : new PayPalEnvironment.Sandbox(clientId, clientSecret);
+        }
 
         paypalClient = new PayPalHttpClient(environment);
         log.info("PayPal SDK initialised in {} mode", mode);
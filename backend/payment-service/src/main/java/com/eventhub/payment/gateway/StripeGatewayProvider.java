@@ -25,9 +25,17 @@ public class StripeGatewayProvider implements PaymentGatewayProvider {
     @Value("${payment.gateways.stripe.api-key}")
     private String apiKey;
 
+    // Override only to point at a local stand-in (e.g. WireMock) for latency testing
+    @Value("${payment.gateways.stripe.api-base:}")
+    private String apiBase;
+
     @PostConstruct
     void init() {
         Stripe.apiKey = apiKey;
+        if (!apiBase.isBlank()) {
+            Stripe.overrideApiBase(apiBase);
+            log.warn("Stripe API base overridden to {}", apiBase);
+        }
         log.info("Stripe SDK initialised (key ending ...{})",
                 apiKey.length() > 8 ? apiKey.substring(apiKey.length() - 4) : "****");
     }
@@ -0,0 +1,13 @@
+package com.eventhub.payment.repository;
+
+import com.eventhub.payment.entity.PaymentAuditLog;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PaymentAuditLogRepository extends JpaRepository<PaymentAuditLog, UUID> {
+    List<PaymentAuditLog> findByPaymentIdOrderByCreatedAtAsc(UUID paymentId);
+}
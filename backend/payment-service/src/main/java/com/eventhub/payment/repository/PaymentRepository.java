@@ -3,8 +3,13 @@ package com.eventhub.payment.repository;
 import com.eventhub.payment.entity.Payment;
 import com.eventhub.payment.entity.PaymentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,5 +21,53 @@ public interface PaymentRepository extends JpaRepository<Payment, UUID> {
     Optional<Payment> findByGatewaySessionId(String sessionId);
     List<Payment> findByUserIdAndStatus(UUID userId, PaymentStatus status);
 
-    List<Payment> findByStatus(PaymentStatus status);
+    /**
+     * Claim a successful payment for a refund. Returns 0 if it is not SUCCESS, e.g. because
+     * another refund already claimed it.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE payments SET status = 'REFUNDING', updated_at = NOW()
+            WHERE id = :id AND status = 'SUCCESS'
+            """, nativeQuery = true)
+    int claimForRefund(@Param("id") UUID id);
+
+    @Modifying
+    @Query(value = """
+            UPDATE payments SET status = 'SUCCESS', updated_at = NOW()
+            WHERE id = :id AND status = 'REFUNDING'
+            """, nativeQuery = true)
+    int releaseRefundClaim(@Param("id") UUID id);
+
+    /**
+     * Next keyset page of FAILED payments still eligible for a retry, after {@code (afterCreatedAt, afterId)}.
+     * Rows locked by another replica's claim, or leased by an earlier run, are skipped.
+     */
+    @Query(value = """
+            SELECT * FROM payments
+            WHERE status = 'FAILED'
+              AND retry_count < :maxRetries
+              AND created_at >= :createdAfter
+              AND (created_at, id) > (:afterCreatedAt, :afterId)
+              AND (reconcile_lease_until IS NULL OR reconcile_lease_until < :now)
+            ORDER BY created_at, id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<Payment> findRetryablePage(@Param("maxRetries") int maxRetries,
+                                    @Param("createdAfter") Instant createdAfter,
+                                    @Param("afterCreatedAt") Instant afterCreatedAt,
+                                    @Param("afterId") UUID afterId,
+                                    @Param("now") Instant now,
+                                    @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE payments SET reconcile_lease_until = :until WHERE id IN (:ids)", nativeQuery = true)
+    int leaseForReconciliation(@Param("ids") Collection<UUID> ids, @Param("until") Instant until);
+
+    @Query(value = """
+            SELECT COUNT(*) FROM payments
+            WHERE status = 'FAILED' AND retry_count < :maxRetries AND created_at >= :createdAfter
+            """, nativeQuery = true)
+    long countRetryable(@Param("maxRetries") int maxRetries, @Param("createdAfter") Instant createdAfter);
 }
@@ -0,0 +1,73 @@
+package com.eventhub.payment.repository;
+
+import com.eventhub.payment.entity.WebhookInboxEvent;
+import com.eventhub.payment.entity.WebhookInboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface WebhookInboxRepository extends JpaRepository<WebhookInboxEvent, Long> {
+
+    /**
+     * Append a raw webhook event. Returns 0 if the gateway already delivered this event.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO webhook_inbox (gateway, event_id, session_id, payload)
+            VALUES (:gateway, :eventId, :sessionId, :payload)
+            ON CONFLICT (gateway, event_id) DO NOTHING
+            """, nativeQuery = true)
+    int append(@Param("gateway") String gateway, @Param("eventId") String eventId,
+               @Param("sessionId") String sessionId, @Param("payload") String payload);
+
+    /**
+     * Lock the next pending events in arrival order. An event is only eligible once every earlier
+     * event for the same session has been handled, so events for one payment apply in order even
+     * while other replicas hold the earlier rows. Events deferred until {@code next_attempt_at}
+     * are skipped, and hold back later events for their session.
+     */
+    @Query(value = """
+            SELECT * FROM webhook_inbox w
+            WHERE w.status = 'PENDING'
+              AND (w.next_attempt_at IS NULL OR w.next_attempt_at <= NOW())
+              AND NOT EXISTS (
+                  SELECT 1 FROM webhook_inbox e
+                  WHERE e.status = 'PENDING' AND e.session_id = w.session_id AND e.id < w.id)
+            ORDER BY w.id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<WebhookInboxEvent> claimBatch(@Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM webhook_inbox WHERE id = :id AND status = 'PENDING' FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<WebhookInboxEvent> claim(@Param("id") Long id);
+
+    @Modifying
+    @Query("""
+            UPDATE WebhookInboxEvent w
+            SET w.attempts = w.attempts + 1, w.lastError = :error,
+                w.status = CASE WHEN w.attempts + 1 >= :maxAttempts
+                                THEN com.eventhub.payment.entity.WebhookInboxStatus.FAILED
+                                ELSE com.eventhub.payment.entity.WebhookInboxStatus.PENDING END
+            WHERE w.id = :id AND w.status = com.eventhub.payment.entity.WebhookInboxStatus.PENDING
+            """)
+    int recordFailure(@Param("id") Long id, @Param("error") String error, @Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM webhook_inbox
+            WHERE id IN (SELECT id FROM webhook_inbox
+                         WHERE status IN ('PROCESSED', 'IGNORED') AND processed_at < :cutoff
+                         LIMIT :limit)
+            """, nativeQuery = true)
+    int purgeProcessed(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    long countByStatus(WebhookInboxStatus status);
+}
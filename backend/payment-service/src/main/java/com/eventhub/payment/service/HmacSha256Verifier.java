@@ -0,0 +1,192 @@
+package com.eventhub.payment.service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * HMAC-SHA256 signature check against one or more active secrets (rotation).
+ *
+ * Each secret keeps a pool of initialised {@link Mac} instances: borrowing one costs a queue
+ * poll instead of a provider lookup and key schedule, and the digest is written into a buffer
+ * owned by the pooled entry. A pool rather than a ThreadLocal because requests run on virtual
+ * threads, which are never reused.
+ *
+ * Signatures are compared as hex against the raw digest in constant time, without building
+ * a hex string. Text is UTF-8 encoded in chunks into a scratch buffer owned by the pooled entry,
+ * so the payload is never copied into a byte array of its own.
+ */
+final class HmacSha256Verifier {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    static final int SIGNATURE_HEX_LENGTH = 64;
+    private static final int SCRATCH_BYTES = 4096;
+
+    private final List<KeyedPool> pools;
+
+    HmacSha256Verifier(List<String> secrets) {
+        List<KeyedPool> keyed = new ArrayList<>(secrets.size());
+        for (String secret : secrets) {
+            keyed.add(new KeyedPool(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM)));
+        }
+        this.pools = List.copyOf(keyed);
+    }
+
+    /**
+     * Parse a comma-separated secret list, e.g. "{new},{old}" while a rotation is in progress.
+     */
+    static HmacSha256Verifier fromConfig(String secrets) {
+        List<String> active = new ArrayList<>();
+        if (secrets != null) {
+            for (String secret : secrets.split(",")) {
+                if (!secret.isBlank()) {
+                    active.add(secret.trim());
+                }
+            }
+        }
+        return new HmacSha256Verifier(active);
+    }
+
+    boolean isConfigured() {
+        return !pools.isEmpty();
+    }
+
+    /**
+     * @param message    feeds the signed bytes into the pooled Mac
+     * @param signatures text holding the candidate hex signatures
+     * @param bounds     start/end offsets of each candidate within {@code signatures}
+     * @param count      number of candidates in {@code bounds}
+     * @return true if any candidate matches the HMAC under any active secret
+     */
+    boolean matches(Consumer<PooledMac> message, CharSequence signatures, int[] bounds, int count) {
+        for (KeyedPool pool : pools) {
+            PooledMac pooled = pool.borrow();
+            try {
+                message.accept(pooled);
+                pooled.mac.doFinal(pooled.digest, 0);
+                for (int i = 0; i < count; i++) {
+                    if (equalsHex(pooled.digest, signatures, bounds[2 * i], bounds[2 * i + 1])) {
+                        return true;
+                    }
+                }
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC computation failed", e);
+            } finally {
+                pool.release(pooled);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Constant-time comparison of {@code digest} with the hex text in {@code [from, to)}.
+     * Runs over every byte regardless of where the first difference is.
+     */
+    static boolean equalsHex(byte[] digest, CharSequence hex, int from, int to) {
+        if (to - from != digest.length * 2) {
+            return false;
+        }
+        int diff = 0;
+        for (int i = 0; i < digest.length; i++) {
+            int high = nibble(hex.charAt(from + 2 * i));
+            int low = nibble(hex.charAt(from + 2 * i + 1));
+            // An invalid character yields -1, which sets bits outside the low byte
+            diff |= ((high << 4) | low) ^ (digest[i] & 0xff);
+            diff |= (high | low) & ~0xf;
+        }
+        return diff == 0;
+    }
+
+    private static int nibble(char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= 'a' && c <= 'f') return c - 'a' + 10;
+        if (c >= 'A' && c <= 'F') return c - 'A' + 10;
+        return -1;
+    }
+
+    // ─────────────────────────────────────────────
+    // Mac pool
+    // ─────────────────────────────────────────────
+
+    private static final class KeyedPool {
+
+        private final SecretKeySpec key;
+        private final ConcurrentLinkedQueue<PooledMac> idle = new ConcurrentLinkedQueue<>();
+
+        KeyedPool(SecretKeySpec key) {
+            this.key = key;
+            // Fail at startup, not on the first webhook, if the key is unusable
+            idle.offer(create());
+        }
+
+        PooledMac borrow() {
+            PooledMac pooled = idle.poll();
+            return pooled != null ? pooled : create();
+        }
+
+        void release(PooledMac pooled) {
+            // doFinal already reset the Mac; reset again in case a message writer threw midway
+            pooled.mac.reset();
+            idle.offer(pooled);
+        }
+
+        private PooledMac create() {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return new PooledMac(mac, new byte[mac.getMacLength()], new byte[SCRATCH_BYTES]);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot initialise " + ALGORITHM, e);
+            }
+        }
+    }
+
+    /**
+     * A borrowed Mac with its digest and encoding buffers; valid only inside {@link #matches}.
+     */
+    record PooledMac(Mac mac, byte[] digest, byte[] scratch) {
+
+        void update(byte b) {
+            mac.update(b);
+        }
+
+        /**
+         * Feed {@code text[from, to)} as UTF-8, encoding the same bytes as
+         * {@code String.getBytes(UTF_8)}: unpaired surrogates become '?'.
+         */
+        void updateUtf8(CharSequence text, int from, int to) {
+            int n = 0;
+            for (int i = from; i < to; i++) {
+                if (n > scratch.length - 4) {
+                    mac.update(scratch, 0, n);
+                    n = 0;
+                }
+                char c = text.charAt(i);
+                if (c < 0x80) {
+                    scratch[n++] = (byte) c;
+                } else if (c < 0x800) {
+                    scratch[n++] = (byte) (0xc0 | c >> 6);
+                    scratch[n++] = (byte) (0x80 | c & 0x3f);
+                } else if (Character.isHighSurrogate(c) && i + 1 < to && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, text.charAt(++i));
+                    scratch[n++] = (byte) (0xf0 | cp >> 18);
+                    scratch[n++] = (byte) (0x80 | cp >> 12 & 0x3f);
+                    scratch[n++] = (byte) (0x80 | cp >> 6 & 0x3f);
+                    scratch[n++] = (byte) (0x80 | cp & 0x3f);
+                } else if (Character.isSurrogate(c)) {
+                    scratch[n++] = (byte) '?';
+                } else {
+                    scratch[n++] = (byte) (0xe0 | c >> 12);
+                    scratch[n++] = (byte) (0x80 | c >> 6 & 0x3f);
+                    scratch[n++] = (byte) (0x80 | c & 0x3f);
+                }
+            }
+            mac.update(scratch, 0, n);
+        }
+    }
+}
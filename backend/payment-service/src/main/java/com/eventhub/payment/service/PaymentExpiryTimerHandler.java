@@ -0,0 +1,24 @@
+package com.eventhub.payment.service;
+
+import com.eventhub.payment.timer.TimerHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class PaymentExpiryTimerHandler implements TimerHandler {
+
+    private final PaymentReconciliationJob reconciliationJob;
+
+    @Override
+    public String timerType() {
+        return PaymentTimeouts.EXPIRY_TIMER;
+    }
+
+    @Override
+    public void onTimeout(UUID paymentId) {
+        reconciliationJob.expirePayment(paymentId);
+    }
+}
@@ -0,0 +1,30 @@
+package com.eventhub.payment.service;
+
+import com.eventhub.payment.timer.TimerHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class PaymentInitiationTimerHandler implements TimerHandler {
+
+    private final PaymentService paymentService;
+
+    @Override
+    public String timerType() {
+        return PaymentTimeouts.INITIATION_TIMER;
+    }
+
+    @Override
+    public void onTimeout(UUID paymentId) {
+        paymentService.reconcileInitiation(paymentId);
+    }
+
+    @Override
+    public boolean inClaimTransaction() {
+        // reconcileInitiation calls the gateway; it re-arms this timer first as the backstop
+        return false;
+    }
+}
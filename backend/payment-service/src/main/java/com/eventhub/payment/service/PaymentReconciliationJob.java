@@ -1,27 +1,48 @@
 package com.eventhub.payment.service;
 
 import com.eventhub.payment.entity.Payment;
+import com.eventhub.payment.entity.PaymentGateway;
 import com.eventhub.payment.entity.PaymentStatus;
+import com.eventhub.payment.gateway.GatewayExecutor;
 import com.eventhub.payment.gateway.PaymentGatewayFactory;
 import com.eventhub.payment.gateway.PaymentGatewayProvider;
 import com.eventhub.payment.repository.PaymentRepository;
+import com.eventhub.payment.status.PaymentStatusTracker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Scheduled reconciliation job that:
- * 1. Detects stale PROCESSING payments and verifies with the gateway
- * 2. Retries failed payments (up to max retries)
- * 3. Expires abandoned payments
+ * Reconciliation of in-flight payments:
+ * 1. Verifies stale PROCESSING payments with the gateway (payment.verify timer)
+ * 2. Expires abandoned payments (payment.expiry timer)
+ * 3. Retries failed payments (up to max retries) on a periodic, paged scan
+ *
+ * Steps 1 and 2 are fired per payment by the durable timer queue, see {@link PaymentTimeouts}.
  */
 @Service
 @RequiredArgsConstructor
@@ -30,97 +51,259 @@ public class PaymentReconciliationJob {
 
     private final PaymentRepository paymentRepository;
     private final PaymentGatewayFactory gatewayFactory;
+    private final PaymentTimeouts paymentTimeouts;
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final GatewayExecutor gatewayExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final PaymentStatusTracker statusTracker;
+    private final AtomicLong backlog = new AtomicLong();
 
     private static final int MAX_RETRIES = 3;
-    private static final int STALE_MINUTES = 15;
-    private static final int EXPIRE_MINUTES = 60;
+    private static final long EXPIRE_MINUTES = PaymentTimeouts.EXPIRE_AFTER.toMinutes();
+
+    @Value("${payment.reconciliation.page-size:100}")
+    private int pageSize;
+
+    @Value("${payment.reconciliation.max-pages-per-run:50}")
+    private int maxPagesPerRun;
+
+    @Value("${payment.reconciliation.concurrency-per-gateway:4}")
+    private int concurrencyPerGateway;
+
+    @Value("${payment.reconciliation.lease-minutes:5}")
+    private long leaseMinutes;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("payment.reconciliation.backlog", backlog, AtomicLong::get)
+                .description("Failed payments still eligible for a retry, as of the last run")
+                .register(meterRegistry);
+    }
+
+    // ─────────────────────────────────────────────
+    // Timer callbacks
+    // ─────────────────────────────────────────────
 
     /**
-     * Runs every 5 minutes to reconcile stale payments.
+     * Ask the gateway whether a stale PROCESSING payment went through; re-check later if not.
+     *
+     * Runs without a surrounding transaction: the payment is read, the gateway is called with no
+     * connection held, and the outcome is applied in a short transaction that re-checks the
+     * payment is still PROCESSING on the same session (a webhook may have settled it meanwhile).
+     */
+    public void verifyPayment(UUID paymentId) {
+        Payment payment = paymentRepository.findById(paymentId).orElse(null);
+        if (payment == null || payment.getStatus() != PaymentStatus.PROCESSING) {
+            return;
+        }
+
+        String sessionId = payment.getGatewaySessionId();
+        PaymentGatewayProvider.PaymentVerificationResult result = null;
+        if (sessionId != null) {
+            try {
+                PaymentGatewayProvider provider = gatewayFactory.getProvider(payment.getGateway());
+                result = gatewayExecutor.execute(payment.getGateway(), "verify",
+                        () -> provider.verifyPayment(sessionId));
+            } catch (Exception e) {
+                log.warn("Reconciliation check failed for payment {}: {}", paymentId, e.getMessage());
+            }
+        }
+
+        boolean verified = result != null && result.verified();
+        String transactionId = verified ? result.transactionId() : null;
+        transactionTemplate.executeWithoutResult(status -> {
+            Payment current = paymentRepository.findById(paymentId).orElse(null);
+            if (current == null || current.getStatus() != PaymentStatus.PROCESSING
+                    || !Objects.equals(current.getGatewaySessionId(), sessionId)) {
+                return;
+            }
+            if (!verified) {
+                paymentTimeouts.scheduleReverify(paymentId, current.getCreatedAt());
+                return;
+            }
+            current.setStatus(PaymentStatus.SUCCESS);
+            current.setGatewayTransactionId(transactionId);
+            paymentRepository.save(current);
+            paymentTimeouts.cancel(paymentId);
+            statusTracker.publish(current);
+            publishPaymentEvent("payment.success", current, null);
+            log.info("Payment reconciled as SUCCESS: id={}", paymentId);
+        });
+    }
+
+    /**
+     * Fail a payment that is still PROCESSING at its expiry deadline.
      */
-    @Scheduled(fixedDelay = 300_000, initialDelay = 60_000)
     @Transactional
-    public void reconcilePayments() {
-        log.info("Payment reconciliation job started");
+    public void expirePayment(UUID paymentId) {
+        Payment payment = paymentRepository.findById(paymentId).orElse(null);
+        if (payment == null || payment.getStatus() != PaymentStatus.PROCESSING) {
+            return;
+        }
+
+        payment.setStatus(PaymentStatus.FAILED);
+        payment.setFailureReason("Payment expired after " + EXPIRE_MINUTES + " minutes");
+        paymentRepository.save(payment);
+        paymentTimeouts.cancel(payment.getId());
+        statusTracker.publish(payment);
+        publishPaymentEvent("payment.failed", payment, "Payment expired");
+        log.info("Payment expired: id={} booking={}", payment.getId(), payment.getBookingId());
+    }
 
-        List<Payment> processing = paymentRepository.findByStatus(PaymentStatus.PROCESSING);
-        int reconciled = 0;
-        int expired = 0;
+    // ─────────────────────────────────────────────
+    // Scheduled: retry failed payments
+    // ─────────────────────────────────────────────
+
+    /**
+     * Retry failed payments page by page.
+     *
+     * Each page is claimed in its own short transaction: rows are locked with SKIP LOCKED and
+     * leased for {@code lease-minutes}, so replicas running at the same time take disjoint
+     * pages and a payment is not retried again before its lease runs out. Gateway calls then run
+     * outside any transaction, at most {@code concurrency-per-gateway} at a time per provider
+     * (on top of {@link GatewayExecutor}'s rate limits), and each outcome commits on its own.
+     */
+    @Scheduled(fixedDelayString = "${payment.reconciliation.interval-ms:300000}", initialDelay = 60_000)
+    public void reconcilePayments() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Instant createdAfter = Instant.now().minus(PaymentTimeouts.EXPIRE_AFTER);
+        Instant afterCreatedAt = createdAfter;
+        UUID afterId = new UUID(0, 0);
+        int claimed = 0;
         int retried = 0;
 
-        for (Payment payment : processing) {
-            Instant createdAt = payment.getCreatedAt();
-            long minutesOld = ChronoUnit.MINUTES.between(createdAt, Instant.now());
-
-            if (minutesOld > EXPIRE_MINUTES) {
-                // Expire abandoned payments
-                payment.setStatus(PaymentStatus.FAILED);
-                payment.setFailureReason("Payment expired after " + EXPIRE_MINUTES + " minutes");
-                paymentRepository.save(payment);
-                publishPaymentEvent("payment.failed", payment, "Payment expired");
-                expired++;
-                log.info("Payment expired: id={} booking={}", payment.getId(), payment.getBookingId());
-
-            } else if (minutesOld > STALE_MINUTES) {
-                // Verify with gateway
-                try {
-                    PaymentGatewayProvider provider = gatewayFactory.getProvider(payment.getGateway());
-                    String sessionId = payment.getGatewaySessionId();
-
-                    if (sessionId != null) {
-                        var result = provider.verifyPayment(sessionId);
-                        if (result.verified()) {
-                            payment.setStatus(PaymentStatus.SUCCESS);
-                            payment.setGatewayTransactionId(result.transactionId());
-                            paymentRepository.save(payment);
-                            publishPaymentEvent("payment.success", payment, null);
-                            reconciled++;
-                            log.info("Payment reconciled as SUCCESS: id={}", payment.getId());
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Map<PaymentGateway, Semaphore> permits = new EnumMap<>(PaymentGateway.class);
+            for (PaymentGateway gateway : PaymentGateway.values()) {
+                permits.put(gateway, new Semaphore(concurrencyPerGateway));
+            }
+
+            for (int pageNo = 0; pageNo < maxPagesPerRun; pageNo++) {
+                List<Payment> page = claimPage(createdAfter, afterCreatedAt, afterId);
+                if (page.isEmpty()) {
+                    break;
+                }
+                claimed += page.size();
+                Payment last = page.get(page.size() - 1);
+                afterCreatedAt = last.getCreatedAt();
+                afterId = last.getId();
+
+                List<Future<Boolean>> results = new ArrayList<>(page.size());
+                for (Payment payment : page) {
+                    Semaphore gatewayPermits = permits.get(payment.getGateway());
+                    results.add(workers.submit(() -> {
+                        gatewayPermits.acquire();
+                        try {
+                            return retry(payment);
+                        } finally {
+                            gatewayPermits.release();
                         }
+                    }));
+                }
+                for (Future<Boolean> result : results) {
+                    if (Boolean.TRUE.equals(result.get())) {
+                        retried++;
                     }
-                } catch (Exception e) {
-                    log.warn("Reconciliation check failed for payment {}: {}", payment.getId(), e.getMessage());
+                }
+                if (page.size() < pageSize) {
+                    break;
                 }
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Payment reconciliation interrupted");
+        } catch (ExecutionException e) {
+            log.error("Payment reconciliation aborted: {}", e.getCause().getMessage(), e.getCause());
+        } finally {
+            sample.stop(meterRegistry.timer("payment.reconciliation.run"));
+            refreshBacklog(createdAfter);
         }
 
-        // Retry failed payments with retry count < MAX_RETRIES
-        List<Payment> failed = paymentRepository.findByStatus(PaymentStatus.FAILED);
-        for (Payment payment : failed) {
-            if (payment.getRetryCount() < MAX_RETRIES) {
-                long minutesSinceCreation = ChronoUnit.MINUTES.between(payment.getCreatedAt(), Instant.now());
-                if (minutesSinceCreation < EXPIRE_MINUTES) {
-                    try {
-                        PaymentGatewayProvider provider = gatewayFactory.getProvider(payment.getGateway());
-                        var session = provider.createSession(new PaymentGatewayProvider.CreateSessionRequest(
-                                payment.getBookingId().toString(),
-                                payment.getUserId().toString(),
-                                payment.getAmount(),
-                                payment.getCurrency(),
-                                payment.getRedirectUrl(),
-                                payment.getIdempotencyKey() + "_retry" + (payment.getRetryCount() + 1),
-                                "EventHub Booking Retry"
-                        ));
-
-                        if (session.success()) {
-                            payment.setStatus(PaymentStatus.PROCESSING);
-                            payment.setGatewaySessionId(session.sessionId());
-                            payment.setRedirectUrl(session.redirectUrl());
-                            payment.setRetryCount(payment.getRetryCount() + 1);
-                            payment.setFailureReason(null);
-                            paymentRepository.save(payment);
-                            retried++;
-                            log.info("Payment retried: id={} attempt={}", payment.getId(), payment.getRetryCount());
-                        }
-                    } catch (Exception e) {
-                        log.warn("Retry failed for payment {}: {}", payment.getId(), e.getMessage());
-                    }
+        log.info("Payment reconciliation completed: claimed={} retried={} backlog={}", claimed, retried, backlog.get());
+    }
+
+    private List<Payment> claimPage(Instant createdAfter, Instant afterCreatedAt, UUID afterId) {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<Payment> page = paymentRepository.findRetryablePage(
+                    MAX_RETRIES, createdAfter, afterCreatedAt, afterId, now, pageSize);
+            if (!page.isEmpty()) {
+                paymentRepository.leaseForReconciliation(
+                        page.stream().map(Payment::getId).toList(), now.plus(Duration.ofMinutes(leaseMinutes)));
+            }
+            return page;
+        });
+    }
+
+    /**
+     * Open a new gateway session for one claimed payment.
+     *
+     * @return true if the payment moved back to PROCESSING
+     */
+    boolean retry(Payment payment) {
+        String outcome = "error";
+        try {
+            PaymentGatewayProvider provider = gatewayFactory.getProvider(payment.getGateway());
+            int attempt = payment.getRetryCount() + 1;
+            var session = gatewayExecutor.execute(payment.getGateway(), "create_session",
+                    () -> provider.createSession(new PaymentGatewayProvider.CreateSessionRequest(
+                            payment.getBookingId().toString(),
+                            payment.getUserId().toString(),
+                            payment.getAmount(),
+                            payment.getCurrency(),
+                            payment.getRedirectUrl(),
+                            payment.getIdempotencyKey() + "_retry" + attempt,
+                            "EventHub Booking Retry"
+                    )));
+
+            if (!session.success()) {
+                // Left FAILED; the lease keeps it out of the next runs until it expires
+                outcome = "declined";
+                log.warn("Retry declined for payment {}: {}", payment.getId(), session.errorMessage());
+                return false;
+            }
+
+            Boolean applied = transactionTemplate.execute(status -> {
+                Payment current = paymentRepository.findById(payment.getId()).orElse(null);
+                // A webhook or another path may have moved the payment while the gateway was busy
+                if (current == null || current.getStatus() != PaymentStatus.FAILED
+                        || current.getRetryCount() != payment.getRetryCount()) {
+                    return false;
                 }
+                current.setStatus(PaymentStatus.PROCESSING);
+                current.setGatewaySessionId(session.sessionId());
+                current.setRedirectUrl(session.redirectUrl());
+                current.setRetryCount(attempt);
+                current.setFailureReason(null);
+                paymentRepository.save(current);
+                paymentTimeouts.schedule(current.getId(), current.getCreatedAt());
+                statusTracker.publish(current);
+                return true;
+            });
+
+            if (!Boolean.TRUE.equals(applied)) {
+                outcome = "stale";
+                return false;
             }
+            outcome = "retried";
+            log.info("Payment retried: id={} attempt={}", payment.getId(), attempt);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Retry failed for payment {}: {}", payment.getId(), e.getMessage());
+            return false;
+        } finally {
+            meterRegistry.counter("payment.reconciliation.processed",
+                    "gateway", payment.getGateway().name().toLowerCase(), "outcome", outcome).increment();
         }
+    }
 
-        log.info("Payment reconciliation completed: reconciled={} expired={} retried={}", reconciled, expired, retried);
+    private void refreshBacklog(Instant createdAfter) {
+        try {
+            backlog.set(paymentRepository.countRetryable(MAX_RETRIES, createdAfter));
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh reconciliation backlog: {}", e.getMessage());
+        }
     }
 
     private void publishPaymentEvent(String eventType, Payment payment, String reason) {
@@ -1,21 +1,31 @@
 package com.eventhub.payment.service;
 
 import com.eventhub.payment.entity.Payment;
+import com.eventhub.payment.entity.PaymentAuditLog;
 import com.eventhub.payment.entity.PaymentGateway;
 import com.eventhub.payment.entity.PaymentStatus;
+import com.eventhub.payment.gateway.GatewayExecutor;
+import com.eventhub.payment.gateway.GatewayTimeoutException;
 import com.eventhub.payment.gateway.PaymentGatewayFactory;
 import com.eventhub.payment.gateway.PaymentGatewayProvider;
 import com.eventhub.payment.gateway.PaymentGatewayProvider.*;
+import com.eventhub.payment.repository.PaymentAuditLogRepository;
 import com.eventhub.payment.repository.PaymentRepository;
+import com.eventhub.payment.status.PaymentStatusTracker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -24,70 +34,202 @@ import java.util.UUID;
 public class PaymentService {
 
     private final PaymentRepository paymentRepository;
+    private final PaymentAuditLogRepository auditLogRepository;
     private final PaymentGatewayFactory gatewayFactory;
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final PaymentTimeouts paymentTimeouts;
+    private final GatewayExecutor gatewayExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final PaymentStatusTracker statusTracker;
 
     /**
      * Initiate a payment — idempotent via idempotency_key.
+     *
+     * The gateway round trip runs between two short transactions instead of inside one, so a
+     * slow gateway never pins a pooled connection:
+     * 1. reserve: insert the payment as INITIATED (or return the existing one for the key) and
+     *    arm the {@code payment.initiation} timer, which settles the reservation if step 3 never runs
+     * 2. create the gateway session through {@link GatewayExecutor}, outside any transaction
+     * 3. record: move the payment to PROCESSING, or drop the reservation if the gateway refused.
+     *    A timed-out call may still have created the session, so that reservation is kept for
+     *    {@link #reconcileInitiation} rather than dropped
+     *
+     * @throws IllegalStateException if another request with the same key is still between
+     *         steps 1 and 3; the caller should retry shortly
      */
-    @Transactional
     public Payment initiatePayment(UUID bookingId, UUID userId, BigDecimal amount,
                                    String currency, String gateway, String returnUrl,
                                    String idempotencyKey) {
-        // Idempotency: return existing payment if same key
-        return paymentRepository.findByIdempotencyKey(idempotencyKey)
-                .orElseGet(() -> {
-                    PaymentGateway gw = PaymentGateway.valueOf(gateway.toUpperCase());
-                    PaymentGatewayProvider provider = gatewayFactory.getProvider(gw);
-
-                    // Create gateway session
-                    PaymentSessionResult session = provider.createSession(new CreateSessionRequest(
-                            bookingId.toString(), userId.toString(), amount, currency,
-                            returnUrl, idempotencyKey,
-                            "EventHub Booking " + bookingId
-                    ));
-
-                    if (!session.success()) {
-                        log.error("Gateway session creation failed: {}", session.errorMessage());
-                        publishPaymentEvent("payment.failed", bookingId, null, session.errorMessage());
-                        throw new IllegalStateException("Payment initiation failed: " + session.errorMessage());
-                    }
-
-                    Payment payment = Payment.builder()
-                            .bookingId(bookingId)
-                            .userId(userId)
-                            .amount(amount)
-                            .currency(currency)
-                            .gateway(gw)
-                            .status(PaymentStatus.PROCESSING)
-                            .idempotencyKey(idempotencyKey)
-                            .gatewaySessionId(session.sessionId())
-                            .redirectUrl(session.redirectUrl())
-                            .build();
-
-                    payment = paymentRepository.save(payment);
-                    log.info("Payment initiated: id={} booking={} gateway={} session={}",
-                            payment.getId(), bookingId, gateway, session.sessionId());
-
-                    return payment;
-                });
+        PaymentGateway gw = PaymentGateway.valueOf(gateway.toUpperCase());
+
+        Reservation reservation;
+        try {
+            reservation = transactionTemplate.execute(status -> {
+                Optional<Payment> existing = paymentRepository.findByIdempotencyKey(idempotencyKey);
+                if (existing.isPresent()) {
+                    return new Reservation(existing.get(), false);
+                }
+                Payment reserved = paymentRepository.save(Payment.builder()
+                        .bookingId(bookingId)
+                        .userId(userId)
+                        .amount(amount)
+                        .currency(currency)
+                        .gateway(gw)
+                        .status(PaymentStatus.INITIATED)
+                        .idempotencyKey(idempotencyKey)
+                        .redirectUrl(returnUrl)
+                        .build());
+                paymentTimeouts.scheduleInitiation(reserved.getId());
+                return new Reservation(reserved, true);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request with the same key reserved first
+            reservation = new Reservation(paymentRepository.findByIdempotencyKey(idempotencyKey)
+                    .orElseThrow(() -> e), false);
+        }
+        if (!reservation.created()) {
+            if (reservation.payment().getStatus() == PaymentStatus.INITIATED) {
+                // No gateway session yet: there is nothing to redirect the client to
+                throw new IllegalStateException("Payment " + reservation.payment().getId() + " is still being initiated");
+            }
+            return reservation.payment();
+        }
+        UUID paymentId = reservation.payment().getId();
+
+        PaymentSessionResult session;
+        try {
+            session = createSession(reservation.payment());
+        } catch (GatewayTimeoutException e) {
+            // The gateway may have created the session: keep the reservation for the initiation timer
+            log.warn("Gateway session creation for payment {} timed out, left for reconciliation", paymentId);
+            throw new IllegalStateException("Payment " + paymentId + " is still being initiated");
+        } catch (IllegalStateException e) {
+            session = PaymentSessionResult.failure(e.getMessage());
+        }
+
+        if (!session.success()) {
+            log.error("Gateway session creation failed: {}", session.errorMessage());
+            dropReservation(paymentId, bookingId, session.errorMessage());
+            throw new IllegalStateException("Payment initiation failed: " + session.errorMessage());
+        }
+
+        PaymentSessionResult result = session;
+        Payment payment = recordSession(paymentId, result).orElseThrow(() -> new IllegalStateException(
+                "Payment " + paymentId + " was abandoned before its gateway session was recorded"));
+
+        statusTracker.publish(payment);
+        log.info("Payment initiated: id={} booking={} gateway={} session={}",
+                paymentId, bookingId, gateway, result.sessionId());
+        return payment;
+    }
+
+    /**
+     * Settle a reservation whose initiation never recorded a gateway session: the call timed out,
+     * or the replica died between reserve and record. Fired by the {@code payment.initiation} timer;
+     * a payment that already moved on is left alone.
+     *
+     * The session is requested again under the payment's idempotency key, so a gateway that already
+     * created it hands back the same session. A refusal drops the reservation and reports the payment
+     * failed; a gateway that is still unreachable leaves the re-armed timer to try again, until the
+     * payment's expiry deadline passes.
+     */
+    public void reconcileInitiation(UUID paymentId) {
+        Payment payment = paymentRepository.findById(paymentId).orElse(null);
+        if (payment == null || payment.getStatus() != PaymentStatus.INITIATED) {
+            return;
+        }
+        if (payment.getCreatedAt() != null
+                && Instant.now().isAfter(payment.getCreatedAt().plus(PaymentTimeouts.EXPIRE_AFTER))) {
+            log.warn("Payment initiation abandoned: id={} booking={}", paymentId, payment.getBookingId());
+            dropReservation(paymentId, payment.getBookingId(), "Payment initiation timed out");
+            return;
+        }
+        // Backstop in case this replica dies during the gateway call
+        transactionTemplate.executeWithoutResult(status -> paymentTimeouts.scheduleInitiation(paymentId));
+
+        PaymentSessionResult session;
+        try {
+            session = createSession(payment);
+        } catch (IllegalStateException e) {
+            log.warn("Payment {} initiation still unresolved: {}", paymentId, e.getMessage());
+            return;
+        }
+
+        if (!session.success()) {
+            log.warn("Payment {} initiation refused on reconciliation: {}", paymentId, session.errorMessage());
+            dropReservation(paymentId, payment.getBookingId(), session.errorMessage());
+            return;
+        }
+        recordSession(paymentId, session).ifPresent(recorded -> {
+            statusTracker.publish(recorded);
+            log.info("Payment initiation reconciled: id={} session={}", paymentId, session.sessionId());
+        });
+    }
+
+    private PaymentSessionResult createSession(Payment payment) {
+        PaymentGatewayProvider provider = gatewayFactory.getProvider(payment.getGateway());
+        UUID bookingId = payment.getBookingId();
+        return gatewayExecutor.execute(payment.getGateway(), "create_session", () -> provider.createSession(
+                new CreateSessionRequest(
+                        bookingId.toString(), payment.getUserId().toString(), payment.getAmount(),
+                        payment.getCurrency(), payment.getRedirectUrl(), payment.getIdempotencyKey(),
+                        "EventHub Booking " + bookingId
+                )));
     }
 
     /**
-     * Handle webhook callback from payment gateway.
+     * Move a reservation to PROCESSING on its gateway session; empty if it is no longer INITIATED.
+     */
+    private Optional<Payment> recordSession(UUID paymentId, PaymentSessionResult session) {
+        return transactionTemplate.execute(status -> paymentRepository.findById(paymentId)
+                .filter(p -> p.getStatus() == PaymentStatus.INITIATED)
+                .map(reserved -> {
+                    reserved.setStatus(PaymentStatus.PROCESSING);
+                    reserved.setGatewaySessionId(session.sessionId());
+                    reserved.setRedirectUrl(session.redirectUrl());
+                    Payment recorded = paymentRepository.save(reserved);
+                    paymentTimeouts.cancelInitiation(paymentId);
+                    paymentTimeouts.schedule(paymentId, recorded.getCreatedAt());
+                    return recorded;
+                }));
+    }
+
+    /**
+     * Drop a reservation the gateway refused, so the client can retry with the same idempotency
+     * key, and report the payment as failed.
+     */
+    private void dropReservation(UUID paymentId, UUID bookingId, String reason) {
+        transactionTemplate.executeWithoutResult(status -> {
+            paymentRepository.deleteById(paymentId);
+            paymentTimeouts.cancelInitiation(paymentId);
+        });
+        publishPaymentEvent("payment.failed", bookingId, null, reason);
+    }
+
+    /**
+     * Apply a gateway webhook to its payment and record the transition in the audit log.
+     * Called by {@link com.eventhub.payment.webhook.WebhookInboxProcessor}, never on the HTTP path.
+     *
+     * @return false if no payment matches the session
      */
     @Transactional
-    public void handleWebhook(String gatewayName, String sessionId, String transactionId,
-                              String status, BigDecimal amount) {
-        Payment payment = paymentRepository.findByGatewaySessionId(sessionId)
-                .orElseThrow(() -> new IllegalArgumentException("Payment not found for session: " + sessionId));
+    public boolean handleWebhook(String gatewayName, String sessionId, String transactionId,
+                                 String status, BigDecimal amount) {
+        Payment payment = sessionId != null ? paymentRepository.findByGatewaySessionId(sessionId).orElse(null) : null;
+        if (payment == null) {
+            log.warn("No payment found for {} webhook session {}", gatewayName, sessionId);
+            return false;
+        }
 
-        if (payment.getStatus() == PaymentStatus.SUCCESS || payment.getStatus() == PaymentStatus.REFUNDED) {
+        if (payment.getStatus() == PaymentStatus.SUCCESS || payment.getStatus() == PaymentStatus.REFUNDING
+                || payment.getStatus() == PaymentStatus.REFUNDED) {
             log.warn("Payment {} already in terminal state: {}", payment.getId(), payment.getStatus());
-            return;
+            return true;
         }
 
+        PaymentStatus previous = payment.getStatus();
         payment.setGatewayTransactionId(transactionId);
+        paymentTimeouts.cancel(payment.getId());
 
         if ("SUCCESS".equalsIgnoreCase(status) || "succeeded".equalsIgnoreCase(status)) {
             payment.setStatus(PaymentStatus.SUCCESS);
@@ -109,42 +251,82 @@ public class PaymentService {
             publishPaymentEvent("payment.failed", payment.getBookingId(), payment.getId(),
                     "Payment failed with status: " + status);
         }
+
+        statusTracker.publish(payment);
+
+        Map<String, Object> details = new java.util.HashMap<>();
+        details.put("gateway", gatewayName);
+        details.put("gatewayStatus", status);
+        details.put("transactionId", transactionId);
+        details.put("amount", amount);
+        auditLogRepository.save(PaymentAuditLog.builder()
+                .paymentId(payment.getId())
+                .action("WEBHOOK")
+                .oldStatus(previous)
+                .newStatus(payment.getStatus())
+                .details(details)
+                .build());
+        return true;
     }
 
     /**
-     * Process a refund for a completed payment.
+     * Process a refund for a completed payment. The payment is first claimed with a conditional
+     * SUCCESS → REFUNDING update, so concurrent refunds of one booking cannot both reach the
+     * gateway; the outcome is recorded in a second short transaction after the call.
+     * A refused or rejected refund releases the claim. A timed-out one keeps the payment
+     * REFUNDING, since the gateway may have refunded it, and is left for an operator to settle.
      */
-    @Transactional
     public Payment refundPayment(UUID bookingId) {
-        Payment payment = paymentRepository.findByBookingId(bookingId)
-                .orElseThrow(() -> new IllegalArgumentException("Payment not found for booking: " + bookingId));
-
-        if (payment.getStatus() != PaymentStatus.SUCCESS) {
-            throw new IllegalStateException("Can only refund successful payments");
-        }
+        Payment payment = transactionTemplate.execute(status -> {
+            Payment found = paymentRepository.findByBookingId(bookingId)
+                    .orElseThrow(() -> new IllegalArgumentException("Payment not found for booking: " + bookingId));
+            if (paymentRepository.claimForRefund(found.getId()) == 0) {
+                if (found.getStatus() == PaymentStatus.SUCCESS || found.getStatus() == PaymentStatus.REFUNDING) {
+                    throw new IllegalStateException("Payment for booking " + bookingId + " is already being refunded");
+                }
+                throw new IllegalStateException("Can only refund successful payments");
+            }
+            return found;
+        });
 
         PaymentGatewayProvider provider = gatewayFactory.getProvider(payment.getGateway());
-        RefundResult result = provider.refund(
-                payment.getGatewayTransactionId(), payment.getAmount(), payment.getCurrency()
-        );
-
-        if (result.success()) {
-            payment.setStatus(PaymentStatus.REFUNDED);
-            payment.setRefundId(result.refundId());
-            payment.setRefundAmount(result.refundedAmount());
-            payment.setRefundedAt(Instant.now());
-            paymentRepository.save(payment);
-
-            log.info("Payment refunded: id={} booking={} refundId={}",
-                    payment.getId(), bookingId, result.refundId());
+        RefundResult result;
+        try {
+            result = gatewayExecutor.execute(payment.getGateway(), "refund", () -> provider.refund(
+                    payment.getGatewayTransactionId(), payment.getAmount(), payment.getCurrency()
+            ));
+        } catch (GatewayTimeoutException e) {
+            log.error("Refund for payment {} timed out; left REFUNDING for manual reconciliation", payment.getId());
+            throw e;
+        } catch (IllegalStateException e) {
+            releaseRefundClaim(payment.getId());
+            throw e;
+        }
 
-            publishPaymentEvent("payment.refunded", bookingId, payment.getId(), null);
-        } else {
+        if (!result.success()) {
             log.error("Refund failed for payment {}: {}", payment.getId(), result.errorMessage());
+            releaseRefundClaim(payment.getId());
             throw new IllegalStateException("Refund failed: " + result.errorMessage());
         }
 
-        return payment;
+        Payment refunded = transactionTemplate.execute(status -> {
+            Payment current = paymentRepository.findById(payment.getId()).orElseThrow();
+            current.setStatus(PaymentStatus.REFUNDED);
+            current.setRefundId(result.refundId());
+            current.setRefundAmount(result.refundedAmount());
+            current.setRefundedAt(Instant.now());
+            return paymentRepository.save(current);
+        });
+
+        statusTracker.publish(refunded);
+        log.info("Payment refunded: id={} booking={} refundId={}",
+                payment.getId(), bookingId, result.refundId());
+        publishPaymentEvent("payment.refunded", bookingId, payment.getId(), null);
+        return refunded;
+    }
+
+    private void releaseRefundClaim(UUID paymentId) {
+        transactionTemplate.executeWithoutResult(status -> paymentRepository.releaseRefundClaim(paymentId));
     }
 
     @Transactional(readOnly = true)
@@ -154,17 +336,35 @@ public class PaymentService {
     }
 
     private void publishPaymentEvent(String eventType, UUID bookingId, UUID paymentId, String reason) {
-        try {
-            Map<String, Object> event = new java.util.HashMap<>();
-            event.put("eventType", eventType);
-            event.put("bookingId", bookingId.toString());
-            event.put("paymentId", paymentId != null ? paymentId.toString() : "");
-            event.put("timestamp", Instant.now().toString());
-            if (reason != null) event.put("reason", reason);
-
-            kafkaTemplate.send("payment-events", bookingId.toString(), event);
-        } catch (Exception e) {
-            log.warn("Failed to publish payment event: {}", e.getMessage());
+        Map<String, Object> event = new java.util.HashMap<>();
+        event.put("eventType", eventType);
+        event.put("bookingId", bookingId.toString());
+        event.put("paymentId", paymentId != null ? paymentId.toString() : "");
+        event.put("timestamp", Instant.now().toString());
+        if (reason != null) event.put("reason", reason);
+
+        // A rolled-back transaction (e.g. a failed webhook batch that is replayed) must not publish
+        afterCommit(() -> {
+            try {
+                kafkaTemplate.send("payment-events", bookingId.toString(), event);
+            } catch (Exception e) {
+                log.warn("Failed to publish payment event: {}", e.getMessage());
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
+
+    private record Reservation(Payment payment, boolean created) {}
 }
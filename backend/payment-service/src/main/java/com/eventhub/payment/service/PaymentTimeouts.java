@@ -0,0 +1,67 @@
+package com.eventhub.payment.service;
+
+import com.eventhub.payment.timer.DurableTimerQueue;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Deadlines tracked for every in-flight payment:
+ * - payment.initiation → settle a reservation still INITIATED after the gateway call should have
+ *   finished (timeout, crash or lost response between reserve and record)
+ * - payment.verify → ask the gateway whether a stale session actually succeeded
+ * - payment.expiry → give up on an abandoned payment
+ */
+@Component
+@RequiredArgsConstructor
+public class PaymentTimeouts {
+
+    public static final String VERIFY_TIMER = "payment.verify";
+    public static final String EXPIRY_TIMER = "payment.expiry";
+    public static final String INITIATION_TIMER = "payment.initiation";
+
+    static final Duration VERIFY_AFTER = Duration.ofMinutes(15);
+    static final Duration REVERIFY_EVERY = Duration.ofMinutes(5);
+    static final Duration EXPIRE_AFTER = Duration.ofMinutes(60);
+    // Well past the gateway time limits, so only a crashed or lost initiation is dropped
+    static final Duration INITIATION_TIMEOUT = Duration.ofMinutes(2);
+
+    private final DurableTimerQueue timerQueue;
+
+    /**
+     * Register the deadline for a freshly reserved (INITIATED) payment.
+     */
+    public void scheduleInitiation(UUID paymentId) {
+        timerQueue.schedule(INITIATION_TIMER, paymentId, Instant.now().plus(INITIATION_TIMEOUT));
+    }
+
+    public void cancelInitiation(UUID paymentId) {
+        timerQueue.cancel(INITIATION_TIMER, paymentId);
+    }
+
+    /**
+     * Register both deadlines for a payment that (re-)entered PROCESSING.
+     */
+    public void schedule(UUID paymentId, Instant createdAt) {
+        timerQueue.schedule(VERIFY_TIMER, paymentId, Instant.now().plus(VERIFY_AFTER));
+        timerQueue.schedule(EXPIRY_TIMER, paymentId, createdAt.plus(EXPIRE_AFTER));
+    }
+
+    public void scheduleReverify(UUID paymentId, Instant createdAt) {
+        Instant next = Instant.now().plus(REVERIFY_EVERY);
+        if (next.isBefore(createdAt.plus(EXPIRE_AFTER))) {
+            timerQueue.schedule(VERIFY_TIMER, paymentId, next);
+        }
+    }
+
+    /**
+     * Drop both deadlines once the payment reached a final outcome.
+     */
+    public void cancel(UUID paymentId) {
+        timerQueue.cancel(VERIFY_TIMER, paymentId);
+        timerQueue.cancel(EXPIRY_TIMER, paymentId);
+    }
+}
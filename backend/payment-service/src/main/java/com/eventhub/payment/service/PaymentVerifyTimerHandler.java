@@ -0,0 +1,30 @@
+package com.eventhub.payment.service;
+
+import com.eventhub.payment.timer.TimerHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class PaymentVerifyTimerHandler implements TimerHandler {
+
+    private final PaymentReconciliationJob reconciliationJob;
+
+    @Override
+    public String timerType() {
+        return PaymentTimeouts.VERIFY_TIMER;
+    }
+
+    @Override
+    public void onTimeout(UUID paymentId) {
+        reconciliationJob.verifyPayment(paymentId);
+    }
+
+    @Override
+    public boolean inClaimTransaction() {
+        // verifyPayment calls the gateway; the expiry timer backs it up if the replica dies
+        return false;
+    }
+}
@@ -1,25 +1,24 @@
 package com.eventhub.payment.service;
 
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-import java.nio.charset.StandardCharsets;
-import java.security.InvalidKeyException;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.HexFormat;
-
 /**
  * Verifies webhook signatures from payment gateways to ensure
  * authenticity of incoming webhook requests.
+ *
+ * Webhook secrets may list several comma-separated values; a signature made with any of them is
+ * accepted, so a secret can be rotated without dropping webhooks signed with the old one.
  */
 @Service
 @Slf4j
 public class WebhookVerificationService {
 
+    // Stripe may send several v1 signatures when an endpoint has more than one secret
+    private static final int MAX_STRIPE_SIGNATURES = 8;
+
     @Value("${payment.gateways.stripe.webhook-secret:}")
     private String stripeWebhookSecret;
 
@@ -29,73 +28,99 @@ public class WebhookVerificationService {
     @Value("${payment.gateways.paypal.webhook-id:}")
     private String paypalWebhookId;
 
+    private HmacSha256Verifier stripeVerifier;
+    private HmacSha256Verifier razorpayVerifier;
+
+    @PostConstruct
+    void init() {
+        stripeVerifier = HmacSha256Verifier.fromConfig(stripeWebhookSecret);
+        razorpayVerifier = HmacSha256Verifier.fromConfig(razorpayWebhookSecret);
+    }
+
     /**
      * Verify Stripe webhook signature using HMAC-SHA256.
-     * Stripe sends signature in Stripe-Signature header.
+     * Stripe sends signature in Stripe-Signature header: t={timestamp},v1={hex}[,v1={hex}...]
      */
     public boolean verifyStripeSignature(String payload, String signatureHeader) {
-        if (stripeWebhookSecret.isBlank()) {
+        if (!stripeVerifier.isConfigured()) {
             log.warn("Stripe webhook secret not configured — skipping verification");
             return true;
         }
+        if (signatureHeader == null) {
+            return false;
+        }
 
-        try {
-            // Parse the Stripe-Signature header: t=timestamp,v1=signature
-            String timestamp = null;
-            String expectedSignature = null;
-            for (String part : signatureHeader.split(",")) {
-                String[] kv = part.split("=", 2);
-                if ("t".equals(kv[0])) timestamp = kv[1];
-                if ("v1".equals(kv[0])) expectedSignature = kv[1];
+        // Scan the header in place: offsets of t and of every v1 value, no split()
+        int timestampStart = -1;
+        int timestampEnd = -1;
+        int[] signatures = new int[2 * MAX_STRIPE_SIGNATURES];
+        int count = 0;
+        int length = signatureHeader.length();
+        int partStart = 0;
+        while (partStart < length) {
+            int partEnd = signatureHeader.indexOf(',', partStart);
+            if (partEnd < 0) partEnd = length;
+            int eq = signatureHeader.indexOf('=', partStart);
+            if (eq > partStart && eq < partEnd) {
+                if (eq - partStart == 1 && signatureHeader.charAt(partStart) == 't') {
+                    timestampStart = eq + 1;
+                    timestampEnd = partEnd;
+                } else if (eq - partStart == 2 && signatureHeader.startsWith("v1", partStart)
+                        && count < MAX_STRIPE_SIGNATURES) {
+                    signatures[2 * count] = eq + 1;
+                    signatures[2 * count + 1] = partEnd;
+                    count++;
+                }
             }
+            partStart = partEnd + 1;
+        }
 
-            if (timestamp == null || expectedSignature == null) {
-                log.warn("Invalid Stripe-Signature header format");
+        if (timestampStart < 0 || timestampStart == timestampEnd || count == 0) {
+            log.warn("Invalid Stripe-Signature header format");
+            return false;
+        }
+        for (int i = timestampStart; i < timestampEnd; i++) {
+            char c = signatureHeader.charAt(i);
+            if (c < '0' || c > '9') {
+                log.warn("Invalid Stripe-Signature timestamp");
                 return false;
             }
+        }
 
-            String signedPayload = timestamp + "." + payload;
-            String computedSignature = hmacSha256(stripeWebhookSecret, signedPayload);
-
-            boolean valid = MessageDigest.isEqual(
-                    expectedSignature.getBytes(StandardCharsets.UTF_8),
-                    computedSignature.getBytes(StandardCharsets.UTF_8));
-
-            if (!valid) {
-                log.warn("Stripe webhook signature mismatch");
-            }
-            return valid;
-
-        } catch (Exception e) {
-            log.error("Stripe signature verification error: {}", e.getMessage());
-            return false;
+        // Signed payload is "{timestamp}.{payload}"; feed it to the Mac without concatenating
+        int tsStart = timestampStart;
+        int tsEnd = timestampEnd;
+        boolean valid = stripeVerifier.matches(mac -> {
+            mac.updateUtf8(signatureHeader, tsStart, tsEnd);
+            mac.update((byte) '.');
+            mac.updateUtf8(payload, 0, payload.length());
+        }, signatureHeader, signatures, count);
+
+        if (!valid) {
+            log.warn("Stripe webhook signature mismatch");
         }
+        return valid;
     }
 
     /**
      * Verify Razorpay webhook signature using HMAC-SHA256.
      */
     public boolean verifyRazorpaySignature(String payload, String signature) {
-        if (razorpayWebhookSecret.isBlank()) {
+        if (!razorpayVerifier.isConfigured()) {
             log.warn("Razorpay webhook secret not configured — skipping verification");
             return true;
         }
+        if (signature == null) {
+            return false;
+        }
 
-        try {
-            String computedSignature = hmacSha256(razorpayWebhookSecret, payload);
-            boolean valid = MessageDigest.isEqual(
-                    signature.getBytes(StandardCharsets.UTF_8),
-                    computedSignature.getBytes(StandardCharsets.UTF_8));
-
-            if (!valid) {
-                log.warn("Razorpay webhook signature mismatch");
-            }
-            return valid;
+        boolean valid = razorpayVerifier.matches(mac -> mac.updateUtf8(payload, 0, payload.length()),
+                signature, new int[] {0, signature.length()}, 1);
 
-        } catch (Exception e) {
-            log.error("Razorpay signature verification error: {}", e.getMessage());
-            return false;
+        if (!valid) {
+            log.warn("Razorpay webhook signature mismatch");
         }
+        return valid;
     }
 
     /**
@@ -135,12 +160,4 @@ public class WebhookVerificationService {
             }
         };
     }
-
-    private String hmacSha256(String secret, String message) throws NoSuchAlgorithmException, InvalidKeyException {
-        Mac mac = Mac.getInstance("HmacSHA256");
-        SecretKeySpec keySpec = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
-        mac.init(keySpec);
-        byte[] hash = mac.doFinal(message.getBytes(StandardCharsets.UTF_8));
-        return HexFormat.of().formatHex(hash);
-    }
 }
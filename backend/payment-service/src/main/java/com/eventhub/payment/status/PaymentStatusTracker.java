@@ -0,0 +1,245 @@
+package com.eventhub.payment.status;
+
+import com.eventhub.payment.entity.Payment;
+import com.eventhub.payment.entity.PaymentStatus;
+import com.eventhub.payment.repository.PaymentRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Payment status reads for checkout clients, with a short-TTL Redis cache and change
+ * notification for long-polling.
+ *
+ * Keys / channels:
+ * - payment:status:{bookingId} → JSON {@link PaymentStatusView}, overwritten on every state change
+ *   and filled on cache misses only if absent (SET NX), expiring after {@code payment.status.cache-ttl-seconds}
+ * - payment:status-changes → JSON {@link PaymentStatusView}, published after the change commits
+ *
+ * Long-poll requests park (on their virtual thread) on a future in the local waiter registry.
+ * Every replica subscribes to the channel and completes its own waiters for the booking, so a
+ * webhook applied on one replica wakes clients parked on any other.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentStatusTracker implements MessageListener {
+
+    public static final String CHANGES_CHANNEL = "payment:status-changes";
+    private static final String KEY_PREFIX = "payment:status:";
+
+    private final PaymentRepository paymentRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<UUID, Set<CompletableFuture<PaymentStatusView>>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    @Value("${payment.status.cache-ttl-seconds:10}")
+    private long cacheTtlSeconds;
+
+    @Value("${payment.status.max-waiters:10000}")
+    private int maxWaiters;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("payment.status.waiters", waiting, AtomicInteger::get)
+                .description("Long-poll requests currently parked waiting for a payment change")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Current status of the booking's payment, from the cache when possible.
+     *
+     * @throws IllegalArgumentException if the booking has no payment
+     * @throws SecurityException        if the payment belongs to another user
+     */
+    public PaymentStatusView current(UUID bookingId, UUID userId) {
+        return ownedBy(userId, current(bookingId));
+    }
+
+    private PaymentStatusView current(UUID bookingId) {
+        Optional<PaymentStatusView> cached = readCache(bookingId);
+        if (cached.isPresent()) {
+            meterRegistry.counter("payment.status.reads", "source", "cache").increment();
+            return cached.get();
+        }
+
+        meterRegistry.counter("payment.status.reads", "source", "db").increment();
+        PaymentStatusView view = paymentRepository.findByBookingId(bookingId)
+                .map(PaymentStatusView::of)
+                .orElseThrow(() -> new IllegalArgumentException("Payment not found for booking: " + bookingId));
+        // NX: a change that committed after our read has already written a newer view; never replace it
+        writeCache(view, true);
+        return view;
+    }
+
+    /**
+     * Return as soon as the payment's status differs from {@code after}, or the current status
+     * once {@code timeout} elapses. Ownership is checked before the request parks.
+     *
+     * @throws SecurityException if the payment belongs to another user
+     */
+    public PaymentStatusView awaitChange(UUID bookingId, UUID userId, PaymentStatus after, Duration timeout) {
+        PaymentStatusView current = current(bookingId, userId);
+        if (current.status() != after || timeout.isZero()) {
+            record("immediate");
+            return current;
+        }
+        if (waiting.get() >= maxWaiters) {
+            record("shed");
+            return current;
+        }
+
+        long deadline = System.nanoTime() + timeout.toNanos();
+        boolean parked = false;
+        while (true) {
+            CompletableFuture<PaymentStatusView> waiter = new CompletableFuture<>();
+            waiters.computeIfAbsent(bookingId, id -> ConcurrentHashMap.newKeySet()).add(waiter);
+            waiting.incrementAndGet();
+            try {
+                // A change may have landed between the last read and registering
+                current = current(bookingId);
+                if (current.status() != after) {
+                    record(parked ? "changed" : "immediate");
+                    return current;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    record("timeout");
+                    return current;
+                }
+                parked = true;
+                PaymentStatusView changed = waiter.get(remaining, TimeUnit.NANOSECONDS);
+                if (changed.status() != after) {
+                    record("changed");
+                    return changed;
+                }
+                // Same status re-published (e.g. a new gateway session); keep waiting
+            } catch (TimeoutException e) {
+                record("timeout");
+                return current;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return current;
+            } catch (ExecutionException e) {
+                return current;
+            } finally {
+                waiting.decrementAndGet();
+                waiters.computeIfPresent(bookingId, (id, set) -> {
+                    set.remove(waiter);
+                    return set.isEmpty() ? null : set;
+                });
+            }
+        }
+    }
+
+    /**
+     * Record a payment state change. Inside a transaction the cache write and notification
+     * happen after commit, so waiters never observe a state that is rolled back.
+     */
+    public void publish(Payment payment) {
+        afterCommit(() -> {
+            PaymentStatusView view = PaymentStatusView.of(payment);
+            writeCache(view, false);
+            // Wake local waiters directly, in case the Redis round trip is slow or down
+            complete(view);
+            try {
+                redisTemplate.convertAndSend(CHANGES_CHANNEL, objectMapper.writeValueAsString(view));
+            } catch (JsonProcessingException | RuntimeException e) {
+                log.warn("Failed to publish status change for booking {}: {}", view.bookingId(), e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            complete(objectMapper.readValue(new String(message.getBody(), StandardCharsets.UTF_8),
+                    PaymentStatusView.class));
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed payment status change: {}", e.getMessage());
+        }
+    }
+
+    private void complete(PaymentStatusView view) {
+        Set<CompletableFuture<PaymentStatusView>> parked = waiters.get(view.bookingId());
+        if (parked != null) {
+            parked.forEach(waiter -> waiter.complete(view));
+        }
+    }
+
+    private static PaymentStatusView ownedBy(UUID userId, PaymentStatusView view) {
+        if (!userId.equals(view.userId())) {
+            throw new SecurityException("Not authorized to view this payment");
+        }
+        return view;
+    }
+
+    private Optional<PaymentStatusView> readCache(UUID bookingId) {
+        try {
+            String json = redisTemplate.opsForValue().get(KEY_PREFIX + bookingId);
+            // Views cached before they carried the owner are treated as misses
+            return Optional.ofNullable(json != null ? objectMapper.readValue(json, PaymentStatusView.class) : null)
+                    .filter(view -> view.userId() != null);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.debug("Payment status cache read failed for {}: {}", bookingId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void writeCache(PaymentStatusView view, boolean onlyIfAbsent) {
+        try {
+            String key = KEY_PREFIX + view.bookingId();
+            String json = objectMapper.writeValueAsString(view);
+            Duration ttl = Duration.ofSeconds(cacheTtlSeconds);
+            if (onlyIfAbsent) {
+                redisTemplate.opsForValue().setIfAbsent(key, json, ttl);
+            } else {
+                redisTemplate.opsForValue().set(key, json, ttl);
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.debug("Payment status cache write failed for {}: {}", view.bookingId(), e.getMessage());
+        }
+    }
+
+    private void record(String outcome) {
+        meterRegistry.counter("payment.status.long_poll", "outcome", outcome).increment();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
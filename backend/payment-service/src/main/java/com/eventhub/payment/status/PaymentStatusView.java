@@ -0,0 +1,20 @@
+package com.eventhub.payment.status;
+
+import com.eventhub.payment.entity.Payment;
+import com.eventhub.payment.entity.PaymentStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * What a checkout client needs to know about a booking's payment. Carries the paying user so
+ * cached views can be checked for ownership without a database read.
+ */
+public record PaymentStatusView(UUID bookingId, UUID paymentId, UUID userId, PaymentStatus status,
+                                String failureReason, Instant updatedAt) {
+
+    public static PaymentStatusView of(Payment payment) {
+        return new PaymentStatusView(payment.getBookingId(), payment.getId(), payment.getUserId(), payment.getStatus(),
+                payment.getFailureReason(), payment.getUpdatedAt());
+    }
+}
@@ -0,0 +1,166 @@
+package com.eventhub.payment.timer;
+
+import com.eventhub.payment.entity.ScheduledTimer;
+import com.eventhub.payment.entity.TimerStatus;
+import com.eventhub.payment.repository.ScheduledTimerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Durable delay queue for payment deadlines.
+ *
+ * Postgres ({@code scheduled_timers}) is the durable record and decides, via a conditional
+ * UPDATE, which replica fires a timer. A Redis sorted set ({@code timers:{service}}, member
+ * {@code type|targetId} scored by deadline millis) mirrors the PENDING rows so that due timers
+ * are found with one atomic ZRANGEBYSCORE+ZREM instead of table scans. If Redis loses entries,
+ * {@link TimerDispatcher#sweepOverdue()} fires them from Postgres after a short grace period.
+ *
+ * This package is kept in step with {@code com.eventhub.booking.timer}: the services share no
+ * library and each owns its {@code scheduled_timers} table, so change both copies together.
+ */
+@Component
+@Slf4j
+public class DurableTimerQueue {
+
+    // Pops up to ARGV[2] members due at or before ARGV[1]; returns member, score pairs.
+    private static final String POP_DUE_SCRIPT = """
+            local due = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'WITHSCORES', 'LIMIT', 0, tonumber(ARGV[2]))
+            for i = 1, #due, 2 do
+                redis.call('ZREM', KEYS[1], due[i])
+            end
+            return due
+            """;
+
+    private static final DefaultRedisScript<List> POP_DUE = new DefaultRedisScript<>(POP_DUE_SCRIPT, List.class);
+    private static final int REHYDRATE_PAGE_SIZE = 1000;
+
+    private final ScheduledTimerRepository timerRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final String queueKey;
+
+    public DurableTimerQueue(ScheduledTimerRepository timerRepository,
+                             StringRedisTemplate redisTemplate,
+                             @Value("${spring.application.name}") String applicationName) {
+        this.timerRepository = timerRepository;
+        this.redisTemplate = redisTemplate;
+        this.queueKey = "timers:" + applicationName;
+    }
+
+    /**
+     * Register (or move) the deadline for a target. Joins the caller's transaction; the Redis
+     * entry is only added once that transaction commits.
+     */
+    @Transactional
+    public void schedule(String type, UUID targetId, Instant fireAt) {
+        timerRepository.upsert(type, targetId, fireAt);
+        afterCommit(() -> enqueue(type, targetId, fireAt));
+    }
+
+    @Transactional
+    public void cancel(String type, UUID targetId) {
+        if (timerRepository.cancel(type, targetId) > 0) {
+            afterCommit(() -> dequeue(type, targetId));
+        }
+    }
+
+    /**
+     * Atomically remove and return the timers due by {@code now}. Each entry is handed to
+     * exactly one caller across all replicas.
+     */
+    public List<DueTimer> popDue(Instant now, int limit) {
+        List<?> raw = redisTemplate.execute(POP_DUE, List.of(queueKey),
+                String.valueOf(now.toEpochMilli()), String.valueOf(limit));
+        if (raw == null || raw.isEmpty()) {
+            return List.of();
+        }
+        List<DueTimer> due = new ArrayList<>(raw.size() / 2);
+        for (int i = 0; i + 1 < raw.size(); i += 2) {
+            String member = raw.get(i).toString();
+            int sep = member.lastIndexOf('|');
+            if (sep < 0) {
+                continue;
+            }
+            long fireAtMillis = (long) Double.parseDouble(raw.get(i + 1).toString());
+            due.add(new DueTimer(member.substring(0, sep), UUID.fromString(member.substring(sep + 1)),
+                    Instant.ofEpochMilli(fireAtMillis)));
+        }
+        return due;
+    }
+
+    void enqueue(String type, UUID targetId, Instant fireAt) {
+        try {
+            redisTemplate.opsForZSet().add(queueKey, member(type, targetId), fireAt.toEpochMilli());
+        } catch (RuntimeException e) {
+            // Postgres still holds the timer; the overdue sweep will fire it
+            log.warn("Failed to enqueue timer {} for {}: {}", type, targetId, e.getMessage());
+        }
+    }
+
+    private void dequeue(String type, UUID targetId) {
+        try {
+            redisTemplate.opsForZSet().remove(queueKey, member(type, targetId));
+        } catch (RuntimeException e) {
+            // Harmless: the claim fails for a cancelled timer
+            log.debug("Failed to dequeue timer {} for {}: {}", type, targetId, e.getMessage());
+        }
+    }
+
+    /**
+     * Re-mirror all PENDING timers into Redis, e.g. after a Redis restart without persistence.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rehydrate() {
+        int restored = 0;
+        try {
+            Slice<ScheduledTimer> page = timerRepository.findByStatusOrderByFireAtAsc(
+                    TimerStatus.PENDING, PageRequest.of(0, REHYDRATE_PAGE_SIZE));
+            while (true) {
+                for (ScheduledTimer timer : page) {
+                    enqueue(timer.getTimerType(), timer.getTargetId(), timer.getFireAt());
+                    restored++;
+                }
+                if (!page.hasNext()) {
+                    break;
+                }
+                page = timerRepository.findByStatusOrderByFireAtAsc(TimerStatus.PENDING, page.nextPageable());
+            }
+            log.info("Rehydrated {} pending timers into {}", restored, queueKey);
+        } catch (RuntimeException e) {
+            log.warn("Timer rehydration stopped after {} timers: {}", restored, e.getMessage());
+        }
+    }
+
+    private static String member(String type, UUID targetId) {
+        return type + "|" + targetId;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    public record DueTimer(String type, UUID targetId, Instant fireAt) {}
+}
@@ -0,0 +1,173 @@
+package com.eventhub.payment.timer;
+
+import com.eventhub.payment.entity.ScheduledTimer;
+import com.eventhub.payment.entity.TimerStatus;
+import com.eventhub.payment.repository.ScheduledTimerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Fires due timers from {@link DurableTimerQueue}.
+ *
+ * - Fast path: every {@code poll-interval-ms}, pop due entries from Redis and fire them.
+ * - Fallback: every {@code sweep-interval-ms}, fire PENDING rows that are more than
+ *   {@code sweep-grace-ms} overdue straight from Postgres (Redis down or entries lost).
+ *
+ * Every replica runs both loops. A timer fires only in the replica whose conditional
+ * UPDATE flips it from PENDING to FIRED, and the handler runs in that same transaction
+ * unless it opts out with {@link TimerHandler#inClaimTransaction()}.
+ *
+ * A handler that throws is retried with exponential backoff, from {@code retry-delay-ms} up to
+ * {@code max-retry-delay-ms}; after {@code max-attempts} the timer is parked as DEAD and left for
+ * an operator. The backoff moves the row's deadline, so the overdue sweep honours it too.
+ */
+@Component
+@Slf4j
+public class TimerDispatcher {
+
+    private final DurableTimerQueue timerQueue;
+    private final ScheduledTimerRepository timerRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, TimerHandler> handlers;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${payment.timers.batch-size:200}")
+    private int batchSize;
+
+    @Value("${payment.timers.sweep-grace-ms:5000}")
+    private long sweepGraceMs;
+
+    @Value("${payment.timers.retry-delay-ms:5000}")
+    private long retryDelayMs;
+
+    @Value("${payment.timers.max-retry-delay-ms:300000}")
+    private long maxRetryDelayMs;
+
+    @Value("${payment.timers.max-attempts:10}")
+    private int maxAttempts;
+
+    public TimerDispatcher(DurableTimerQueue timerQueue,
+                           ScheduledTimerRepository timerRepository,
+                           TransactionTemplate transactionTemplate,
+                           List<TimerHandler> handlers,
+                           MeterRegistry meterRegistry) {
+        this.timerQueue = timerQueue;
+        this.timerRepository = timerRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.handlers = handlers.stream().collect(Collectors.toMap(TimerHandler::timerType, Function.identity()));
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.timers.poll-interval-ms:250}")
+    public void pollDue() {
+        List<DurableTimerQueue.DueTimer> due;
+        try {
+            due = timerQueue.popDue(Instant.now(), batchSize);
+        } catch (RuntimeException e) {
+            log.debug("Timer poll skipped, Redis unavailable: {}", e.getMessage());
+            return;
+        }
+        for (DurableTimerQueue.DueTimer timer : due) {
+            fire(timer.type(), timer.targetId(), timer.fireAt());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payment.timers.sweep-interval-ms:5000}")
+    public void sweepOverdue() {
+        List<ScheduledTimer> overdue = timerRepository.findByStatusAndFireAtLessThanEqualOrderByFireAtAsc(
+                TimerStatus.PENDING, Instant.now().minusMillis(sweepGraceMs), PageRequest.of(0, batchSize));
+        if (!overdue.isEmpty()) {
+            log.info("Firing {} overdue timers from the database", overdue.size());
+        }
+        for (ScheduledTimer timer : overdue) {
+            fire(timer.getTimerType(), timer.getTargetId(), timer.getFireAt());
+        }
+    }
+
+    void fire(String type, UUID targetId, Instant fireAt) {
+        TimerHandler handler = handlers.get(type);
+        if (handler == null) {
+            log.error("No handler registered for timer type {}", type);
+            return;
+        }
+
+        String outcome;
+        try {
+            Boolean fired = transactionTemplate.execute(status -> {
+                if (timerRepository.claim(type, targetId, Instant.now()) == 0) {
+                    return false;
+                }
+                if (handler.inClaimTransaction()) {
+                    handler.onTimeout(targetId);
+                }
+                return true;
+            });
+            if (Boolean.TRUE.equals(fired) && !handler.inClaimTransaction()) {
+                handler.onTimeout(targetId);
+            }
+            outcome = Boolean.TRUE.equals(fired) ? "fired" : "skipped";
+        } catch (RuntimeException e) {
+            outcome = "failed";
+            log.warn("Timer {} for {} failed: {}", type, targetId, e.getMessage());
+            retryLater(type, targetId, e);
+        }
+
+        meterRegistry.counter("payment.timers.fired", "type", type, "outcome", outcome).increment();
+        if ("fired".equals(outcome)) {
+            Timer.builder("payment.timers.lag")
+                    .description("Delay between a timer's deadline and its handler running")
+                    .tag("type", type)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(Duration.between(fireAt, Instant.now()));
+        }
+    }
+
+    private void retryLater(String type, UUID targetId, RuntimeException cause) {
+        try {
+            String error = String.valueOf(cause.getMessage());
+            String truncated = error.length() > 1000 ? error.substring(0, 1000) : error;
+            Integer attempt = transactionTemplate.execute(status -> {
+                int previous = timerRepository.findByTimerTypeAndTargetId(type, targetId)
+                        .map(ScheduledTimer::getAttempts)
+                        .orElse(0);
+                Instant retryAt = Instant.now().plus(backoff(previous + 1));
+                return timerRepository.recordFailure(type, targetId, truncated, retryAt, maxAttempts) > 0
+                        ? previous + 1 : null;
+            });
+            if (attempt == null) {
+                return;
+            }
+            if (attempt >= maxAttempts) {
+                meterRegistry.counter("payment.timers.dead", "type", type).increment();
+                log.error("Timer {} for {} is DEAD after {} attempts: {}", type, targetId, attempt, error);
+                return;
+            }
+            timerQueue.enqueue(type, targetId, Instant.now().plus(backoff(attempt)));
+        } catch (RuntimeException e) {
+            log.warn("Failed to reschedule timer {} for {}: {}", type, targetId, e.getMessage());
+        }
+    }
+
+    /**
+     * Delay before retry number {@code attempt}: retry-delay-ms doubled per attempt, capped.
+     */
+    Duration backoff(int attempt) {
+        long delay = retryDelayMs << Math.min(attempt - 1, 20);
+        return Duration.ofMillis(Math.min(delay, maxRetryDelayMs));
+    }
+}
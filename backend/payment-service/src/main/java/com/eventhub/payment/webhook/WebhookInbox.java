@@ -0,0 +1,46 @@
+package com.eventhub.payment.webhook;
+
+import com.eventhub.payment.entity.PaymentGateway;
+import com.eventhub.payment.repository.WebhookInboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Accepting side of the webhook pipeline: a verified event is appended to the inbox in one
+ * short insert and the HTTP request returns. {@link WebhookInboxProcessor} applies it later.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WebhookInbox {
+
+    private final WebhookInboxRepository inboxRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Store a raw, already verified webhook event.
+     *
+     * @param eventIdHeader event id sent as a header by gateways that do (e.g. Razorpay); may be null
+     * @return false if the event was already in the inbox (a gateway redelivery)
+     * @throws IllegalArgumentException if the gateway is unknown or the body is not a JSON object
+     */
+    @Transactional
+    public boolean accept(String gatewayName, String rawPayload, String eventIdHeader) {
+        PaymentGateway gateway = PaymentGateway.valueOf(gatewayName.toUpperCase());
+        WebhookPayload payload = WebhookPayload.parse(objectMapper, rawPayload);
+        String eventId = eventIdHeader != null && !eventIdHeader.isBlank() ? eventIdHeader : payload.eventId();
+
+        boolean accepted = inboxRepository.append(gateway.name(), eventId, payload.sessionId(), rawPayload) > 0;
+        if (!accepted) {
+            log.debug("Duplicate {} webhook {} ignored", gateway, eventId);
+        }
+        meterRegistry.counter("payment.webhooks.received",
+                "gateway", gateway.name().toLowerCase(), "result", accepted ? "accepted" : "duplicate").increment();
+        return accepted;
+    }
+}
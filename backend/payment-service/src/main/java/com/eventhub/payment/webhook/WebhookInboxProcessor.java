@@ -0,0 +1,181 @@
+package com.eventhub.payment.webhook;
+
+import com.eventhub.payment.entity.WebhookInboxEvent;
+import com.eventhub.payment.entity.WebhookInboxStatus;
+import com.eventhub.payment.repository.WebhookInboxRepository;
+import com.eventhub.payment.service.PaymentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Applies webhook events from the inbox to payments.
+ *
+ * Every {@code poll-interval-ms}, each replica claims a batch of pending events (SKIP LOCKED) and
+ * applies it in one transaction. An event only becomes claimable once the earlier events for its
+ * session are done, so a payment sees its webhooks in arrival order.
+ *
+ * If a batch fails, its events are retried one per transaction so a single bad event cannot hold
+ * up the rest; an event that keeps failing is parked as FAILED after {@code max-attempts}.
+ *
+ * An event whose session matches no payment may simply be early: the gateway can call back before
+ * initiation has recorded the session. It stays PENDING and is re-checked with a delay that grows
+ * with its age, and is only IGNORED once it is older than {@code unmatched-window-minutes}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WebhookInboxProcessor {
+
+    private final WebhookInboxRepository inboxRepository;
+    private final PaymentService paymentService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${payment.webhooks.batch-size:100}")
+    private int batchSize;
+
+    @Value("${payment.webhooks.max-batches-per-poll:10}")
+    private int maxBatchesPerPoll;
+
+    @Value("${payment.webhooks.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${payment.webhooks.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${payment.webhooks.unmatched-window-minutes:15}")
+    private long unmatchedWindowMinutes;
+
+    private static final Duration MIN_UNMATCHED_DELAY = Duration.ofSeconds(1);
+    private static final Duration MAX_UNMATCHED_DELAY = Duration.ofMinutes(1);
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("payment.webhooks.pending", inboxRepository,
+                        repository -> repository.countByStatus(WebhookInboxStatus.PENDING))
+                .description("Webhook events waiting in the inbox")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.webhooks.poll-interval-ms:200}")
+    public void drain() {
+        for (int i = 0; i < maxBatchesPerPoll; i++) {
+            if (processBatch() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return number of events taken from the inbox
+     */
+    int processBatch() {
+        try {
+            Integer processed = transactionTemplate.execute(status -> {
+                List<WebhookInboxEvent> batch = inboxRepository.claimBatch(batchSize);
+                batch.forEach(this::apply);
+                return batch.size();
+            });
+            return processed != null ? processed : 0;
+        } catch (RuntimeException e) {
+            log.warn("Webhook batch failed, applying events one at a time: {}", e.getMessage());
+            return processIndividually();
+        }
+    }
+
+    private int processIndividually() {
+        List<Long> ids = transactionTemplate.execute(status -> inboxRepository.claimBatch(batchSize).stream()
+                .map(WebhookInboxEvent::getId)
+                .toList());
+        if (ids == null) {
+            return 0;
+        }
+
+        for (Long id : ids) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        inboxRepository.claim(id).forEach(this::apply));
+            } catch (RuntimeException e) {
+                log.warn("Webhook event {} failed: {}", id, e.getMessage());
+                recordFailure(id, e);
+            }
+        }
+        return ids.size();
+    }
+
+    private void apply(WebhookInboxEvent event) {
+        WebhookPayload payload = WebhookPayload.parse(objectMapper, event.getPayload());
+        boolean matched = paymentService.handleWebhook(event.getGateway().name(), payload.sessionId(),
+                payload.transactionId(), payload.status(), payload.amount());
+
+        Instant now = Instant.now();
+        Duration age = event.getReceivedAt() != null ? Duration.between(event.getReceivedAt(), now) : Duration.ZERO;
+        if (!matched && age.compareTo(Duration.ofMinutes(unmatchedWindowMinutes)) < 0) {
+            // Roughly doubles the wait on every re-check
+            Duration delay = age.compareTo(MIN_UNMATCHED_DELAY) < 0 ? MIN_UNMATCHED_DELAY
+                    : age.compareTo(MAX_UNMATCHED_DELAY) > 0 ? MAX_UNMATCHED_DELAY : age;
+            event.setNextAttemptAt(now.plus(delay));
+            inboxRepository.save(event);
+            meterRegistry.counter("payment.webhooks.processed",
+                    "gateway", event.getGateway().name().toLowerCase(), "outcome", "deferred").increment();
+            return;
+        }
+
+        event.setStatus(matched ? WebhookInboxStatus.PROCESSED : WebhookInboxStatus.IGNORED);
+        event.setProcessedAt(now);
+        inboxRepository.save(event);
+
+        meterRegistry.counter("payment.webhooks.processed",
+                "gateway", event.getGateway().name().toLowerCase(),
+                "outcome", event.getStatus().name().toLowerCase()).increment();
+        if (matched && event.getReceivedAt() != null) {
+            Timer.builder("payment.webhooks.lag")
+                    .description("Delay between a webhook being accepted and applied")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(age);
+        }
+    }
+
+    private void recordFailure(Long id, RuntimeException cause) {
+        try {
+            String error = String.valueOf(cause.getMessage());
+            transactionTemplate.executeWithoutResult(status -> inboxRepository.recordFailure(
+                    id, error.length() > 1000 ? error.substring(0, 1000) : error, maxAttempts));
+            meterRegistry.counter("payment.webhooks.processed", "gateway", "unknown", "outcome", "error").increment();
+        } catch (RuntimeException e) {
+            log.warn("Failed to record failure for webhook event {}: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop handled events once gateways can no longer redeliver them.
+     */
+    @Scheduled(cron = "${payment.webhooks.purge-cron:0 30 3 * * *}")
+    public void purgeProcessed() {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(retentionDays));
+        int purged;
+        int total = 0;
+        do {
+            purged = transactionTemplate.execute(status -> inboxRepository.purgeProcessed(cutoff, 5_000));
+            total += purged;
+        } while (purged > 0);
+        if (total > 0) {
+            log.info("Purged {} processed webhook events older than {}", total, cutoff);
+        }
+    }
+}
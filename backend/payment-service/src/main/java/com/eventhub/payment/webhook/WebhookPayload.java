@@ -0,0 +1,59 @@
+package com.eventhub.payment.webhook;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Fields of a gateway webhook that the payment flow acts on.
+ *
+ * @param eventId gateway event id ({@code eventId} or {@code id}); falls back to a SHA-256 of
+ *                the raw body so byte-identical redeliveries still dedupe
+ */
+public record WebhookPayload(String eventId, String sessionId, String transactionId,
+                             String status, BigDecimal amount) {
+
+    public static WebhookPayload parse(ObjectMapper objectMapper, String rawPayload) {
+        JsonNode json;
+        try {
+            json = objectMapper.readTree(rawPayload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Webhook payload is not valid JSON");
+        }
+        if (json == null || !json.isObject()) {
+            throw new IllegalArgumentException("Webhook payload is not a JSON object");
+        }
+
+        String eventId = text(json, "eventId");
+        if (eventId == null) {
+            eventId = text(json, "id");
+        }
+        JsonNode amount = json.get("amount");
+        return new WebhookPayload(
+                eventId != null ? eventId : sha256(rawPayload),
+                text(json, "sessionId"),
+                text(json, "transactionId"),
+                text(json, "status"),
+                amount != null && !amount.isNull() ? new BigDecimal(amount.asText()) : BigDecimal.ZERO);
+    }
+
+    private static String text(JsonNode json, String field) {
+        JsonNode node = json.get(field);
+        return node != null && !node.isNull() ? node.asText() : null;
+    }
+
+    private static String sha256(String rawPayload) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(rawPayload.getBytes(StandardCharsets.UTF_8));
+            return "sha256:" + HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
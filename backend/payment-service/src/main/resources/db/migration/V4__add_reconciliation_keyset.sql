@@ -0,0 +1,10 @@
+-- Incremental reconciliation of failed payments.
+-- Replicas claim pages of retryable payments with FOR UPDATE SKIP LOCKED and stamp a lease, so a
+-- payment is retried by one replica at a time and not again before the lease runs out.
+
+ALTER TABLE payments ADD COLUMN IF NOT EXISTS reconcile_lease_until TIMESTAMP WITH TIME ZONE;
+
+-- Keyset pages walk (status, created_at, id); only in-flight and failed rows are ever scanned
+CREATE INDEX IF NOT EXISTS idx_payments_status_created
+    ON payments(status, created_at, id)
+    WHERE status IN ('FAILED', 'PROCESSING');
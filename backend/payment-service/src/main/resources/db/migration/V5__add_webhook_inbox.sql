@@ -0,0 +1,22 @@
+-- Durable inbox for gateway webhooks. The HTTP handler only verifies the signature and appends the
+-- raw event here; WebhookInboxProcessor applies events in arrival order per gateway session.
+-- (gateway, event_id) is unique, so gateway redeliveries are absorbed by the insert.
+
+CREATE TABLE IF NOT EXISTS webhook_inbox (
+    id            BIGSERIAL PRIMARY KEY,
+    gateway       VARCHAR(20) NOT NULL,
+    event_id      VARCHAR(255) NOT NULL,
+    session_id    VARCHAR(255),
+    payload       TEXT NOT NULL,
+    status        VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts      INT NOT NULL DEFAULT 0,
+    last_error    VARCHAR(1000),
+    received_at   TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    processed_at  TIMESTAMP WITH TIME ZONE,
+    CONSTRAINT uq_webhook_inbox_event UNIQUE (gateway, event_id)
+);
+
+-- Pending work in arrival order, and the per-session "is an earlier event still pending" check
+CREATE INDEX idx_webhook_inbox_pending ON webhook_inbox(id) WHERE status = 'PENDING';
+CREATE INDEX idx_webhook_inbox_session_pending ON webhook_inbox(session_id, id) WHERE status = 'PENDING';
+CREATE INDEX idx_webhook_inbox_processed ON webhook_inbox(processed_at) WHERE status <> 'PENDING';
@@ -0,0 +1,5 @@
+-- A webhook can arrive before its payment has recorded the gateway session (between the reserve and
+-- record steps of initiation). Such events stay PENDING and are re-checked with a growing delay until
+-- next_attempt_at, instead of being dropped as IGNORED.
+
+ALTER TABLE webhook_inbox ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP WITH TIME ZONE;
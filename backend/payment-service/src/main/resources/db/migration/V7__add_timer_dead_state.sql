@@ -0,0 +1,7 @@
+-- Timers that exhaust their retries are now parked as DEAD (was FAILED). Failed firings move
+-- fire_at forward with exponential backoff, so the overdue sweep no longer re-fires them at once.
+
+UPDATE scheduled_timers SET status = 'DEAD' WHERE status = 'FAILED';
+
+-- Operators look for parked timers by type
+CREATE INDEX IF NOT EXISTS idx_scheduled_timers_dead ON scheduled_timers(timer_type) WHERE status = 'DEAD';
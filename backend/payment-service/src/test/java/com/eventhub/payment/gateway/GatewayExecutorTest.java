@@ -0,0 +1,150 @@
+package com.eventhub.payment.gateway;
+
+import com.eventhub.payment.entity.PaymentGateway;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class GatewayExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private GatewayExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new GatewayExecutor(
+                BulkheadRegistry.of(BulkheadConfig.custom()
+                        .maxConcurrentCalls(1)
+                        .maxWaitDuration(Duration.ZERO)
+                        .build()),
+                TimeLimiterRegistry.of(TimeLimiterConfig.custom()
+                        .timeoutDuration(Duration.ofMillis(200))
+                        .build()),
+                CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                        .slidingWindowSize(2)
+                        .minimumNumberOfCalls(2)
+                        .failureRateThreshold(50)
+                        .waitDurationInOpenState(Duration.ofMinutes(1))
+                        .build()),
+                RateLimiterRegistry.of(RateLimiterConfig.custom()
+                        .limitForPeriod(3)
+                        .limitRefreshPeriod(Duration.ofMinutes(1))
+                        .timeoutDuration(Duration.ZERO)
+                        .build()),
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("should return the gateway result and record a success timing")
+    void shouldReturnResult() {
+        String result = executor.execute(PaymentGateway.STRIPE, "create_session", () -> "sess_1");
+
+        assertThat(result).isEqualTo("sess_1");
+        assertThat(meterRegistry.get("payment.gateway.call")
+                .tags("gateway", "stripe", "operation", "create_session", "outcome", "success")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should give up on a slow gateway after the time limit")
+    void shouldTimeOutSlowGateway() {
+        assertThatThrownBy(() -> executor.execute(PaymentGateway.PAYPAL, "create_session", () -> {
+            sleep(5_000);
+            return "late";
+        }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("timed out");
+        assertThat(meterRegistry.get("payment.gateway.call").tag("outcome", "timeout").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should reject calls beyond the provider's bulkhead without touching other providers")
+    void shouldRejectWhenBulkheadFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> slow = CompletableFuture.supplyAsync(() ->
+                executor.execute(PaymentGateway.STRIPE, "create_session", () -> {
+                    started.countDown();
+                    await(release);
+                    return "slow";
+                }));
+        assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> executor.execute(PaymentGateway.STRIPE, "create_session", () -> "fast"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("at capacity");
+        assertThat(executor.execute(PaymentGateway.RAZORPAY, "create_session", () -> "other"))
+                .isEqualTo("other");
+
+        release.countDown();
+        assertThat(slow.get(1, TimeUnit.SECONDS)).isEqualTo("slow");
+    }
+
+    @Test
+    @DisplayName("should refuse calls beyond the provider's rate limit")
+    void shouldRejectWhenRateLimited() {
+        for (int i = 0; i < 3; i++) {
+            executor.execute(PaymentGateway.PAYPAL, "verify", () -> "ok");
+        }
+
+        assertThatThrownBy(() -> executor.execute(PaymentGateway.PAYPAL, "verify", () -> "ok"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("rate limit");
+        assertThat(meterRegistry.get("payment.gateway.call").tag("outcome", "rate_limited").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should fail fast once the circuit opens")
+    void shouldFailFastWhenCircuitOpen() {
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> executor.execute(PaymentGateway.STRIPE, "refund", () -> {
+                throw new IllegalStateException("connection reset");
+            })).hasMessage("connection reset");
+        }
+
+        assertThatThrownBy(() -> executor.execute(PaymentGateway.STRIPE, "refund", () -> "ok"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("temporarily unavailable");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.eventhub.payment.service;
+
+import com.eventhub.payment.entity.Payment;
+import com.eventhub.payment.entity.PaymentGateway;
+import com.eventhub.payment.entity.PaymentStatus;
+import com.eventhub.payment.gateway.GatewayExecutor;
+import com.eventhub.payment.gateway.PaymentGatewayFactory;
+import com.eventhub.payment.gateway.PaymentGatewayProvider;
+import com.eventhub.payment.gateway.PaymentGatewayProvider.CreateSessionRequest;
+import com.eventhub.payment.gateway.PaymentGatewayProvider.PaymentSessionResult;
+import com.eventhub.payment.gateway.PaymentGatewayProvider.PaymentVerificationResult;
+import com.eventhub.payment.repository.PaymentRepository;
+import com.eventhub.payment.status.PaymentStatusTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentReconciliationJobTest {
+
+    @Mock private PaymentRepository paymentRepository;
+    @Mock private PaymentGatewayFactory gatewayFactory;
+    @Mock private PaymentTimeouts paymentTimeouts;
+    @Mock private KafkaTemplate<String, Object> kafkaTemplate;
+    @Mock private PaymentGatewayProvider stripeProvider;
+    @Mock private GatewayExecutor gatewayExecutor;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private PaymentStatusTracker statusTracker;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentReconciliationJob job;
+
+    private Payment payment;
+
+    @BeforeEach
+    void setUp() {
+        payment = Payment.builder()
+                .id(UUID.randomUUID()).bookingId(UUID.randomUUID()).userId(UUID.randomUUID())
+                .amount(BigDecimal.TEN).gateway(PaymentGateway.STRIPE)
+                .status(PaymentStatus.PROCESSING).idempotencyKey("idem-1")
+                .gatewaySessionId("sess_1")
+                .build();
+        payment.setCreatedAt(Instant.now().minus(20, ChronoUnit.MINUTES));
+
+        lenient().when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        lenient().when(gatewayExecutor.execute(any(PaymentGateway.class), anyString(), any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(2).get());
+
+        meterRegistry = new SimpleMeterRegistry();
+        job = new PaymentReconciliationJob(paymentRepository, gatewayFactory, paymentTimeouts, kafkaTemplate,
+                gatewayExecutor, new TransactionTemplate(transactionManager), meterRegistry, statusTracker);
+        ReflectionTestUtils.setField(job, "pageSize", 2);
+        ReflectionTestUtils.setField(job, "maxPagesPerRun", 10);
+        ReflectionTestUtils.setField(job, "concurrencyPerGateway", 2);
+        ReflectionTestUtils.setField(job, "leaseMinutes", 5L);
+        job.registerMetrics();
+    }
+
+    @Test
+    @DisplayName("should mark a verified payment SUCCESS and drop its timers")
+    void shouldReconcileVerifiedPayment() {
+        when(paymentRepository.findById(payment.getId())).thenReturn(Optional.of(payment));
+        when(gatewayFactory.getProvider(PaymentGateway.STRIPE)).thenReturn(stripeProvider);
+        when(stripeProvider.verifyPayment("sess_1"))
+                .thenReturn(PaymentVerificationResult.success("txn_1", BigDecimal.TEN, "USD"));
+
+        job.verifyPayment(payment.getId());
+
+        assertThat(payment.getStatus()).isEqualTo(PaymentStatus.SUCCESS);
+        assertThat(payment.getGatewayTransactionId()).isEqualTo("txn_1");
+        verify(paymentTimeouts).cancel(payment.getId());
+        verify(kafkaTemplate).send(eq("payment-events"), anyString(), any(Map.class));
+    }
+
+    @Test
+    @DisplayName("should re-check later when the gateway has not confirmed the payment")
+    void shouldReverifyUnconfirmedPayment() {
+        when(paymentRepository.findById(payment.getId())).thenReturn(Optional.of(payment));
+        when(gatewayFactory.getProvider(PaymentGateway.STRIPE)).thenReturn(stripeProvider);
+        when(stripeProvider.verifyPayment("sess_1")).thenReturn(PaymentVerificationResult.failure("pending"));
+
+        job.verifyPayment(payment.getId());
+
+        assertThat(payment.getStatus()).isEqualTo(PaymentStatus.PROCESSING);
+        verify(paymentTimeouts).scheduleReverify(payment.getId(), payment.getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("should call the gateway before opening the transaction that applies the result")
+    void shouldVerifyOutsideTransaction() {
+        when(paymentRepository.findById(payment.getId())).thenReturn(Optional.of(payment));
+        when(gatewayFactory.getProvider(PaymentGateway.STRIPE)).thenReturn(stripeProvider);
+        when(stripeProvider.verifyPayment("sess_1"))
+                .thenReturn(PaymentVerificationResult.success("txn_1", BigDecimal.TEN, "USD"));
+
+        job.verifyPayment(payment.getId());
+
+        InOrder inOrder = inOrder(gatewayExecutor, transactionManager, paymentRepository);
+        inOrder.verify(gatewayExecutor).execute(eq(PaymentGateway.STRIPE), eq("verify"), any());
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(paymentRepository).save(payment);
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("should not apply a verification to a payment a webhook settled during the gateway call")
+    void shouldSkipPaymentSettledDuringVerify() {
+        Payment settled = Payment.builder()
+                .id(payment.getId()).bookingId(payment.getBookingId()).userId(payment.getUserId())
+                .gateway(PaymentGateway.STRIPE).status(PaymentStatus.FAILED).gatewaySessionId("sess_1")
+                .build();
+        when(paymentRepository.findById(payment.getId()))
+                .thenReturn(Optional.of(payment))
+                .thenReturn(Optional.of(settled));
+        when(gatewayFactory.getProvider(PaymentGateway.STRIPE)).thenReturn(stripeProvider);
+        when(stripeProvider.verifyPayment("sess_1"))
+                .thenReturn(PaymentVerificationResult.success("txn_1", BigDecimal.TEN, "USD"));
+
+        job.verifyPayment(payment.getId());
+
+        assertThat(settled.getStatus()).isEqualTo(PaymentStatus.FAILED);
+        verify(paymentRepository, never()).save(any());
+        verify(paymentTimeouts, never()).scheduleReverify(any(), any());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    @DisplayName("should fail a payment still processing at its expiry deadline")
+    void shouldExpireProcessingPayment() {
+        when(paymentRepository.findById(payment.getId())).thenReturn(Optional.of(payment));
+
+        job.expirePayment(payment.getId());
+
+        assertThat(payment.getStatus()).isEqualTo(PaymentStatus.FAILED);
+        verify(kafkaTemplate).send(eq("payment-events"), eq(payment.getBookingId().toString()), any(Map.class));
+    }
+
+    @Test
+    @DisplayName("should ignore expiry for a payment that already completed")
+    void shouldIgnoreCompletedPayment() {
+        payment.setStatus(PaymentStatus.SUCCESS);
+        when(paymentRepository.findById(payment.getId())).thenReturn(Optional.of(payment));
+
+        job.expirePayment(payment.getId());
+
+        assertThat(payment.getStatus()).isEqualTo(PaymentStatus.SUCCESS);
+        verify(paymentRepository, never()).save(any());
+    }
+
+    // ─────────────────────────────────────────────
+    // reconcilePayments
+    // ─────────────────────────────────────────────
+
+    @Test
+    @DisplayName("should walk keyset pages, lease each page and retry every claimed payment")
+    void shouldRetryClaimedPages() {
+        Payment first = failedPayment(25);
+        Payment second = failedPayment(20);
+        Payment third = failedPayment(10);
+        when(paymentRepository.findRetryablePage(eq(3), any(), any(), any(), any(), eq(2)))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+        stubFindById(first, second, third);
+        when(gatewayFactory.getProvider(PaymentGateway.STRIPE)).thenReturn(stripeProvider);
+        when(stripeProvider.createSession(any(CreateSessionRequest.class)))
+                .thenReturn(PaymentSessionResult.success("sess_retry", "https://stripe.com/pay"));
+        when(paymentRepository.countRetryable(eq(3), any())).thenReturn(0L);
+
+        job.reconcilePayments();
+
+        assertThat(List.of(first, second, third))
+                .allSatisfy(p -> {
+                    assertThat(p.getStatus()).isEqualTo(PaymentStatus.PROCESSING);
+                    assertThat(p.getRetryCount()).isEqualTo(1);
+                    assertThat(p.getGatewaySessionId()).isEqualTo("sess_retry");
+                });
+        // Second page starts strictly after the last row of the first
+        verify(paymentRepository).findRetryablePage(eq(3), any(), eq(second.getCreatedAt()), eq(second.getId()),
+                any(), eq(2));
+        verify(paymentRepository, times(2)).leaseForReconciliation(anyCollection(), any());
+        assertThat(meterRegistry.get("payment.reconciliation.processed").tag("outcome", "retried")
+                .counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("should leave a payment FAILED when the gateway declines the retry")
+    void shouldLeaveDeclinedPaymentFailed() {
+        Payment failed = failedPayment(10);
+        when(paymentRepository.findRetryablePage(eq(3), any(), any(), any(), any(), eq(2)))
+                .thenReturn(List.of(failed));
+        when(gatewayFactory.getProvider(PaymentGateway.STRIPE)).thenReturn(stripeProvider);
+        when(stripeProvider.createSession(any(CreateSessionRequest.class)))
+                .thenReturn(PaymentSessionResult.failure("card_declined"));
+        when(paymentRepository.countRetryable(eq(3), any())).thenReturn(1L);
+
+        job.reconcilePayments();
+
+        assertThat(failed.getStatus()).isEqualTo(PaymentStatus.FAILED);
+        verify(paymentRepository, never()).save(any());
+        verify(paymentTimeouts, never()).schedule(any(), any());
+        assertThat(meterRegistry.get("payment.reconciliation.backlog").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should not overwrite a payment that moved on while the gateway was called")
+    void shouldSkipPaymentChangedConcurrently() {
+        Payment claimed = failedPayment(10);
+        Payment current = failedPayment(10);
+        current.setId(claimed.getId());
+        current.setStatus(PaymentStatus.SUCCESS);
+        when(paymentRepository.findRetryablePage(eq(3), any(), any(), any(), any(), eq(2)))
+                .thenReturn(List.of(claimed));
+        when(paymentRepository.findById(claimed.getId())).thenReturn(Optional.of(current));
+        when(gatewayFactory.getProvider(PaymentGateway.STRIPE)).thenReturn(stripeProvider);
+        when(stripeProvider.createSession(any(CreateSessionRequest.class)))
+                .thenReturn(PaymentSessionResult.success("sess_retry", "https://stripe.com/pay"));
+
+        job.reconcilePayments();
+
+        assertThat(current.getStatus()).isEqualTo(PaymentStatus.SUCCESS);
+        verify(paymentRepository, never()).save(any());
+        assertThat(meterRegistry.get("payment.reconciliation.processed").tag("outcome", "stale")
+                .counter().count()).isEqualTo(1);
+    }
+
+    private Payment failedPayment(int minutesAgo) {
+        Payment failed = Payment.builder()
+                .id(UUID.randomUUID()).bookingId(UUID.randomUUID()).userId(UUID.randomUUID())
+                .amount(BigDecimal.TEN).currency("USD").gateway(PaymentGateway.STRIPE)
+                .status(PaymentStatus.FAILED).idempotencyKey("idem-" + minutesAgo)
+                .redirectUrl("http://return.url")
+                .build();
+        failed.setCreatedAt(Instant.now().minus(minutesAgo, ChronoUnit.MINUTES));
+        return failed;
+    }
+
+    private void stubFindById(Payment... payments) {
+        for (Payment p : payments) {
+            when(paymentRepository.findById(p.getId())).thenReturn(Optional.of(p));
+        }
+    }
+}
@@ -3,10 +3,14 @@ package com.eventhub.payment.service;
 import com.eventhub.payment.entity.Payment;
 import com.eventhub.payment.entity.PaymentGateway;
 import com.eventhub.payment.entity.PaymentStatus;
+import com.eventhub.payment.gateway.GatewayExecutor;
+import com.eventhub.payment.gateway.GatewayTimeoutException;
 import com.eventhub.payment.gateway.PaymentGatewayFactory;
 import com.eventhub.payment.gateway.PaymentGatewayProvider;
 import com.eventhub.payment.gateway.PaymentGatewayProvider.*;
+import com.eventhub.payment.repository.PaymentAuditLogRepository;
 import com.eventhub.payment.repository.PaymentRepository;
+import com.eventhub.payment.status.PaymentStatusTracker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -14,16 +18,25 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -33,11 +46,16 @@ import static org.mockito.Mockito.*;
 class PaymentServiceTest {
 
     @Mock private PaymentRepository paymentRepository;
+    @Mock private PaymentAuditLogRepository auditLogRepository;
     @Mock private PaymentGatewayFactory gatewayFactory;
     @Mock private KafkaTemplate<String, Object> kafkaTemplate;
     @Mock private PaymentGatewayProvider stripeProvider;
+    @Mock private PaymentTimeouts paymentTimeouts;
+    @Mock private GatewayExecutor gatewayExecutor;
+    @Mock private PlatformTransactionManager transactionManager;
+    @Mock private PaymentStatusTracker statusTracker;
 
-    @InjectMocks private PaymentService paymentService;
+    private PaymentService paymentService;
 
     @Captor private ArgumentCaptor<Payment> paymentCaptor;
 
@@ -51,6 +69,11 @@ class PaymentServiceTest {
 
         lenient().when(kafkaTemplate.send(anyString(), anyString(), any()))
                 .thenReturn(CompletableFuture.completedFuture(null));
+        lenient().when(gatewayExecutor.execute(any(PaymentGateway.class), anyString(), any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(2).get());
+
+        paymentService = new PaymentService(paymentRepository, auditLogRepository, gatewayFactory, kafkaTemplate,
+                paymentTimeouts, gatewayExecutor, new TransactionTemplate(transactionManager), statusTracker);
     }
 
     // ─────────────────────────────────────────────
@@ -68,11 +91,7 @@ class PaymentServiceTest {
             when(gatewayFactory.getProvider(PaymentGateway.STRIPE)).thenReturn(stripeProvider);
             when(stripeProvider.createSession(any(CreateSessionRequest.class)))
                     .thenReturn(new PaymentSessionResult(true, "sess_123", "https://stripe.com/pay", null));
-            when(paymentRepository.save(any(Payment.class))).thenAnswer(inv -> {
-                Payment p = inv.getArgument(0);
-                p.setId(UUID.randomUUID());
-                return p;
-            });
+            stubReservation();
 
             Payment result = paymentService.initiatePayment(
                     bookingId, userId, BigDecimal.valueOf(100), "USD", "STRIPE",
@@ -82,6 +101,31 @@ class PaymentServiceTest {
             assertThat(result.getStatus()).isEqualTo(PaymentStatus.PROCESSING);
             assertThat(result.getGatewaySessionId()).isEqualTo("sess_123");
             assertThat(result.getRedirectUrl()).isEqualTo("https://stripe.com/pay");
+            verify(paymentTimeouts).scheduleInitiation(result.getId());
+            verify(paymentTimeouts).cancelInitiation(result.getId());
+            verify(paymentTimeouts).schedule(eq(result.getId()), any());
+        }
+
+        @Test
+        @DisplayName("should call the gateway between two committed transactions")
+        void shouldCallGatewayOutsideTransaction() {
+            when(paymentRepository.findByIdempotencyKey("idem-1")).thenReturn(Optional.empty());
+            when(gatewayFactory.getProvider(PaymentGateway.STRIPE)).thenReturn(stripeProvider);
+            when(stripeProvider.createSession(any(CreateSessionRequest.class)))
+                    .thenReturn(new PaymentSessionResult(true, "sess_123", "https://stripe.com/pay", null));
+            stubReservation();
+
+            paymentService.initiatePayment(
+                    bookingId, userId, BigDecimal.valueOf(100), "USD", "STRIPE",
+                    "http://return.url", "idem-1");
+
+            InOrder inOrder = inOrder(transactionManager, paymentRepository, gatewayExecutor);
+            inOrder.verify(paymentRepository).save(any(Payment.class));
+            inOrder.verify(transactionManager).commit(any());
+            inOrder.verify(gatewayExecutor).execute(eq(PaymentGateway.STRIPE), eq("create_session"), any());
+            inOrder.verify(transactionManager).getTransaction(any());
+            inOrder.verify(paymentRepository).save(any(Payment.class));
+            inOrder.verify(transactionManager).commit(any());
         }
 
         @Test
@@ -98,7 +142,7 @@ class PaymentServiceTest {
                     "http://return.url", "idem-1");
 
             assertThat(result.getId()).isEqualTo(existing.getId());
-            verify(gatewayFactory, never()).getProvider(any());
+            verify(gatewayFactory, never()).getProvider(any(PaymentGateway.class));
         }
 
         @Test
@@ -108,12 +152,198 @@ class PaymentServiceTest {
             when(gatewayFactory.getProvider(PaymentGateway.STRIPE)).thenReturn(stripeProvider);
             when(stripeProvider.createSession(any(CreateSessionRequest.class)))
                     .thenReturn(new PaymentSessionResult(false, null, null, "Card declined"));
+            UUID paymentId = stubReservation();
 
             assertThatThrownBy(() -> paymentService.initiatePayment(
                     bookingId, userId, BigDecimal.valueOf(100), "USD", "STRIPE",
                     "http://return.url", "idem-fail"))
                     .isInstanceOf(IllegalStateException.class)
                     .hasMessageContaining("Card declined");
+            verify(paymentRepository).deleteById(paymentId);
+        }
+
+        @Test
+        @DisplayName("should release the reservation when the gateway bulkhead rejects the call")
+        void shouldReleaseReservationWhenGatewayRejected() {
+            when(paymentRepository.findByIdempotencyKey("idem-busy")).thenReturn(Optional.empty());
+            when(gatewayFactory.getProvider(PaymentGateway.STRIPE)).thenReturn(stripeProvider);
+            when(gatewayExecutor.execute(any(PaymentGateway.class), anyString(), any()))
+                    .thenThrow(new IllegalStateException("STRIPE gateway is at capacity, try again shortly"));
+            UUID paymentId = stubReservation();
+
+            assertThatThrownBy(() -> paymentService.initiatePayment(
+                    bookingId, userId, BigDecimal.valueOf(100), "USD", "STRIPE",
+                    "http://return.url", "idem-busy"))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("at capacity");
+            verify(paymentRepository).deleteById(paymentId);
+            verify(stripeProvider, never()).createSession(any());
+            verify(kafkaTemplate).send(eq("payment-events"), anyString(), argThat(map -> {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> m = (Map<String, Object>) map;
+                return "payment.failed".equals(m.get("eventType"));
+            }));
+        }
+
+        @Test
+        @DisplayName("should keep the reservation for reconciliation when the gateway call times out")
+        void shouldKeepReservationWhenGatewayTimesOut() {
+            when(paymentRepository.findByIdempotencyKey("idem-slow")).thenReturn(Optional.empty());
+            when(gatewayExecutor.execute(any(PaymentGateway.class), anyString(), any()))
+                    .thenThrow(new GatewayTimeoutException("STRIPE gateway timed out"));
+            UUID paymentId = stubReservation();
+
+            assertThatThrownBy(() -> paymentService.initiatePayment(
+                    bookingId, userId, BigDecimal.valueOf(100), "USD", "STRIPE",
+                    "http://return.url", "idem-slow"))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("still being initiated");
+            verify(paymentRepository, never()).deleteById(paymentId);
+            verify(paymentTimeouts, never()).cancelInitiation(paymentId);
+            verifyNoInteractions(kafkaTemplate);
+        }
+
+        @Test
+        @DisplayName("should report a concurrent request that reserved the key first as still in progress")
+        void shouldRejectDuplicateWhileInitiating() {
+            Payment winner = Payment.builder()
+                    .id(UUID.randomUUID()).bookingId(bookingId).userId(userId)
+                    .status(PaymentStatus.INITIATED).idempotencyKey("idem-race")
+                    .build();
+            when(paymentRepository.findByIdempotencyKey("idem-race"))
+                    .thenReturn(Optional.empty())
+                    .thenReturn(Optional.of(winner));
+            when(paymentRepository.save(any(Payment.class)))
+                    .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+            assertThatThrownBy(() -> paymentService.initiatePayment(
+                    bookingId, userId, BigDecimal.valueOf(100), "USD", "STRIPE",
+                    "http://return.url", "idem-race"))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("still being initiated");
+            verifyNoInteractions(gatewayExecutor);
+        }
+
+        @Test
+        @DisplayName("should not record a session for a reservation the initiation timer already dropped")
+        void shouldNotRecordAbandonedReservation() {
+            when(paymentRepository.findByIdempotencyKey("idem-slow")).thenReturn(Optional.empty());
+            when(gatewayFactory.getProvider(PaymentGateway.STRIPE)).thenReturn(stripeProvider);
+            when(stripeProvider.createSession(any(CreateSessionRequest.class)))
+                    .thenReturn(new PaymentSessionResult(true, "sess_late", "https://stripe.com/pay", null));
+            UUID paymentId = stubReservation();
+            when(paymentRepository.findById(paymentId)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> paymentService.initiatePayment(
+                    bookingId, userId, BigDecimal.valueOf(100), "USD", "STRIPE",
+                    "http://return.url", "idem-slow"))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("abandoned");
+            verify(paymentTimeouts, never()).schedule(any(), any());
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // reconcileInitiation
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("reconcileInitiation")
+    class ReconcileInitiationTests {
+
+        private Payment stuck() {
+            Payment stuck = Payment.builder()
+                    .id(UUID.randomUUID()).bookingId(bookingId).userId(userId)
+                    .amount(BigDecimal.valueOf(100)).currency("USD").gateway(PaymentGateway.STRIPE)
+                    .status(PaymentStatus.INITIATED).idempotencyKey("idem-stuck")
+                    .redirectUrl("http://return.url")
+                    .build();
+            stuck.setCreatedAt(Instant.now().minus(Duration.ofMinutes(3)));
+            return stuck;
+        }
+
+        @Test
+        @DisplayName("should record the session the gateway returns for the same idempotency key")
+        void shouldRecordRecoveredSession() {
+            Payment stuck = stuck();
+            when(paymentRepository.findById(stuck.getId())).thenReturn(Optional.of(stuck));
+            when(paymentRepository.save(any(Payment.class))).thenAnswer(inv -> inv.getArgument(0));
+            when(gatewayFactory.getProvider(PaymentGateway.STRIPE)).thenReturn(stripeProvider);
+            when(stripeProvider.createSession(argThat(r -> "idem-stuck".equals(r.idempotencyKey()))))
+                    .thenReturn(new PaymentSessionResult(true, "sess_found", "https://stripe.com/pay", null));
+
+            paymentService.reconcileInitiation(stuck.getId());
+
+            assertThat(stuck.getStatus()).isEqualTo(PaymentStatus.PROCESSING);
+            assertThat(stuck.getGatewaySessionId()).isEqualTo("sess_found");
+            verify(paymentTimeouts).cancelInitiation(stuck.getId());
+            verify(paymentTimeouts).schedule(eq(stuck.getId()), any());
+            verify(statusTracker).publish(stuck);
+            verifyNoInteractions(kafkaTemplate);
+        }
+
+        @Test
+        @DisplayName("should keep the reservation and its re-armed timer while the gateway still times out")
+        void shouldRetryWhileUnresolved() {
+            Payment stuck = stuck();
+            when(paymentRepository.findById(stuck.getId())).thenReturn(Optional.of(stuck));
+            when(gatewayFactory.getProvider(PaymentGateway.STRIPE)).thenReturn(stripeProvider);
+            when(gatewayExecutor.execute(any(PaymentGateway.class), anyString(), any()))
+                    .thenThrow(new GatewayTimeoutException("STRIPE gateway timed out"));
+
+            paymentService.reconcileInitiation(stuck.getId());
+
+            verify(paymentTimeouts).scheduleInitiation(stuck.getId());
+            verify(paymentTimeouts, never()).cancelInitiation(any());
+            verify(paymentRepository, never()).deleteById(any());
+            verifyNoInteractions(kafkaTemplate);
+        }
+
+        @Test
+        @DisplayName("should drop a reservation the gateway refuses and report the payment failed")
+        void shouldDropRefusedReservation() {
+            Payment stuck = stuck();
+            when(paymentRepository.findById(stuck.getId())).thenReturn(Optional.of(stuck));
+            when(gatewayFactory.getProvider(PaymentGateway.STRIPE)).thenReturn(stripeProvider);
+            when(stripeProvider.createSession(any(CreateSessionRequest.class)))
+                    .thenReturn(new PaymentSessionResult(false, null, null, "Card declined"));
+
+            paymentService.reconcileInitiation(stuck.getId());
+
+            verify(paymentRepository).deleteById(stuck.getId());
+            verify(kafkaTemplate).send(eq("payment-events"), anyString(), argThat(map -> {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> m = (Map<String, Object>) map;
+                return "payment.failed".equals(m.get("eventType"));
+            }));
+        }
+
+        @Test
+        @DisplayName("should give up on a reservation past the payment expiry deadline")
+        void shouldDropExpiredReservation() {
+            Payment stuck = stuck();
+            stuck.setCreatedAt(Instant.now().minus(PaymentTimeouts.EXPIRE_AFTER).minusSeconds(1));
+            when(paymentRepository.findById(stuck.getId())).thenReturn(Optional.of(stuck));
+
+            paymentService.reconcileInitiation(stuck.getId());
+
+            verify(paymentRepository).deleteById(stuck.getId());
+            verifyNoInteractions(gatewayExecutor);
+        }
+
+        @Test
+        @DisplayName("should leave a payment that already reached PROCESSING alone")
+        void shouldIgnoreRecordedPayment() {
+            Payment recorded = Payment.builder()
+                    .id(UUID.randomUUID()).bookingId(bookingId).userId(userId)
+                    .status(PaymentStatus.PROCESSING).idempotencyKey("idem-ok")
+                    .build();
+            when(paymentRepository.findById(recorded.getId())).thenReturn(Optional.of(recorded));
+
+            paymentService.reconcileInitiation(recorded.getId());
+
+            verify(paymentRepository, never()).deleteById(any());
+            verifyNoInteractions(gatewayExecutor, kafkaTemplate);
         }
     }
 
@@ -125,6 +355,32 @@ class PaymentServiceTest {
     @DisplayName("handleWebhook")
     class HandleWebhookTests {
 
+        @Test
+        @DisplayName("should publish the payment event only once the transaction commits")
+        void shouldPublishAfterCommit() {
+            Payment payment = Payment.builder()
+                    .id(UUID.randomUUID()).bookingId(bookingId).userId(userId)
+                    .status(PaymentStatus.PROCESSING).gatewaySessionId("sess_tx")
+                    .build();
+            when(paymentRepository.findByGatewaySessionId("sess_tx")).thenReturn(Optional.of(payment));
+
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                paymentService.handleWebhook("STRIPE", "sess_tx", "txn_tx", "SUCCESS", BigDecimal.TEN);
+                verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
+
+                // A rolled-back webhook batch never publishes
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+                verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
+
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+            verify(kafkaTemplate).send(eq("payment-events"), eq(bookingId.toString()), any());
+        }
+
         @Test
         @DisplayName("should mark payment SUCCESS and publish event")
         void shouldHandleSuccessWebhook() {
@@ -135,9 +391,11 @@ class PaymentServiceTest {
             when(paymentRepository.findByGatewaySessionId("sess_123")).thenReturn(Optional.of(payment));
             when(paymentRepository.save(any(Payment.class))).thenAnswer(inv -> inv.getArgument(0));
 
-            paymentService.handleWebhook("STRIPE", "sess_123", "txn_abc", "SUCCESS", BigDecimal.valueOf(100));
+            boolean matched = paymentService.handleWebhook("STRIPE", "sess_123", "txn_abc", "SUCCESS", BigDecimal.valueOf(100));
 
+            assertThat(matched).isTrue();
             assertThat(payment.getStatus()).isEqualTo(PaymentStatus.SUCCESS);
+            verify(statusTracker).publish(payment);
             assertThat(payment.getGatewayTransactionId()).isEqualTo("txn_abc");
             verify(kafkaTemplate).send(eq("payment-events"), anyString(), argThat(map -> {
                 @SuppressWarnings("unchecked")
@@ -159,6 +417,21 @@ class PaymentServiceTest {
             paymentService.handleWebhook("STRIPE", "sess_456", "txn_def", "FAILED", BigDecimal.valueOf(100));
 
             assertThat(payment.getStatus()).isEqualTo(PaymentStatus.FAILED);
+            verify(auditLogRepository).save(argThat(entry -> entry.getPaymentId().equals(payment.getId())
+                    && entry.getOldStatus() == PaymentStatus.PROCESSING
+                    && entry.getNewStatus() == PaymentStatus.FAILED
+                    && "WEBHOOK".equals(entry.getAction())));
+        }
+
+        @Test
+        @DisplayName("should report an unknown session without failing")
+        void shouldReportUnknownSession() {
+            when(paymentRepository.findByGatewaySessionId("sess_unknown")).thenReturn(Optional.empty());
+
+            boolean matched = paymentService.handleWebhook("STRIPE", "sess_unknown", "txn", "SUCCESS", BigDecimal.TEN);
+
+            assertThat(matched).isFalse();
+            verifyNoInteractions(auditLogRepository, kafkaTemplate);
         }
 
         @Test
@@ -173,6 +446,7 @@ class PaymentServiceTest {
             paymentService.handleWebhook("STRIPE", "sess_789", "txn_ghi", "SUCCESS", BigDecimal.valueOf(100));
 
             verify(paymentRepository, never()).save(any());
+            verify(auditLogRepository, never()).save(any());
         }
     }
 
@@ -194,9 +468,11 @@ class PaymentServiceTest {
                     .amount(BigDecimal.valueOf(100)).currency("USD")
                     .build();
             when(paymentRepository.findByBookingId(bookingId)).thenReturn(Optional.of(payment));
+            when(paymentRepository.claimForRefund(payment.getId())).thenReturn(1);
             when(gatewayFactory.getProvider(PaymentGateway.STRIPE)).thenReturn(stripeProvider);
             when(stripeProvider.refund("txn_abc", BigDecimal.valueOf(100), "USD"))
                     .thenReturn(new RefundResult(true, "ref_123", BigDecimal.valueOf(100), null));
+            when(paymentRepository.findById(payment.getId())).thenReturn(Optional.of(payment));
             when(paymentRepository.save(any(Payment.class))).thenAnswer(inv -> inv.getArgument(0));
 
             Payment result = paymentService.refundPayment(bookingId);
@@ -217,5 +493,79 @@ class PaymentServiceTest {
                     .isInstanceOf(IllegalStateException.class)
                     .hasMessageContaining("only refund successful");
         }
+
+        @Test
+        @DisplayName("should not reach the gateway when another refund already claimed the payment")
+        void shouldRejectConcurrentRefund() {
+            Payment payment = successfulPayment();
+            when(paymentRepository.findByBookingId(bookingId)).thenReturn(Optional.of(payment));
+            when(paymentRepository.claimForRefund(payment.getId())).thenReturn(0);
+
+            assertThatThrownBy(() -> paymentService.refundPayment(bookingId))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("already being refunded");
+            verifyNoInteractions(gatewayExecutor);
+        }
+
+        @Test
+        @DisplayName("should release the claim when the gateway refuses the refund")
+        void shouldReleaseClaimOnRefusal() {
+            Payment payment = successfulPayment();
+            when(paymentRepository.findByBookingId(bookingId)).thenReturn(Optional.of(payment));
+            when(paymentRepository.claimForRefund(payment.getId())).thenReturn(1);
+            when(gatewayFactory.getProvider(PaymentGateway.STRIPE)).thenReturn(stripeProvider);
+            when(stripeProvider.refund("txn_abc", BigDecimal.valueOf(100), "USD"))
+                    .thenReturn(new RefundResult(false, null, null, "charge_disputed"));
+
+            assertThatThrownBy(() -> paymentService.refundPayment(bookingId))
+                    .hasMessageContaining("charge_disputed");
+            verify(paymentRepository).releaseRefundClaim(payment.getId());
+        }
+
+        @Test
+        @DisplayName("should keep the claim when the refund call times out")
+        void shouldKeepClaimOnTimeout() {
+            Payment payment = successfulPayment();
+            when(paymentRepository.findByBookingId(bookingId)).thenReturn(Optional.of(payment));
+            when(paymentRepository.claimForRefund(payment.getId())).thenReturn(1);
+            when(gatewayFactory.getProvider(PaymentGateway.STRIPE)).thenReturn(stripeProvider);
+            when(gatewayExecutor.execute(any(PaymentGateway.class), anyString(), any()))
+                    .thenThrow(new GatewayTimeoutException("STRIPE gateway timed out"));
+
+            assertThatThrownBy(() -> paymentService.refundPayment(bookingId))
+                    .isInstanceOf(GatewayTimeoutException.class);
+            verify(paymentRepository, never()).releaseRefundClaim(any());
+            verifyNoInteractions(kafkaTemplate);
+        }
+
+        private Payment successfulPayment() {
+            return Payment.builder()
+                    .id(UUID.randomUUID()).bookingId(bookingId).userId(userId)
+                    .status(PaymentStatus.SUCCESS).gateway(PaymentGateway.STRIPE)
+                    .gatewayTransactionId("txn_abc")
+                    .amount(BigDecimal.valueOf(100)).currency("USD")
+                    .build();
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Helpers
+    // ─────────────────────────────────────────────
+
+    /** Persist reservations with a generated id and serve them back from findById. */
+    private UUID stubReservation() {
+        UUID paymentId = UUID.randomUUID();
+        Map<UUID, Payment> rows = new HashMap<>();
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(inv -> {
+            Payment p = inv.getArgument(0);
+            if (p.getId() == null) {
+                p.setId(paymentId);
+            }
+            rows.put(p.getId(), p);
+            return p;
+        });
+        lenient().when(paymentRepository.findById(paymentId))
+                .thenAnswer(inv -> Optional.ofNullable(rows.get(paymentId)));
+        return paymentId;
     }
 }
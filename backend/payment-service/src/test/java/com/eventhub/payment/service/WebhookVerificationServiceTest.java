@@ -0,0 +1,148 @@
+package com.eventhub.payment.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.*;
+
+class WebhookVerificationServiceTest {
+
+    private static final String PAYLOAD = "{\"id\":\"evt_1\",\"sessionId\":\"sess_1\",\"status\":\"succeeded\"}";
+
+    private WebhookVerificationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new WebhookVerificationService();
+        ReflectionTestUtils.setField(service, "stripeWebhookSecret", "whsec_new,whsec_old");
+        ReflectionTestUtils.setField(service, "razorpayWebhookSecret", "rzp_secret");
+        ReflectionTestUtils.setField(service, "paypalWebhookId", "");
+        service.init();
+    }
+
+    // ─────────────────────────────────────────────
+    // Stripe
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("verifyStripeSignature")
+    class StripeTests {
+
+        @Test
+        @DisplayName("should accept a signature made with the current secret")
+        void shouldAcceptCurrentSecret() {
+            String header = "t=1700000000,v1=" + hmac("whsec_new", "1700000000." + PAYLOAD);
+
+            assertThat(service.verifyStripeSignature(PAYLOAD, header)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should accept a signature made with a secret being rotated out")
+        void shouldAcceptRotatedSecret() {
+            String header = "t=1700000000,v1=" + hmac("whsec_old", "1700000000." + PAYLOAD);
+
+            assertThat(service.verifyStripeSignature(PAYLOAD, header)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should match any of several v1 signatures, in any case")
+        void shouldMatchAnyV1Signature() {
+            String header = "t=1700000000,v1=" + "0".repeat(64)
+                    + ",v1=" + hmac("whsec_new", "1700000000." + PAYLOAD).toUpperCase()
+                    + ",v0=ignored";
+
+            assertThat(service.verifyStripeSignature(PAYLOAD, header)).isTrue();
+        }
+
+        @Test
+        @DisplayName("should reject a tampered payload or an unknown secret")
+        void shouldRejectMismatch() {
+            String header = "t=1700000000,v1=" + hmac("whsec_new", "1700000000." + PAYLOAD);
+            String foreign = "t=1700000000,v1=" + hmac("whsec_other", "1700000000." + PAYLOAD);
+
+            assertThat(service.verifyStripeSignature(PAYLOAD.replace("succeeded", "failed"), header)).isFalse();
+            assertThat(service.verifyStripeSignature(PAYLOAD, foreign)).isFalse();
+        }
+
+        @Test
+        @DisplayName("should reject malformed headers")
+        void shouldRejectMalformedHeaders() {
+            String signature = hmac("whsec_new", "1700000000." + PAYLOAD);
+
+            assertThat(service.verifyStripeSignature(PAYLOAD, "v1=" + signature)).isFalse();
+            assertThat(service.verifyStripeSignature(PAYLOAD, "t=1700000000")).isFalse();
+            assertThat(service.verifyStripeSignature(PAYLOAD, "t=17x,v1=" + signature)).isFalse();
+            assertThat(service.verifyStripeSignature(PAYLOAD, "t=1700000000,v1=" + signature.substring(2))).isFalse();
+            assertThat(service.verifyStripeSignature(PAYLOAD, "t=1700000000,v1=zz" + signature.substring(2))).isFalse();
+            assertThat(service.verifyStripeSignature(PAYLOAD, "garbage")).isFalse();
+            assertThat(service.verifyStripeSignature(PAYLOAD, null)).isFalse();
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Razorpay
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("verifyRazorpaySignature")
+    class RazorpayTests {
+
+        @Test
+        @DisplayName("should accept a valid signature and reject a tampered payload")
+        void shouldVerifySignature() {
+            String signature = hmac("rzp_secret", PAYLOAD);
+
+            assertThat(service.verifyRazorpaySignature(PAYLOAD, signature)).isTrue();
+            assertThat(service.verifyRazorpaySignature(PAYLOAD + " ", signature)).isFalse();
+        }
+
+        @Test
+        @DisplayName("should sign non-ASCII and multi-buffer payloads exactly as their UTF-8 bytes")
+        void shouldEncodeUtf8LikeGetBytes() {
+            String unicode = "{\"name\":\"Café ✓ \uD83C\uDFAB\",\"broken\":\"\uD83C\"}";
+            String large = "{\"pad\":\"" + "é".repeat(5000) + "\"}";
+
+            assertThat(service.verifyRazorpaySignature(unicode, hmac("rzp_secret", unicode))).isTrue();
+            assertThat(service.verifyRazorpaySignature(large, hmac("rzp_secret", large))).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("should skip verification when no secret is configured")
+    void shouldSkipWhenUnconfigured() {
+        ReflectionTestUtils.setField(service, "stripeWebhookSecret", "");
+        service.init();
+
+        assertThat(service.verify("stripe", PAYLOAD, "anything")).isTrue();
+    }
+
+    @Test
+    @DisplayName("should compare hex against the digest without early exit on the first byte")
+    void shouldCompareHexAgainstDigest() {
+        byte[] digest = HexFormat.of().parseHex("00ff10");
+
+        assertThat(HmacSha256Verifier.equalsHex(digest, "00FF10", 0, 6)).isTrue();
+        assertThat(HmacSha256Verifier.equalsHex(digest, "xx00ff10yy", 2, 8)).isTrue();
+        assertThat(HmacSha256Verifier.equalsHex(digest, "01ff10", 0, 6)).isFalse();
+        assertThat(HmacSha256Verifier.equalsHex(digest, "00ff1g", 0, 6)).isFalse();
+        assertThat(HmacSha256Verifier.equalsHex(digest, "00ff1", 0, 5)).isFalse();
+    }
+
+    private static String hmac(String secret, String message) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(message.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.eventhub.payment.status;
+
+import com.eventhub.payment.entity.Payment;
+import com.eventhub.payment.entity.PaymentStatus;
+import com.eventhub.payment.repository.PaymentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentStatusTrackerTest {
+
+    @Mock private PaymentRepository paymentRepository;
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private ValueOperations<String, String> valueOps;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentStatusTracker tracker;
+    private Payment payment;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new PaymentStatusTracker(paymentRepository, redisTemplate, objectMapper, meterRegistry);
+        ReflectionTestUtils.setField(tracker, "cacheTtlSeconds", 10L);
+        ReflectionTestUtils.setField(tracker, "maxWaiters", 100);
+        tracker.registerMetrics();
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOps);
+
+        payment = Payment.builder()
+                .id(UUID.randomUUID()).bookingId(UUID.randomUUID()).userId(UUID.randomUUID())
+                .status(PaymentStatus.PROCESSING).idempotencyKey("idem-1")
+                .build();
+        payment.setUpdatedAt(Instant.now());
+    }
+
+    @Test
+    @DisplayName("should answer repeated reads from the cache")
+    void shouldServeFromCache() throws Exception {
+        String key = "payment:status:" + payment.getBookingId();
+        when(valueOps.get(key)).thenReturn(objectMapper.writeValueAsString(PaymentStatusView.of(payment)));
+
+        PaymentStatusView view = tracker.current(payment.getBookingId(), payment.getUserId());
+
+        assertThat(view.status()).isEqualTo(PaymentStatus.PROCESSING);
+        verifyNoInteractions(paymentRepository);
+    }
+
+    @Test
+    @DisplayName("should refuse a cached status to a user who is not paying for the booking")
+    void shouldRejectOtherUserFromCache() throws Exception {
+        String key = "payment:status:" + payment.getBookingId();
+        when(valueOps.get(key)).thenReturn(objectMapper.writeValueAsString(PaymentStatusView.of(payment)));
+
+        assertThatThrownBy(() -> tracker.current(payment.getBookingId(), UUID.randomUUID()))
+                .isInstanceOf(SecurityException.class);
+        verifyNoInteractions(paymentRepository);
+    }
+
+    @Test
+    @DisplayName("should check ownership before parking a long-poll request")
+    void shouldRejectOtherUserBeforeParking() {
+        when(paymentRepository.findByBookingId(payment.getBookingId())).thenReturn(Optional.of(payment));
+
+        assertThatThrownBy(() -> tracker.awaitChange(payment.getBookingId(), UUID.randomUUID(),
+                PaymentStatus.PROCESSING, Duration.ofSeconds(5)))
+                .isInstanceOf(SecurityException.class);
+        assertThat(meterRegistry.get("payment.status.waiters").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("should load from the database on a miss and cache the result only if no newer view landed")
+    void shouldLoadAndCacheOnMiss() {
+        when(paymentRepository.findByBookingId(payment.getBookingId())).thenReturn(Optional.of(payment));
+
+        PaymentStatusView view = tracker.current(payment.getBookingId(), payment.getUserId());
+
+        assertThat(view.paymentId()).isEqualTo(payment.getId());
+        verify(valueOps).setIfAbsent(eq("payment:status:" + payment.getBookingId()), anyString(), eq(Duration.ofSeconds(10)));
+        verify(valueOps, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("should overwrite the cached view when a change is published")
+    void shouldOverwriteCacheOnPublish() {
+        payment.setStatus(PaymentStatus.SUCCESS);
+
+        tracker.publish(payment);
+
+        verify(valueOps).set(eq("payment:status:" + payment.getBookingId()), contains("SUCCESS"), eq(Duration.ofSeconds(10)));
+        verify(valueOps, never()).setIfAbsent(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("should still answer from the database when Redis is down")
+    void shouldFallBackWhenRedisDown() {
+        when(valueOps.get(anyString())).thenThrow(new org.springframework.data.redis.RedisConnectionFailureException("down"));
+        doThrow(new org.springframework.data.redis.RedisConnectionFailureException("down"))
+                .when(valueOps).setIfAbsent(anyString(), anyString(), any(Duration.class));
+        when(paymentRepository.findByBookingId(payment.getBookingId())).thenReturn(Optional.of(payment));
+
+        assertThat(tracker.current(payment.getBookingId(), payment.getUserId()).status()).isEqualTo(PaymentStatus.PROCESSING);
+    }
+
+    @Test
+    @DisplayName("should return immediately when the status already differs")
+    void shouldReturnImmediatelyWhenChanged() {
+        payment.setStatus(PaymentStatus.SUCCESS);
+        when(paymentRepository.findByBookingId(payment.getBookingId())).thenReturn(Optional.of(payment));
+
+        PaymentStatusView view = tracker.awaitChange(payment.getBookingId(), payment.getUserId(), PaymentStatus.PROCESSING, Duration.ofSeconds(5));
+
+        assertThat(view.status()).isEqualTo(PaymentStatus.SUCCESS);
+        assertThat(meterRegistry.get("payment.status.long_poll").tag("outcome", "immediate").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should wake a parked request when a change is published")
+    void shouldWakeOnPublish() {
+        when(paymentRepository.findByBookingId(payment.getBookingId())).thenReturn(Optional.of(payment));
+
+        CompletableFuture<PaymentStatusView> polled = CompletableFuture.supplyAsync(() ->
+                tracker.awaitChange(payment.getBookingId(), payment.getUserId(), PaymentStatus.PROCESSING, Duration.ofSeconds(10)));
+        awaitParked();
+
+        Payment succeeded = Payment.builder()
+                .id(payment.getId()).bookingId(payment.getBookingId()).userId(payment.getUserId())
+                .status(PaymentStatus.SUCCESS).idempotencyKey("idem-1")
+                .build();
+        tracker.publish(succeeded);
+
+        assertThat(polled.join().status()).isEqualTo(PaymentStatus.SUCCESS);
+        verify(redisTemplate).convertAndSend(eq(PaymentStatusTracker.CHANGES_CHANNEL), contains("SUCCESS"));
+    }
+
+    @Test
+    @DisplayName("should wake a parked request on a change announced by another replica")
+    void shouldWakeOnRemoteChange() throws Exception {
+        when(paymentRepository.findByBookingId(payment.getBookingId())).thenReturn(Optional.of(payment));
+
+        CompletableFuture<PaymentStatusView> polled = CompletableFuture.supplyAsync(() ->
+                tracker.awaitChange(payment.getBookingId(), payment.getUserId(), PaymentStatus.PROCESSING, Duration.ofSeconds(10)));
+        awaitParked();
+
+        PaymentStatusView failed = new PaymentStatusView(payment.getBookingId(), payment.getId(), payment.getUserId(),
+                PaymentStatus.FAILED, "card_declined", Instant.now());
+        byte[] body = objectMapper.writeValueAsString(failed).getBytes(StandardCharsets.UTF_8);
+        tracker.onMessage(new DefaultMessage(PaymentStatusTracker.CHANGES_CHANNEL.getBytes(), body), null);
+
+        assertThat(polled.join().failureReason()).isEqualTo("card_declined");
+    }
+
+    @Test
+    @DisplayName("should return the unchanged status when the wait runs out")
+    void shouldTimeOut() {
+        when(paymentRepository.findByBookingId(payment.getBookingId())).thenReturn(Optional.of(payment));
+
+        PaymentStatusView view = tracker.awaitChange(payment.getBookingId(), payment.getUserId(), PaymentStatus.PROCESSING,
+                Duration.ofMillis(100));
+
+        assertThat(view.status()).isEqualTo(PaymentStatus.PROCESSING);
+        assertThat(meterRegistry.get("payment.status.long_poll").tag("outcome", "timeout").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("payment.status.waiters").gauge().value()).isZero();
+    }
+
+    private void awaitParked() {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (meterRegistry.get("payment.status.waiters").gauge().value() < 1.0) {
+            assertThat(System.currentTimeMillis()).as("request parked").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.eventhub.payment.timer;
+
+import com.eventhub.payment.entity.ScheduledTimer;
+import com.eventhub.payment.repository.ScheduledTimerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TimerDispatcherTest {
+
+    @Mock
+    private DurableTimerQueue timerQueue;
+
+    @Mock
+    private ScheduledTimerRepository timerRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<UUID> fired = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TimerDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        TimerHandler handler = new TimerHandler() {
+            @Override
+            public String timerType() {
+                return "test.timer";
+            }
+
+            @Override
+            public void onTimeout(UUID targetId) {
+                if (targetId.getMostSignificantBits() == 0) {
+                    throw new IllegalStateException("boom");
+                }
+                fired.add(targetId);
+            }
+        };
+        dispatcher = new TimerDispatcher(timerQueue, timerRepository,
+                new TransactionTemplate(transactionManager), List.of(handler), meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 200);
+        ReflectionTestUtils.setField(dispatcher, "retryDelayMs", 5000L);
+        ReflectionTestUtils.setField(dispatcher, "maxRetryDelayMs", 300_000L);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 10);
+    }
+
+    @Test
+    @DisplayName("should run the handler for timers popped from Redis once claimed")
+    void shouldFireClaimedTimers() {
+        UUID target = UUID.randomUUID();
+        when(timerQueue.popDue(any(Instant.class), eq(200)))
+                .thenReturn(List.of(new DurableTimerQueue.DueTimer("test.timer", target, Instant.now())));
+        when(timerRepository.claim(eq("test.timer"), eq(target), any(Instant.class))).thenReturn(1);
+
+        dispatcher.pollDue();
+
+        assertThat(fired).containsExactly(target);
+        assertThat(meterRegistry.get("payment.timers.fired").tag("outcome", "fired").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should not run the handler when another replica or a cancel won the claim")
+    void shouldSkipUnclaimedTimers() {
+        UUID target = UUID.randomUUID();
+        when(timerRepository.claim(eq("test.timer"), eq(target), any(Instant.class))).thenReturn(0);
+
+        dispatcher.fire("test.timer", target, Instant.now());
+
+        assertThat(fired).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should record the failure and re-enqueue the timer with backoff when the handler throws")
+    void shouldRetryFailedTimers() {
+        UUID target = new UUID(0, 42);
+        when(timerRepository.claim(eq("test.timer"), eq(target), any(Instant.class))).thenReturn(1);
+        when(timerRepository.findByTimerTypeAndTargetId("test.timer", target))
+                .thenReturn(Optional.of(ScheduledTimer.builder().attempts(2).build()));
+        when(timerRepository.recordFailure(eq("test.timer"), eq(target), eq("boom"), any(Instant.class), eq(10)))
+                .thenReturn(1);
+
+        Instant before = Instant.now();
+        dispatcher.fire("test.timer", target, Instant.now());
+
+        verify(transactionManager).rollback(any());
+        // Third attempt: 5 s doubled twice; the row's deadline moves too, so the sweep waits as well
+        ArgumentCaptor<Instant> retryAt = ArgumentCaptor.forClass(Instant.class);
+        verify(timerRepository).recordFailure(eq("test.timer"), eq(target), eq("boom"), retryAt.capture(), eq(10));
+        assertThat(retryAt.getValue()).isBetween(before.plusSeconds(20), Instant.now().plusSeconds(20));
+        verify(timerQueue).enqueue(eq("test.timer"), eq(target), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("should park a timer as DEAD instead of re-enqueueing it once attempts run out")
+    void shouldStopRetryingDeadTimers() {
+        UUID target = new UUID(0, 43);
+        when(timerRepository.claim(eq("test.timer"), eq(target), any(Instant.class))).thenReturn(1);
+        when(timerRepository.findByTimerTypeAndTargetId("test.timer", target))
+                .thenReturn(Optional.of(ScheduledTimer.builder().attempts(9).build()));
+        when(timerRepository.recordFailure(eq("test.timer"), eq(target), eq("boom"), any(Instant.class), eq(10)))
+                .thenReturn(1);
+
+        dispatcher.fire("test.timer", target, Instant.now());
+
+        verify(timerQueue, never()).enqueue(any(), any(), any());
+        assertThat(meterRegistry.get("payment.timers.dead").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should double the retry delay per attempt up to the cap")
+    void shouldBackOffExponentially() {
+        assertThat(dispatcher.backoff(1)).isEqualTo(Duration.ofSeconds(5));
+        assertThat(dispatcher.backoff(4)).isEqualTo(Duration.ofSeconds(40));
+        assertThat(dispatcher.backoff(10)).isEqualTo(Duration.ofMinutes(5));
+        assertThat(dispatcher.backoff(100)).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("should commit the claim before running a handler that opts out of the claim transaction")
+    void shouldRunRemoteHandlersAfterClaimCommits() {
+        UUID target = UUID.randomUUID();
+        List<String> calls = new ArrayList<>();
+        TimerHandler remote = new TimerHandler() {
+            @Override
+            public String timerType() {
+                return "remote.timer";
+            }
+
+            @Override
+            public void onTimeout(UUID targetId) {
+                calls.add("handler");
+            }
+
+            @Override
+            public boolean inClaimTransaction() {
+                return false;
+            }
+        };
+        dispatcher = new TimerDispatcher(timerQueue, timerRepository,
+                new TransactionTemplate(transactionManager), List.of(remote), meterRegistry);
+        when(timerRepository.claim(eq("remote.timer"), eq(target), any(Instant.class))).thenReturn(1);
+        doAnswer(inv -> calls.add("commit")).when(transactionManager).commit(any());
+
+        dispatcher.fire("remote.timer", target, Instant.now());
+
+        assertThat(calls).containsExactly("commit", "handler");
+    }
+
+    @Test
+    @DisplayName("should keep polling quietly when Redis is unavailable")
+    void shouldTolerateRedisOutage() {
+        when(timerQueue.popDue(any(Instant.class), anyInt())).thenThrow(new IllegalStateException("redis down"));
+
+        assertThatCode(() -> dispatcher.pollDue()).doesNotThrowAnyException();
+        verifyNoInteractions(timerRepository);
+    }
+}
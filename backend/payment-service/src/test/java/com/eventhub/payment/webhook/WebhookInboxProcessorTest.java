@@ -0,0 +1,132 @@
+package com.eventhub.payment.webhook;
+
+import com.eventhub.payment.entity.PaymentGateway;
+import com.eventhub.payment.entity.WebhookInboxEvent;
+import com.eventhub.payment.entity.WebhookInboxStatus;
+import com.eventhub.payment.repository.WebhookInboxRepository;
+import com.eventhub.payment.service.PaymentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookInboxProcessorTest {
+
+    @Mock private WebhookInboxRepository inboxRepository;
+    @Mock private PaymentService paymentService;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WebhookInboxProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        processor = new WebhookInboxProcessor(inboxRepository, paymentService,
+                new TransactionTemplate(transactionManager), new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(processor, "batchSize", 10);
+        ReflectionTestUtils.setField(processor, "maxBatchesPerPoll", 5);
+        ReflectionTestUtils.setField(processor, "maxAttempts", 3);
+        ReflectionTestUtils.setField(processor, "unmatchedWindowMinutes", 15L);
+    }
+
+    @Test
+    @DisplayName("should apply a claimed batch in arrival order and mark each event")
+    void shouldApplyBatchInOrder() {
+        WebhookInboxEvent pending = event(1L, "sess_1", "pending");
+        WebhookInboxEvent unknown = event(2L, "sess_2", "succeeded");
+        when(inboxRepository.claimBatch(10)).thenReturn(List.of(pending, unknown));
+        when(paymentService.handleWebhook("STRIPE", "sess_1", "txn_1", "pending", BigDecimal.TEN)).thenReturn(true);
+        when(paymentService.handleWebhook("STRIPE", "sess_2", "txn_2", "succeeded", BigDecimal.TEN)).thenReturn(false);
+
+        processor.drain();
+
+        InOrder inOrder = inOrder(paymentService);
+        inOrder.verify(paymentService).handleWebhook(eq("STRIPE"), eq("sess_1"), any(), any(), any());
+        inOrder.verify(paymentService).handleWebhook(eq("STRIPE"), eq("sess_2"), any(), any(), any());
+        assertThat(pending.getStatus()).isEqualTo(WebhookInboxStatus.PROCESSED);
+        assertThat(pending.getProcessedAt()).isNotNull();
+        verify(inboxRepository, times(1)).claimBatch(10);
+    }
+
+    @Test
+    @DisplayName("should keep an early event for an unknown session pending and re-check it later")
+    void shouldDeferUnmatchedEvent() {
+        WebhookInboxEvent early = event(1L, "sess_new", "succeeded");
+        when(inboxRepository.claimBatch(10)).thenReturn(List.of(early));
+        when(paymentService.handleWebhook(eq("STRIPE"), eq("sess_new"), any(), any(), any())).thenReturn(false);
+
+        processor.drain();
+
+        assertThat(early.getStatus()).isEqualTo(WebhookInboxStatus.PENDING);
+        assertThat(early.getProcessedAt()).isNull();
+        assertThat(early.getNextAttemptAt()).isAfter(Instant.now());
+        verify(inboxRepository).save(early);
+        assertThat(meterRegistry.get("payment.webhooks.processed").tag("outcome", "deferred")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should ignore an event whose session is still unknown after the window")
+    void shouldIgnoreUnmatchedEventAfterWindow() {
+        WebhookInboxEvent stale = event(1L, "sess_gone", "succeeded");
+        stale.setReceivedAt(Instant.now().minusSeconds(16 * 60));
+        when(inboxRepository.claimBatch(10)).thenReturn(List.of(stale));
+        when(paymentService.handleWebhook(eq("STRIPE"), eq("sess_gone"), any(), any(), any())).thenReturn(false);
+
+        processor.drain();
+
+        assertThat(stale.getStatus()).isEqualTo(WebhookInboxStatus.IGNORED);
+        assertThat(stale.getProcessedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("should isolate a failing event and record its attempt")
+    void shouldIsolateFailingEvent() {
+        WebhookInboxEvent good = event(1L, "sess_1", "succeeded");
+        WebhookInboxEvent bad = event(2L, "sess_2", "succeeded");
+        when(inboxRepository.claimBatch(10))
+                .thenReturn(List.of(good, bad))
+                .thenReturn(List.of(good, bad));
+        when(inboxRepository.claim(1L)).thenReturn(List.of(good));
+        when(inboxRepository.claim(2L)).thenReturn(List.of(bad));
+        when(paymentService.handleWebhook(eq("STRIPE"), eq("sess_1"), any(), any(), any())).thenReturn(true);
+        when(paymentService.handleWebhook(eq("STRIPE"), eq("sess_2"), any(), any(), any()))
+                .thenThrow(new IllegalStateException("deadlock detected"));
+
+        processor.drain();
+
+        assertThat(good.getStatus()).isEqualTo(WebhookInboxStatus.PROCESSED);
+        verify(inboxRepository).recordFailure(2L, "deadlock detected", 3);
+        verify(inboxRepository, never()).recordFailure(eq(1L), any(), anyInt());
+    }
+
+    private WebhookInboxEvent event(long id, String sessionId, String status) {
+        return WebhookInboxEvent.builder()
+                .id(id)
+                .gateway(PaymentGateway.STRIPE)
+                .eventId("evt_" + id)
+                .sessionId(sessionId)
+                .payload("{\"sessionId\":\"" + sessionId + "\",\"transactionId\":\"txn_" + id
+                        + "\",\"status\":\"" + status + "\",\"amount\":10}")
+                .receivedAt(Instant.now().minusSeconds(1))
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.eventhub.payment.webhook;
+
+import com.eventhub.payment.repository.WebhookInboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookInboxTest {
+
+    @Mock private WebhookInboxRepository inboxRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WebhookInbox inbox;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        inbox = new WebhookInbox(inboxRepository, new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("should append the raw event keyed by the gateway event id")
+    void shouldAppendRawEvent() {
+        String raw = "{\"id\":\"evt_1\",\"sessionId\":\"sess_1\",\"status\":\"succeeded\",\"amount\":10}";
+        when(inboxRepository.append("STRIPE", "evt_1", "sess_1", raw)).thenReturn(1);
+
+        assertThat(inbox.accept("stripe", raw, null)).isTrue();
+        assertThat(meterRegistry.get("payment.webhooks.received").tag("result", "accepted").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should acknowledge a redelivered event without storing it twice")
+    void shouldAbsorbRedelivery() {
+        String raw = "{\"id\":\"evt_1\",\"sessionId\":\"sess_1\",\"status\":\"succeeded\"}";
+        when(inboxRepository.append("STRIPE", "evt_1", "sess_1", raw)).thenReturn(0);
+
+        assertThat(inbox.accept("STRIPE", raw, null)).isFalse();
+        assertThat(meterRegistry.get("payment.webhooks.received").tag("result", "duplicate").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should prefer the event id header and fall back to a payload hash")
+    void shouldResolveEventId() {
+        String raw = "{\"sessionId\":\"sess_2\",\"status\":\"captured\"}";
+        when(inboxRepository.append(anyString(), anyString(), anyString(), anyString())).thenReturn(1);
+
+        inbox.accept("RAZORPAY", raw, "rzp_evt_9");
+        inbox.accept("RAZORPAY", raw, null);
+
+        verify(inboxRepository).append("RAZORPAY", "rzp_evt_9", "sess_2", raw);
+        verify(inboxRepository).append(eq("RAZORPAY"), startsWith("sha256:"), eq("sess_2"), eq(raw));
+    }
+
+    @Test
+    @DisplayName("should reject a body that is not a JSON object")
+    void shouldRejectInvalidPayload() {
+        assertThatThrownBy(() -> inbox.accept("STRIPE", "not json", null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(inboxRepository);
+    }
+}
@@ -56,10 +56,14 @@ public class RecommendationEngine {
         }
     }
 
+    /**
+     * Counts each paid booking once. {@code booking.requested} is published for the same booking
+     * earlier and is ignored, so abandoned checkouts do not raise an event's popularity.
+     */
     @KafkaListener(topics = "booking-events", groupId = "recommendation-service-group")
     public void handleBookingEvent(Map<String, Object> event) {
         String eventType = (String) event.get("eventType");
-        if ("booking.requested".equals(eventType) || "booking.confirmed".equals(eventType)) {
+        if ("booking.confirmed".equals(eventType)) {
             String eventId = (String) event.get("eventId");
             String userId = (String) event.get("userId");
 
@@ -20,6 +20,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * - seats.confirm  → Mark locked seats as BOOKED after successful payment
  * - seats.release  → Release locked seats back to AVAILABLE (compensation)
  * - seats.cancel   → Cancel booked seats back to AVAILABLE (refund/cancellation)
+ * - seats.hold     → Time-boxed hold of released seats for a waitlisted user
  *
  * Idempotency: Uses a processed-command set keyed by bookingId+commandType
  * to prevent duplicate processing on Kafka redelivery.
@@ -64,6 +65,7 @@ public class SeatCommandConsumer {
                 case "seats.confirm" -> handleConfirm(command, eventIdStr, userIdStr, bookingId);
                 case "seats.release" -> handleRelease(command, eventIdStr, userIdStr);
                 case "seats.cancel" -> handleCancel(command, eventIdStr, bookingId);
+                case "seats.hold" -> handleHold(command, eventIdStr, userIdStr, bookingId);
                 default -> log.warn("Unknown seat command type: {}", commandType);
             }
         } catch (Exception e) {
@@ -103,6 +105,28 @@ public class SeatCommandConsumer {
         seatInventoryService.cancelSeats(eventId, seatIds, bookingUuid);
     }
 
+    /**
+     * For holds, bookingId carries the waitlist entry the seats were offered to. The outcome
+     * goes back to the booking service as seat.held or seat.hold_failed.
+     */
+    private void handleHold(Map<String, Object> command, String eventIdStr, String userIdStr, String bookingId) {
+        UUID eventId = UUID.fromString(eventIdStr);
+        UUID userId = UUID.fromString(userIdStr);
+        UUID waitlistEntryId = UUID.fromString(bookingId);
+        List<UUID> seatIds = parseSeatIds(command);
+        int holdSeconds = Integer.parseInt(getString(command, "holdSeconds"));
+
+        log.info("Holding {} seats for waitlisted user {} on event {} ({}s)",
+                seatIds.size(), userIdStr, eventIdStr, holdSeconds);
+        try {
+            seatInventoryService.holdSeatsForWaitlist(eventId, seatIds, userId, holdSeconds, waitlistEntryId);
+        } catch (IllegalStateException e) {
+            // Seats were taken in the meantime; the booking service withdraws the offer
+            log.warn("Waitlist hold failed for user {} on event {}: {}", userIdStr, eventIdStr, e.getMessage());
+            seatInventoryService.reportWaitlistHoldFailed(eventId, seatIds, userId, waitlistEntryId, e.getMessage());
+        }
+    }
+
     @SuppressWarnings("unchecked")
     private List<UUID> parseSeatIds(Map<String, Object> command) {
         Object seatIdsObj = command.get("seatIds");
@@ -0,0 +1,119 @@
+package com.eventhub.seat.controller;
+
+import com.eventhub.seat.entity.Seat;
+import com.eventhub.seat.service.SeatInventoryService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Service-to-service endpoints called directly by other backend services.
+ * Not routed through the API gateway.
+ */
+@RestController
+@RequestMapping("/internal/v1/seats")
+@RequiredArgsConstructor
+public class InternalSeatController {
+
+    private final SeatInventoryService seatInventoryService;
+
+    /**
+     * Lock seats on behalf of the booking service's checkout and return the authoritative
+     * seat details needed to price the booking.
+     */
+    @PostMapping("/checkout-lock")
+    public ResponseEntity<CheckoutLockResponse> lockForCheckout(
+            @Valid @RequestBody CheckoutLockRequest request,
+            @RequestHeader("X-User-Id") String userId) {
+        SeatInventoryService.SeatLock lock = seatInventoryService.lockSeatsForCheckout(
+                request.getEventId(),
+                request.getSeatIds(),
+                UUID.fromString(userId)
+        );
+        return ResponseEntity.ok(new CheckoutLockResponse(
+                lock.lockId(),
+                lock.expiresAt(),
+                lock.seats().stream().map(LockedSeat::from).toList()
+        ));
+    }
+
+    /**
+     * Lock a block of seats for a bulk booking. Seats that are taken are reported back
+     * instead of failing the whole request.
+     */
+    @PostMapping("/bulk-lock")
+    public ResponseEntity<BulkLockResponse> lockBulk(
+            @Valid @RequestBody CheckoutLockRequest request,
+            @RequestHeader("X-User-Id") String userId) {
+        SeatInventoryService.BulkSeatLock lock = seatInventoryService.lockSeatsBulk(
+                request.getEventId(),
+                request.getSeatIds(),
+                UUID.fromString(userId)
+        );
+        return ResponseEntity.ok(new BulkLockResponse(
+                lock.lockId(),
+                lock.expiresAt(),
+                lock.seats().stream().map(LockedSeat::from).toList(),
+                lock.unavailableSeatIds()
+        ));
+    }
+
+    // ─────────────────────────────────────────────
+    // DTOs
+    // ─────────────────────────────────────────────
+
+    @Data
+    public static class CheckoutLockRequest {
+        @NotNull
+        private UUID eventId;
+        @NotEmpty
+        private List<UUID> seatIds;
+    }
+
+    public record CheckoutLockResponse(String lockId, Instant expiresAt, List<LockedSeat> seats) {}
+
+    public record BulkLockResponse(String lockId, Instant expiresAt, List<LockedSeat> seats,
+                                   List<UUID> unavailableSeatIds) {}
+
+    public record LockedSeat(UUID seatId, String sectionName, String rowLabel, int seatNumber,
+                             BigDecimal price, String currency) {
+        static LockedSeat from(Seat seat) {
+            return new LockedSeat(seat.getId(), seat.getSectionId(), seat.getRowLabel(),
+                    seat.getSeatNumber(), seat.getPrice(), seat.getCurrency());
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Exception handlers
+    // ─────────────────────────────────────────────
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Map<String, Object>> handleConflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                "status", 409,
+                "error", "Conflict",
+                "message", e.getMessage(),
+                "timestamp", Instant.now().toString()
+        ));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, Object>> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of(
+                "status", 400,
+                "message", e.getMessage(),
+                "timestamp", Instant.now().toString()
+        ));
+    }
+}
@@ -2,9 +2,14 @@ package com.eventhub.seat.repository;
 
 import com.eventhub.seat.entity.Seat;
 import com.eventhub.seat.entity.SeatStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -29,10 +34,14 @@ public interface SeatRepository extends JpaRepository<Seat, UUID> {
     @Query("SELECT COUNT(s) FROM Seat s WHERE s.eventId = :eventId AND s.status = :status")
     long countByEventIdAndStatus(@Param("eventId") UUID eventId, @Param("status") SeatStatus status);
 
-    @Modifying
-    @Query("UPDATE Seat s SET s.status = 'AVAILABLE', s.lockedBy = NULL, s.lockedAt = NULL, " +
-           "s.lockExpiresAt = NULL WHERE s.status = 'LOCKED' AND s.lockExpiresAt < :now")
-    int releaseExpiredLocks(@Param("now") Instant now);
+    /**
+     * Expired locks, row-locked for the caller's transaction. Rows another transaction is
+     * already working on are skipped rather than waited for; the next cleanup run takes them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT s FROM Seat s WHERE s.status = 'LOCKED' AND s.lockExpiresAt < :now")
+    List<Seat> findExpiredLocks(@Param("now") Instant now, Pageable pageable);
 
     @Modifying
     @Query("UPDATE Seat s SET s.status = 'AVAILABLE', s.lockedBy = NULL, s.lockedAt = NULL, " +
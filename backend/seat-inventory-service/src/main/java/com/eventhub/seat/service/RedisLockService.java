@@ -65,6 +65,33 @@ public class RedisLockService {
             return 'OK'
             """;
 
+    // Lua script for best-effort bulk locking (block reservations)
+    // Locks every seat that is free or already held by the user, skips the rest.
+    // Returns the 1-based positions (in KEYS) of the seats now held by the user.
+    private static final String LOCK_AVAILABLE_SCRIPT = """
+            local userId = ARGV[1]
+            local ttl = tonumber(ARGV[2])
+            local userLocksKey = ARGV[3]
+            local locked = {}
+
+            for i, seatKey in ipairs(KEYS) do
+                local existing = redis.call('GET', seatKey)
+                if existing == false or existing == userId then
+                    redis.call('SET', seatKey, userId, 'EX', ttl)
+                    redis.call('SADD', userLocksKey, seatKey)
+                    table.insert(locked, i)
+                end
+            end
+            if #locked > 0 then
+                redis.call('EXPIRE', userLocksKey, ttl)
+            end
+
+            return locked
+            """;
+
+    private static final DefaultRedisScript<List> LOCK_AVAILABLE =
+            new DefaultRedisScript<>(LOCK_AVAILABLE_SCRIPT, List.class);
+
     // Lua script for atomic multi-seat release
     private static final String RELEASE_SEATS_SCRIPT = """
             local userId = ARGV[1]
@@ -125,6 +152,37 @@ public class RedisLockService {
         }
     }
 
+    /**
+     * Lock as many of the given seats as are available, in chunks of {@code chunkSize} keys per
+     * Lua call so a 2,000-seat block never blocks Redis for long. Not subject to the per-user
+     * seat limit; callers must restrict who may use it.
+     *
+     * @return the seats now locked by the user, in request order
+     */
+    public List<UUID> lockAvailableSeats(UUID eventId, List<UUID> seatIds, UUID userId,
+                                         int ttlSeconds, int chunkSize) {
+        String userLocksKey = USER_LOCKS_PREFIX + eventId + ":" + userId;
+        List<UUID> locked = new ArrayList<>(seatIds.size());
+
+        for (int from = 0; from < seatIds.size(); from += chunkSize) {
+            List<UUID> chunk = seatIds.subList(from, Math.min(from + chunkSize, seatIds.size()));
+            List<String> keys = chunk.stream()
+                    .map(seatId -> SEAT_LOCK_PREFIX + eventId + ":" + seatId)
+                    .collect(Collectors.toList());
+
+            List<?> positions = redisTemplate.execute(LOCK_AVAILABLE, keys,
+                    userId.toString(), String.valueOf(ttlSeconds), userLocksKey);
+            if (positions != null) {
+                for (Object position : positions) {
+                    locked.add(chunk.get(((Number) position).intValue() - 1));
+                }
+            }
+        }
+
+        log.info("Bulk locked {}/{} seats: eventId={}, userId={}", locked.size(), seatIds.size(), eventId, userId);
+        return locked;
+    }
+
     /**
      * Atomically release seats locked by a user.
      */
@@ -6,10 +6,13 @@ import com.eventhub.seat.repository.SeatRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.util.*;
@@ -30,6 +33,15 @@ public class SeatInventoryService {
     @Value("${seat.lock.max-seats-per-user:10}")
     private int maxSeatsPerUser;
 
+    @Value("${seat.lock.bulk.max-seats:2000}")
+    private int bulkMaxSeats;
+
+    @Value("${seat.lock.bulk.chunk-size:250}")
+    private int bulkChunkSize;
+
+    @Value("${seat.lock.cleanup-batch-size:1000}")
+    private int cleanupBatchSize;
+
     // ─────────────────────────────────────────────
     // Seat Availability (cached via Redis)
     // ─────────────────────────────────────────────
@@ -80,9 +92,108 @@ public class SeatInventoryService {
 
     @Transactional
     public Map<String, Object> lockSeats(UUID eventId, List<UUID> seatIds, UUID userId) {
+        return acquireLocks(eventId, seatIds, userId, lockTtlSeconds, maxSeatsPerUser, false).toResponse();
+    }
+
+    /**
+     * Lock seats for the booking service's one-shot checkout and return the authoritative
+     * seat details (section, row, number, price) so the booking is priced server-side.
+     * Unlike the interactive lock, every requested seat must exist for the event.
+     */
+    @Transactional
+    public SeatLock lockSeatsForCheckout(UUID eventId, List<UUID> seatIds, UUID userId) {
+        return acquireLocks(eventId, seatIds, userId, lockTtlSeconds, maxSeatsPerUser, true);
+    }
+
+    /**
+     * Block reservation: lock whichever of the requested seats are still available and report
+     * the rest, so the booking service can decide whether a partial block is acceptable.
+     * Redis locks are taken in chunked Lua calls; DB rows are then updated in one batch.
+     */
+    @Transactional
+    public BulkSeatLock lockSeatsBulk(UUID eventId, List<UUID> seatIds, UUID userId) {
+        List<UUID> requested = seatIds.stream().distinct().toList();
+        if (requested.size() > bulkMaxSeats) {
+            throw new IllegalArgumentException("A block reservation is limited to " + bulkMaxSeats + " seats");
+        }
+
+        List<UUID> redisLocked = redisLockService.lockAvailableSeats(
+                eventId, requested, userId, lockTtlSeconds, bulkChunkSize);
+        if (redisLocked.isEmpty()) {
+            return new BulkSeatLock(null, null, List.of(), requested);
+        }
+
+        Instant now = Instant.now();
+        Instant expiresAt = now.plusSeconds(lockTtlSeconds);
+        List<Seat> lockedSeats = new ArrayList<>(redisLocked.size());
+        List<UUID> rejected = new ArrayList<>();
+
+        for (Seat seat : seatRepository.findByEventIdAndIdIn(eventId, redisLocked)) {
+            if (seat.getStatus() == SeatStatus.AVAILABLE || seat.isLockExpired()
+                    || (seat.getStatus() == SeatStatus.LOCKED && userId.equals(seat.getLockedBy()))) {
+                seat.setStatus(SeatStatus.LOCKED);
+                seat.setLockedBy(userId);
+                seat.setLockedAt(now);
+                seat.setLockExpiresAt(expiresAt);
+                lockedSeats.add(seat);
+            } else {
+                rejected.add(seat.getId());
+            }
+        }
+        seatRepository.saveAll(lockedSeats);
+
+        // Redis-locked seats that are booked in the DB or do not exist go back
+        Set<UUID> lockedIds = lockedSeats.stream().map(Seat::getId).collect(Collectors.toSet());
+        List<UUID> toRelease = redisLocked.stream().filter(id -> !lockedIds.contains(id)).toList();
+        if (!toRelease.isEmpty()) {
+            redisLockService.releaseSeats(eventId, toRelease, userId);
+        }
+
+        List<UUID> unavailable = requested.stream().filter(id -> !lockedIds.contains(id)).toList();
+        List<UUID> locked = lockedSeats.stream().map(Seat::getId).toList();
+        if (!locked.isEmpty()) {
+            publishSeatEvent("seat.locked", eventId, locked, userId);
+        }
+
+        log.info("Bulk locked {} of {} seats for user {} on event {} ({} unavailable)",
+                locked.size(), requested.size(), userId, eventId, unavailable.size());
+        return new BulkSeatLock(UUID.randomUUID().toString(), expiresAt, lockedSeats, unavailable);
+    }
+
+    /**
+     * Time-boxed hold of specific seats on behalf of a waitlisted user, requested by the
+     * booking service when released seats are offered. Behaves like a regular lock owned by
+     * that user, so the user's own checkout can take it over, but the hold is not subject to
+     * the per-user interactive seat limit. Once the hold commits, a {@code seat.held} event
+     * tells the booking service the offer can be announced to the user.
+     */
+    @Transactional
+    public Map<String, Object> holdSeatsForWaitlist(UUID eventId, List<UUID> seatIds, UUID userId, int holdSeconds,
+                                                    UUID waitlistEntryId) {
+        SeatLock lock = acquireLocks(eventId, seatIds, userId, holdSeconds,
+                Math.max(maxSeatsPerUser, seatIds.size()), false);
+        afterCommit(() -> publishSeatEvent("seat.held", eventId, seatIds, userId, Map.of(
+                "waitlistEntryId", waitlistEntryId.toString(),
+                "expiresAt", lock.expiresAt().toString())));
+        return lock.toResponse();
+    }
+
+    /**
+     * Tell the booking service a waitlist hold could not be placed, so the offer is withdrawn
+     * and the user goes back to their place in the queue.
+     */
+    public void reportWaitlistHoldFailed(UUID eventId, List<UUID> seatIds, UUID userId, UUID waitlistEntryId,
+                                         String reason) {
+        publishSeatEvent("seat.hold_failed", eventId, seatIds, userId, Map.of(
+                "waitlistEntryId", waitlistEntryId.toString(),
+                "reason", reason != null ? reason : ""));
+    }
+
+    private SeatLock acquireLocks(UUID eventId, List<UUID> seatIds, UUID userId,
+                                  int ttlSeconds, int maxSeats, boolean requireAll) {
         // 1. Acquire distributed lock in Redis (atomic, Lua-based)
         RedisLockService.LockResult lockResult = redisLockService.lockSeats(
-                eventId, seatIds, userId, lockTtlSeconds, maxSeatsPerUser
+                eventId, seatIds, userId, ttlSeconds, maxSeats
         );
 
         if (!lockResult.success()) {
@@ -91,8 +202,12 @@ public class SeatInventoryService {
 
         // 2. Update DB state (optimistic locking via @Version)
         List<Seat> seats = seatRepository.findByEventIdAndIdIn(eventId, seatIds);
+        if (requireAll && seats.size() != new HashSet<>(seatIds).size()) {
+            redisLockService.releaseSeats(eventId, seatIds, userId);
+            throw new IllegalArgumentException("One or more seats do not exist for event " + eventId);
+        }
         Instant now = Instant.now();
-        Instant expiresAt = now.plusSeconds(lockTtlSeconds);
+        Instant expiresAt = now.plusSeconds(ttlSeconds);
 
         for (Seat seat : seats) {
             if (seat.getStatus() == SeatStatus.AVAILABLE || seat.isLockExpired()) {
@@ -117,11 +232,7 @@ public class SeatInventoryService {
         log.info("Locked {} seats for user {} on event {}, expires at {}",
                 seatIds.size(), userId, eventId, expiresAt);
 
-        return Map.of(
-                "lockId", lockResult.lockId(),
-                "seatIds", seatIds.stream().map(UUID::toString).toList(),
-                "expiresAt", expiresAt.toString()
-        );
+        return new SeatLock(lockResult.lockId(), seatIds, expiresAt, seats);
     }
 
     // ─────────────────────────────────────────────
@@ -130,14 +241,19 @@ public class SeatInventoryService {
 
     @Transactional
     public void releaseSeats(UUID eventId, List<UUID> seatIds, UUID userId) {
+        // Only seats this user still holds are released and announced
+        List<Seat> released = seatRepository.findByEventIdAndIdIn(eventId, seatIds).stream()
+                .filter(seat -> seat.getStatus() == SeatStatus.LOCKED && userId.equals(seat.getLockedBy()))
+                .toList();
+
         // Release from Redis
         redisLockService.releaseSeats(eventId, seatIds, userId);
 
         // Release from DB
         seatRepository.releaseLocksByUser(seatIds, userId);
 
-        publishSeatEvent("seat.released", eventId, seatIds, userId);
-        log.info("Released {} seats for user {} on event {}", seatIds.size(), userId, eventId);
+        publishReleased(eventId, released, userId);
+        log.info("Released {} seats for user {} on event {}", released.size(), userId, eventId);
     }
 
     // ─────────────────────────────────────────────
@@ -175,6 +291,9 @@ public class SeatInventoryService {
     @Transactional
     public void cancelSeats(UUID eventId, List<UUID> seatIds, UUID bookingId) {
         List<Seat> seats = seatRepository.findByEventIdAndIdIn(eventId, seatIds);
+        List<Seat> released = seats.stream()
+                .filter(seat -> seat.getStatus() != SeatStatus.AVAILABLE)
+                .toList();
 
         for (Seat seat : seats) {
             seat.setStatus(SeatStatus.AVAILABLE);
@@ -186,6 +305,7 @@ public class SeatInventoryService {
         }
         seatRepository.saveAll(seats);
 
+        publishReleased(eventId, released, null);
         log.info("Cancelled {} seats for booking {} on event {}", seatIds.size(), bookingId, eventId);
     }
 
@@ -193,30 +313,95 @@ public class SeatInventoryService {
     // Scheduled: Expire stale locks
     // ─────────────────────────────────────────────
 
+    /**
+     * Return expired locks to AVAILABLE and announce them per event, so lapsed checkouts and
+     * unclaimed waitlist holds are offered to the next waiting users. At most
+     * {@code cleanupBatchSize} seats are released per run; the rest follow on the next run.
+     */
     @Scheduled(fixedDelayString = "${seat.lock.cleanup-interval-ms:60000}")
     @Transactional
     public void cleanupExpiredLocks() {
-        int released = seatRepository.releaseExpiredLocks(Instant.now());
-        if (released > 0) {
-            log.info("Cleaned up {} expired seat locks", released);
+        List<Seat> expired = seatRepository.findExpiredLocks(Instant.now(), PageRequest.of(0, cleanupBatchSize));
+        if (expired.isEmpty()) {
+            return;
         }
+
+        for (Seat seat : expired) {
+            seat.setStatus(SeatStatus.AVAILABLE);
+            seat.setLockedBy(null);
+            seat.setLockedAt(null);
+            seat.setLockExpiresAt(null);
+        }
+        seatRepository.saveAll(expired);
+
+        expired.stream()
+                .collect(Collectors.groupingBy(Seat::getEventId, LinkedHashMap::new, Collectors.toList()))
+                .forEach((eventId, seats) -> publishReleased(eventId, seats, null));
+        log.info("Cleaned up {} expired seat locks", expired.size());
     }
 
     // ─────────────────────────────────────────────
     // Kafka publishing
     // ─────────────────────────────────────────────
 
+    /**
+     * seat.released carries each seat's section so the waitlist can honour section requests.
+     */
+    private void publishReleased(UUID eventId, List<Seat> seats, UUID userId) {
+        if (seats.isEmpty()) {
+            return;
+        }
+        Map<String, Object> sections = new LinkedHashMap<>();
+        seats.forEach(seat -> sections.put(seat.getId().toString(), seat.getSectionId()));
+        publishSeatEvent("seat.released", eventId, seats.stream().map(Seat::getId).toList(), userId,
+                Map.of("sections", sections));
+    }
+
     private void publishSeatEvent(String eventType, UUID eventId, List<UUID> seatIds, UUID userId) {
+        publishSeatEvent(eventType, eventId, seatIds, userId, Map.of());
+    }
+
+    private void publishSeatEvent(String eventType, UUID eventId, List<UUID> seatIds, UUID userId,
+                                  Map<String, Object> details) {
+        Map<String, Object> event = new HashMap<>(details);
+        event.put("eventType", eventType);
+        event.put("eventId", eventId.toString());
+        event.put("seatIds", seatIds.stream().map(UUID::toString).toList());
+        event.put("userId", userId != null ? userId.toString() : "");
+        event.put("timestamp", Instant.now().toString());
         try {
-            kafkaTemplate.send("seat-events", eventId.toString(), Map.of(
-                    "eventType", eventType,
-                    "eventId", eventId.toString(),
-                    "seatIds", seatIds.stream().map(UUID::toString).toList(),
-                    "userId", userId != null ? userId.toString() : "",
-                    "timestamp", Instant.now().toString()
-            ));
+            kafkaTemplate.send("seat-events", eventId.toString(), event);
         } catch (Exception e) {
             log.warn("Failed to publish seat event: {}", e.getMessage());
         }
     }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // ─────────────────────────────────────────────
+    // Result type
+    // ─────────────────────────────────────────────
+
+    public record BulkSeatLock(String lockId, Instant expiresAt, List<Seat> seats, List<UUID> unavailableSeatIds) {}
+
+    public record SeatLock(String lockId, List<UUID> seatIds, Instant expiresAt, List<Seat> seats) {
+        Map<String, Object> toResponse() {
+            return Map.of(
+                    "lockId", lockId,
+                    "seatIds", seatIds.stream().map(UUID::toString).toList(),
+                    "expiresAt", expiresAt.toString()
+            );
+        }
+    }
 }
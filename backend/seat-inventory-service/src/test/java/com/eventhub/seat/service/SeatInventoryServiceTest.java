@@ -9,9 +9,11 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatcher;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -53,6 +55,8 @@ class SeatInventoryServiceTest {
 
         ReflectionTestUtils.setField(service, "lockTtlSeconds", 600);
         ReflectionTestUtils.setField(service, "maxSeatsPerUser", 10);
+        ReflectionTestUtils.setField(service, "bulkMaxSeats", 2000);
+        ReflectionTestUtils.setField(service, "bulkChunkSize", 250);
 
         lenient().when(kafkaTemplate.send(anyString(), anyString(), any()))
                 .thenReturn(CompletableFuture.completedFuture(null));
@@ -151,6 +155,100 @@ class SeatInventoryServiceTest {
         }
     }
 
+    // ─────────────────────────────────────────────
+    // lockSeatsForCheckout
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("lockSeatsForCheckout")
+    class LockSeatsForCheckoutTests {
+
+        @Test
+        @DisplayName("should return authoritative seat details with the lock")
+        void shouldReturnSeatDetails() {
+            List<UUID> seatIds = List.of(seatId1);
+            when(redisLockService.lockSeats(eventId, seatIds, userId, 600, 10))
+                    .thenReturn(new RedisLockService.LockResult(true, "lock-789", null));
+            Seat seat = buildSeat(seatId1, SeatStatus.AVAILABLE);
+            when(seatRepository.findByEventIdAndIdIn(eventId, seatIds)).thenReturn(List.of(seat));
+            when(seatRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+            SeatInventoryService.SeatLock lock = service.lockSeatsForCheckout(eventId, seatIds, userId);
+
+            assertThat(lock.lockId()).isEqualTo("lock-789");
+            assertThat(lock.seats()).singleElement()
+                    .satisfies(s -> assertThat(s.getPrice()).isEqualByComparingTo("100"));
+            assertThat(seat.getStatus()).isEqualTo(SeatStatus.LOCKED);
+        }
+
+        @Test
+        @DisplayName("should reject unknown seats and release the Redis lock")
+        void shouldRejectUnknownSeats() {
+            List<UUID> seatIds = List.of(seatId1, seatId2);
+            when(redisLockService.lockSeats(eventId, seatIds, userId, 600, 10))
+                    .thenReturn(new RedisLockService.LockResult(true, "lock-790", null));
+            when(seatRepository.findByEventIdAndIdIn(eventId, seatIds))
+                    .thenReturn(List.of(buildSeat(seatId1, SeatStatus.AVAILABLE)));
+
+            assertThatThrownBy(() -> service.lockSeatsForCheckout(eventId, seatIds, userId))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verify(redisLockService).releaseSeats(eventId, seatIds, userId);
+            verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // lockSeatsBulk
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("lockSeatsBulk")
+    class LockSeatsBulkTests {
+
+        @Test
+        @DisplayName("should lock available seats and report the rest")
+        void shouldLockAvailableSeatsAndReportRest() {
+            UUID seatId3 = UUID.randomUUID();
+            List<UUID> seatIds = List.of(seatId1, seatId2, seatId3);
+            // seatId3 is held by someone else in Redis; seatId2 is already booked in the DB
+            when(redisLockService.lockAvailableSeats(eventId, seatIds, userId, 600, 250))
+                    .thenReturn(List.of(seatId1, seatId2));
+            when(seatRepository.findByEventIdAndIdIn(eventId, List.of(seatId1, seatId2)))
+                    .thenReturn(List.of(buildSeat(seatId1, SeatStatus.AVAILABLE), buildSeat(seatId2, SeatStatus.BOOKED)));
+
+            SeatInventoryService.BulkSeatLock lock = service.lockSeatsBulk(eventId, seatIds, userId);
+
+            assertThat(lock.lockId()).isNotNull();
+            assertThat(lock.seats()).extracting(Seat::getId).containsExactly(seatId1);
+            assertThat(lock.unavailableSeatIds()).containsExactly(seatId2, seatId3);
+            verify(redisLockService).releaseSeats(eventId, List.of(seatId2), userId);
+            verify(kafkaTemplate).send(eq("seat-events"), anyString(), any(Map.class));
+        }
+
+        @Test
+        @DisplayName("should return an empty lock when nothing is available")
+        void shouldReturnEmptyLockWhenNothingAvailable() {
+            List<UUID> seatIds = List.of(seatId1);
+            when(redisLockService.lockAvailableSeats(eventId, seatIds, userId, 600, 250)).thenReturn(List.of());
+
+            SeatInventoryService.BulkSeatLock lock = service.lockSeatsBulk(eventId, seatIds, userId);
+
+            assertThat(lock.seats()).isEmpty();
+            assertThat(lock.unavailableSeatIds()).containsExactly(seatId1);
+            verifyNoInteractions(seatRepository, kafkaTemplate);
+        }
+
+        @Test
+        @DisplayName("should reject blocks above the configured maximum")
+        void shouldRejectOversizedBlock() {
+            ReflectionTestUtils.setField(service, "bulkMaxSeats", 1);
+
+            assertThatThrownBy(() -> service.lockSeatsBulk(eventId, List.of(seatId1, seatId2), userId))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verifyNoInteractions(redisLockService);
+        }
+    }
+
     // ─────────────────────────────────────────────
     // confirmSeats
     // ─────────────────────────────────────────────
@@ -216,6 +314,50 @@ class SeatInventoryServiceTest {
             assertThat(seat.getStatus()).isEqualTo(SeatStatus.AVAILABLE);
             assertThat(seat.getBookedBy()).isNull();
             assertThat(seat.getBookingId()).isNull();
+            verify(kafkaTemplate).send(eq("seat-events"), eq(eventId.toString()),
+                    argThat(released(eventId, Map.of(seatId1.toString(), "VIP"))));
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // holdSeatsForWaitlist
+    // ─────────────────────────────────────────────
+
+    @Nested
+    @DisplayName("holdSeatsForWaitlist")
+    class HoldTests {
+
+        @Test
+        @DisplayName("should announce the hold with the waitlist entry it was placed for")
+        void shouldPublishHeld() {
+            UUID entryId = UUID.randomUUID();
+            List<UUID> seatIds = List.of(seatId1);
+            when(redisLockService.lockSeats(eventId, seatIds, userId, 900, 10))
+                    .thenReturn(new RedisLockService.LockResult(true, "lock-1", null));
+            when(seatRepository.findByEventIdAndIdIn(eventId, seatIds))
+                    .thenReturn(List.of(buildSeat(seatId1, SeatStatus.AVAILABLE)));
+
+            service.holdSeatsForWaitlist(eventId, seatIds, userId, 900, entryId);
+
+            verify(kafkaTemplate).send(eq("seat-events"), eq(eventId.toString()), argThat(event -> {
+                Map<?, ?> payload = (Map<?, ?>) event;
+                return "seat.held".equals(payload.get("eventType"))
+                        && entryId.toString().equals(payload.get("waitlistEntryId"));
+            }));
+        }
+
+        @Test
+        @DisplayName("should report a failed hold with the waitlist entry it was meant for")
+        void shouldPublishHoldFailed() {
+            UUID entryId = UUID.randomUUID();
+
+            service.reportWaitlistHoldFailed(eventId, List.of(seatId1), userId, entryId, "Seat taken");
+
+            verify(kafkaTemplate).send(eq("seat-events"), eq(eventId.toString()), argThat(event -> {
+                Map<?, ?> payload = (Map<?, ?>) event;
+                return "seat.hold_failed".equals(payload.get("eventType"))
+                        && entryId.toString().equals(payload.get("waitlistEntryId"));
+            }));
         }
     }
 
@@ -228,13 +370,42 @@ class SeatInventoryServiceTest {
     class CleanupTests {
 
         @Test
-        @DisplayName("should call repository to release expired locks")
+        @DisplayName("should release expired locks and announce them per event")
         void shouldCleanupExpired() {
-            when(seatRepository.releaseExpiredLocks(any(Instant.class))).thenReturn(3);
+            ReflectionTestUtils.setField(service, "cleanupBatchSize", 1000);
+            Seat expired = buildSeat(seatId1, SeatStatus.LOCKED);
+            expired.setLockedBy(userId);
+            expired.setLockExpiresAt(Instant.now().minusSeconds(5));
+            when(seatRepository.findExpiredLocks(any(Instant.class), eq(PageRequest.of(0, 1000))))
+                    .thenReturn(List.of(expired));
 
             service.cleanupExpiredLocks();
 
-            verify(seatRepository).releaseExpiredLocks(any(Instant.class));
+            assertThat(expired.getStatus()).isEqualTo(SeatStatus.AVAILABLE);
+            assertThat(expired.getLockedBy()).isNull();
+            verify(seatRepository).saveAll(List.of(expired));
+            verify(kafkaTemplate).send(eq("seat-events"), eq(eventId.toString()),
+                    argThat(released(eventId, Map.of(seatId1.toString(), "VIP"))));
         }
+
+        @Test
+        @DisplayName("should publish nothing when no lock has expired")
+        void shouldSkipWhenNothingExpired() {
+            ReflectionTestUtils.setField(service, "cleanupBatchSize", 1000);
+            when(seatRepository.findExpiredLocks(any(Instant.class), any())).thenReturn(List.of());
+
+            service.cleanupExpiredLocks();
+
+            verifyNoInteractions(kafkaTemplate);
+        }
+    }
+
+    private ArgumentMatcher<Object> released(UUID eventId, Map<String, String> sections) {
+        return event -> {
+            Map<?, ?> payload = (Map<?, ?>) event;
+            return "seat.released".equals(payload.get("eventType"))
+                    && eventId.toString().equals(payload.get("eventId"))
+                    && sections.equals(payload.get("sections"));
+        };
     }
 }
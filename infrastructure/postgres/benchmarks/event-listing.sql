@@ -0,0 +1,88 @@
+-- Event listing at page 500 (12 per page) over 1M events: OFFSET vs keyset on (start_date, id).
+--
+-- Run against a scratch database migrated by event-service (Flyway V1..V4), e.g.
+--   createdb event_bench && <start event-service against it once> &&
+--   psql -d event_bench -f infrastructure/postgres/benchmarks/event-listing.sql
+--
+-- Seeds inside a transaction that is rolled back, so it can be rerun. Compare the
+-- "Execution Time" lines: the OFFSET plans read and discard ~6000 rows (and the full rows
+-- were then followed by one tags query per event), the keyset plans read 13 index entries
+-- from idx_events_status_start_date / idx_events_status_category_start_date.
+--
+-- NOT RUN: no PostgreSQL was available when this was written, so there are no measured timings
+-- or plans for it, and the keyset listing change has no benchmark evidence yet. The row counts
+-- above are what the plans are expected to show, not observations. Paste the Execution Time
+-- lines here once it has been run on representative hardware.
+
+\timing on
+BEGIN;
+
+INSERT INTO events (title, description, category, status, start_date, end_date, organizer_id,
+                    total_seats, available_seats)
+SELECT 'Event ' || i,
+       'Evening of ' || md5(i::text),
+       (ARRAY['CONCERT', 'CONFERENCE', 'SPORTS', 'THEATER', 'MEETUP', 'WORKSHOP'])[1 + i % 6],
+       CASE WHEN i % 5 = 0 THEN 'DRAFT' ELSE 'PUBLISHED' END,
+       now() + (i % 365) * interval '1 day' + (i % 1440) * interval '1 minute',
+       now() + (i % 365) * interval '1 day' + (i % 1440) * interval '1 minute' + interval '3 hours',
+       gen_random_uuid(), 500, 250
+  FROM generate_series(1, 1000000) AS i;
+
+INSERT INTO event_tags (event_id, tag)
+SELECT id, tag FROM events, unnest(ARRAY['live', 'outdoor']) AS tag;
+
+ANALYZE events;
+ANALYZE event_tags;
+
+-- Before: OFFSET page 500, full rows (EventRepository.findByStatus with Sort.by(startDate))
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT e.* FROM events e
+ WHERE e.status = 'PUBLISHED'
+ ORDER BY e.start_date DESC
+ OFFSET 5988 LIMIT 12;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT e.* FROM events e
+ WHERE e.status = 'PUBLISHED' AND e.category = 'CONCERT'
+ ORDER BY e.start_date DESC
+ OFFSET 5988 LIMIT 12;
+
+-- Cursor a client holds after page 499: the last row of that page
+SELECT start_date AS cursor_start, id AS cursor_id FROM events
+ WHERE status = 'PUBLISHED'
+ ORDER BY start_date DESC, id DESC
+ OFFSET 5987 LIMIT 1 \gset
+
+-- After: keyset page 500 as card rows (EventRepository.findCardsByStatusBefore), plus one extra row
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT e.id, e.title, e.category, e.status, e.cover_image_url, e.start_date, v.id, v.name, v.city,
+       e.min_price, e.currency, e.available_seats
+  FROM events e LEFT JOIN venues v ON v.id = e.venue_id
+ WHERE e.status = 'PUBLISHED' AND (e.start_date, e.id) < (:'cursor_start', :'cursor_id')
+ ORDER BY e.start_date DESC, e.id DESC
+ LIMIT 13;
+
+SELECT start_date AS cursor_start, id AS cursor_id FROM events
+ WHERE status = 'PUBLISHED' AND category = 'CONCERT'
+ ORDER BY start_date DESC, id DESC
+ OFFSET 5987 LIMIT 1 \gset
+
+-- EventRepository.findCardsByStatusAndCategoryBefore
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT e.id, e.title, e.category, e.status, e.cover_image_url, e.start_date, v.id, v.name, v.city,
+       e.min_price, e.currency, e.available_seats
+  FROM events e LEFT JOIN venues v ON v.id = e.venue_id
+ WHERE e.status = 'PUBLISHED' AND e.category = 'CONCERT'
+   AND (e.start_date, e.id) < (:'cursor_start', :'cursor_id')
+ ORDER BY e.start_date DESC, e.id DESC
+ LIMIT 13;
+
+-- Tags for the whole page in one query (EventRepository.findTagsByEventIdIn)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT t.event_id, t.tag FROM event_tags t
+ WHERE t.event_id IN (SELECT id FROM events
+                       WHERE status = 'PUBLISHED' AND category = 'CONCERT'
+                         AND (start_date, id) < (:'cursor_start', :'cursor_id')
+                       ORDER BY start_date DESC, id DESC LIMIT 12);
+
+ROLLBACK;
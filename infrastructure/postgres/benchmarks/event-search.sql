@@ -0,0 +1,64 @@
+-- Event search at 1M events: previous LIKE scan vs idx_events_search vs the trigram fallback.
+--
+-- Run against a scratch database migrated by event-service (Flyway V1..V3), e.g.
+--   createdb event_bench && <start event-service against it once> &&
+--   psql -d event_bench -f infrastructure/postgres/benchmarks/event-search.sql
+--
+-- Seeds inside a transaction that is rolled back, so it can be rerun. Compare the
+-- "Execution Time" lines and check the plans use Bitmap Index Scans on
+-- idx_events_search / idx_events_title_trgm rather than a Seq Scan on events.
+--
+-- NOT RUN: no PostgreSQL was available when this was written, so there are no measured timings
+-- or plans for it, and the search change has no benchmark evidence yet. Paste the Execution Time
+-- lines here once it has been run on representative hardware.
+
+\timing on
+BEGIN;
+
+INSERT INTO events (title, description, category, status, start_date, end_date, organizer_id,
+                    total_seats, available_seats)
+SELECT (ARRAY['Jazz', 'Rock', 'Indie', 'Techno', 'Opera', 'Comedy', 'Startup', 'Data', 'Cloud', 'Design'])[1 + i % 10]
+           || ' ' || (ARRAY['Night', 'Festival', 'Summit', 'Meetup', 'Workshop', 'Live', 'Session'])[1 + i % 7]
+           || ' ' || i,
+       'Evening of ' || md5(i::text) || ' with guests from ' || (ARRAY['Berlin', 'Lisbon', 'Austin', 'Osaka'])[1 + i % 4],
+       (ARRAY['CONCERT', 'CONFERENCE', 'SPORTS', 'THEATER', 'MEETUP', 'WORKSHOP'])[1 + i % 6],
+       CASE WHEN i % 5 = 0 THEN 'DRAFT' ELSE 'PUBLISHED' END,
+       now() + (i % 365) * interval '1 day',
+       now() + (i % 365) * interval '1 day' + interval '3 hours',
+       gen_random_uuid(), 500, 250
+  FROM generate_series(1, 1000000) AS i;
+
+ANALYZE events;
+
+-- Before: LIKE on both columns, the query searchEvents ran until V3
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT e.* FROM events e
+ WHERE e.status = 'PUBLISHED'
+   AND (LOWER(e.title) LIKE '%jazz festival%' OR LOWER(e.description) LIKE '%jazz festival%')
+ ORDER BY e.start_date DESC
+ LIMIT 20;
+
+-- After: full-text search through idx_events_search (EventRepository.searchEvents)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT e.* FROM events e
+ WHERE e.status = 'PUBLISHED'
+   AND to_tsvector('english', e.title || ' ' || COALESCE(e.description, ''))
+       @@ websearch_to_tsquery('english', 'jazz festival')
+ ORDER BY ts_rank_cd(to_tsvector('english', e.title || ' ' || COALESCE(e.description, '')),
+                     websearch_to_tsquery('english', 'jazz festival')) DESC, e.start_date DESC, e.id
+ LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT COUNT(*) FROM events e
+ WHERE e.status = 'PUBLISHED'
+   AND to_tsvector('english', e.title || ' ' || COALESCE(e.description, ''))
+       @@ websearch_to_tsquery('english', 'jazz festival');
+
+-- Fallback: misspelled term through idx_events_title_trgm (EventRepository.searchEventsBySimilarity)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT e.* FROM events e
+ WHERE e.status = 'PUBLISHED' AND 'jaz festivl' <% e.title
+ ORDER BY word_similarity('jaz festivl', e.title) DESC, e.start_date DESC, e.id
+ LIMIT 20;
+
+ROLLBACK;